@@ -59,7 +59,7 @@ public class PlacesActivity extends Activity {
 		Context context = App.getAppContext();
 
 		if (context == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG, "Unable to check location permission, App context is not available. Defaulting acquired permission level to unknown");
+			PlacesMonitorLog.warning("Unable to check location permission, App context is not available. Defaulting acquired permission level to unknown");
 			Places.setAuthorizationStatus(PlacesAuthorizationStatus.UNKNOWN);
 			return;
 		}
@@ -112,7 +112,7 @@ public class PlacesActivity extends Activity {
 		Context context = App.getAppContext();
 
 		if (context == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG, "Unable to check location permission, App context is not available");
+			PlacesMonitorLog.warning("Unable to check location permission, App context is not available");
 			return false;
 		}
 
@@ -141,7 +141,7 @@ public class PlacesActivity extends Activity {
 		Context context = App.getAppContext();
 
 		if (context == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG, "Unable to check location permission, App context is not available");
+			PlacesMonitorLog.warning("Unable to check location permission, App context is not available");
 			return false;
 		}
 
@@ -181,7 +181,7 @@ public class PlacesActivity extends Activity {
 		Context context = App.getAppContext();
 
 		if (context == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG, "Unable to request permission, App context is null");
+			PlacesMonitorLog.warning("Unable to request permission, App context is null");
 			return;
 		}
 
@@ -206,7 +206,7 @@ public class PlacesActivity extends Activity {
 		getWindow().addFlags(WindowManager.LayoutParams.FLAG_NOT_TOUCHABLE);
 
 		if (getIntent() == null || getIntent().getExtras() == null) {
-			Log.debug(PlacesMonitorConstants.LOG_TAG, "Cannot request permission. PlacesActivity Intent is null");
+			PlacesMonitorLog.debug("Cannot request permission. PlacesActivity Intent is null");
 		}
 
 		PlacesMonitorLocationPermission locationPermission = (PlacesMonitorLocationPermission) getIntent().getExtras().get(
@@ -223,7 +223,7 @@ public class PlacesActivity extends Activity {
 				ActivityCompat.requestPermissions(this, getPermissionArray(locationPermission),
 						PlacesMonitorConstants.MONITOR_LOCATION_PERMISSION_REQUEST_CODE);
 			} catch (ActivityNotFoundException exception) {
-				Log.warning(PlacesMonitorConstants.LOG_TAG, "Unable to find System Activity to handle request permission activity dialog. Hence Places Monitor cannot request for location permission.");
+				PlacesMonitorLog.warning("Unable to find System Activity to handle request permission activity dialog. Hence Places Monitor cannot request for location permission.");
 			}
 
 		}
@@ -347,8 +347,7 @@ public class PlacesActivity extends Activity {
 	 * which mean when the application was launched earlier and user had "denied" the permission in last launch WITHOUT checking "never show again".
 	 */
 	private void onShowRationale(PlacesMonitorLocationPermission locationPermission) {
-		Log.debug(PlacesMonitorConstants.LOG_TAG, "Permission not granted on the first attempt. PlacesMonitor extension " +
-				  "doesn't support showing rationale. Requesting permission again");
+		PlacesMonitorLog.debug("Permission not granted on the first attempt. PlacesMonitor extension doesn't support showing rationale. Requesting permission again");
 		ActivityCompat.requestPermissions(this,
 										  getPermissionArray(locationPermission),
 										  PlacesMonitorConstants.MONITOR_LOCATION_PERMISSION_REQUEST_CODE);
@@ -376,8 +375,7 @@ public class PlacesActivity extends Activity {
 	private static boolean hasLocationDialogEverPrompted() {
 		SharedPreferences sharedPreferences = PlacesMonitorUtil.getSharedPreferences();
 		if (sharedPreferences == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-					"Unable to save flag which determines if location dialog was prompted into persistence, sharedPreference is null");
+			PlacesMonitorLog.warning("Unable to save flag which determines if location dialog was prompted into persistence, sharedPreference is null");
 			return false;
 		}
 
@@ -387,16 +385,14 @@ public class PlacesActivity extends Activity {
 	private static void setLocationDialogEverPrompted (final boolean isPrompted) {
 		SharedPreferences sharedPreferences = PlacesMonitorUtil.getSharedPreferences();
 		if (sharedPreferences == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-					"Unable to save flag which determines if location dialog was prompted into persistence, sharedPreference is null");
+			PlacesMonitorLog.warning("Unable to save flag which determines if location dialog was prompted into persistence, sharedPreference is null");
 			return;
 		}
 
 		SharedPreferences.Editor editor = sharedPreferences.edit();
 
 		if (editor == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-					"Unable to save flag which determines if location dialog was prompted into persistence, shared preference editor is null");
+			PlacesMonitorLog.warning("Unable to save flag which determines if location dialog was prompted into persistence, shared preference editor is null");
 			return;
 		}
 
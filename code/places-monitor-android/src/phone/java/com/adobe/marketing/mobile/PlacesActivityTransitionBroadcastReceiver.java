@@ -0,0 +1,115 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesActivityTransitionBroadcastReceiver.java
+//
+
+package com.adobe.marketing.mobile;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+
+import com.google.android.gms.location.ActivityTransition;
+import com.google.android.gms.location.ActivityTransitionEvent;
+import com.google.android.gms.location.ActivityTransitionResult;
+
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Broadcast receiver for the activity transition updates.
+ * <p>
+ * Receives broadcast messages from the Android OS when the device starts a new activity, such as being still, walking
+ * or driving.
+ */
+public class PlacesActivityTransitionBroadcastReceiver extends BroadcastReceiver {
+	static final String ACTION_ACTIVITY_TRANSITION_UPDATE =
+		"com.adobe.marketing.mobile.PlacesActivityTransitionBroadcastReceiver.activityTransitions";
+
+	/**
+	 * This method is called when the {@link PlacesActivityTransitionBroadcastReceiver} is receiving an intent with
+	 * activity transitions.
+	 * <p>
+	 *  Dispatches an event with EventType {@link PlacesMonitorConstants.EventType#OS} and EventSource {@link PlacesMonitorConstants.EventSource#RESPONSE_CONTENT}
+	 *  with the activity the device has most recently entered. The earlier transitions of the same delivery are outdated.
+	 *  No action is taken if received intent is null.
+	 *  No action is taken if actionName of the intent is not equal to {@link #ACTION_ACTIVITY_TRANSITION_UPDATE}.
+	 *  No action is taken if the intent carries no activity transition entry.
+	 *
+	 * @param context 	the application's {@link Context}
+	 * @param intent 	the broadcasted activity transitions message wrapped in an intent
+	 */
+	@Override
+	public void onReceive(final Context context, final Intent intent) {
+		if (intent == null) {
+			PlacesMonitorLog.warning("PlacesActivityTransitionBroadcastReceiver : Cannot process the activity transition, the received intent is null.");
+			return;
+		}
+
+		if (!ACTION_ACTIVITY_TRANSITION_UPDATE.equals(intent.getAction())) {
+			PlacesMonitorLog.warning("PlacesActivityTransitionBroadcastReceiver : Unable to process the activity transition, invalid action type received");
+			return;
+		}
+
+		if (!ActivityTransitionResult.hasResult(intent)) {
+			PlacesMonitorLog.warning("PlacesActivityTransitionBroadcastReceiver : Unable to process the activity transition, the intent has no transition result");
+			return;
+		}
+
+		final ActivityTransitionResult result = ActivityTransitionResult.extractResult(intent);
+		final List<ActivityTransitionEvent> transitionEvents = result != null ? result.getTransitionEvents() : null;
+
+		if (transitionEvents == null) {
+			PlacesMonitorLog.warning("PlacesActivityTransitionBroadcastReceiver : Unable to process the activity transition, null transition events obtained");
+			return;
+		}
+
+		// the transition events are in chronological order, only the last entered activity is relevant
+		for (int i = transitionEvents.size() - 1; i >= 0; i--) {
+			final ActivityTransitionEvent transitionEvent = transitionEvents.get(i);
+
+			if (transitionEvent != null
+					&& transitionEvent.getTransitionType() == ActivityTransition.ACTIVITY_TRANSITION_ENTER) {
+				dispatchOSActivityTransitionEvent(transitionEvent.getActivityType());
+				return;
+			}
+		}
+
+		PlacesMonitorLog.debug("PlacesActivityTransitionBroadcastReceiver : No activity entered, ignoring the activity transitions");
+	}
+
+	/**
+	 * Creates and dispatches {@link PlacesMonitorConstants.EventType#OS} {@link PlacesMonitorConstants.EventSource#RESPONSE_CONTENT} event with
+	 * the entered activity type to the eventHub.
+	 *
+	 * @param activityType	the {@link com.google.android.gms.location.DetectedActivity} type the device has entered
+	 */
+	private void dispatchOSActivityTransitionEvent(final int activityType) {
+		HashMap<String, Object> eventData = new HashMap<>();
+		eventData.put(PlacesMonitorConstants.EventDataKey.OS_EVENT_TYPE,
+					  PlacesMonitorConstants.EventDataValue.OS_EVENT_TYPE_ACTIVITY_TRANSITION);
+		eventData.put(PlacesMonitorConstants.EventDataKey.ACTIVITY_TYPE, activityType);
+
+		Event event = new Event.Builder(PlacesMonitorConstants.EVENTNAME_OS_ACTIVITY_TRANSITION,
+										PlacesMonitorConstants.EventType.OS, PlacesMonitorConstants.EventSource.RESPONSE_CONTENT).
+		setEventData(eventData).build();
+
+		if (MobileCore.dispatchEvent(event, null)) {
+			PlacesMonitorLog.debug("PlacesActivityTransitionBroadcastReceiver : Successfully dispatched OS Response event with activity type %s",
+								   activityType);
+		} else {
+			PlacesMonitorLog.warning("PlacesActivityTransitionBroadcastReceiver : Unable to dispatch the OS Response event with activity type %s",
+									 activityType);
+		}
+	}
+}
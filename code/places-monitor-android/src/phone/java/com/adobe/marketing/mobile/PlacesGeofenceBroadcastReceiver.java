@@ -18,8 +18,10 @@ package com.adobe.marketing.mobile;
 import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
+import android.location.Location;
 
 import com.google.android.gms.location.Geofence;
+import com.google.android.gms.location.GeofenceStatusCodes;
 import com.google.android.gms.location.GeofencingEvent;
 
 import java.util.ArrayList;
@@ -39,7 +41,7 @@ public class PlacesGeofenceBroadcastReceiver extends BroadcastReceiver {
 	 * This method is called when the {@link PlacesGeofenceBroadcastReceiver} is receiving an intent with geofence event.
 	 * <p>
 	 *  Dispatches an event with EventType {@link PlacesMonitorConstants.EventType#OS} and EventSource {@link PlacesMonitorConstants.EventSource#RESPONSE_CONTENT}
-	 *  with the obtained geofence triggers.
+	 *  with the obtained geofence triggers, and the location that triggered them if the OS provides it.
 	 *  No action is taken if received intent is null.
 	 *  No action is taken if actionName of the intent is not equal to {@link #ACTION_GEOFENCE_UPDATE}.
 	 *  No action is taken if {@link GeofencingEvent} has error or if no geofences associated with the event.
@@ -50,38 +52,38 @@ public class PlacesGeofenceBroadcastReceiver extends BroadcastReceiver {
 	@Override
 	public void onReceive(Context context, Intent intent) {
 		if (intent == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"PlacesGeofenceBroadcastReceiver : Cannot process the geofence trigger, the received intent is null.");
+			PlacesMonitorLog.warning("PlacesGeofenceBroadcastReceiver : Cannot process the geofence trigger, the received intent is null.");
 			return;
 		}
 
 		final String action = intent.getAction();
 
 		if (!ACTION_GEOFENCE_UPDATE.equals(action)) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"PlacesGeofenceBroadcastReceiver : Unable to process the geofence trigger, invalid action type received");
+			PlacesMonitorLog.warning("PlacesGeofenceBroadcastReceiver : Unable to process the geofence trigger, invalid action type received");
 			return;
 		}
 
 		GeofencingEvent geofencingEvent = GeofencingEvent.fromIntent(intent);
 
 		if (geofencingEvent == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"PlacesGeofenceBroadcastReceiver : Unable to process the geofence trigger, GeofencingEvent is null");
+			PlacesMonitorLog.warning("PlacesGeofenceBroadcastReceiver : Unable to process the geofence trigger, GeofencingEvent is null");
 			return;
 		}
 
 		if (geofencingEvent.hasError()) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"PlacesGeofenceBroadcastReceiver : Cannot process the geofence trigger, Geofencing event has error. Ignoring region event.");
+			if (geofencingEvent.getErrorCode() == GeofenceStatusCodes.GEOFENCE_NOT_AVAILABLE) {
+				// the OS has removed all the registered geofences, let the extension know to register them again
+				dispatchOSGeofenceUnavailableEvent();
+			}
+
+			PlacesMonitorLog.warning("PlacesGeofenceBroadcastReceiver : Cannot process the geofence trigger, Geofencing event has error. Ignoring region event.");
 			return;
 		}
 
 		List<Geofence> obtainedGeofences = geofencingEvent.getTriggeringGeofences();
 
 		if (obtainedGeofences == null || obtainedGeofences.isEmpty()) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"PlacesGeofenceBroadcastReceiver : Cannot process the geofence trigger, null or empty geofence obtained from the geofence trigger");
+			PlacesMonitorLog.warning("PlacesGeofenceBroadcastReceiver : Cannot process the geofence trigger, null or empty geofence obtained from the geofence trigger");
 
 			return;
 		}
@@ -94,18 +96,39 @@ public class PlacesGeofenceBroadcastReceiver extends BroadcastReceiver {
 			geofenceIDs.add(geofence.getRequestId());
 		}
 
-		dispatchOSGeofenceTriggerEvent(geofenceIDs, geofencingEvent.getGeofenceTransition());
+		dispatchOSGeofenceTriggerEvent(geofenceIDs, geofencingEvent.getGeofenceTransition(),
+									   geofencingEvent.getTriggeringLocation());
 	}
 
 
+	/**
+	 * Creates and dispatches {@link PlacesMonitorConstants.EventType#OS} {@link PlacesMonitorConstants.EventSource#RESPONSE_CONTENT} event
+	 * notifying that the geofences registered with the OS are no longer available.
+	 */
+	private void dispatchOSGeofenceUnavailableEvent() {
+		HashMap<String, Object> eventData = new HashMap<>();
+		eventData.put(PlacesMonitorConstants.EventDataKey.OS_EVENT_TYPE,
+					  PlacesMonitorConstants.EventDataValue.OS_EVENT_TYPE_GEOFENCE_UNAVAILABLE);
+
+		Event event = new Event.Builder(PlacesMonitorConstants.EVENTNAME_OS_GEOFENCE_UNAVAILABLE,
+										PlacesMonitorConstants.EventType.OS, PlacesMonitorConstants.EventSource.RESPONSE_CONTENT).
+		setEventData(eventData).build();
+
+		if (!MobileCore.dispatchEvent(event, null)) {
+			PlacesMonitorLog.warning("PlacesGeofenceBroadcastReceiver : Unable to dispatch the OS Response event for unavailable geofences");
+		}
+	}
+
 	/**
 	 * Creates and dispatches {@link PlacesMonitorConstants.EventType#OS} {@link PlacesMonitorConstants.EventSource#RESPONSE_CONTENT} event with
 	 * obtained list of geofenceIDs and transitionType to the eventHub.
 	 *
 	 * @param geofenceIDs		A {@link List} of geofenceIDs
 	 * @param transitionType	An {@code int} representing the type of geofence transition
+	 * @param triggeringLocation the {@link Location} that triggered the transition, may be null
 	 */
-	private void dispatchOSGeofenceTriggerEvent(final List<String> geofenceIDs, final int transitionType) {
+	private void dispatchOSGeofenceTriggerEvent(final List<String> geofenceIDs, final int transitionType,
+			final Location triggeringLocation) {
 		// create eventData
 		HashMap<String, Object> eventData = new HashMap<>();
 
@@ -114,18 +137,26 @@ public class PlacesGeofenceBroadcastReceiver extends BroadcastReceiver {
 		eventData.put(PlacesMonitorConstants.EventDataKey.GEOFENCE_IDS, geofenceIDs);
 		eventData.put(PlacesMonitorConstants.EventDataKey.GEOFENCE_TRANSITION_TYPE, transitionType);
 
+		if (triggeringLocation != null) {
+			eventData.put(PlacesMonitorConstants.EventDataKey.LATITUDE, triggeringLocation.getLatitude());
+			eventData.put(PlacesMonitorConstants.EventDataKey.LONGITUDE, triggeringLocation.getLongitude());
+			eventData.put(PlacesMonitorConstants.EventDataKey.TIME, triggeringLocation.getTime());
+
+			if (triggeringLocation.hasAccuracy()) {
+				eventData.put(PlacesMonitorConstants.EventDataKey.ACCURACY, (double) triggeringLocation.getAccuracy());
+			}
+		}
+
 		// dispatch OS event
 		Event event = new Event.Builder(PlacesMonitorConstants.EVENTNAME_OS_GEOFENCE_TRIGGER,
 										PlacesMonitorConstants.EventType.OS, PlacesMonitorConstants.EventSource.RESPONSE_CONTENT).
 		setEventData(eventData).build();
 
 		if (MobileCore.dispatchEvent(event, null)) {
-			Log.debug(PlacesMonitorConstants.LOG_TAG,
-					  "PlacesGeofenceBroadcastReceiver : Successfully dispatched OS Response event with geofence transitions");
+			PlacesMonitorLog.debug("PlacesGeofenceBroadcastReceiver : Successfully dispatched OS Response event with geofence transitions");
 		} else {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						String.format("PlacesGeofenceBroadcastReceiver : Unable to dispatch the OS Response event with geofence transitions %s",
-									  event.getEventData()));
+			PlacesMonitorLog.warning("PlacesGeofenceBroadcastReceiver : Unable to dispatch the OS Response event with geofence transitions %s",
+									 event.getEventData());
 		}
 	}
 }
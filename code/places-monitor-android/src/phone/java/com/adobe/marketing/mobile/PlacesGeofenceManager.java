@@ -18,26 +18,31 @@ package com.adobe.marketing.mobile;
 import android.Manifest;
 import android.app.PendingIntent;
 import android.content.Context;
-import android.content.Intent;
 import android.content.SharedPreferences;
+import android.content.pm.PackageInfo;
 import android.content.pm.PackageManager;
+import android.os.SystemClock;
 import android.support.v4.app.ActivityCompat;
 
 import com.google.android.gms.location.Geofence;
 import com.google.android.gms.location.GeofencingClient;
 import com.google.android.gms.location.GeofencingRequest;
-import com.google.android.gms.location.LocationServices;
 import com.google.android.gms.tasks.OnFailureListener;
 import com.google.android.gms.tasks.OnSuccessListener;
 import com.google.android.gms.tasks.Task;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 
 /**
@@ -45,59 +50,192 @@ import java.util.Set;
  */
 class PlacesGeofenceManager {
 
-	private final double INCONSEQUENTIAL_LATITUDE = 0.0;
-	private final double INCONSEQUENTIAL_LONGITUDE =  0.0;
-	private final float INCONSEQUENTIAL_RADIUS = 100.0f;
 	private final String FINE_LOCATION = Manifest.permission.ACCESS_FINE_LOCATION;
-	private PendingIntent geofencePendingIntent;
-	private Set<String> userWithinGeofences;
-	private GeofencingClient geofencingClient;
+	private final String FENCE_SIGNATURE_SEPARATOR = ",";
+	private final String DWELL_SIGNATURE_MARKER = ";dwell=";
+	private PlacesMonitorIdentifierSet userWithinGeofences;
+	private final BitSet nearbyHandles = new BitSet();
+	private int[] nearbyPOIHandles = new int[PlacesMonitorConstants.NEARBY_GEOFENCES_COUNT];
+	private final List<String> exitedGeofenceIDs = new ArrayList<String>();
+	private final List<String> deferredGeofenceIDs = new ArrayList<String>();
+	private final Set<String> placesNearbyPOIIds = new HashSet<String>();
+	private final Set<String> locallyExitedGeofences = new HashSet<String>();
+	private final PlacesMonitorGeofenceJournal userWithinJournal = new PlacesMonitorGeofenceJournal();
+	private final PlacesMonitorPOITable nearbyPOITable = new PlacesMonitorPOITable();
+	private final PlacesMonitorRegionEventDispatcher regionEventDispatcher = new PlacesMonitorRegionEventDispatcher();
+	private ConcurrentMap<String, String> monitoringFences;
+	private final PlacesMonitorClients clients = PlacesMonitorClients.getInstance();
+	private int geofenceBudget;
+	private boolean refreshFenceEnabled;
+	private boolean isUserWithinChanged;
 
 	PlacesGeofenceManager() {
-		userWithinGeofences = new HashSet<String>();
+		userWithinGeofences = new PlacesMonitorIdentifierSet();
+		monitoringFences = new ConcurrentHashMap<String, String>();
+		geofenceBudget = PlacesMonitorConstants.NEARBY_GEOFENCES_COUNT;
+	}
+
+	/**
+	 * Sets the maximum number of geofences to be registered with the OS.
+	 * <p>
+	 * The budget is capped at {@link PlacesMonitorConstants#MAX_GEOFENCES_COUNT}, the number of geofences Android
+	 * allows per app.
+	 *
+	 * @param geofenceBudget the maximum number of geofences to be monitored
+	 * @see #selectPOIsWithinBudget(List, double, double)
+	 */
+	void setGeofenceBudget(final int geofenceBudget) {
+		this.geofenceBudget = Math.max(1, Math.min(geofenceBudget, PlacesMonitorConstants.MAX_GEOFENCES_COUNT));
+	}
+
+	/**
+	 * Enables or disables the registration of a refresh fence along with the nearByPOIs.
+	 * <p>
+	 * The refresh fence is a large geofence centered on the device location and enclosing the monitored POIs.
+	 * Its exit reports that the device has left the area of the monitored POIs, so that the nearbyPOIs can be refreshed
+	 * without continuous location updates.
+	 *
+	 * @param refreshFenceEnabled true to register the refresh fence on the next call to {@link #startMonitoringFences(List, double, double)}
+	 * @see #onGeofenceTriggerReceived(EventData)
+	 */
+	void setRefreshFenceEnabled(final boolean refreshFenceEnabled) {
+		this.refreshFenceEnabled = refreshFenceEnabled;
+	}
+
+	/**
+	 * Starts monitoring the given nearByPOIs, without knowledge of the device location.
+	 * <p>
+	 * If there are more POIs than the geofence budget allows, the POIs that are not ranked apart by their priority
+	 * keep the order of the Places response, which is sorted by distance.
+	 *
+	 * @param nearByPOIs 	A {@link List} of n nearBy {@link PlacesPOI} objects
+	 * @see #startMonitoringFences(List, double, double)
+	 */
+	void startMonitoringFences(final List<PlacesPOI> nearByPOIs) {
+		startMonitoringFences(nearByPOIs, Double.NaN, Double.NaN);
 	}
 
 	/**
 	 * Starts monitoring the entry/exit events around the given nearByPOIs by registering with the Geofences with the Android OS.
 	 * <p>
-	 * This method is called by {@link PlacesMonitorInternal} when new set of POIs are available for monitoring.
+	 * This method is called by {@link PlacesMonitorInternal} when the Places extension has returned a new set of POIs.
+	 * The POIs are recorded as the ones known to the Places extension, see {@link #startMonitoringOfflineFences(List, double, double)}.
 	 * No action will be performed if the {@link GeofencingClient} required for the monitoring the POIs is null.
+	 * Only the POIs selected by {@link #selectPOIsWithinBudget(List, double, double)} are registered with the OS,
+	 * along with the refresh fence if it is enabled.
 	 *
 	 * @param nearByPOIs 	A {@link List} of n nearBy {@link PlacesPOI} objects
-	 * @see #getGeofencingClient()
+	 * @param latitude 		the latitude of the device location the POIs were obtained for
+	 * @param longitude 	the longitude of the device location the POIs were obtained for
+	 * @see PlacesMonitorClients#getGeofencingClient()
 	 */
-	void startMonitoringFences(List<PlacesPOI> nearByPOIs) {
+	void startMonitoringFences(final List<PlacesPOI> nearByPOIs, final double latitude, final double longitude) {
+		placesNearbyPOIIds.clear();
+
+		if (nearByPOIs != null) {
+			for (int i = 0; i < nearByPOIs.size(); i++) {
+				placesNearbyPOIIds.add(nearByPOIs.get(i).getIdentifier());
+			}
+		}
+
+		monitorFences(nearByPOIs, latitude, longitude, null);
+	}
+
+	/**
+	 * Starts monitoring the given nearByPOIs read from the offline POI pack or the nearby POI cache, without a response
+	 * of the Places extension.
+	 * <p>
+	 * The Places extension ignores the region events of the POIs that are not part of its last nearby POIs response,
+	 * which a cached POI may not be after the Places extension has been queried elsewhere. The fences of all the POIs are registered and their exits are dispatched as usual, but the entry into a POI that
+	 * the Places extension does not know is neither recorded nor dispatched. It is deferred until the Places extension
+	 * returns the POI, the entry is then recorded by {@link #startMonitoringFences(List, double, double)}.
+	 *
+	 * @param nearByPOIs 	A {@link List} of n nearBy {@link PlacesPOI} objects
+	 * @param latitude 		the latitude of the device location the POIs were obtained for
+	 * @param longitude 	the longitude of the device location the POIs were obtained for
+	 * @return true if the entry into a POI has been deferred, in which case the Places extension has to be queried
+	 * for the location
+	 */
+	boolean startMonitoringOfflineFences(final List<PlacesPOI> nearByPOIs, final double latitude, final double longitude) {
+		deferredGeofenceIDs.clear();
+		monitorFences(nearByPOIs, latitude, longitude, deferredGeofenceIDs);
+
+		if (deferredGeofenceIDs.isEmpty()) {
+			return false;
+		}
+
+		PlacesMonitorLog.debug("Deferring the entry of %d POIs until the Places extension returns them",
+							   deferredGeofenceIDs.size());
+		return true;
+	}
+
+	/**
+	 * Registers the given nearByPOIs with the OS, and dispatches the entries and exits found against the device location.
+	 *
+	 * @param nearByPOIs 	A {@link List} of n nearBy {@link PlacesPOI} objects
+	 * @param latitude 		the latitude of the device location the POIs were obtained for
+	 * @param longitude 	the longitude of the device location the POIs were obtained for
+	 * @param deferredGeofenceIDs the {@link List} the deferred entries are added to, or null to record every entry
+	 */
+	private void monitorFences(List<PlacesPOI> nearByPOIs, final double latitude, final double longitude,
+							   final List<String> deferredGeofenceIDs) {
 		if (nearByPOIs == null || nearByPOIs.isEmpty()) {
-			Log.debug(PlacesMonitorConstants.LOG_TAG,
-					  "Places Extension responded with no regions around the current location to be monitored. Removing all the currently monitored geofence.");
+			PlacesMonitorLog.debug("Places Extension responded with no regions around the current location to be monitored. Removing all the currently monitored geofence.");
 			nearByPOIs = new ArrayList<PlacesPOI>();
 		}
 
-		GeofencingClient geofencingClient = getGeofencingClient();
+		GeofencingClient geofencingClient = clients.getGeofencingClient();
 
 		if (geofencingClient == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"Unable to start monitoring geofences, geofencingClient instance is null");
+			PlacesMonitorLog.warning("Unable to start monitoring geofences, geofencingClient instance is null");
 			return;
 		}
 
 
-		refreshNearByPOIS(nearByPOIs);
+		List<PlacesPOI> fencesToMonitor = selectPOIsWithinBudget(nearByPOIs, latitude, longitude);
 
-		// identify the newly entered regions and dispatch an entry event
-		List <PlacesPOI> newlyEnteredPois = findNewlyEnteredPOIs(nearByPOIs);
+		if (refreshFenceEnabled) {
+			PlacesPOI refreshFence = createRefreshFence(fencesToMonitor, latitude, longitude);
 
-		for (PlacesPOI poi : newlyEnteredPois) {
-			Geofence geofence = new Geofence.Builder()
-			.setRequestId(poi.getIdentifier())
-			.setTransitionTypes(Geofence.GEOFENCE_TRANSITION_ENTER | Geofence.GEOFENCE_TRANSITION_EXIT)
-			.setCircularRegion(poi.getLatitude(), poi.getLongitude(), poi.getRadius())
-			.setExpirationDuration(Geofence.NEVER_EXPIRE)
-			.build();
-			Places.processGeofence(geofence, Geofence.GEOFENCE_TRANSITION_ENTER);
+			if (refreshFence != null) {
+				fencesToMonitor = new ArrayList<PlacesPOI>(fencesToMonitor);
+				fencesToMonitor.add(refreshFence);
+			}
+		}
+
+		refreshNearByPOIS(fencesToMonitor);
+
+		// identify the newly entered and exited regions
+		exitedGeofenceIDs.clear();
+		List <PlacesPOI> newlyEnteredPois = findNewlyEnteredPOIs(nearByPOIs, latitude, longitude, exitedGeofenceIDs,
+											deferredGeofenceIDs);
+
+		// the OS never reports these exits, dispatch them before the entries
+		dispatchLocalExits(exitedGeofenceIDs);
+		nearbyPOITable.set(nearByPOIs);
+
+		if (!newlyEnteredPois.isEmpty()) {
+			final List<String> enteredGeofenceIDs = new ArrayList<String>(newlyEnteredPois.size());
+
+			for (int i = 0; i < newlyEnteredPois.size(); i++) {
+				enteredGeofenceIDs.add(newlyEnteredPois.get(i).getIdentifier());
+			}
+
+			regionEventDispatcher.dispatchRegionEvents(enteredGeofenceIDs, Geofence.GEOFENCE_TRANSITION_ENTER);
 		}
 	}
 
+	/**
+	 * Finds the newly entered nearByPOIs, relying on the user within flag of the POIs.
+	 *
+	 * @param nearbyPOIs a brand new {@link List} of nearByPOIs
+	 * @return A {@code List} of newly entered POI
+	 * @see #findNewlyEnteredPOIs(List, double, double, List)
+	 */
+	List <PlacesPOI> findNewlyEnteredPOIs(final List<PlacesPOI> nearbyPOIs) {
+		return findNewlyEnteredPOIs(nearbyPOIs, Double.NaN, Double.NaN, null);
+	}
+
 	/**
 	 * Compares the new set of nearByPOIs with the existing {@link #userWithinGeofences} and creates a list of
 	 * {@link PlacesPOI} whose entry has not been already recorded.
@@ -108,49 +246,107 @@ class PlacesGeofenceManager {
 	 *     <li> Remove's the pois from {@code #userWithinGeofences} which are not a part of nearbypois </li>
 	 *     <li> Check for the newEntryPOI comparing the inmemory {@code #userWithinGeofences} list </li>
 	 * </ul>
+	 * POIs with a loitering delay are skipped, their entry is recorded when the OS reports the {@link Geofence#GEOFENCE_TRANSITION_DWELL}.
+	 * <p>
+	 * The user is within a POI if the given location lies within its radius. If the location is not known, the user within
+	 * flag of the POI is used instead.
+	 * The POI identifiers are compared through their {@link PlacesMonitorIdentifierSet} handles, so this method does not
+	 * allocate unless a POI is newly entered, and only persists the {@code #userWithinGeofences} when they have changed.
+	 * <p>
+	 * The identifiers removed from the {@code #userWithinGeofences}, either because the POI is no longer nearby or because
+	 * the user is no longer within it, are collected in {@code exitedGeofenceIDs} so that their exit can be dispatched.
 	 *
 	 * @param nearbyPOIs a brand new {@link List} of nearByPOIs
+	 * @param latitude the latitude of the device location, or {@link Double#NaN} if unknown
+	 * @param longitude the longitude of the device location, or {@link Double#NaN} if unknown
+	 * @param exitedGeofenceIDs the {@link List} the exited geofenceIDs are added to, or null
 	 * @return A {@code List} of newly entered POI
 	 */
-	List <PlacesPOI> findNewlyEnteredPOIs(List<PlacesPOI> nearbyPOIs) {
-		// First, remove the userWithinGeofence poi that are not currently nearbypois
+	List <PlacesPOI> findNewlyEnteredPOIs(final List<PlacesPOI> nearbyPOIs, final double latitude,
+										  final double longitude, final List<String> exitedGeofenceIDs) {
+		return findNewlyEnteredPOIs(nearbyPOIs, latitude, longitude, exitedGeofenceIDs, null);
+	}
+
+	/**
+	 * Finds the newly entered nearByPOIs, deferring the entries into the POIs the Places extension does not know.
+	 *
+	 * @param nearbyPOIs a brand new {@link List} of nearByPOIs
+	 * @param latitude the latitude of the device location, or {@link Double#NaN} if unknown
+	 * @param longitude the longitude of the device location, or {@link Double#NaN} if unknown
+	 * @param exitedGeofenceIDs the {@link List} the exited geofenceIDs are added to, or null
+	 * @param deferredGeofenceIDs the {@link List} the geofenceIDs of the deferred entries are added to, or null to
+	 * record the entries into all the POIs
+	 * @return A {@code List} of newly entered POI
+	 * @see #findNewlyEnteredPOIs(List, double, double, List)
+	 */
+	private List <PlacesPOI> findNewlyEnteredPOIs(final List<PlacesPOI> nearbyPOIs, final double latitude,
+			final double longitude, final List<String> exitedGeofenceIDs, final List<String> deferredGeofenceIDs) {
+		final int poiCount = nearbyPOIs.size();
 
-		// convert list into a hashMap for convenience
-		Map<String, PlacesPOI> poisMap = new HashMap<String, PlacesPOI>();
+		// handles are stable until the next compaction, which only happens here
+		userWithinGeofences.compact();
+		nearbyHandles.clear();
 
-		for (PlacesPOI i : nearbyPOIs) {
-			poisMap.put(i.getIdentifier(), i);
+		if (nearbyPOIHandles.length < poiCount) {
+			nearbyPOIHandles = new int[poiCount];
 		}
 
-		// using iterator to remove the pois from userWithinGeofences which are not a part of nearbypois
-		for (Iterator<String> iterator = userWithinGeofences.iterator(); iterator.hasNext();) {
-			String eachID = iterator.next();
-
-			if (!poisMap.containsKey(eachID)) {
-				iterator.remove();
-			}
+		// First, remove the userWithinGeofence poi that are not currently nearbypois
+		for (int i = 0; i < poiCount; i++) {
+			nearbyPOIHandles[i] = userWithinGeofences.intern(nearbyPOIs.get(i).getIdentifier());
+			nearbyHandles.set(nearbyPOIHandles[i]);
 		}
 
+		boolean isChanged = userWithinGeofences.retainHandles(nearbyHandles, exitedGeofenceIDs);
 
 		// Second, check for the newEntryPOI comparing the inmemory userWithinGeofences list
-		List <PlacesPOI> newlyEnteredPois = new ArrayList<PlacesPOI>();
+		List <PlacesPOI> newlyEnteredPois = Collections.emptyList();
+
+		for (int i = 0; i < poiCount; i++) {
+			final PlacesPOI poi = nearbyPOIs.get(i);
+
+			// the entry of a poi with a loitering delay is only recorded once the OS confirms that the user dwells within it
+			if (PlacesMonitorPOITable.readLoiteringDelay(poi) > 0) {
+				continue;
+			}
 
-		for (PlacesPOI poi : nearbyPOIs) {
+			final int handle = nearbyPOIHandles[i];
+			final boolean isUserWithin = isUserWithin(poi, latitude, longitude);
 
 			// if the user is withIn the poi and we haven't recorded that yet, then add them to newlyEnteredPois list
-			if (poi.containsUser() && !userWithinGeofences.contains(poi.getIdentifier())) {
-				userWithinGeofences.add(poi.getIdentifier());
+			if (isUserWithin && !userWithinGeofences.containsHandle(handle)) {
+				// the Places extension would ignore the entry, it is recorded once the Places extension returns the poi
+				if (deferredGeofenceIDs != null && !placesNearbyPOIIds.contains(poi.getIdentifier())) {
+					deferredGeofenceIDs.add(poi.getIdentifier());
+					continue;
+				}
+
+				userWithinGeofences.addHandle(handle);
+
+				if (newlyEnteredPois.isEmpty()) {
+					newlyEnteredPois = new ArrayList<PlacesPOI>();
+				}
+
 				newlyEnteredPois.add(poi);
-				continue;
+				locallyExitedGeofences.remove(poi.getIdentifier());
+				isChanged = true;
 			}
 
 			// if the user is not within the poi and userWithinGeofences list contains the poi, remove it
-			if (!poi.containsUser() && userWithinGeofences.contains(poi.getIdentifier())) {
-				userWithinGeofences.remove(poi.getIdentifier());
+			else if (!isUserWithin && userWithinGeofences.containsHandle(handle)) {
+				userWithinGeofences.removeHandle(handle);
+				isChanged = true;
+
+				if (exitedGeofenceIDs != null) {
+					exitedGeofenceIDs.add(poi.getIdentifier());
+				}
 			}
 		}
 
-		saveUserWithinGeofences();
+		if (isChanged) {
+			saveUserWithinGeofences();
+		}
+
 		return newlyEnteredPois;
 	}
 
@@ -158,7 +354,7 @@ class PlacesGeofenceManager {
 	 * Stops monitoring for entry and exit event on nearby places of interest.
 	 *
 	 * Calling this method with YES for clearData will purge the {@link #userWithinGeofences} data in addition to stop monitoring
-	 * for further geofence events.
+	 * for further geofence events. The POIs known to the Places extension are forgotten as well, since its data is cleared.
 	 *
 	 * @param clearData a boolean indicating whether to clear the {@link #userWithinGeofences} from in-memory and persistence
 	 */
@@ -167,24 +363,95 @@ class PlacesGeofenceManager {
 			@Override
 			public void call(Void aVoid) {
 				// on successful unregistration of all the pois register the new nearbypois
-				Log.warning(PlacesMonitorConstants.LOG_TAG, "Successfully stopped monitoring all the fences");
+				PlacesMonitorLog.warning("Successfully stopped monitoring all the fences");
 			}
 		};
 		AdobeCallback<String> onFailiure = new AdobeCallback<String>() {
 			@Override
 			public void call(String message) {
-				Log.warning(PlacesMonitorConstants.LOG_TAG, "Unable to stop monitoring all the fences," + message);
+				PlacesMonitorLog.warning("Unable to stop monitoring all the fences,%s", message);
 			}
 		};
 
 		if (clearData) {
 			userWithinGeofences.clear();
+			locallyExitedGeofences.clear();
+			placesNearbyPOIIds.clear();
 			saveUserWithinGeofences();
 		}
 
+		// all the fences registered with the OS are removed, so the next refresh will register every nearbyPOI again
+		monitoringFences.clear();
+		nearbyPOITable.clear();
+		saveMonitoringFences();
+
 		unregisterPOIS(onSuccess, onFailiure);
 	}
 
+	/**
+	 * Forgets the fences that are recorded as registered with the OS.
+	 * <p>
+	 * This method is called when the OS reports that the geofences are no longer available (For example: when
+	 * the location services are turned off). Android removes all the registered fences in that case, hence the next
+	 * refresh has to register all of the nearbyPOIs again.
+	 */
+	void onGeofencesUnavailable() {
+		PlacesMonitorLog.debug("Geofences are no longer available with the OS, all the nearbyPOIs will be registered on next refresh");
+		monitoringFences.clear();
+		saveMonitoringFences();
+	}
+
+	/**
+	 * Selects the nearByPOIs to be registered with the OS, when there are more of them than the geofence budget allows.
+	 * <p>
+	 * The POIs are ranked by,
+	 * <ul>
+	 *     <li> Whether the entry into the POI is recorded in the {@link #userWithinGeofences}, so that the exit from
+	 *     the POI is always reported</li>
+	 *     <li> The priority hint in the POI metadata, higher priority first</li>
+	 *     <li> The distance from the device location to the edge of the POI, so that a large POI is selected over
+	 *     a smaller POI whose center is closer</li>
+	 * </ul>
+	 * The distance is not considered if the device location is not known, in which case the POIs keep their order.
+	 * One geofence of the budget is kept for the refresh fence, if enabled.
+	 *
+	 * @param nearByPOIs A {@link List} of {@link PlacesPOI} candidates
+	 * @param latitude the latitude of the device location, or {@link Double#NaN} if unknown
+	 * @param longitude the longitude of the device location, or {@link Double#NaN} if unknown
+	 * @return the {@code List} of {@code PlacesPOI} to be registered, at most {@link #geofenceBudget} of them
+	 */
+	List<PlacesPOI> selectPOIsWithinBudget(final List<PlacesPOI> nearByPOIs, final double latitude,
+										   final double longitude) {
+		final int poiBudget = refreshFenceEnabled ? Math.min(geofenceBudget,
+							  PlacesMonitorConstants.MAX_GEOFENCES_COUNT - 1) : geofenceBudget;
+
+		if (nearByPOIs.size() <= poiBudget) {
+			return nearByPOIs;
+		}
+
+		final boolean hasLocation = !Double.isNaN(latitude) && !Double.isNaN(longitude);
+		List<BudgetCandidate> candidates = new ArrayList<BudgetCandidate>(nearByPOIs.size());
+
+		for (PlacesPOI poi : nearByPOIs) {
+			final double edgeDistance = hasLocation ? PlacesMonitorUtil.distanceInMeters(latitude, longitude,
+										poi.getLatitude(), poi.getLongitude()) - poi.getRadius() : 0;
+			candidates.add(new BudgetCandidate(poi, userWithinGeofences.contains(poi.getIdentifier()), getPriority(poi),
+											   edgeDistance));
+		}
+
+		// the sort is stable, candidates with the same rank keep the order of the Places response
+		Collections.sort(candidates, BUDGET_CANDIDATE_COMPARATOR);
+
+		List<PlacesPOI> selectedPOIs = new ArrayList<PlacesPOI>(poiBudget);
+
+		for (int i = 0; i < poiBudget; i++) {
+			selectedPOIs.add(candidates.get(i).poi);
+		}
+
+		PlacesMonitorLog.debug("Selected %d out of %d nearby POIs to be monitored", poiBudget, nearByPOIs.size());
+		return selectedPOIs;
+	}
+
 	// ========================================================================================
 	// Internal Geofence Processor
 	// ========================================================================================
@@ -197,11 +464,18 @@ class PlacesGeofenceManager {
 	 * This method will be called when the OS event for Geofence transitions is received.
 	 * This method curates the list of geofence transitions received to prevent duplicate entry/exits and then
 	 * calls the {@link PlacesExtension} to process the obtained {@link Geofence} triggers.
+	 * A confirmed {@link Geofence#GEOFENCE_TRANSITION_DWELL} is processed as an entry by the Places extension.
+	 * The transitions of the refresh fence are never passed to the Places extension.
+	 * <p>
+	 * The geofences are curated and their region events dispatched in a single pass over the trigger, each geofence
+	 * being looked up once in the {@link PlacesMonitorPOITable} of the nearbyPOIs. The entries and exits recorded by
+	 * the trigger are then appended to the {@link PlacesMonitorGeofenceJournal}, so that they survive the process.
 	 *
 	 * @param eventData the {@link EventData} from the OS Event containing geofence transition information
-	 * @see Places#processGeofence(Geofence, int)
+	 * @return true if the device has exited the refresh fence and the nearbyPOIs need to be refreshed
+	 * @see PlacesMonitorRegionEventDispatcher#dispatchRegionEvent(String, String)
 	 */
-	void onGeofenceTriggerReceived(final EventData eventData) {
+	boolean onGeofenceTriggerReceived(final EventData eventData) {
 
 		List<String> geofenceIDs;
 		int transitionType;
@@ -211,36 +485,45 @@ class PlacesGeofenceManager {
 			geofenceIDs = eventData.getStringList(PlacesMonitorConstants.EventDataKey.GEOFENCE_IDS);
 			transitionType = eventData.getInteger(PlacesMonitorConstants.EventDataKey.GEOFENCE_TRANSITION_TYPE);
 		} catch (VariantException exp) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						String.format("Exception occurred while reading the geofenceIds from the OS event, ignoring the OS event. Exception message - ",
-									  exp.getMessage()));
-			return;
+			PlacesMonitorLog.warning("Exception occurred while reading the geofenceIds from the OS event, ignoring the OS event. Exception message - %s",
+									 exp.getMessage());
+			return false;
 		}
 
 		if (geofenceIDs == null || geofenceIDs.isEmpty()) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"No geofenceId's are obtained from OS geofence event. Ignoring the OS event.");
-			return;
+			PlacesMonitorLog.warning("No geofenceId's are obtained from OS geofence event. Ignoring the OS event.");
+			return false;
 		}
 
-		// curate the obtained geofence list
-		List<String> curatedGeofences  = getCuratedGeofencesList(geofenceIDs, transitionType);
+		// a dwell confirms the entry into the poi
+		final String regionEventType = PlacesMonitorRegionEventDispatcher.toRegionEventType(transitionType);
+		boolean hasExitedRefreshFence = false;
+		isUserWithinChanged = false;
+
+		for (int i = 0; i < geofenceIDs.size(); i++) {
+			final String geofenceID = geofenceIDs.get(i);
+
+			if (PlacesMonitorConstants.RefreshFence.IDENTIFIER.equals(geofenceID)) {
+				hasExitedRefreshFence = transitionType == Geofence.GEOFENCE_TRANSITION_EXIT;
+				continue;
+			}
+
+			final int poiIndex = nearbyPOITable.indexOf(geofenceID);
+
+			if (curate(geofenceID, poiIndex, transitionType) && regionEventType != null) {
+				regionEventDispatcher.dispatchRegionEvent(geofenceID, regionEventType);
+			}
+		}
+
+		if (isUserWithinChanged) {
+			saveUserWithinGeofences();
+		}
 
-		// dispatch a region event for the places list
-		for (String geofenceID : curatedGeofences) {
-			// Creating a geofence object.
-			// To successfully create a geofence object, setting of latitude, longitude, radius, transition type and expiry duration are required.
-			// Note : This geofence object is created with inconsequential latitude, longitude and radius.
-			// Places API method processGeofence only reads the geofenceId of the triggered fences. Other data elements are not used by the Places.processGeofence API.
-			// Moreover latitude, longitude and radius cannot be extracted from the geofence object. Unless its passed to android for monitoring.
-			Geofence geofence = new Geofence.Builder()
-			.setRequestId(geofenceID)
-			.setExpirationDuration(Geofence.NEVER_EXPIRE)
-			.setTransitionTypes(transitionType)
-			.setCircularRegion(INCONSEQUENTIAL_LATITUDE, INCONSEQUENTIAL_LONGITUDE, INCONSEQUENTIAL_RADIUS)
-			.build();
-			Places.processGeofence(geofence, transitionType);
+		if (regionEventType == null) {
+			PlacesMonitorLog.warning("Unknown geofence transition type %s, ignoring the region events", transitionType);
 		}
+
+		return hasExitedRefreshFence;
 	}
 
 	// ================================================================================================================================
@@ -251,7 +534,14 @@ class PlacesGeofenceManager {
 	 * Compares with the existing in-memory {@code #userWithinGeofences} list, ignores the duplicate entry event,
 	 * updates the in-memory {@code #userWithinGeofences} variable with the obtained geofences and finally returns the curated list
 	 * of GeofenceIDs that needs to be processed.
-	 *
+	 * <p>
+	 * For the fences registered with a loitering delay,
+	 * <ul>
+	 *     <li> The entry is ignored, the user is only recorded within the fence when the dwell is confirmed</li>
+	 *     <li> The exit is ignored if the dwell was never confirmed, dropping the drive-by entry/exit pairs</li>
+	 * </ul>
+	 * The exit of a fence is also ignored if it was already dispatched by {@link #dispatchLocalExits(List)}.
+	 * The {@code #userWithinGeofences} are saved if the transitions have changed them.
 	 *
 	 * @param obtainedGeofenceIds A {@link List} of {@code String} representing geofenceIDs obtained from the OS event
 	 * @param transitionType {@code int} representing the transition type of the provided list of geofences
@@ -260,33 +550,93 @@ class PlacesGeofenceManager {
 	 */
 	List<String> getCuratedGeofencesList(final List<String> obtainedGeofenceIds, final int transitionType) {
 		List<String> curatedGeofenceList = new ArrayList<String>();
+		isUserWithinChanged = false;
+
+		for (int i = 0; i < obtainedGeofenceIds.size(); i++) {
+			final String geofenceID = obtainedGeofenceIds.get(i);
 
+			if (curate(geofenceID, nearbyPOITable.indexOf(geofenceID), transitionType)) {
+				curatedGeofenceList.add(geofenceID);
+			}
+		}
+
+		if (isUserWithinChanged) {
+			saveUserWithinGeofences();
+		}
+
+		return curatedGeofenceList;
+
+	}
+
+	/**
+	 * Curates the transition of a single geofence and updates the in-memory {@code #userWithinGeofences} accordingly.
+	 * <p>
+	 * Sets {@link #isUserWithinChanged} when the {@code #userWithinGeofences} are changed, the caller saves them.
+	 *
+	 * @param geofenceID the geofenceID obtained from the OS event
+	 * @param poiIndex the index of the geofence in the {@link #nearbyPOITable}, or {@link PlacesMonitorPOITable#NOT_FOUND}
+	 * @param transitionType {@code int} representing the transition type of the geofence
+	 * @return true if the transition needs to be processed by {@link Places} extension
+	 * @see #getCuratedGeofencesList(List, int)
+	 */
+	private boolean curate(final String geofenceID, final int poiIndex, final int transitionType) {
 		// if entry event, add geofence to the userWithinGeofence
 		if (transitionType == Geofence.GEOFENCE_TRANSITION_ENTER) {
-			for (String geofenceID : obtainedGeofenceIds) {
-				if (!userWithinGeofences.contains(geofenceID)) {
-					curatedGeofenceList.add(geofenceID);
-					userWithinGeofences.add(geofenceID);
-				} else {
-					Log.debug(PlacesMonitorConstants.LOG_TAG,
-							  String.format("Ignoring to process the entry of geofenceId %s. Because an entry was already recorded", geofenceID));
-				}
+			if (requiresDwell(geofenceID, poiIndex)) {
+				PlacesMonitorLog.debug("Ignoring to process the entry of geofenceId %s. Waiting for the dwell to be confirmed",
+									   geofenceID);
+				return false;
+			}
+
+			if (userWithinGeofences.contains(geofenceID)) {
+				PlacesMonitorLog.debug("Ignoring to process the entry of geofenceId %s. Because an entry was already recorded",
+									   geofenceID);
+				return false;
 			}
+
+			userWithinGeofences.add(geofenceID);
+			locallyExitedGeofences.remove(geofenceID);
+			isUserWithinChanged = true;
+			return true;
+		}
+
+		// if dwell event, confirm the entry and add geofence to the userWithinGeofence
+		if (transitionType == Geofence.GEOFENCE_TRANSITION_DWELL) {
+			if (userWithinGeofences.contains(geofenceID)) {
+				PlacesMonitorLog.debug("Ignoring to process the dwell of geofenceId %s. Because an entry was already recorded",
+									   geofenceID);
+				return false;
+			}
+
+			userWithinGeofences.add(geofenceID);
+			locallyExitedGeofences.remove(geofenceID);
+			isUserWithinChanged = true;
+			return true;
 		}
 
 		// if exit event, remove from the userWithinGeofence
-		else if (transitionType == Geofence.GEOFENCE_TRANSITION_EXIT) {
-			for (String geofenceID : obtainedGeofenceIds) {
-				if (userWithinGeofences.contains(geofenceID)) {
-					userWithinGeofences.remove(geofenceID);
-				}
+		if (transitionType == Geofence.GEOFENCE_TRANSITION_EXIT) {
+			if (userWithinGeofences.remove(geofenceID)) {
+				isUserWithinChanged = true;
+				return true;
+			}
 
-				curatedGeofenceList.add(geofenceID);
+			if (locallyExitedGeofences.remove(geofenceID)) {
+				PlacesMonitorLog.debug("Ignoring to process the exit of geofenceId %s. Because the exit was already dispatched",
+									   geofenceID);
+				return false;
 			}
-		}
 
-		return curatedGeofenceList;
+			if (requiresDwell(geofenceID, poiIndex)) {
+				PlacesMonitorLog.debug("Ignoring to process the exit of geofenceId %s. Because the dwell was never confirmed",
+									   geofenceID);
+				return false;
+			}
+
+			return true;
+		}
 
+		return false;
 	}
 
 	// ========================================================================================
@@ -298,77 +648,171 @@ class PlacesGeofenceManager {
 	 * Loads the persisted data into the in-memory variables.
 	 * <p>
 	 * This method is called during the boot time of the SDK.
+	 * The {@link #userWithinGeofences} are replayed from the {@link PlacesMonitorGeofenceJournal}. If there is no journal
+	 * yet, they are migrated from the {@link SharedPreferences} they were previously saved in.
 	 * Loading of persisted data fails if the {@link SharedPreferences} or App's {@link Context} is null.
 	 *
 	 */
 	void loadPersistedData() {
 		SharedPreferences sharedPreferences = PlacesMonitorUtil.getSharedPreferences();
+		Set<String> journaledGeofences = userWithinJournal.replay();
+
+		if (journaledGeofences != null) {
+			userWithinGeofences = new PlacesMonitorIdentifierSet(journaledGeofences);
+		} else if (sharedPreferences != null) {
+			// copy the persisted set, the instance returned by SharedPreferences must not be modified
+			userWithinGeofences = new PlacesMonitorIdentifierSet(sharedPreferences.getStringSet(
+						PlacesMonitorConstants.SharedPreference.USERWITHIN_GEOFENCES_KEY, new HashSet<String>()));
+
+			if (!userWithinGeofences.isEmpty() && userWithinJournal.compact(userWithinGeofences)) {
+				PlacesMonitorPersistence.getInstance().remove(PlacesMonitorConstants.SharedPreference.USERWITHIN_GEOFENCES_KEY);
+			}
+		}
+
+		PlacesMonitorLog.trace("PlacesGeoFenceManager.loadPersistedData() userWithinGeofences: %s",
+							   userWithinGeofences);
 
 		if (sharedPreferences == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"Unable to load monitoring geofences from persistence, sharedPreference is null");
+			PlacesMonitorLog.warning("Unable to load monitoring geofences from persistence, sharedPreference is null");
 			return;
 		}
 
-		userWithinGeofences = sharedPreferences.getStringSet(PlacesMonitorConstants.SharedPreference.USERWITHIN_GEOFENCES_KEY,
-							  new HashSet<String>());
-		Log.trace(PlacesMonitorConstants.LOG_TAG,
-				  "PlacesGeoFenceManager.loadPersistedData() userWithinGeofences: " + userWithinGeofences.toString());
+		// Android drops all the registered geofences on reboot, the persisted fences are only valid for the current boot
+		long savedBootTime = sharedPreferences.getLong(PlacesMonitorConstants.SharedPreference.MONITORING_GEOFENCES_BOOT_TIME_KEY,
+							 0L);
+
+		if (Math.abs(getBootTime() - savedBootTime) > PlacesMonitorConstants.BOOT_TIME_TOLERANCE) {
+			PlacesMonitorLog.trace("PlacesGeoFenceManager.loadPersistedData() device rebooted since the fences were registered, ignoring the persisted fences");
+			return;
+		}
+
+		// the geofences of an app are also dropped when the app is updated or reinstalled
+		long savedAppUpdateTime = sharedPreferences.getLong(
+									  PlacesMonitorConstants.SharedPreference.MONITORING_GEOFENCES_APP_UPDATE_TIME_KEY, 0L);
+
+		if (savedAppUpdateTime != getAppUpdateTime()) {
+			PlacesMonitorLog.trace("PlacesGeoFenceManager.loadPersistedData() app updated since the fences were registered, ignoring the persisted fences");
+			return;
+		}
+
+		Set<String> persistedFences = sharedPreferences.getStringSet(
+										  PlacesMonitorConstants.SharedPreference.MONITORING_GEOFENCES_KEY, new HashSet<String>());
+
+		for (String persistedFence : persistedFences) {
+			int separatorIndex = persistedFence.lastIndexOf(FENCE_SIGNATURE_SEPARATOR);
+
+			if (separatorIndex <= 0 || separatorIndex == persistedFence.length() - 1) {
+				continue;
+			}
+
+			// persisted as <identifier>,<signature>. The signature never contains the separator, identifiers might.
+			monitoringFences.put(persistedFence.substring(0, separatorIndex), persistedFence.substring(separatorIndex + 1));
+		}
+
+		PlacesMonitorLog.trace("PlacesGeoFenceManager.loadPersistedData() monitoringFences: %s",
+							   monitoringFences.keySet());
 	}
 
 	/**
 	 * Saves the in-memory variable {@link #userWithinGeofences} in persistence.
+	 * <p>
+	 * Only the geofences entered and exited since the last save are appended to the {@link PlacesMonitorGeofenceJournal}.
+	 * This method is called after every change, whether from the nearbyPOIs, including the exits dispatched by
+	 * {@link #dispatchLocalExits(List)}, or from the geofence transitions reported by the OS.
 	 */
 	void saveUserWithinGeofences() {
-		SharedPreferences sharedPreferences = PlacesMonitorUtil.getSharedPreferences();
+		final long saveStartTime = System.nanoTime();
 
-		if (sharedPreferences == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"Unable to save userWithIn geofences from persistence, sharedPreference is null");
-			return;
+		if (!userWithinJournal.save(userWithinGeofences)) {
+			PlacesMonitorLog.warning("Unable to save userWithIn geofences to the geofence journal");
 		}
 
-		SharedPreferences.Editor editor = sharedPreferences.edit();
-
-		if (editor == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"Unable to save userWithIn geofences from persistence, shared preference editor is null");
-			return;
-		}
+		PlacesMonitorMetrics.getInstance().recordElapsedMicros(PlacesMonitorMetrics.Histogram.PERSISTENCE_WRITE_TIME,
+				saveStartTime);
+	}
 
-		if (userWithinGeofences == null || userWithinGeofences.isEmpty()) {
-			editor.remove(PlacesMonitorConstants.SharedPreference.USERWITHIN_GEOFENCES_KEY);
+	/**
+	 * Saves the in-memory variable {@link #monitoringFences} in persistence along with the current boot time and the
+	 * time the app was last updated.
+	 * <p>
+	 * The write is performed asynchronously by {@link PlacesMonitorPersistence}.
+	 */
+	void saveMonitoringFences() {
+		final PlacesMonitorPersistence persistence = PlacesMonitorPersistence.getInstance();
+		final boolean isSaved;
+
+		if (monitoringFences.isEmpty()) {
+			isSaved = persistence.remove(PlacesMonitorConstants.SharedPreference.MONITORING_GEOFENCES_KEY)
+					  && persistence.remove(PlacesMonitorConstants.SharedPreference.MONITORING_GEOFENCES_BOOT_TIME_KEY)
+					  && persistence.remove(PlacesMonitorConstants.SharedPreference.MONITORING_GEOFENCES_APP_UPDATE_TIME_KEY);
 		} else {
-			editor.putStringSet(PlacesMonitorConstants.SharedPreference.USERWITHIN_GEOFENCES_KEY, userWithinGeofences);
+			Set<String> persistedFences = new HashSet<String>();
+
+			for (Map.Entry<String, String> fence : monitoringFences.entrySet()) {
+				persistedFences.add(fence.getKey() + FENCE_SIGNATURE_SEPARATOR + fence.getValue());
+			}
+
+			isSaved = persistence.putStringSet(PlacesMonitorConstants.SharedPreference.MONITORING_GEOFENCES_KEY, persistedFences)
+					  && persistence.putLong(PlacesMonitorConstants.SharedPreference.MONITORING_GEOFENCES_BOOT_TIME_KEY, getBootTime())
+					  && persistence.putLong(PlacesMonitorConstants.SharedPreference.MONITORING_GEOFENCES_APP_UPDATE_TIME_KEY,
+											 getAppUpdateTime());
 		}
 
-		editor.commit();
+		// apply() never reports a failed disk write, false only means that the SharedPreferences are not available
+		if (!isSaved) {
+			PlacesMonitorLog.warning("Unable to persist the monitoring geofences, sharedPreference or its editor is not available");
+		}
 	}
 
 	/**
-	 * Unregisters the previously monitoring POIs and registers the new list of nearByPOIs passed
+	 * Brings the fences registered with the OS in sync with the new list of nearByPOIs.
+	 * <p>
+	 * Compares the nearByPOIs against the {@link #monitoringFences} and only,
+	 * <ul>
+	 *     <li> Unregisters the fences that are no longer a part of the nearByPOIs</li>
+	 *     <li> Registers the nearByPOIs that are not monitored yet or whose region has changed since they were registered</li>
+	 * </ul>
+	 * No call is made to the {@link GeofencingClient} when the nearby set has not changed.
+	 * <p>
+	 * The persisted {@code monitoringFences} are trusted across process starts, so a new process only registers the
+	 * delta as well. They are forgotten when Android drops the registered geofences: after a reboot or an app update,
+	 * detected by {@link #loadPersistedData()}, and when the OS reports the geofences as unavailable, see
+	 * {@link #onGeofencesUnavailable()}. All of the nearByPOIs are then registered again.
+	 * The number of fences added and removed by each refresh is recorded in the {@link PlacesMonitorMetrics}.
 	 *
 	 * @param nearByPOIs A {@link List} of {@link PlacesPOI} that needs to be registered for monitoring
 	 */
 	void refreshNearByPOIS(final List<PlacesPOI> nearByPOIs) {
-		AdobeCallback<Void> onSuccess = new AdobeCallback<Void>() {
-			@Override
-			public void call(Void aVoid) {
-				// on successful unregistration of all the pois register the new nearbypois
-				Log.warning(PlacesMonitorConstants.LOG_TAG, "Successfully unregistered old nearByPois");
-				registerPOIs(nearByPOIs);
+		Set<String> nearByPOIIds = new HashSet<String>();
+		List<PlacesPOI> poisToAdd = new ArrayList<PlacesPOI>();
+
+		for (PlacesPOI poi : nearByPOIs) {
+			nearByPOIIds.add(poi.getIdentifier());
+
+			if (!getFenceSignature(poi).equals(monitoringFences.get(poi.getIdentifier()))) {
+				poisToAdd.add(poi);
 			}
-		};
-		AdobeCallback<String> onFailiure = new AdobeCallback<String>() {
-			@Override
-			public void call(String message) {
-				Log.warning(PlacesMonitorConstants.LOG_TAG, String.format("Unable to unregister old nearByPois. Error message %s.",
-							message));
-				registerPOIs(nearByPOIs);
+		}
+
+		List<String> fencesToRemove = new ArrayList<String>();
+
+		for (String monitoringFenceId : monitoringFences.keySet()) {
+			if (!nearByPOIIds.contains(monitoringFenceId)) {
+				fencesToRemove.add(monitoringFenceId);
 			}
-		};
+		}
 
-		unregisterPOIS(onSuccess, onFailiure);
+		final PlacesMonitorMetrics metrics = PlacesMonitorMetrics.getInstance();
+		metrics.record(PlacesMonitorMetrics.Histogram.FENCES_ADDED, poisToAdd.size());
+		metrics.record(PlacesMonitorMetrics.Histogram.FENCES_REMOVED, fencesToRemove.size());
+
+		if (fencesToRemove.isEmpty() && poisToAdd.isEmpty()) {
+			PlacesMonitorLog.debug("NearByPois have not changed, no geofences to be added or removed");
+			return;
+		}
+
+		unregisterFences(fencesToRemove);
+		registerPOIs(poisToAdd);
 	}
 
 	// ========================================================================================
@@ -390,14 +834,14 @@ class PlacesGeofenceManager {
 	 * @param onFailure A {@link AdobeCallback} called when the unregistering of all pois has failed
 	 */
 	private void unregisterPOIS(final AdobeCallback<Void> onSuccess, final AdobeCallback<String> onFailure) {
-		GeofencingClient geofencingClient = getGeofencingClient();
+		GeofencingClient geofencingClient = clients.getGeofencingClient();
 
 		if (geofencingClient == null) {
 			onFailure.call("geofencingClient instance is null");
 			return;
 		}
 
-		PendingIntent geofenceIntent = getGeofencePendingIntent();
+		PendingIntent geofenceIntent = clients.getGeofencePendingIntent();
 
 		if (geofenceIntent == null) {
 			onFailure.call("geofence intent is null");
@@ -426,13 +870,59 @@ class PlacesGeofenceManager {
 		});
 	}
 
+	/**
+	 * Unregisters the fences with the given identifiers from google's {@link GeofencingClient}.
+	 * <p>
+	 * The fences are forgotten from {@link #monitoringFences} as soon as the request is made. If the request fails,
+	 * the fence might still be registered with the OS, which is harmless since it will be replaced when it is registered again.
+	 * The fences are kept in {@code monitoringFences} if the {@link GeofencingClient} is not available, so that the next
+	 * refresh attempts to unregister them again.
+	 *
+	 * @param fenceIds A {@link List} of geofence identifiers to be unregistered
+	 */
+	private void unregisterFences(final List<String> fenceIds) {
+		if (fenceIds.isEmpty()) {
+			return;
+		}
+
+		final GeofencingClient geofencingClient = clients.getGeofencingClient();
+
+		if (geofencingClient == null) {
+			PlacesMonitorLog.warning("Unable to unregister geofences, geofencingClient instance is null");
+			return;
+		}
+
+		for (String fenceId : fenceIds) {
+			monitoringFences.remove(fenceId);
+		}
+
+		saveMonitoringFences();
+
+		Task<Void> task = geofencingClient.removeGeofences(fenceIds);
+		task.addOnSuccessListener(new OnSuccessListener<Void>() {
+			@Override
+			public void onSuccess(Void aVoid) {
+				PlacesMonitorLog.debug("Successfully removed %d fences from monitoring", fenceIds.size());
+			}
+		});
+		task.addOnFailureListener(new OnFailureListener() {
+			@Override
+			public void onFailure(Exception e) {
+				PlacesMonitorLog.warning("Error in removing fences from monitoring %s", e.getMessage());
+			}
+		});
+	}
+
 	/**
 	 * Registers the given list of {@link PlacesPOI} with the google's {@link GeofencingClient}
 	 * <p>
-	 * The pois are registered to be monitored for entry and exit events. The registration will fail if,
+	 * The pois are registered to be monitored for entry and exit events. The pois with a loitering delay in their metadata
+	 * are instead monitored for dwell and exit events, so that no entry is reported for a user passing by.
+	 * The registration will fail if,
 	 * <ul>
 	 *     <li> The permission for accessing the fine location is denied.</li>
 	 *     <li> {@link PendingIntent} for receiving Geofencing events is null.</li>
+	 *     <li> {@link GeofencingClient} instance is null.</li>
 	 *     <li> If the provided list of nearByPois is null/empty.</li>
 	 * </ul>
 	 *
@@ -443,44 +933,61 @@ class PlacesGeofenceManager {
 		final List<Geofence> geofences = new ArrayList<>();
 
 		if (!checkPermissions()) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"Unable to register new geofences, App permission to use FINE_LOCATION is not granted.");
+			PlacesMonitorLog.warning("Unable to register new geofences, App permission to use FINE_LOCATION is not granted.");
 			return;
 		}
 
-		PendingIntent geofenceIntent = getGeofencePendingIntent();
+		PendingIntent geofenceIntent = clients.getGeofencePendingIntent();
 
 		if (geofenceIntent == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"Unable to register new geofences, Places Geofence Broadcast Receiver was never initialized");
+			PlacesMonitorLog.warning("Unable to register new geofences, Places Geofence Broadcast Receiver was never initialized");
 			return;
 		}
 
+		final GeofencingClient geofencingClient = clients.getGeofencingClient();
 
-		for (PlacesPOI poi : nearByPOIs) {
+		if (geofencingClient == null) {
+			PlacesMonitorLog.warning("Unable to register new geofences, geofencingClient instance is null");
+			return;
+		}
+
+		final Map<String, String> addedFences = new HashMap<String, String>();
+		boolean hasDwellFences = false;
 
+		for (PlacesPOI poi : nearByPOIs) {
 
-			// If a geofence was previously registered, reading them will just replace the old one, which
-			// in our case is a no-op. We therefore don't really need to keep track which geofence was
-			// registered before, which can go out of sync anyway with the OS. Furthermore, android
-			// does not provide any API to query which geofences are currently monitored, so it's safer
-			// to re-register previously registered geofences.
+			// Android does not provide any API to query which geofences are currently monitored. The fences are
+			// recorded in monitoringFences as soon as they are requested, so that the next refresh does not request them again.
+			// If a geofence was previously registered, adding it again just replaces the old one.
+			addedFences.put(poi.getIdentifier(), getFenceSignature(poi));
 
-			final Geofence fence = new Geofence.Builder()
+			final Geofence.Builder fenceBuilder = new Geofence.Builder()
 			.setRequestId(poi.getIdentifier())
 			.setCircularRegion(poi.getLatitude(), poi.getLongitude(), poi.getRadius())
-			.setExpirationDuration(Geofence.NEVER_EXPIRE)
-			.setTransitionTypes(Geofence.GEOFENCE_TRANSITION_ENTER |
-								Geofence.GEOFENCE_TRANSITION_EXIT)
-			.build();
-			Log.debug(PlacesMonitorConstants.LOG_TAG,
-					  String.format("Attempting to Monitor POI with id %s name %s latitude %s longitude %s", poi.getIdentifier(),
-									poi.getName(), poi.getLatitude(), poi.getLongitude()));
+			.setExpirationDuration(Geofence.NEVER_EXPIRE);
+			final int loiteringDelay = PlacesMonitorPOITable.readLoiteringDelay(poi);
+
+			if (PlacesMonitorConstants.RefreshFence.IDENTIFIER.equals(poi.getIdentifier())) {
+				fenceBuilder.setTransitionTypes(Geofence.GEOFENCE_TRANSITION_EXIT);
+			} else if (loiteringDelay > 0) {
+				fenceBuilder.setTransitionTypes(Geofence.GEOFENCE_TRANSITION_DWELL | Geofence.GEOFENCE_TRANSITION_EXIT)
+				.setLoiteringDelay(loiteringDelay * 1000);
+				hasDwellFences = true;
+			} else {
+				fenceBuilder.setTransitionTypes(Geofence.GEOFENCE_TRANSITION_ENTER | Geofence.GEOFENCE_TRANSITION_EXIT);
+			}
+
+			final Geofence fence = fenceBuilder.build();
+			if (PlacesMonitorLog.isEnabled(LoggingMode.DEBUG)) {
+				PlacesMonitorLog.debug("Attempting to Monitor POI with id %s name %s latitude %s longitude %s",
+									   poi.getIdentifier(), poi.getName(), poi.getLatitude(), poi.getLongitude());
+			}
+
 			geofences.add(fence);
 		}
 
 		if (geofences.isEmpty()) {
-			Log.debug(PlacesMonitorConstants.LOG_TAG, "There are no new geofences that needs to be monitored");
+			PlacesMonitorLog.debug("There are no new geofences that needs to be monitored");
 			return;
 		}
 
@@ -490,89 +997,210 @@ class PlacesGeofenceManager {
 		// By default initial trigger is set to INITIAL_TRIGGER_ENTER | INITIAL_TRIGGER_DWELL
 		// This is not what we want since it will result in duplicate triggers if we are already
 		// inside POI(s).
+		// The entry of the POIs with a loitering delay is never recorded from the nearbyPOIs, hence a dwell
+		// is still reported for them if the user is already inside. Fences without a loitering delay never report a dwell.
 
-		builder.setInitialTrigger(0);
+		builder.setInitialTrigger(hasDwellFences ? GeofencingRequest.INITIAL_TRIGGER_DWELL : 0);
 		builder.addGeofences(geofences);
 
 		try {
-			Task<Void> task = geofencingClient.addGeofences(builder.build(), getGeofencePendingIntent());
+			Task<Void> task = geofencingClient.addGeofences(builder.build(), geofenceIntent);
+			monitoringFences.putAll(addedFences);
+			saveMonitoringFences();
 			task.addOnSuccessListener(new OnSuccessListener<Void>() {
 				@Override
 				public void onSuccess(Void aVoid) {
-					Log.debug(PlacesMonitorConstants.LOG_TAG, String.format("Successfully added %d fences for monitoring",
-							  geofences.size()));
+					PlacesMonitorLog.debug("Successfully added %d fences for monitoring", geofences.size());
 				}
 			});
 			task.addOnFailureListener(new OnFailureListener() {
 				@Override
 				public void onFailure(Exception e) {
-					Log.debug(PlacesMonitorConstants.LOG_TAG, "Error in adding fences for monitoring " + e.getMessage());
-
+					PlacesMonitorLog.debug("Error in adding fences for monitoring %s", e.getMessage());
+					PlacesMonitorMetrics.getInstance().increment(PlacesMonitorMetrics.Counter.ADD_GEOFENCES_FAILURES);
+					forgetFences(addedFences);
 				}
 			});
 		} catch (SecurityException e) {
-			Log.debug(PlacesMonitorConstants.LOG_TAG, "Add Geofence : SecurityException: " + e.getMessage());
+			PlacesMonitorLog.debug("Add Geofence : SecurityException: %s", e.getMessage());
+			PlacesMonitorMetrics.getInstance().increment(PlacesMonitorMetrics.Counter.ADD_GEOFENCES_FAILURES);
 		}
 	}
 
-	// ========================================================================================
-	// private methods - Getters
-	// ========================================================================================
+	/**
+	 * Removes the given fences from {@link #monitoringFences}, unless they have been requested again since.
+	 *
+	 * @param fences A {@link Map} of geofence identifiers to their signature that failed to register
+	 */
+	private void forgetFences(final Map<String, String> fences) {
+		for (Map.Entry<String, String> fence : fences.entrySet()) {
+			monitoringFences.remove(fence.getKey(), fence.getValue());
+		}
+
+		saveMonitoringFences();
+	}
+
+	/**
+	 * Returns a {@code String} describing the region of the given {@link PlacesPOI}.
+	 * <p>
+	 * Two POIs with same identifier and signature result in the same geofence being registered with the OS.
+	 *
+	 * @param poi the {@link PlacesPOI} to describe
+	 * @return the signature of the POI's region
+	 */
+	private String getFenceSignature(final PlacesPOI poi) {
+		final String signature = poi.getLatitude() + ";" + poi.getLongitude() + ";" + poi.getRadius();
+		final int loiteringDelay = PlacesMonitorPOITable.readLoiteringDelay(poi);
+		return loiteringDelay > 0 ? signature + DWELL_SIGNATURE_MARKER + loiteringDelay : signature;
+	}
 
 	/**
-	 * Returns a {@code PendingIntent} instance for getting the Geofence triggers
+	 * Creates the refresh fence, centered on the device location and enclosing the given POIs.
 	 * <p>
-	 * Returns the existing {@link #geofencePendingIntent} instance if its not null.
-	 * Else attempts to create a new Pending Intent.
-	 * Returns null if the app context is not available.
+	 * The radius of the refresh fence is the distance to the farthest POI, bounded by {@link PlacesMonitorConstants.RefreshFence#MIN_RADIUS}
+	 * and {@link PlacesMonitorConstants.RefreshFence#MAX_RADIUS}. Without any POI, the maximum radius is used.
 	 *
-	 * @return a {@code PendingIntent} instance
+	 * @param pois the {@link List} of {@link PlacesPOI} to be monitored
+	 * @param latitude the latitude of the device location
+	 * @param longitude the longitude of the device location
+	 * @return the refresh fence as a {@code PlacesPOI}, or null if the device location is not known
 	 */
-	private PendingIntent getGeofencePendingIntent() {
-		// Reuse the PendingIntent if we already have it.
-		if (geofencePendingIntent != null) {
-			return geofencePendingIntent;
+	private PlacesPOI createRefreshFence(final List<PlacesPOI> pois, final double latitude, final double longitude) {
+		if (Double.isNaN(latitude) || Double.isNaN(longitude)) {
+			PlacesMonitorLog.debug("Unable to register the refresh fence, the device location is not known");
+			return null;
 		}
 
-		Context context = App.getAppContext();
+		double radius = pois.isEmpty() ? PlacesMonitorConstants.RefreshFence.MAX_RADIUS : 0;
 
-		if (context == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"Unable to create an intent to receive location updates, App Context not available");
-			return null;
+		for (PlacesPOI poi : pois) {
+			radius = Math.max(radius, PlacesMonitorUtil.distanceInMeters(latitude, longitude, poi.getLatitude(),
+							  poi.getLongitude()));
 		}
 
-		Intent intent = new Intent(context, PlacesGeofenceBroadcastReceiver.class);
-		intent.setAction(PlacesGeofenceBroadcastReceiver.ACTION_GEOFENCE_UPDATE);
-		geofencePendingIntent = PendingIntent.getBroadcast(App.getAppContext(), 0, intent, PendingIntent.FLAG_UPDATE_CURRENT);
-		return geofencePendingIntent;
+		radius = Math.max(PlacesMonitorConstants.RefreshFence.MIN_RADIUS, Math.min(radius,
+						  PlacesMonitorConstants.RefreshFence.MAX_RADIUS));
+		return new PlacesPOI(PlacesMonitorConstants.RefreshFence.IDENTIFIER, PlacesMonitorConstants.RefreshFence.IDENTIFIER,
+							 latitude, longitude, (int) Math.ceil(radius), null, 0, null);
 	}
 
 	/**
-	 * Returns the {@code GeofencingClient} instance
+	 * Checks whether the fence with the given identifier was registered with a loitering delay.
 	 * <p>
-	 * Returns the existing {@link #geofencingClient} instance if its not null.
-	 * Else attempts to create a new instance of {@link GeofencingClient}.
-	 * Returns null if the app context is not available
+	 * The nearbyPOIs are registered with the loitering delay held in the {@link #nearbyPOITable}. A fence that is not part
+	 * of the table, for example one registered before the application restarted, is checked against its persisted signature.
 	 *
-	 * @return a {@code GeofencingClient} instance
+	 * @param geofenceID the identifier of the fence
+	 * @param poiIndex the index of the fence in the {@link #nearbyPOITable}, or {@link PlacesMonitorPOITable#NOT_FOUND}
+	 * @return true if the entry into the fence has to be confirmed by a dwell
 	 */
-	private GeofencingClient getGeofencingClient() {
-		if (geofencingClient != null) {
-			return geofencingClient;
+	private boolean requiresDwell(final String geofenceID, final int poiIndex) {
+		if (poiIndex != PlacesMonitorPOITable.NOT_FOUND) {
+			return nearbyPOITable.getLoiteringDelay(poiIndex) > 0;
 		}
 
-		Context context = App.getAppContext();
+		final String signature = monitoringFences.get(geofenceID);
+		return signature != null && signature.contains(DWELL_SIGNATURE_MARKER);
+	}
 
-		if (context == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG, "Places Geofence Services not initialized, App Context not available");
-			return null;
+	/**
+	 * Returns the priority hint of the given {@link PlacesPOI} configured in its metadata.
+	 *
+	 * @param poi the {@link PlacesPOI} to read the priority from
+	 * @return the priority of the POI, 0 if the POI does not have a valid priority
+	 */
+	private int getPriority(final PlacesPOI poi) {
+		final Map<String, String> metadata = poi.getMetadata();
+		final String priority = metadata == null ? null : metadata.get(PlacesMonitorConstants.POIMetadata.PRIORITY);
+
+		if (priority == null) {
+			return 0;
+		}
+
+		try {
+			return Integer.parseInt(priority.trim());
+		} catch (NumberFormatException exp) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Dispatches an exit to the Places extension for each of the given geofences the user has left without the OS
+	 * reporting it.
+	 * <p>
+	 * The exited geofences are remembered, so that the exit the OS may still report for these fences is not processed again.
+	 * They are forgotten once the geofence is entered again, or on the next call if the POI is no longer nearby.
+	 *
+	 * @param geofenceIDs a {@link List} of geofenceIDs removed from the {@link #userWithinGeofences}
+	 */
+	private void dispatchLocalExits(final List<String> geofenceIDs) {
+		// only the fences still registered with the OS can report an exit, handles are valid until the next compaction
+		if (!locallyExitedGeofences.isEmpty()) {
+			for (Iterator<String> iterator = locallyExitedGeofences.iterator(); iterator.hasNext();) {
+				final int handle = userWithinGeofences.handleOf(iterator.next());
+
+				if (handle < 0 || !nearbyHandles.get(handle)) {
+					iterator.remove();
+				}
+			}
 		}
 
-		geofencingClient = LocationServices.getGeofencingClient(context);
-		return geofencingClient;
+		for (int i = 0; i < geofenceIDs.size(); i++) {
+			final String geofenceID = geofenceIDs.get(i);
+			PlacesMonitorLog.debug("Dispatching the exit of geofenceId %s. The user is no longer within the POI",
+								   geofenceID);
+			locallyExitedGeofences.add(geofenceID);
+		}
+
+		regionEventDispatcher.dispatchRegionEvents(geofenceIDs, Geofence.GEOFENCE_TRANSITION_EXIT);
 	}
 
+	/**
+	 * Checks whether the user is within the given POI.
+	 *
+	 * @param poi the {@link PlacesPOI} to be checked
+	 * @param latitude the latitude of the device location, or {@link Double#NaN} if unknown
+	 * @param longitude the longitude of the device location, or {@link Double#NaN} if unknown
+	 * @return true if the location lies within the radius of the POI, or the user within flag of the POI if the location is not known
+	 */
+	private boolean isUserWithin(final PlacesPOI poi, final double latitude, final double longitude) {
+		if (Double.isNaN(latitude) || Double.isNaN(longitude)) {
+			return poi.containsUser();
+		}
+
+		return PlacesMonitorUtil.distanceInMeters(latitude, longitude, poi.getLatitude(),
+				poi.getLongitude()) <= poi.getRadius();
+	}
+
+	/**
+	 * Returns the wall clock time at which the device has booted.
+	 *
+	 * @return the boot time in milliseconds
+	 */
+	private long getBootTime() {
+		return System.currentTimeMillis() - SystemClock.elapsedRealtime();
+	}
+
+	/**
+	 * Returns the time at which the app was last installed or updated.
+	 *
+	 * @return the update time in milliseconds, or 0 if it is not available
+	 */
+	private long getAppUpdateTime() {
+		final Context context = App.getAppContext();
+
+		if (context == null || context.getPackageManager() == null) {
+			return 0L;
+		}
+
+		try {
+			final PackageInfo packageInfo = context.getPackageManager().getPackageInfo(context.getPackageName(), 0);
+			return packageInfo != null ? packageInfo.lastUpdateTime : 0L;
+		} catch (PackageManager.NameNotFoundException exp) {
+			PlacesMonitorLog.warning("Unable to read the app update time. Exception message - %s", exp.getMessage());
+			return 0L;
+		}
+	}
 
 	// ========================================================================================
 	// private methods - Permission Handling
@@ -588,7 +1216,7 @@ class PlacesGeofenceManager {
 		Context context = App.getAppContext();
 
 		if (context == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG, "Unable to check location permission, App context is not available");
+			PlacesMonitorLog.warning("Unable to check location permission, App context is not available");
 			return false;
 		}
 
@@ -596,4 +1224,40 @@ class PlacesGeofenceManager {
 							  FINE_LOCATION);
 		return permissionState == PackageManager.PERMISSION_GRANTED;
 	}
+
+	// ========================================================================================
+	// Geofence budget
+	// ========================================================================================
+
+	private static final Comparator<BudgetCandidate> BUDGET_CANDIDATE_COMPARATOR = new Comparator<BudgetCandidate>() {
+		@Override
+		public int compare(final BudgetCandidate first, final BudgetCandidate second) {
+			if (first.isEntered != second.isEntered) {
+				return first.isEntered ? -1 : 1;
+			}
+
+			if (first.priority != second.priority) {
+				return first.priority > second.priority ? -1 : 1;
+			}
+
+			return Double.compare(first.edgeDistance, second.edgeDistance);
+		}
+	};
+
+	/**
+	 * A {@link PlacesPOI} ranked for the geofence budget.
+	 */
+	private static final class BudgetCandidate {
+		final PlacesPOI poi;
+		final boolean isEntered;
+		final int priority;
+		final double edgeDistance;
+
+		BudgetCandidate(final PlacesPOI poi, final boolean isEntered, final int priority, final double edgeDistance) {
+			this.poi = poi;
+			this.isEntered = isEntered;
+			this.priority = priority;
+			this.edgeDistance = edgeDistance;
+		}
+	}
 }
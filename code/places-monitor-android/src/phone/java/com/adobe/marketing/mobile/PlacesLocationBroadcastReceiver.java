@@ -20,8 +20,10 @@ import android.content.Context;
 import android.content.Intent;
 import android.location.Location;
 import com.google.android.gms.location.LocationResult;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Broadcast receiver for the location updates.
@@ -35,12 +37,14 @@ public class PlacesLocationBroadcastReceiver extends BroadcastReceiver {
 	/**
 	 * This method is called when the {@link PlacesLocationBroadcastReceiver} is receiving an intent broadcast with current location.
 	 * <p>
-	 *  Dispatches an event with EventType {@link PlacesMonitorConstants.EventType#OS} and EventSource {@link PlacesMonitorConstants.EventSource#RESPONSE_CONTENT}
-	 * 	with the obtained location.
+	 *  The OS may deliver several batched locations in a single broadcast. The best of the received locations is selected
+	 *  using {@link #getBestLocation(List)} and a single event with EventType {@link PlacesMonitorConstants.EventType#OS}
+	 *  and EventSource {@link PlacesMonitorConstants.EventSource#RESPONSE_CONTENT} is dispatched with the selected location
+	 *  and the trajectory of all the received locations.
 	 *  No action is taken if the passed intent is null.
 	 *  No action is taken if the actionName of the intent is not same as {@link #ACTION_LOCATION_UPDATE}.
 	 *  No action is performed if the received {@code LocationResult} is null.
-	 *  No action is performed if the location array or the location is null.
+	 *  No action is performed if the location array is null or contains no valid location.
 	 *
 	 * @param context 	the application's {@link Context}
 	 * @param intent 	the broadcasted location message wrapped in an intent
@@ -48,16 +52,14 @@ public class PlacesLocationBroadcastReceiver extends BroadcastReceiver {
 	@Override
 	public void onReceive(Context context, Intent intent) {
 		if (intent == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"PlacesLocationBroadcastReceiver : Unable to process the location update, the received intent is null");
+			PlacesMonitorLog.warning("PlacesLocationBroadcastReceiver : Unable to process the location update, the received intent is null");
 			return;
 		}
 
 		final String action = intent.getAction();
 
 		if (!ACTION_LOCATION_UPDATE.equals(action)) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"PlacesLocationBroadcastReceiver : Unable to process the location update, invalid action type received");
+			PlacesMonitorLog.warning("PlacesLocationBroadcastReceiver : Unable to process the location update, invalid action type received");
 			return;
 		}
 
@@ -70,55 +72,156 @@ public class PlacesLocationBroadcastReceiver extends BroadcastReceiver {
 
 		List<Location> locations = result.getLocations();
 
+		final PlacesMonitorMetrics metrics = PlacesMonitorMetrics.getInstance();
+
 		if (locations == null || locations.isEmpty()) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"PlacesLocationBroadcastReceiver : Cannot process the location update, Received location array is null");
+			PlacesMonitorLog.warning("PlacesLocationBroadcastReceiver : Cannot process the location update, Received location array is null");
 			return;
 		}
 
-		Location location = locations.get(0);
+		metrics.add(PlacesMonitorMetrics.Counter.LOCATION_FIXES_RECEIVED, locations.size());
+		Location location = getBestLocation(locations);
 
 		if (location == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"PlacesLocationBroadcastReceiver : Cannot process the location update, Received location is null");
+			PlacesMonitorLog.warning("PlacesLocationBroadcastReceiver : Cannot process the location update, Received location is null");
+			metrics.add(PlacesMonitorMetrics.Counter.LOCATION_FIXES_DROPPED, locations.size());
 			return;
 		}
 
-		String locationLog = "PlacesLocationBroadcastReceiver : A new location received with accuracy: " +
-							 location.getAccuracy() + " lat: " + location.getLatitude() +
-							 " lon: " + location.getLongitude();
-		Log.debug(PlacesMonitorConstants.LOG_TAG, locationLog);
-		dispatchOSLocationUpdateEvent(location.getLatitude(), location.getLongitude());
+		if (PlacesMonitorLog.isEnabled(LoggingMode.DEBUG)) {
+			PlacesMonitorLog.debug("PlacesLocationBroadcastReceiver : %s location(s) received, selected location with accuracy: %s lat: %s lon: %s",
+								   locations.size(), location.getAccuracy(), location.getLatitude(), location.getLongitude());
+		}
+
+		// only the best location of the batch is processed
+		metrics.add(PlacesMonitorMetrics.Counter.LOCATION_FIXES_DROPPED, locations.size() - 1);
+		dispatchOSLocationUpdateEvent(location, locations);
+	}
+
+	/**
+	 * Selects the best location among the locations delivered in a single batch.
+	 * <p>
+	 * A location that is significantly newer than the current best is always preferred, and one that is significantly
+	 * older is never preferred. Otherwise the more accurate location wins, with ties in accuracy going to the newer
+	 * location. A newer location that is slightly less accurate is also preferred.
+	 * Null locations in the list are ignored.
+	 *
+	 * @param locations a {@link List} of {@link Location}s received from the OS
+	 * @return the best {@link Location} in the list, or null if the list has no valid location
+	 */
+	static Location getBestLocation(final List<Location> locations) {
+		Location bestLocation = null;
+
+		for (Location location : locations) {
+			if (location == null) {
+				continue;
+			}
+
+			if (bestLocation == null || isBetterLocation(location, bestLocation)) {
+				bestLocation = location;
+			}
+		}
+
+		return bestLocation;
+	}
+
+	/**
+	 * Determines whether the given location is a better fix than the current best location.
+	 *
+	 * @param location 		the {@link Location} to be evaluated
+	 * @param bestLocation 	the current best {@link Location}
+	 * @return true if {@code location} should replace {@code bestLocation}
+	 */
+	private static boolean isBetterLocation(final Location location, final Location bestLocation) {
+		final long timeDelta = location.getTime() - bestLocation.getTime();
+
+		if (timeDelta > PlacesMonitorConstants.Location.SIGNIFICANT_TIME_DELTA) {
+			return true;
+		} else if (timeDelta < -PlacesMonitorConstants.Location.SIGNIFICANT_TIME_DELTA) {
+			return false;
+		}
+
+		final float accuracyDelta = location.getAccuracy() - bestLocation.getAccuracy();
+
+		if (accuracyDelta < 0) {
+			return true;
+		}
+
+		return timeDelta > 0 && accuracyDelta <= PlacesMonitorConstants.Location.SIGNIFICANT_ACCURACY_DELTA;
 	}
 
 
 	/**
 	 * Creates and dispatches {@link PlacesMonitorConstants.EventType#OS} {@link PlacesMonitorConstants.EventSource#RESPONSE_CONTENT} event with
-	 * obtained latitude and longitude to the eventHub.
+	 * the latitude, longitude, time, accuracy, speed and provider of the selected location and the trajectory of all the
+	 * received locations to the eventHub. The accuracy and speed are only added if the location has them.
 	 *
-	 * @param latitude 		{@code double} indicating latitude value
-	 * @param longitude		{@code double} indicating longitude value
+	 * @param location 		the selected {@link Location}
+	 * @param locations		all the {@link Location}s received in the batch, in the order delivered by the OS
 	 */
-	private void dispatchOSLocationUpdateEvent(final double latitude, final double longitude) {
+	private void dispatchOSLocationUpdateEvent(final Location location, final List<Location> locations) {
 		HashMap<String, Object> eventData = new HashMap<>();
 		eventData.put(PlacesMonitorConstants.EventDataKey.OS_EVENT_TYPE,
 					  PlacesMonitorConstants.EventDataValue.OS_EVENT_TYPE_LOCATION_UPDATE);
-		eventData.put(PlacesMonitorConstants.EventDataKey.LATITUDE, latitude);
-		eventData.put(PlacesMonitorConstants.EventDataKey.LONGITUDE, longitude);
+		eventData.put(PlacesMonitorConstants.EventDataKey.LATITUDE, location.getLatitude());
+		eventData.put(PlacesMonitorConstants.EventDataKey.LONGITUDE, location.getLongitude());
+		eventData.put(PlacesMonitorConstants.EventDataKey.TIME, location.getTime());
+
+		if (location.hasAccuracy()) {
+			eventData.put(PlacesMonitorConstants.EventDataKey.ACCURACY, (double) location.getAccuracy());
+		}
+
+		if (location.hasSpeed()) {
+			eventData.put(PlacesMonitorConstants.EventDataKey.SPEED, (double) location.getSpeed());
+		}
+
+		if (location.getProvider() != null) {
+			eventData.put(PlacesMonitorConstants.EventDataKey.PROVIDER, location.getProvider());
+		}
+
+		if (locations.size() > 1) {
+			eventData.put(PlacesMonitorConstants.EventDataKey.TRAJECTORY, getTrajectory(locations));
+		}
 
 		Event event = new Event.Builder(PlacesMonitorConstants.EVENTNAME_OS_LOCATION_UPDATE,
 										PlacesMonitorConstants.EventType.OS, PlacesMonitorConstants.EventSource.RESPONSE_CONTENT).
 		setEventData(eventData).build();
 
 		if (MobileCore.dispatchEvent(event, null)) {
-			Log.debug(PlacesMonitorConstants.LOG_TAG,
-					  "PlacesLocationBroadcastReceiver : Successfully dispatched OS Response event with new location");
+			PlacesMonitorLog.debug("PlacesLocationBroadcastReceiver : Successfully dispatched OS Response event with new location");
 		} else {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						String.format("PlacesLocationBroadcastReceiver : Unable to dispatch the OS Response event with new location %s",
-									  eventData));
+			PlacesMonitorLog.warning("PlacesLocationBroadcastReceiver : Unable to dispatch the OS Response event with new location %s",
+									 eventData);
+		}
+
+	}
+
+	/**
+	 * Converts the batched locations into a list of trajectory points.
+	 * <p>
+	 * Each point is a {@link Map} with the latitude, longitude, accuracy and time of the location.
+	 * Null locations are skipped.
+	 *
+	 * @param locations a {@link List} of {@link Location}s received from the OS
+	 * @return a {@link List} of trajectory points
+	 */
+	private List<Map<String, Object>> getTrajectory(final List<Location> locations) {
+		List<Map<String, Object>> trajectory = new ArrayList<>(locations.size());
+
+		for (Location location : locations) {
+			if (location == null) {
+				continue;
+			}
+
+			Map<String, Object> point = new HashMap<>();
+			point.put(PlacesMonitorConstants.EventDataKey.LATITUDE, location.getLatitude());
+			point.put(PlacesMonitorConstants.EventDataKey.LONGITUDE, location.getLongitude());
+			point.put(PlacesMonitorConstants.EventDataKey.ACCURACY, (double) location.getAccuracy());
+			point.put(PlacesMonitorConstants.EventDataKey.TIME, location.getTime());
+			trajectory.add(point);
 		}
 
+		return trajectory;
 	}
 
 }
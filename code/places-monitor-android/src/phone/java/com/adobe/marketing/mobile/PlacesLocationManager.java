@@ -18,7 +18,6 @@ package com.adobe.marketing.mobile;
 import android.app.Activity;
 import android.app.PendingIntent;
 import android.content.Context;
-import android.content.Intent;
 import android.content.IntentSender;
 import android.content.SharedPreferences;
 import android.location.Location;
@@ -26,9 +25,9 @@ import android.location.Location;
 
 import com.google.android.gms.common.api.ApiException;
 import com.google.android.gms.common.api.ResolvableApiException;
+import com.google.android.gms.location.DetectedActivity;
 import com.google.android.gms.location.FusedLocationProviderClient;
 import com.google.android.gms.location.LocationRequest;
-import com.google.android.gms.location.LocationServices;
 import com.google.android.gms.location.LocationSettingsRequest;
 import com.google.android.gms.location.LocationSettingsResponse;
 import com.google.android.gms.location.LocationSettingsStatusCodes;
@@ -38,6 +37,8 @@ import com.google.android.gms.tasks.OnFailureListener;
 import com.google.android.gms.tasks.OnSuccessListener;
 import com.google.android.gms.tasks.Task;
 
+import java.util.List;
+
 
 /**
  * Class to manage location updates from Android OS
@@ -51,11 +52,20 @@ class PlacesLocationManager {
 	private static final double MIN_LON		= -180d;
 
 	// permission constants
-	private FusedLocationProviderClient fusedLocationClient;
-	private PendingIntent locationPendingIntent;
+	private final PlacesMonitorClients clients = PlacesMonitorClients.getInstance();
+	private LocationRequest settingsLocationRequest;
+	private LocationSettingsRequest locationSettingsRequest;
 	private boolean hasMonitoringStarted;
 	private PlacesMonitorInternal placesMonitorInternal;
 	private PlacesMonitorLocationPermission requestedLocationPermission;
+	private PlacesMonitorLocationProfile requestedLocationProfile = PlacesMonitorLocationProfile.PRECISE;
+	private PlacesMonitorLocationProfile activeLocationProfile;
+	private PlacesMonitorProfileSelector profileSelector = new PlacesMonitorProfileSelector();
+	private PlacesMonitorLocationFilter locationFilter = new PlacesMonitorLocationFilter();
+	private PlacesMonitorLocationSettingsTracker settingsTracker = new PlacesMonitorLocationSettingsTracker();
+	private PlacesMonitorActivityRecognition activityRecognition = new PlacesMonitorActivityRecognition();
+	private boolean activityRecognitionEnabled;
+	private boolean isStill;
 
 
 	/**
@@ -79,13 +89,13 @@ class PlacesLocationManager {
 	void startMonitoring() {
 		if (requestedLocationPermission == PlacesMonitorLocationPermission.WHILE_USING_APP) {
 			if (!PlacesActivity.isWhileInUsePermissionGranted()) {
-				Log.debug(PlacesMonitorConstants.LOG_TAG, "Requesting while in use location permission");
+				PlacesMonitorLog.debug("Requesting while in use location permission");
 				PlacesActivity.askPermission(requestedLocationPermission);
 				return;
 			}
 		} else if (requestedLocationPermission == PlacesMonitorLocationPermission.ALWAYS_ALLOW) {
 			if (!PlacesActivity.isBackgroundPermissionGranted()) {
-				Log.debug(PlacesMonitorConstants.LOG_TAG, "Requesting allow always location permission");
+				PlacesMonitorLog.debug("Requesting allow always location permission");
 				PlacesActivity.askPermission(requestedLocationPermission);
 				return;
 			}
@@ -93,9 +103,8 @@ class PlacesLocationManager {
 			// if the location permission hasn't been already granted, do not begin location tracking.
 			// log a message letting the developer know that the permission should be requested by the application.
 			if(!(PlacesActivity.isWhileInUsePermissionGranted() || PlacesActivity.isBackgroundPermissionGranted())) {
-				Log.warning(PlacesMonitorConstants.LOG_TAG, "Places Monitor doesn't have apps location permission to start monitoring. Please request for location permission " +
-						"in your application or call startMonitoring by setting setLocationPermission API to WHILE_USING_APP or ALWAYS_ALLOW. For more details refer to %s",
-						PlacesMonitorConstants.DocLinks.SET_LOCATION_PERMISSION);
+				PlacesMonitorLog.warning("Places Monitor doesn't have apps location permission to start monitoring. Please request for location permission in your application or call startMonitoring by setting setLocationPermission API to WHILE_USING_APP or ALWAYS_ALLOW. For more details refer to %s",
+										 PlacesMonitorConstants.DocLinks.SET_LOCATION_PERMISSION);
 				return;
 			}
 		}
@@ -109,59 +118,51 @@ class PlacesLocationManager {
 		Context context = App.getAppContext();
 
 		if (context == null) {
-			Log.debug(PlacesMonitorConstants.LOG_TAG,
-					  "Unable to start monitoring places, App context is null");
+			PlacesMonitorLog.debug("Unable to start monitoring places, App context is null");
 			return;
 		}
 
-		Log.debug(PlacesMonitorConstants.LOG_TAG,
-				  "Location permission is granted. Starting to monitor location updates");
-
+		PlacesMonitorLog.debug("Location permission is granted. Starting to monitor location updates");
 
-		// Begin by checking if the device has the necessary location settings.
 		final LocationRequest locationRequest = getLocationRequest();
-		LocationSettingsRequest settingsRequest = new LocationSettingsRequest.Builder()
-		.addLocationRequest(locationRequest).build();
-		SettingsClient settingsClient = LocationServices.getSettingsClient(context);
-		Task<LocationSettingsResponse> task = settingsClient.checkLocationSettings(settingsRequest);
-		task.addOnSuccessListener(new OnSuccessListener<LocationSettingsResponse>() {
-			@Override
-			public void onSuccess(LocationSettingsResponse locationSettingsResponse) {
+		settingsTracker.start();
 
-				FusedLocationProviderClient fusedLocationProviderClient = getFusedLocationClient();
-
-				if (fusedLocationProviderClient == null) {
-					Log.warning(PlacesMonitorConstants.LOG_TAG,
-								"Unable to start monitoring location, fusedLocationProviderClient instance is null");
-					return;
-				}
-
-				PendingIntent locationIntent = getPendingIntent();
-
-				if (locationIntent == null) {
-					Log.warning(PlacesMonitorConstants.LOG_TAG,
-								"Unable to start monitoring location, Places Location Broadcast Receiver cannot be initialized");
-					return;
-				}
+		// Skip the location settings check if nothing changed since the last satisfied one.
+		if (settingsTracker.isSatisfied(locationRequest)) {
+			PlacesMonitorLog.debug("Location settings are known to be satisfied, skipping the location settings check");
+			startLocationUpdates(locationRequest);
+			return;
+		}
 
+		SettingsClient settingsClient = clients.getSettingsClient();
 
-				setHasMonitoringStarted(true);
-				Log.debug(PlacesMonitorConstants.LOG_TAG, "All location settings are satisfied to monitor location");
-				fusedLocationProviderClient.requestLocationUpdates(locationRequest,
-						locationIntent);
+		if (settingsClient == null) {
+			PlacesMonitorLog.warning("Unable to start monitoring location, settingsClient instance is null");
+			return;
+		}
 
+		// Begin by checking if the device has the necessary location settings.
+		Task<LocationSettingsResponse> task = settingsClient.checkLocationSettings(getLocationSettingsRequest(
+				locationRequest));
+		task.addOnSuccessListener(new OnSuccessListener<LocationSettingsResponse>() {
+			@Override
+			public void onSuccess(LocationSettingsResponse locationSettingsResponse) {
+				settingsTracker.onSatisfied(locationRequest, locationSettingsResponse != null ?
+											locationSettingsResponse.getLocationSettingsStates() : null);
+				PlacesMonitorLog.debug("All location settings are satisfied to monitor location");
+				startLocationUpdates(locationRequest);
 			}
 		});
 		task.addOnFailureListener(new OnFailureListener() {
 			@Override
 			public void onFailure(Exception e) {
 				int statusCode = ((ApiException) e).getStatusCode();
+				settingsTracker.invalidate();
 				setHasMonitoringStarted(false);
 
 				switch (statusCode) {
 					case LocationSettingsStatusCodes.RESOLUTION_REQUIRED: {
-						Log.debug(PlacesMonitorConstants.LOG_TAG,
-								  "Failed to start location updates, status code : RESOLUTION_REQUIRED.  Attempting to get permission.");
+						PlacesMonitorLog.debug("Failed to start location updates, status code : RESOLUTION_REQUIRED.  Attempting to get permission.");
 
 						// Location settings are not satisfied. But could be fixed by showing the
 						// user a dialog.
@@ -184,9 +185,7 @@ class PlacesLocationManager {
 					}
 
 					case LocationSettingsStatusCodes.SETTINGS_CHANGE_UNAVAILABLE: {
-						Log.error(PlacesMonitorConstants.LOG_TAG,
-								  "Failed to start location updates, status code : SETTINGS_CHANGE_UNAVAILABLE. " +
-								  "Location settings can't be changed to meet the requirements, no dialog pops up");
+						PlacesMonitorLog.error("Failed to start location updates, status code : SETTINGS_CHANGE_UNAVAILABLE. Location settings can't be changed to meet the requirements, no dialog pops up");
 						break;
 					}
 
@@ -199,10 +198,57 @@ class PlacesLocationManager {
 		});
 	}
 
+	/**
+	 * Requests location updates with the given {@link LocationRequest}, once the location settings are satisfied.
+	 * <p>
+	 * The activity transitions are also requested if the activity recognition is enabled. The location updates are
+	 * not requested while the device is known to be still, they are requested once it moves again.
+	 * No action is performed if the {@link FusedLocationProviderClient} instance or the {@link PendingIntent} is null.
+	 *
+	 * @param locationRequest the {@link LocationRequest} the location settings were checked for
+	 */
+	private void startLocationUpdates(final LocationRequest locationRequest) {
+		FusedLocationProviderClient fusedLocationProviderClient = clients.getFusedLocationClient();
+
+		if (fusedLocationProviderClient == null) {
+			PlacesMonitorLog.warning("Unable to start monitoring location, fusedLocationProviderClient instance is null");
+			return;
+		}
+
+		PendingIntent locationIntent = clients.getLocationPendingIntent();
+
+		if (locationIntent == null) {
+			PlacesMonitorLog.warning("Unable to start monitoring location, Places Location Broadcast Receiver cannot be initialized");
+			return;
+		}
+
+		setHasMonitoringStarted(true);
+
+		if (activityRecognitionEnabled) {
+			activityRecognition.start();
+		}
+
+		if (isStill) {
+			PlacesMonitorLog.debug("PlacesLocationManager : Device is still, location updates will be requested once it moves");
+			return;
+		}
+
+		fusedLocationProviderClient.requestLocationUpdates(locationRequest, locationIntent);
+	}
+
 	/**
 	 *  Call this method to stop getting any further location updates from Android OS.
 	 */
 	void stopMonitoring() {
+		profileSelector.reset();
+		locationFilter.reset();
+		settingsTracker.stop();
+
+		if (activityRecognitionEnabled) {
+			activityRecognition.stop();
+		}
+
+		isStill = false;
 		stopLocationUpdates();
 	}
 
@@ -211,20 +257,20 @@ class PlacesLocationManager {
 	 *  Requests a immediate location update.
 	 *  <p>
 	 *  Once the location updates are received, {@link Places} extension is called to grab nearbyPOIs around the obtained location.
+	 *  The location is delivered on the main thread, it is passed on from the {@link PlacesMonitorInternal} executor.
 	 *  No action is taken if the {@link FusedLocationProviderClient} instance is null.
 	 */
 	void updateLocation() {
 		if (!hasMonitoringStarted) {
-			Log.debug(PlacesMonitorConstants.LOG_TAG,
-					  "Location updates are stopped or never started. Please start monitoring to get the location update. For more details refer to %s",
-					PlacesMonitorConstants.DocLinks.START_MONITOR);
+			PlacesMonitorLog.debug("Location updates are stopped or never started. Please start monitoring to get the location update. For more details refer to %s",
+								   PlacesMonitorConstants.DocLinks.START_MONITOR);
 			return;
 		}
 
-		FusedLocationProviderClient fusedLocationProviderClient = getFusedLocationClient();
+		FusedLocationProviderClient fusedLocationProviderClient = clients.getFusedLocationClient();
 
 		if (fusedLocationProviderClient == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG, "Unable to update location, fusedLocationProviderClient instance is null");
+			PlacesMonitorLog.warning("Unable to update location, fusedLocationProviderClient instance is null");
 			return;
 		}
 
@@ -233,13 +279,18 @@ class PlacesLocationManager {
 		task.addOnFailureListener(new OnFailureListener() {
 			@Override
 			public void onFailure(Exception e) {
-				Log.debug(PlacesMonitorConstants.LOG_TAG, "Failed to get location" + e.getLocalizedMessage());
+				PlacesMonitorLog.debug("Failed to get location %s", e.getLocalizedMessage());
 			}
 		});
 		task.addOnSuccessListener(new OnSuccessListener<Location>() {
 			@Override
-			public void onSuccess(Location location) {
-				placesMonitorInternal.getPOIsForLocation(location);
+			public void onSuccess(final Location location) {
+				placesMonitorInternal.getExecutor().execute(new Runnable() {
+					@Override
+					public void run() {
+						placesMonitorInternal.getPOIsForLocation(location);
+					}
+				});
 			}
 		});
 	}
@@ -261,6 +312,136 @@ class PlacesLocationManager {
 		}
 	}
 
+	/**
+	 * Handler for setting the location profile value to the location manager.
+	 * <p>
+	 *  This method saves the location profile value to persistence.
+	 *  If the monitoring has already been started, the location updates are requested again with the new profile.
+	 *  The activity transitions are ignored with the {@link PlacesMonitorLocationProfile#GEOFENCE_ONLY} profile, so
+	 *  switching to it resumes the location updates paused while the device was still.
+	 *
+	 * @param locationProfile the {@link PlacesMonitorLocationProfile} to be used for requesting location updates
+	 */
+	void setLocationProfile(final PlacesMonitorLocationProfile locationProfile) {
+		saveRequestedLocationProfile(locationProfile);
+
+		if (usesRefreshFence()) {
+			isStill = false;
+		}
+
+		if (hasMonitoringStarted) {
+			requestLocationUpdates();
+		}
+	}
+
+	/**
+	 * Handler for enabling or disabling the activity recognition.
+	 * <p>
+	 *  This method saves the activity recognition state to persistence.
+	 *  If the monitoring has already been started, the activity transitions are requested or cancelled immediately.
+	 *  Disabling the activity recognition resumes the location updates paused while the device was still.
+	 *
+	 * @param enabled true to enable the activity recognition
+	 */
+	void setActivityRecognitionEnabled(final boolean enabled) {
+		saveActivityRecognitionEnabled(enabled);
+
+		if (!hasMonitoringStarted) {
+			return;
+		}
+
+		if (enabled) {
+			activityRecognition.start();
+			return;
+		}
+
+		activityRecognition.stop();
+		profileSelector.onActivityChanged(DetectedActivity.UNKNOWN);
+
+		if (isStill) {
+			isStill = false;
+			requestLocationUpdates();
+		} else {
+			updateAdaptiveProfile();
+		}
+	}
+
+	/**
+	 * Handler for the activity transition event.
+	 * <p>
+	 * The location updates are paused when the device becomes still, the geofences of the monitored POIs remain
+	 * registered and keep reporting the region events. The location updates are requested again as soon as the device
+	 * enters any other activity, with the profile selected for that activity when the
+	 * {@link PlacesMonitorLocationProfile#ADAPTIVE} profile is requested. They are requested even if they were not known
+	 * to be paused, as the pause outlives the process.
+	 * <p>
+	 * No action is taken if the activity recognition is disabled, if the monitoring has not been started, or with the
+	 * {@link PlacesMonitorLocationProfile#GEOFENCE_ONLY} profile which does not request continuous location updates.
+	 *
+	 * @param eventData {@link EventData} from the activity transition OS event.
+	 */
+	void onActivityTransition(final EventData eventData) {
+		if (!activityRecognitionEnabled || !hasMonitoringStarted || usesRefreshFence()) {
+			PlacesMonitorLog.debug("PlacesLocationManager : Ignoring the activity transition, activity aware monitoring is not active");
+			return;
+		}
+
+		final int activityType;
+
+		try {
+			activityType = eventData.getInteger(PlacesMonitorConstants.EventDataKey.ACTIVITY_TYPE);
+		} catch (VariantException exception) {
+			PlacesMonitorLog.warning("PlacesLocationManager : Exception occurred while extracting the activity type from the OS event. Ignoring activity transition event. Error message - %s",
+									 exception.getMessage());
+			return;
+		}
+
+		profileSelector.onActivityChanged(activityType);
+
+		if (activityType == DetectedActivity.STILL) {
+			if (!isStill) {
+				PlacesMonitorLog.debug("PlacesLocationManager : Device is still, pausing the location updates");
+				isStill = true;
+				pauseLocationUpdates();
+			}
+
+			return;
+		}
+
+		PlacesMonitorLog.debug("PlacesLocationManager : Device entered activity %s, requesting the location updates",
+							   activityType);
+		isStill = false;
+		requestLocationUpdates();
+	}
+
+	/**
+	 * Handler for the nearby POIs obtained for a location.
+	 * <p>
+	 * Updates the point of interest density used by the {@link PlacesMonitorLocationProfile#ADAPTIVE} profile
+	 * and switches the active profile if required. The POIs also become the fence cluster of the {@link #locationFilter}.
+	 * <p>
+	 * Must be called on the {@link PlacesMonitorInternal} executor, where the location updates are filtered, and not
+	 * from the callback of the nearby POIs query.
+	 *
+	 * @param latitude 	latitude of the location the POIs were obtained for
+	 * @param longitude longitude of the location the POIs were obtained for
+	 * @param pois 		a {@link List} of nearby {@link PlacesPOI}
+	 */
+	void onNearbyPOIsReceived(final double latitude, final double longitude, final List<PlacesPOI> pois) {
+		profileSelector.onNearbyPOIsReceived(latitude, longitude, pois);
+		locationFilter.onNearbyPOIsReceived(latitude, longitude, pois);
+		updateAdaptiveProfile();
+	}
+
+	/**
+	 * Verifies if the nearby POIs are refreshed by exiting a refresh geofence instead of continuous location updates.
+	 *
+	 * @return true if the {@link PlacesMonitorLocationProfile#GEOFENCE_ONLY} profile is requested
+	 */
+	boolean usesRefreshFence() {
+		return requestedLocationProfile == PlacesMonitorLocationProfile.GEOFENCE_ONLY;
+	}
+
 	// ========================================================================================
 	// Internal Location Processor
 	// ========================================================================================
@@ -269,6 +450,10 @@ class PlacesLocationManager {
 	 * Handler for processing the received location event.
 	 * <p>
 	 * This method will be called when the OS event on location update is received.
+	 * The OS event carries the single best location of a batched delivery, so the nearby POIs are refreshed at most
+	 * once per batch.
+	 * Stale, inaccurate or implausible locations are discarded by the {@link #locationFilter}. The nearby POIs are not
+	 * queried again while the location remains well inside the cluster of the currently monitored POIs.
 	 * This method attempts to fetch and monitor 20 near by POIs around the given location.
 	 *
 	 * @param eventData {@link EventData} from the location update OS event.
@@ -282,27 +467,173 @@ class PlacesLocationManager {
 			latitude = eventData.getDouble(PlacesMonitorConstants.EventDataKey.LATITUDE);
 			longitude = eventData.getDouble(PlacesMonitorConstants.EventDataKey.LONGITUDE);
 		} catch (VariantException exception) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						String.format("PlacesLocationManager : Exception occurred while extracting latitude/longitude from the OS event. Ignoring location update event. Error message - %s",
-									  exception.getMessage()));
+			PlacesMonitorLog.warning("PlacesLocationManager : Exception occurred while extracting latitude/longitude from the OS event. Ignoring location update event. Error message - %s",
+									 exception.getMessage());
+			PlacesMonitorMetrics.getInstance().increment(PlacesMonitorMetrics.Counter.LOCATION_FIXES_DROPPED);
 			return;
 		}
 
 
 		if (!isValidLat(latitude) || !isValidLon(longitude)) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"PlacesLocationManager : Invalid Latitude: (" + latitude + ") or Longitude (" + longitude +
-						") obtained from the OS event. Ignoring location update event.");
+			PlacesMonitorLog.warning("PlacesLocationManager : Invalid Latitude: (%s) or Longitude (%s) obtained from the OS event. Ignoring location update event.",
+									 latitude, longitude);
+			PlacesMonitorMetrics.getInstance().increment(PlacesMonitorMetrics.Counter.LOCATION_FIXES_DROPPED);
 			return;
 		}
 
 
+		final long time = eventData.optLong(PlacesMonitorConstants.EventDataKey.TIME, System.currentTimeMillis());
+		final double accuracy = eventData.optDouble(PlacesMonitorConstants.EventDataKey.ACCURACY, Double.NaN);
+
+		if (!locationFilter.accept(latitude, longitude, accuracy, time,
+								   eventData.optDouble(PlacesMonitorConstants.EventDataKey.SPEED, Double.NaN))) {
+			PlacesMonitorMetrics.getInstance().increment(PlacesMonitorMetrics.Counter.LOCATION_FIXES_DROPPED);
+			return;
+		}
+
+		profileSelector.onLocationReceived(latitude, longitude, time);
+		updateAdaptiveProfile();
+
+		if (locationFilter.isWithinFenceCluster(latitude, longitude, accuracy)) {
+			PlacesMonitorLog.debug("PlacesLocationManager : Location is within the monitored fence cluster, skipping the near by pois query");
+			PlacesMonitorMetrics.getInstance().increment(PlacesMonitorMetrics.Counter.NEARBY_POI_QUERIES_SUPPRESSED);
+			return;
+		}
+
+		Location location = new Location(eventData.optString(PlacesMonitorConstants.EventDataKey.PROVIDER,
+										  "Places Monitor location"));
+		location.setLatitude(latitude);
+		location.setLongitude(longitude);
+
+		if (!Double.isNaN(accuracy)) {
+			location.setAccuracy((float) accuracy);
+		}
+
+		location.setTime(time);
+		placesMonitorInternal.getPOIsForLocation(location);
+	}
+
+	/**
+	 * Handler for the exit from the refresh fence.
+	 * <p>
+	 * The nearby POIs are queried around the location that triggered the exit, carried by the geofence trigger OS event.
+	 * The last known location is not used, it is often missing or older than the exit right after it, and the refresh
+	 * fence would then be registered again around a location the device has already left.
+	 * If the OS did not provide the triggering location, a fresh location fix is requested instead, the nearby POIs are
+	 * queried once it is received.
+	 * <p>
+	 * No action is taken if the monitoring has not been started.
+	 *
+	 * @param eventData {@link EventData} from the geofence trigger OS event.
+	 */
+	void onRefreshFenceExited(final EventData eventData) {
+		if (!hasMonitoringStarted) {
+			PlacesMonitorLog.debug("PlacesLocationManager : Ignoring the refresh fence exit, the monitoring is not started");
+			return;
+		}
+
+		final double latitude = eventData.optDouble(PlacesMonitorConstants.EventDataKey.LATITUDE, Double.NaN);
+		final double longitude = eventData.optDouble(PlacesMonitorConstants.EventDataKey.LONGITUDE, Double.NaN);
+
+		// the device has left the monitored area, whatever the cluster of the monitored POIs
+		locationFilter.clearFenceCluster();
+
+		if (!isValidLat(latitude) || !isValidLon(longitude)) {
+			PlacesMonitorLog.debug("PlacesLocationManager : The refresh fence exit has no location, requesting a location fix");
+			requestLocationUpdates();
+			return;
+		}
+
 		Location location = new Location("Places Monitor location");
 		location.setLatitude(latitude);
 		location.setLongitude(longitude);
+		final double accuracy = eventData.optDouble(PlacesMonitorConstants.EventDataKey.ACCURACY, Double.NaN);
+
+		if (!Double.isNaN(accuracy)) {
+			location.setAccuracy((float) accuracy);
+		}
+
+		location.setTime(eventData.optLong(PlacesMonitorConstants.EventDataKey.TIME, System.currentTimeMillis()));
 		placesMonitorInternal.getPOIsForLocation(location);
 	}
 
+	/**
+	 * Switches the active location profile when the {@link PlacesMonitorLocationProfile#ADAPTIVE} profile is requested
+	 * and the {@link #profileSelector} selects a profile different from the active one.
+	 * <p>
+	 * No action is taken if the location monitoring has not been started.
+	 */
+	private void updateAdaptiveProfile() {
+		if (requestedLocationProfile != PlacesMonitorLocationProfile.ADAPTIVE || !hasMonitoringStarted) {
+			return;
+		}
+
+		final PlacesMonitorLocationProfile selectedProfile = profileSelector.getProfile();
+
+		if (selectedProfile == activeLocationProfile) {
+			return;
+		}
+
+		PlacesMonitorLog.debug("PlacesLocationManager : Adaptive location profile switching from %s to %s",
+							   activeLocationProfile, selectedProfile);
+		requestLocationUpdates();
+	}
+
+	/**
+	 * Requests location updates from the {@link FusedLocationProviderClient} with the {@link LocationRequest} of the
+	 * current location profile, replacing any previous request made with the same {@link PendingIntent}.
+	 * <p>
+	 * Location settings are not checked again, this method must only be called once the monitoring has started.
+	 * No action is performed while the device is still, the location updates are requested with the current profile
+	 * once it moves again.
+	 * No action is performed if the FusedLocationProviderClient instance or the PendingIntent is null.
+	 */
+	private void requestLocationUpdates() {
+		if (isStill) {
+			PlacesMonitorLog.debug("PlacesLocationManager : Device is still, location updates will be requested once it moves");
+			return;
+		}
+
+		FusedLocationProviderClient fusedLocationProviderClient = clients.getFusedLocationClient();
+
+		if (fusedLocationProviderClient == null) {
+			PlacesMonitorLog.warning("Unable to update location request, fusedLocationProviderClient instance is null");
+			return;
+		}
+
+		PendingIntent locationIntent = clients.getLocationPendingIntent();
+
+		if (locationIntent == null) {
+			PlacesMonitorLog.warning("Unable to update location request, Places Location Broadcast Receiver cannot be initialized");
+			return;
+		}
+
+		fusedLocationProviderClient.requestLocationUpdates(getLocationRequest(), locationIntent);
+	}
+
+	/**
+	 * Removes the location updates while the device is still, without stopping the monitoring.
+	 * <p>
+	 * No action is performed if the FusedLocationProviderClient instance or the PendingIntent is null.
+	 */
+	private void pauseLocationUpdates() {
+		FusedLocationProviderClient fusedLocationProviderClient = clients.getFusedLocationClient();
+
+		if (fusedLocationProviderClient == null) {
+			PlacesMonitorLog.warning("Unable to pause location updates, fusedLocationProviderClient instance is null");
+			return;
+		}
+
+		PendingIntent locationPendingIntent = clients.getLocationPendingIntent();
+
+		if (locationPendingIntent == null) {
+			PlacesMonitorLog.warning("PlacesLocationManager : Unable to pause location updates, locationPendingIntent is null");
+			return;
+		}
+
+		fusedLocationProviderClient.removeLocationUpdates(locationPendingIntent);
+	}
+
 	/**
 	 * Call to stop getting location updates from Android OS.
 	 * <p>
@@ -315,165 +646,178 @@ class PlacesLocationManager {
 	 */
 	private void stopLocationUpdates() {
 
-		FusedLocationProviderClient fusedLocationProviderClient = getFusedLocationClient();
+		FusedLocationProviderClient fusedLocationProviderClient = clients.getFusedLocationClient();
 
 		if (fusedLocationProviderClient == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"Unable to stop monitoring location, fusedLocationProviderClient instance is null");
+			PlacesMonitorLog.warning("Unable to stop monitoring location, fusedLocationProviderClient instance is null");
 			return;
 		}
 
-		PendingIntent locationPendingIntent = getPendingIntent();
+		PendingIntent locationPendingIntent = clients.getLocationPendingIntent();
 
 		if (locationPendingIntent == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"PlacesLocationManager : Unable to stop monitoring location, locationPendingIntent is null");
+			PlacesMonitorLog.warning("PlacesLocationManager : Unable to stop monitoring location, locationPendingIntent is null");
 			return;
 		}
 
 
-		Task<Void> task = fusedLocationClient.removeLocationUpdates(getPendingIntent());
+		Task<Void> task = fusedLocationProviderClient.removeLocationUpdates(locationPendingIntent);
 		task.addOnCompleteListener(new OnCompleteListener<Void>() {
 			@Override
 			public void onComplete(Task<Void> task) {
 				setHasMonitoringStarted(false);
-				Log.debug(PlacesMonitorConstants.LOG_TAG, "Places Monitor has successfully stopped further location updates");
+				PlacesMonitorLog.debug("Places Monitor has successfully stopped further location updates");
 			}
 		});
 	}
 
 
 	// ========================================================================================
-	// Getters for intent, fusedLocationClient and locationRequest
+	// Getters for locationRequest and locationSettingsRequest
 	// ========================================================================================
 
 	/**
-	 * Returns a {@code PendingIntent} instance for getting the location updates
+	 * Returns {@code LocationRequest} instance with distance and time frequency of the
+	 * location request.
 	 * <p>
-	 * Returns existing {@link #locationPendingIntent} instance if its not null.
-	 * Else attempts to create a new instance of {@link FusedLocationProviderClient}.
-	 * Returns null if the app context is not available.
+	 * The request parameters depend on the requested {@link PlacesMonitorLocationProfile}. For the
+	 * {@link PlacesMonitorLocationProfile#ADAPTIVE} profile, the parameters of the profile selected by the
+	 * {@link #profileSelector} are used. For the {@link PlacesMonitorLocationProfile#GEOFENCE_ONLY} profile, a single
+	 * location update is requested.
+	 * The request sets a maximum wait time so that the OS can batch several location fixes and deliver them
+	 * together, reducing the number of wakeups. The wait is bounded by {@link PlacesMonitorConstants.Location#REQUEST_MAX_WAIT_TIME},
+	 * so that the fixes of a batch are still fresh enough for the {@link #locationFilter}.
 	 *
-	 * @return a {@code FusedLocationProviderClient} instance
+	 * @return A valid {@link LocationRequest} instance
 	 */
-	private PendingIntent getPendingIntent() {
-		// Reuse the PendingIntent if we already have it.
-		if (locationPendingIntent != null) {
-			return locationPendingIntent;
-		}
-
-		Context context = App.getAppContext();
+	private LocationRequest getLocationRequest() {
+		activeLocationProfile = requestedLocationProfile == PlacesMonitorLocationProfile.ADAPTIVE ?
+								profileSelector.getProfile() : requestedLocationProfile;
+		LocationRequest locationRequest = LocationRequest.create();
 
-		if (context == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"PlacesLocationManager : Unable to create an intent to receive location updates, App Context not available");
-			return null;
+		switch (activeLocationProfile) {
+			case POWER_SAVER:
+				locationRequest.setInterval(PlacesMonitorConstants.Location.POWER_SAVER_REQUEST_INTERVAL);
+				locationRequest.setFastestInterval(PlacesMonitorConstants.Location.POWER_SAVER_REQUEST_FASTEST_INTERVAL);
+				locationRequest.setSmallestDisplacement(PlacesMonitorConstants.Location.POWER_SAVER_REQUEST_SMALLEST_DISPLACEMENT);
+				locationRequest.setMaxWaitTime(PlacesMonitorConstants.Location.REQUEST_MAX_WAIT_TIME);
+				locationRequest.setPriority(LocationRequest.PRIORITY_LOW_POWER);
+				break;
+
+			case GEOFENCE_ONLY:
+				// the nearby POIs are refreshed on exit from the refresh fence, only the initial location is needed
+				locationRequest.setInterval(PlacesMonitorConstants.Location.BALANCED_REQUEST_FASTEST_INTERVAL);
+				locationRequest.setFastestInterval(PlacesMonitorConstants.Location.BALANCED_REQUEST_FASTEST_INTERVAL);
+				locationRequest.setNumUpdates(1);
+				locationRequest.setPriority(LocationRequest.PRIORITY_BALANCED_POWER_ACCURACY);
+				break;
+
+			case BALANCED:
+				locationRequest.setInterval(PlacesMonitorConstants.Location.BALANCED_REQUEST_INTERVAL);
+				locationRequest.setFastestInterval(PlacesMonitorConstants.Location.BALANCED_REQUEST_FASTEST_INTERVAL);
+				locationRequest.setSmallestDisplacement(PlacesMonitorConstants.Location.BALANCED_REQUEST_SMALLEST_DISPLACEMENT);
+				locationRequest.setMaxWaitTime(PlacesMonitorConstants.Location.REQUEST_MAX_WAIT_TIME);
+				locationRequest.setPriority(LocationRequest.PRIORITY_BALANCED_POWER_ACCURACY);
+				break;
+
+			default:
+				locationRequest.setInterval(PlacesMonitorConstants.Location.REQUEST_INTERVAL);
+				locationRequest.setFastestInterval(PlacesMonitorConstants.Location.REQUEST_FASTEST_INTERVAL);
+				locationRequest.setSmallestDisplacement(PlacesMonitorConstants.Location.REQUEST_SMALLEST_DISPLACEMENT);
+				locationRequest.setMaxWaitTime(PlacesMonitorConstants.Location.REQUEST_MAX_WAIT_TIME);
+				locationRequest.setPriority(LocationRequest.PRIORITY_HIGH_ACCURACY);
+				break;
 		}
 
-		Intent intent = new Intent(context, PlacesLocationBroadcastReceiver.class);
-		intent.setAction(PlacesLocationBroadcastReceiver.ACTION_LOCATION_UPDATE);
-		locationPendingIntent = PendingIntent.getBroadcast(App.getAppContext(), 0, intent, PendingIntent.FLAG_UPDATE_CURRENT);
-		return locationPendingIntent;
+		return locationRequest;
 	}
 
 	/**
-	 * Returns {@code FusedLocationProviderClient} instance
+	 * Returns the {@code LocationSettingsRequest} checking the location settings needed by the given location request.
 	 * <p>
-	 * Returns existing {@link #fusedLocationClient} instance if it's not null.
-	 * Else attempts to create a new instance of {@link FusedLocationProviderClient}.
-	 * Returns null if the app context is not available or the google's getFusedLocationProviderClient API return null.
+	 * The settings request is reused as long as the location request does not change, it only changes with the location
+	 * profile.
 	 *
-	 * @return a {@code FusedLocationProviderClient} instance
+	 * @param locationRequest the {@link LocationRequest} to be checked
+	 * @return a {@link LocationSettingsRequest} instance
 	 */
-	private FusedLocationProviderClient getFusedLocationClient() {
-		if (fusedLocationClient != null) {
-			return fusedLocationClient;
+	private LocationSettingsRequest getLocationSettingsRequest(final LocationRequest locationRequest) {
+		if (locationSettingsRequest == null || !locationRequest.equals(settingsLocationRequest)) {
+			settingsLocationRequest = locationRequest;
+			locationSettingsRequest = new LocationSettingsRequest.Builder().addLocationRequest(locationRequest).build();
 		}
 
-		Context context = App.getAppContext();
-
-		if (context == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG, "Places location Services not initialized, App Context not available");
-			return null;
-		}
-
-		fusedLocationClient = LocationServices.getFusedLocationProviderClient(App.getAppContext());
-		return fusedLocationClient;
-	}
-
-	/**
-	 * Returns {@code LocationRequest} instance with distance and time frequency of the
-	 * location request.
-	 *
-	 * @return A valid {@link LocationRequest} instance
-	 */
-	private LocationRequest getLocationRequest() {
-		LocationRequest locationRequest = LocationRequest.create();
-		locationRequest.setInterval(PlacesMonitorConstants.Location.REQUEST_INTERVAL);
-		locationRequest.setFastestInterval(PlacesMonitorConstants.Location.REQUEST_FASTEST_INTERVAL);
-		locationRequest.setSmallestDisplacement(PlacesMonitorConstants.Location.REQUEST_SMALLEST_DISPLACEMENT);
-		locationRequest.setPriority(LocationRequest.PRIORITY_HIGH_ACCURACY);
-		return locationRequest;
+		return locationSettingsRequest;
 	}
 
 
 	/**
 	 * Persists the {@link #hasMonitoringStarted} in-memory variable to persistence
 	 * <p>
+	 * The write is performed asynchronously by {@link PlacesMonitorPersistence}.
 	 * Saving of data will fail if the {@link SharedPreferences} or App's {@link Context} is null.
 	 *
 	 * @param hasMonitoringStarted value to be persisted
 	 */
 	void setHasMonitoringStarted(final boolean hasMonitoringStarted) {
 		this.hasMonitoringStarted = hasMonitoringStarted;
-		SharedPreferences sharedPreferences = PlacesMonitorUtil.getSharedPreferences();
-
-		if (sharedPreferences == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"Unable to save monitoring geofences from persistence, sharedPreference is null");
-			return;
-		}
 
-		SharedPreferences.Editor editor = sharedPreferences.edit();
-
-		if (editor == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"Unable to save monitoring geofences from persistence, shared preference editor is null");
-			return;
+		if (!PlacesMonitorPersistence.getInstance().putBoolean(
+					PlacesMonitorConstants.SharedPreference.HAS_MONITORING_STARTED_KEY, hasMonitoringStarted)) {
+			PlacesMonitorLog.warning("Unable to persist hasMonitoringStarted, sharedPreference or its editor is not available");
 		}
-
-		editor.putBoolean(PlacesMonitorConstants.SharedPreference.HAS_MONITORING_STARTED_KEY, hasMonitoringStarted);
-		editor.commit();
 	}
 
 
 	/**
 	 * Persists the {@link #requestedLocationPermission} in-memory variable to persistence
 	 * <p>
+	 * The write is performed asynchronously by {@link PlacesMonitorPersistence}.
 	 * Saving of data will fail if the {@link SharedPreferences} or App's {@link Context} is null.
 	 *
 	 * @param locationPermission value to be persisted
 	 */
 	void saveRequestedLocationPermission(final PlacesMonitorLocationPermission locationPermission) {
 		this.requestedLocationPermission = locationPermission;
-		SharedPreferences sharedPreferences = PlacesMonitorUtil.getSharedPreferences();
 
-		if (sharedPreferences == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"Unable to save location permission value to persistence, sharedPreference is null");
-			return;
+		if (!PlacesMonitorPersistence.getInstance().putString(PlacesMonitorConstants.SharedPreference.LOCATION_PERMISSION_KEY,
+				locationPermission.getValue())) {
+			PlacesMonitorLog.warning("Unable to save location permission value to persistence, sharedPreference is null");
 		}
+	}
 
-		SharedPreferences.Editor editor = sharedPreferences.edit();
+	/**
+	 * Persists the {@link #requestedLocationProfile} in-memory variable to persistence
+	 * <p>
+	 * The write is performed asynchronously by {@link PlacesMonitorPersistence}.
+	 * Saving of data will fail if the {@link SharedPreferences} or App's {@link Context} is null.
+	 *
+	 * @param locationProfile value to be persisted
+	 */
+	void saveRequestedLocationProfile(final PlacesMonitorLocationProfile locationProfile) {
+		this.requestedLocationProfile = locationProfile;
 
-		if (editor == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"Unable to save location permission value to persistence, shared preference editor is null");
-			return;
+		if (!PlacesMonitorPersistence.getInstance().putString(PlacesMonitorConstants.SharedPreference.LOCATION_PROFILE_KEY,
+				locationProfile.getValue())) {
+			PlacesMonitorLog.warning("Unable to save location profile value to persistence, sharedPreference is null");
 		}
+	}
+
+	/**
+	 * Persists the {@link #activityRecognitionEnabled} in-memory variable to persistence
+	 * <p>
+	 * The write is performed asynchronously by {@link PlacesMonitorPersistence}.
+	 * Saving of data will fail if the {@link SharedPreferences} or App's {@link Context} is null.
+	 *
+	 * @param enabled value to be persisted
+	 */
+	void saveActivityRecognitionEnabled(final boolean enabled) {
+		this.activityRecognitionEnabled = enabled;
 
-		editor.putString(PlacesMonitorConstants.SharedPreference.LOCATION_PERMISSION_KEY, locationPermission.getValue());
-		editor.commit();
+		if (!PlacesMonitorPersistence.getInstance().putBoolean(
+					PlacesMonitorConstants.SharedPreference.ACTIVITY_RECOGNITION_KEY, enabled)) {
+			PlacesMonitorLog.warning("Unable to save activity recognition value to persistence, sharedPreference is null");
+		}
 	}
 
 	/**
@@ -486,19 +830,25 @@ class PlacesLocationManager {
 		SharedPreferences sharedPreferences = PlacesMonitorUtil.getSharedPreferences();
 
 		if (sharedPreferences == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"Unable to load hasMonitoringStarted from persistence, sharedPreference is null");
+			PlacesMonitorLog.warning("Unable to load hasMonitoringStarted from persistence, sharedPreference is null");
 			return;
 		}
 
 		hasMonitoringStarted = sharedPreferences.getBoolean(PlacesMonitorConstants.SharedPreference.HAS_MONITORING_STARTED_KEY,
 							   false);
-		Log.trace(PlacesMonitorConstants.LOG_TAG,
-				  "PlacesLocationManager has loaded " + hasMonitoringStarted +  " for hasMonitoringStarted from persistence");
+		PlacesMonitorLog.trace("PlacesLocationManager has loaded %s for hasMonitoringStarted from persistence",
+							   hasMonitoringStarted);
 
 		String locationPermissionString = sharedPreferences.getString(
 											  PlacesMonitorConstants.SharedPreference.LOCATION_PERMISSION_KEY, "");
 		this.requestedLocationPermission = PlacesMonitorLocationPermission.fromString(locationPermissionString);
+
+		String locationProfileString = sharedPreferences.getString(
+										   PlacesMonitorConstants.SharedPreference.LOCATION_PROFILE_KEY, "");
+		this.requestedLocationProfile = PlacesMonitorLocationProfile.fromString(locationProfileString);
+
+		this.activityRecognitionEnabled = sharedPreferences.getBoolean(
+											  PlacesMonitorConstants.SharedPreference.ACTIVITY_RECOGNITION_KEY, false);
 	}
 
 
@@ -15,6 +15,8 @@
 
 package com.adobe.marketing.mobile;
 
+import java.util.Map;
+
 public class PlacesMonitor {
 
 	/**
@@ -35,8 +37,9 @@ public class PlacesMonitor {
 		MobileCore.registerExtension(PlacesMonitorInternal.class, new ExtensionErrorCallback<ExtensionError>() {
 			@Override
 			public void error(ExtensionError extensionError) {
-				Log.debug(PlacesMonitorConstants.LOG_TAG,"There was an error registering Places Monitoring Extension: %s. For more details refer to %s",
-						extensionError.getErrorName(), PlacesMonitorConstants.DocLinks.REGISTER_PLACES_MONITOR);
+				PlacesMonitorLog.debug("There was an error registering Places Monitoring Extension: %s. For more details refer to %s",
+									   extensionError.getErrorName(),
+									   PlacesMonitorConstants.DocLinks.REGISTER_PLACES_MONITOR);
 			}
 		});
 	}
@@ -121,6 +124,57 @@ public class PlacesMonitor {
 		dispatchMonitorEvent(PlacesMonitorConstants.EVENTNAME_SET_LOCATION_PERMISSION, data);
 	}
 
+	/**
+	 * This API sets the location profile used by PlacesMonitor to request location updates from the OS.
+	 * <p>
+	 * The location profile trades the accuracy and frequency of the location updates against battery consumption.
+	 * Calling this method while actively monitoring applies the new profile immediately.
+	 *
+	 * {@link PlacesMonitorLocationProfile#PRECISE} is the default location profile.
+	 *
+	 * Location profile can be set to one of the following values:
+	 * <ul>
+	 *     <li>{@link PlacesMonitorLocationProfile#POWER_SAVER}: low power location updates, received at most every 15 minutes.
+	 *     <li>{@link PlacesMonitorLocationProfile#BALANCED}: block level accuracy location updates, received at most every 5 minutes.
+	 *     <li>{@link PlacesMonitorLocationProfile#PRECISE}: high accuracy location updates, requested every hour and
+	 *     received at most every 30 minutes once the device moved at least 1 kilometer.
+	 *     <li>{@link PlacesMonitorLocationProfile#ADAPTIVE}: switches between the above profiles based on the density of
+	 *     the points of interest around the device and on the recent movement speed of the device.
+	 * </ul>
+	 * @param placesMonitorLocationProfile the location profile value
+	 */
+	public static void setLocationProfile(final PlacesMonitorLocationProfile placesMonitorLocationProfile) {
+		EventData data = new EventData();
+		String locationProfileString = placesMonitorLocationProfile == null ? null :
+									   placesMonitorLocationProfile.getValue();
+		data.putString(PlacesMonitorConstants.EventDataKey.LOCATION_PROFILE, locationProfileString);
+		dispatchMonitorEvent(PlacesMonitorConstants.EVENTNAME_SET_LOCATION_PROFILE, data);
+	}
+
+	/**
+	 * This API enables or disables the activity aware monitoring of the device location.
+	 * <p>
+	 * When enabled, PlacesMonitor subscribes to the activity transitions detected by the OS while actively monitoring.
+	 * The location updates are paused while the device is still and resumed as soon as it moves again, the geofences
+	 * of the nearby points of interest remain registered in the meantime. With the
+	 * {@link PlacesMonitorLocationProfile#ADAPTIVE} location profile, the detected activity is also used to select the
+	 * location profile, {@link PlacesMonitorLocationProfile#POWER_SAVER} on foot or on a bicycle and
+	 * {@link PlacesMonitorLocationProfile#BALANCED} in a vehicle.
+	 *
+	 * The application must declare and obtain the {@code android.permission.ACTIVITY_RECOGNITION} permission on
+	 * Android 10 and above, or declare the {@code com.google.android.gms.permission.ACTIVITY_RECOGNITION} permission on
+	 * older versions. Activity aware monitoring has no effect without it.
+	 *
+	 * Activity aware monitoring is disabled by default.
+	 *
+	 * @param enabled true to enable the activity aware monitoring, false to disable it
+	 */
+	public static void setActivityRecognitionEnabled(final boolean enabled) {
+		EventData data = new EventData();
+		data.putBoolean(PlacesMonitorConstants.EventDataKey.ACTIVITY_RECOGNITION, enabled);
+		dispatchMonitorEvent(PlacesMonitorConstants.EVENTNAME_SET_ACTIVITY_RECOGNITION, data);
+	}
+
 	/**
 	 * Start tracking the device's location and monitoring corresponding nearby POI's
 	 *
@@ -152,6 +206,30 @@ public class PlacesMonitor {
 		dispatchMonitorEvent(PlacesMonitorConstants.EVENTNAME_UPDATE, new EventData());
 	}
 
+	/**
+	 * Returns the metrics recorded by PlacesMonitor since the app process started.
+	 * <p>
+	 * The metrics are returned as a {@code Map} of counters, each mapped to a {@code Long}, and of histograms, each mapped
+	 * to a {@code Map} with the count, sum, max and the 50th, 90th and 99th percentiles of the recorded values.
+	 * They include the depth of the event queue and the time taken to drain it, the latency and failures of the nearby POI
+	 * queries, the fences added and removed per refresh, the failures to add geofences, the persistence write time and the
+	 * location fixes received and dropped.
+	 * <p>
+	 * The callback is called synchronously on the calling thread.
+	 * The metrics are also published in the PlacesMonitor shared state, at most once a minute, when the
+	 * {@code placesmonitor.metricssharedstate} configuration is set to true.
+	 *
+	 * @param callback {@link AdobeCallback} called with a {@code Map} of the metrics
+	 */
+	public static void getMetrics(final AdobeCallback<Map<String, Object>> callback) {
+		if (callback == null) {
+			PlacesMonitorLog.warning("Unable to get the metrics, the callback is null");
+			return;
+		}
+
+		callback.call(PlacesMonitorMetrics.getInstance().snapshot());
+	}
+
 	/**
 	 * Dispatches an {@link Event} to {@link EventHub} for the places monitor extension to process.
 	 * <ul>
@@ -171,14 +249,13 @@ public class PlacesMonitor {
 		ExtensionErrorCallback<ExtensionError> extensionErrorCallback = new ExtensionErrorCallback<ExtensionError>() {
 			@Override
 			public void error(final ExtensionError extensionError) {
-				Log.error(PlacesMonitorConstants.LOG_TAG, String.format("An error occurred dispatching event '%s', %s",
-						  monitorEvent.getName(), extensionError.getErrorName()));
+				PlacesMonitorLog.error("An error occurred dispatching event '%s', %s", monitorEvent.getName(),
+									   extensionError.getErrorName());
 			}
 		};
 
 		if (MobileCore.dispatchEvent(monitorEvent, extensionErrorCallback)) {
-			Log.debug(PlacesMonitorConstants.LOG_TAG, String.format("Places Monitor dispatched an event '%s'",
-					  monitorEvent.getName()));
+			PlacesMonitorLog.debug("Places Monitor dispatched an event '%s'", monitorEvent.getName());
 		}
 	}
 
@@ -202,13 +279,13 @@ public class PlacesMonitor {
 		ExtensionErrorCallback<ExtensionError> extensionErrorCallback = new ExtensionErrorCallback<ExtensionError>() {
 			@Override
 			public void error(final ExtensionError extensionError) {
-				Log.error(PlacesMonitorConstants.LOG_TAG, String.format("An error occurred dispatching event '%s', %s",
-						  stopEvent.getName(), extensionError.getErrorName()));
+				PlacesMonitorLog.error("An error occurred dispatching event '%s', %s", stopEvent.getName(),
+									   extensionError.getErrorName());
 			}
 		};
 
 		if (MobileCore.dispatchEvent(stopEvent, extensionErrorCallback)) {
-			Log.debug(PlacesMonitorConstants.LOG_TAG, "Places Monitor dispatched stop event");
+			PlacesMonitorLog.debug("Places Monitor dispatched stop event");
 		}
 	}
 }
@@ -0,0 +1,191 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorActivityRecognition.java
+//
+
+package com.adobe.marketing.mobile;
+
+import android.Manifest;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.os.Build;
+import android.support.v4.app.ActivityCompat;
+
+import com.google.android.gms.location.ActivityRecognitionClient;
+import com.google.android.gms.location.ActivityTransition;
+import com.google.android.gms.location.ActivityTransitionRequest;
+import com.google.android.gms.location.DetectedActivity;
+import com.google.android.gms.tasks.OnFailureListener;
+import com.google.android.gms.tasks.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Subscribes to the activity transitions detected by the OS, delivered to the
+ * {@link PlacesActivityTransitionBroadcastReceiver}.
+ * <p>
+ * Only the entries into the activities that matter to the location monitoring are requested: being still, moving on
+ * foot, on a bicycle or in a vehicle.
+ * <p>
+ * The subscription requires the {@code android.permission.ACTIVITY_RECOGNITION} runtime permission on Android 10 and
+ * above, and the {@code com.google.android.gms.permission.ACTIVITY_RECOGNITION} permission on older versions. Both are
+ * to be declared and obtained by the application, no subscription is made without them.
+ */
+class PlacesMonitorActivityRecognition {
+
+	private static final int[] MONITORED_ACTIVITIES = {
+		DetectedActivity.STILL,
+		DetectedActivity.WALKING,
+		DetectedActivity.RUNNING,
+		DetectedActivity.ON_BICYCLE,
+		DetectedActivity.IN_VEHICLE
+	};
+
+	private final PlacesMonitorClients clients = PlacesMonitorClients.getInstance();
+	private volatile boolean isSubscribed;
+
+	/**
+	 * Subscribes to the activity transitions.
+	 * <p>
+	 * No action is taken if the subscription is already made, if the activity recognition permission is not granted,
+	 * or if the {@link ActivityRecognitionClient} instance or the {@link PendingIntent} is null.
+	 */
+	void start() {
+		if (isSubscribed) {
+			return;
+		}
+
+		if (!isPermissionGranted()) {
+			PlacesMonitorLog.warning("Unable to start the activity recognition, the activity recognition permission is not granted");
+			return;
+		}
+
+		final ActivityRecognitionClient activityRecognitionClient = clients.getActivityRecognitionClient();
+
+		if (activityRecognitionClient == null) {
+			PlacesMonitorLog.warning("Unable to start the activity recognition, activityRecognitionClient instance is null");
+			return;
+		}
+
+		final PendingIntent transitionIntent = clients.getActivityTransitionPendingIntent();
+
+		if (transitionIntent == null) {
+			PlacesMonitorLog.warning("Unable to start the activity recognition, Places Activity Transition Broadcast Receiver cannot be initialized");
+			return;
+		}
+
+		final Task<Void> task;
+
+		try {
+			task = activityRecognitionClient.requestActivityTransitionUpdates(createTransitionRequest(), transitionIntent);
+		} catch (SecurityException e) {
+			PlacesMonitorLog.warning("Unable to start the activity recognition, the activity recognition permission is not declared: %s",
+									 e.getMessage());
+			return;
+		}
+
+		isSubscribed = true;
+		PlacesMonitorLog.debug("Requested the activity transition updates");
+
+		if (task != null) {
+			task.addOnFailureListener(new OnFailureListener() {
+				@Override
+				public void onFailure(Exception e) {
+					isSubscribed = false;
+					PlacesMonitorLog.warning("Failed to request the activity transition updates: %s", e.getLocalizedMessage());
+				}
+			});
+		}
+	}
+
+	/**
+	 * Cancels the subscription to the activity transitions.
+	 * <p>
+	 * The subscription is cancelled even if it was made by a previous process, the OS keeps it until it is removed.
+	 * No action is taken if the {@link ActivityRecognitionClient} instance or the {@link PendingIntent} is null.
+	 */
+	void stop() {
+		isSubscribed = false;
+		final ActivityRecognitionClient activityRecognitionClient = clients.getActivityRecognitionClient();
+
+		if (activityRecognitionClient == null) {
+			PlacesMonitorLog.warning("Unable to stop the activity recognition, activityRecognitionClient instance is null");
+			return;
+		}
+
+		final PendingIntent transitionIntent = clients.getActivityTransitionPendingIntent();
+
+		if (transitionIntent == null) {
+			PlacesMonitorLog.warning("Unable to stop the activity recognition, Places Activity Transition Broadcast Receiver cannot be initialized");
+			return;
+		}
+
+		try {
+			activityRecognitionClient.removeActivityTransitionUpdates(transitionIntent);
+		} catch (SecurityException e) {
+			PlacesMonitorLog.debug("Unable to stop the activity recognition, the activity recognition permission is not declared: %s",
+								   e.getMessage());
+		}
+	}
+
+	/**
+	 * @return true if the activity transitions are requested
+	 */
+	boolean isSubscribed() {
+		return isSubscribed;
+	}
+
+	/**
+	 * Creates the request for the entry transitions of the {@link #MONITORED_ACTIVITIES}.
+	 *
+	 * @return an {@link ActivityTransitionRequest} instance
+	 */
+	private static ActivityTransitionRequest createTransitionRequest() {
+		final List<ActivityTransition> transitions = new ArrayList<ActivityTransition>();
+
+		for (int activityType : MONITORED_ACTIVITIES) {
+			transitions.add(new ActivityTransition.Builder()
+							.setActivityType(activityType)
+							.setActivityTransition(ActivityTransition.ACTIVITY_TRANSITION_ENTER)
+							.build());
+		}
+
+		return new ActivityTransitionRequest(transitions);
+	}
+
+	/**
+	 * Checks if the activity recognition permission is granted.
+	 * <p>
+	 * Below Android 10, the permission is granted at install time if the application declares it, a missing declaration
+	 * is detected when subscribing.
+	 *
+	 * @return true if the activity transitions can be requested
+	 */
+	private static boolean isPermissionGranted() {
+		if (Build.VERSION.SDK_INT < Build.VERSION_CODES.Q) {
+			return true;
+		}
+
+		final Context context = App.getAppContext();
+
+		if (context == null) {
+			PlacesMonitorLog.warning("Unable to check the activity recognition permission, App context is not available");
+			return false;
+		}
+
+		return ActivityCompat.checkSelfPermission(context,
+				Manifest.permission.ACTIVITY_RECOGNITION) == PackageManager.PERMISSION_GRANTED;
+	}
+}
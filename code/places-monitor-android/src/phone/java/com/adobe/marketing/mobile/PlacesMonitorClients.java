@@ -0,0 +1,312 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorClients.java
+//
+
+package com.adobe.marketing.mobile;
+
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+
+import com.google.android.gms.location.ActivityRecognition;
+import com.google.android.gms.location.ActivityRecognitionClient;
+import com.google.android.gms.location.FusedLocationProviderClient;
+import com.google.android.gms.location.GeofencingClient;
+import com.google.android.gms.location.LocationRequest;
+import com.google.android.gms.location.LocationServices;
+import com.google.android.gms.location.LocationSettingsStates;
+import com.google.android.gms.location.SettingsClient;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Process wide registry of the Google Play Services clients and {@link PendingIntent}s used by the Places Monitor.
+ * <p>
+ * The handles are created on first use and shared by all the Places Monitor components, whether they are reached from
+ * the {@link PlacesMonitorInternal} executor or from the Play Services callback threads. Getting a handle does not
+ * lock, concurrent callers racing to create a handle may each create one, but only the first one published is kept
+ * and returned to all the callers. A handle is never cached as null, so a handle that could not be created because the
+ * app context was not available is created again on the next call.
+ * <p>
+ * The registry also remembers the result of the last successful location settings check, until it is invalidated.
+ */
+class PlacesMonitorClients {
+
+	private static final PlacesMonitorClients INSTANCE = new PlacesMonitorClients();
+
+	private final AtomicReference<GeofencingClient> geofencingClient = new AtomicReference<GeofencingClient>();
+	private final AtomicReference<FusedLocationProviderClient> fusedLocationClient = new AtomicReference<FusedLocationProviderClient>();
+	private final AtomicReference<SettingsClient> settingsClient = new AtomicReference<SettingsClient>();
+	private final AtomicReference<ActivityRecognitionClient> activityRecognitionClient = new AtomicReference<ActivityRecognitionClient>();
+	private final AtomicReference<PendingIntent> geofencePendingIntent = new AtomicReference<PendingIntent>();
+	private final AtomicReference<PendingIntent> locationPendingIntent = new AtomicReference<PendingIntent>();
+	private final AtomicReference<PendingIntent> activityTransitionPendingIntent = new AtomicReference<PendingIntent>();
+	private final AtomicReference<SettingsCheck> lastSettingsCheck = new AtomicReference<SettingsCheck>();
+
+	/**
+	 * Getter for the process wide clients.
+	 * <p>
+	 * The instance is created eagerly so that getting it does not lock.
+	 *
+	 * @return the {@link PlacesMonitorClients} singleton
+	 */
+	static PlacesMonitorClients getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Returns the {@link GeofencingClient}, creating it if needed.
+	 *
+	 * @return a {@code GeofencingClient} instance, or null if the app context is not available
+	 */
+	GeofencingClient getGeofencingClient() {
+		final GeofencingClient client = geofencingClient.get();
+
+		if (client != null) {
+			return client;
+		}
+
+		final Context context = App.getAppContext();
+
+		if (context == null) {
+			PlacesMonitorLog.warning("Places Geofence Services not initialized, App Context not available");
+			return null;
+		}
+
+		return publish(geofencingClient, LocationServices.getGeofencingClient(context));
+	}
+
+	/**
+	 * Returns the {@link FusedLocationProviderClient}, creating it if needed.
+	 *
+	 * @return a {@code FusedLocationProviderClient} instance, or null if the app context is not available
+	 */
+	FusedLocationProviderClient getFusedLocationClient() {
+		final FusedLocationProviderClient client = fusedLocationClient.get();
+
+		if (client != null) {
+			return client;
+		}
+
+		final Context context = App.getAppContext();
+
+		if (context == null) {
+			PlacesMonitorLog.warning("Places location Services not initialized, App Context not available");
+			return null;
+		}
+
+		return publish(fusedLocationClient, LocationServices.getFusedLocationProviderClient(context));
+	}
+
+	/**
+	 * Returns the {@link SettingsClient}, creating it if needed.
+	 *
+	 * @return a {@code SettingsClient} instance, or null if the app context is not available
+	 */
+	SettingsClient getSettingsClient() {
+		final SettingsClient client = settingsClient.get();
+
+		if (client != null) {
+			return client;
+		}
+
+		final Context context = App.getAppContext();
+
+		if (context == null) {
+			PlacesMonitorLog.warning("Places location settings not available, App Context not available");
+			return null;
+		}
+
+		return publish(settingsClient, LocationServices.getSettingsClient(context));
+	}
+
+	/**
+	 * Returns the {@link ActivityRecognitionClient}, creating it if needed.
+	 *
+	 * @return an {@code ActivityRecognitionClient} instance, or null if the app context is not available
+	 */
+	ActivityRecognitionClient getActivityRecognitionClient() {
+		final ActivityRecognitionClient client = activityRecognitionClient.get();
+
+		if (client != null) {
+			return client;
+		}
+
+		final Context context = App.getAppContext();
+
+		if (context == null) {
+			PlacesMonitorLog.warning("Places activity recognition not available, App Context not available");
+			return null;
+		}
+
+		return publish(activityRecognitionClient, ActivityRecognition.getClient(context));
+	}
+
+	/**
+	 * Returns the {@link PendingIntent} delivering the geofence transitions to the
+	 * {@link PlacesGeofenceBroadcastReceiver}, creating it if needed.
+	 *
+	 * @return a {@code PendingIntent} instance, or null if the app context is not available
+	 */
+	PendingIntent getGeofencePendingIntent() {
+		final PendingIntent pendingIntent = geofencePendingIntent.get();
+
+		if (pendingIntent != null) {
+			return pendingIntent;
+		}
+
+		final Context context = App.getAppContext();
+
+		if (context == null) {
+			PlacesMonitorLog.warning("Unable to create an intent to receive geofence transitions, App Context not available");
+			return null;
+		}
+
+		final Intent intent = new Intent(context, PlacesGeofenceBroadcastReceiver.class);
+		intent.setAction(PlacesGeofenceBroadcastReceiver.ACTION_GEOFENCE_UPDATE);
+		return publish(geofencePendingIntent, PendingIntent.getBroadcast(context, 0, intent,
+					   PendingIntent.FLAG_UPDATE_CURRENT));
+	}
+
+	/**
+	 * Returns the {@link PendingIntent} delivering the location updates to the {@link PlacesLocationBroadcastReceiver},
+	 * creating it if needed.
+	 *
+	 * @return a {@code PendingIntent} instance, or null if the app context is not available
+	 */
+	PendingIntent getLocationPendingIntent() {
+		final PendingIntent pendingIntent = locationPendingIntent.get();
+
+		if (pendingIntent != null) {
+			return pendingIntent;
+		}
+
+		final Context context = App.getAppContext();
+
+		if (context == null) {
+			PlacesMonitorLog.warning("PlacesLocationManager : Unable to create an intent to receive location updates, App Context not available");
+			return null;
+		}
+
+		final Intent intent = new Intent(context, PlacesLocationBroadcastReceiver.class);
+		intent.setAction(PlacesLocationBroadcastReceiver.ACTION_LOCATION_UPDATE);
+		return publish(locationPendingIntent, PendingIntent.getBroadcast(context, 0, intent,
+					   PendingIntent.FLAG_UPDATE_CURRENT));
+	}
+
+	/**
+	 * Returns the {@link PendingIntent} delivering the activity transitions to the
+	 * {@link PlacesActivityTransitionBroadcastReceiver}, creating it if needed.
+	 *
+	 * @return a {@code PendingIntent} instance, or null if the app context is not available
+	 */
+	PendingIntent getActivityTransitionPendingIntent() {
+		final PendingIntent pendingIntent = activityTransitionPendingIntent.get();
+
+		if (pendingIntent != null) {
+			return pendingIntent;
+		}
+
+		final Context context = App.getAppContext();
+
+		if (context == null) {
+			PlacesMonitorLog.warning("Unable to create an intent to receive activity transitions, App Context not available");
+			return null;
+		}
+
+		final Intent intent = new Intent(context, PlacesActivityTransitionBroadcastReceiver.class);
+		intent.setAction(PlacesActivityTransitionBroadcastReceiver.ACTION_ACTIVITY_TRANSITION_UPDATE);
+		return publish(activityTransitionPendingIntent, PendingIntent.getBroadcast(context, 0, intent,
+					   PendingIntent.FLAG_UPDATE_CURRENT));
+	}
+
+	/**
+	 * Remembers that the location settings satisfy the given location request.
+	 *
+	 * @param locationRequest the {@link LocationRequest} the location settings were checked for
+	 * @param states the {@link LocationSettingsStates} reported by the check, may be null
+	 */
+	void setLocationSettingsSatisfied(final LocationRequest locationRequest, final LocationSettingsStates states) {
+		lastSettingsCheck.set(new SettingsCheck(locationRequest, states));
+	}
+
+	/**
+	 * Returns whether the last location settings check was satisfied for a location request equal to the given one,
+	 * and has not been invalidated since.
+	 *
+	 * @param locationRequest a {@link LocationRequest}
+	 * @return true if the location settings are known to satisfy the location request
+	 */
+	boolean isLocationSettingsSatisfied(final LocationRequest locationRequest) {
+		final SettingsCheck settingsCheck = lastSettingsCheck.get();
+		return settingsCheck != null && settingsCheck.locationRequest.equals(locationRequest);
+	}
+
+	/**
+	 * @return the {@link LocationSettingsStates} of the last satisfied location settings check, or null if unknown
+	 */
+	LocationSettingsStates getLocationSettingsStates() {
+		final SettingsCheck settingsCheck = lastSettingsCheck.get();
+		return settingsCheck != null ? settingsCheck.states : null;
+	}
+
+	/**
+	 * Forgets the result of the last location settings check, so that the location settings are checked again before
+	 * the next location request.
+	 */
+	void invalidateLocationSettings() {
+		lastSettingsCheck.set(null);
+	}
+
+	/**
+	 * Forgets all the handles and the location settings check result.
+	 */
+	void reset() {
+		geofencingClient.set(null);
+		fusedLocationClient.set(null);
+		settingsClient.set(null);
+		activityRecognitionClient.set(null);
+		geofencePendingIntent.set(null);
+		locationPendingIntent.set(null);
+		activityTransitionPendingIntent.set(null);
+		lastSettingsCheck.set(null);
+	}
+
+	/**
+	 * Publishes the given handle if no other handle was published in the meantime.
+	 *
+	 * @param reference the {@link AtomicReference} holding the handle
+	 * @param handle the handle created by the caller, may be null
+	 * @param <T> the type of the handle
+	 * @return the published handle, or null if none could be created
+	 */
+	private static <T> T publish(final AtomicReference<T> reference, final T handle) {
+		if (handle == null || reference.compareAndSet(null, handle)) {
+			return handle;
+		}
+
+		final T publishedHandle = reference.get();
+		return publishedHandle != null ? publishedHandle : handle;
+	}
+
+	private static final class SettingsCheck {
+		private final LocationRequest locationRequest;
+		private final LocationSettingsStates states;
+
+		private SettingsCheck(final LocationRequest locationRequest, final LocationSettingsStates states) {
+			this.locationRequest = locationRequest;
+			this.states = states;
+		}
+	}
+}
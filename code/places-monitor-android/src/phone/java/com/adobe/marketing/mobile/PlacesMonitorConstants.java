@@ -29,21 +29,116 @@ final class PlacesMonitorConstants {
 	static final String EVENTNAME_STOP = "stop monitoring";
 	static final String EVENTNAME_UPDATE = "update location now";
 	static final String EVENTNAME_SET_LOCATION_PERMISSION = "set location permission";
+	static final String EVENTNAME_SET_LOCATION_PROFILE = "set location profile";
+	static final String EVENTNAME_SET_ACTIVITY_RECOGNITION = "set activity recognition";
 	static final String EVENTNAME_OS_PERMISSION_CHANGE = "OS Permission change";
 	static final String EVENTNAME_OS_GEOFENCE_TRIGGER = "OS Geofence Trigger";
+	static final String EVENTNAME_OS_GEOFENCE_UNAVAILABLE = "OS Geofence Unavailable";
 	static final String EVENTNAME_OS_LOCATION_UPDATE = "OS Location update";
+	static final String EVENTNAME_OS_ACTIVITY_TRANSITION = "OS Activity Transition";
+
+	// event name for the places request content
+	static final String EVENTNAME_PROCESS_REGION_EVENT = "Process Region Event";
 
 	static final int NEARBY_GEOFENCES_COUNT = 20;
+	static final int MAX_GEOFENCES_COUNT = 100;						// geofences allowed per app by Android
+	static final long BOOT_TIME_TOLERANCE = 300000;					// 5 minutes, in milliseconds
+	static final long INITIALIZATION_TIMEOUT = 5000;				// milliseconds
+	static final int MAX_QUEUED_EVENTS = 100;
+	static final long METRICS_SHARED_STATE_INTERVAL = 60000;		// 1 minute, in milliseconds
+	static final double EARTH_RADIUS_METERS = 6371008.8;			// mean earth radius
+
+	static final class POIMetadata {
+		static final String LOITERING_DELAY = "loiteringdelay";	// seconds the user has to stay within the poi
+		static final int MAX_LOITERING_DELAY = 86400;			// 1 day, in seconds
+		static final String PRIORITY = "priority";				// higher priority pois are monitored first
+
+		private POIMetadata() {
+		}
+	}
+
+	static final class RefreshFence {
+		static final String IDENTIFIER = "com.adobe.placesMonitor.refreshFence";
+		static final int MIN_RADIUS = 500;						// meters
+		static final int MAX_RADIUS = 10000;					// 10 kilometers
+
+		private RefreshFence() {
+		}
+	}
+
+	static final class LocationFilter {
+		static final long MAX_FIX_AGE = 1800000;				// 30 minutes, in milliseconds
+		static final double MAX_ACCURACY = 2000;				// 2 kilometers
+		static final double MAX_SPEED = 300;					// meters per second, faster than an airliner
+		static final int MAX_IMPLAUSIBLE_FIXES = 2;
+		static final double FENCE_CLUSTER_FRACTION = 0.5;
+
+		private LocationFilter() {
+		}
+	}
+
+	static final class POICache {
+		static final int GEOHASH_PRECISION = 6;					// cells of roughly 1.2km x 0.6km
+		static final long TIME_TO_LIVE = 3600000;				// 1 hour, in milliseconds
+		static final int MAX_CELLS = 50;
+
+		private POICache() {
+		}
+	}
+
+	static final class POIPack {
+		static final String FILE_NAME = "adb_placesMonitorPOIPack.bin";
+		static final long REFRESH_INTERVAL = 86400000;			// 1 day, in milliseconds
+		static final long RETRY_INTERVAL = 900000;				// 15 minutes, in milliseconds
+		static final int CONNECT_TIMEOUT = 10000;				// 10 seconds, in milliseconds
+		static final int READ_TIMEOUT = 30000;					// 30 seconds, in milliseconds
+
+		private POIPack() {
+		}
+	}
+
+	static final class GeofenceJournal {
+		static final String FILE_NAME = "adb_placesMonitorGeofenceJournal.bin";
+		static final int MIN_COMPACTION_RECORDS = 256;
+		static final int COMPACTION_RATIO = 4;
+
+		private GeofenceJournal() {
+		}
+	}
 
 	static final class Location {
-		static final int REQUEST_INTERVAL = 3600;				// 1 hour
-		static final int REQUEST_FASTEST_INTERVAL = 1800;    	// 30 minutes
-		static final int REQUEST_SMALLEST_DISPLACEMENT = 1000;   // 1 kilometer
+		static final int REQUEST_INTERVAL = 3600000;				// 1 hour, in milliseconds
+		static final int REQUEST_FASTEST_INTERVAL = 1800000;    	// 30 minutes, in milliseconds
+		static final int REQUEST_SMALLEST_DISPLACEMENT = 1000;   	// 1 kilometer, in meters
+		// 20 minutes, in milliseconds, how long the OS may hold batched locations for all the profiles. Kept below
+		// LocationFilter.MAX_FIX_AGE so that the oldest location of a batch is not discarded as stale
+		static final int REQUEST_MAX_WAIT_TIME = 1200000;
+		static final long SIGNIFICANT_TIME_DELTA = 120000;		// 2 minutes, in milliseconds
+		static final float SIGNIFICANT_ACCURACY_DELTA = 200;	// 200 meters
+
+		// balanced location profile
+		static final int BALANCED_REQUEST_INTERVAL = 900000;			// 15 minutes, in milliseconds
+		static final int BALANCED_REQUEST_FASTEST_INTERVAL = 300000;	// 5 minutes, in milliseconds
+		static final int BALANCED_REQUEST_SMALLEST_DISPLACEMENT = 1000;	// 1 kilometer, in meters
+
+		// power saver location profile
+		static final int POWER_SAVER_REQUEST_INTERVAL = 3600000;			// 1 hour, in milliseconds
+		static final int POWER_SAVER_REQUEST_FASTEST_INTERVAL = 900000;	// 15 minutes, in milliseconds
+		static final int POWER_SAVER_REQUEST_SMALLEST_DISPLACEMENT = 2000;	// 2 kilometers, in meters
 
 		private Location() {
 		}
 	}
 
+	static final class AdaptiveProfile {
+		static final double DENSE_AREA_RADIUS = 1000;		// 1 kilometer
+		static final int DENSE_AREA_POI_COUNT = 5;
+		static final double HIGH_SPEED = 8;					// meters per second, roughly 30 km/h
+
+		private AdaptiveProfile() {
+		}
+	}
+
 	static final class EventSource {
 		static final String RESPONSE_CONTENT = "com.adobe.eventsource.responsecontent";
 		static final String REQUEST_CONTENT = "com.adobe.eventsource.requestcontent";
@@ -57,13 +152,26 @@ final class PlacesMonitorConstants {
 	static final class EventDataKey {
 		static final String CLEAR = "clearclientdata";
 		static final String LOCATION_PERMISSION = "locationpermission";
+		static final String LOCATION_PROFILE = "locationprofile";
+		static final String ACTIVITY_RECOGNITION = "activityrecognition";
 
 		static final String OS_EVENT_TYPE = "oseventtype";
 		static final String LATITUDE = "latitude";
 		static final String LONGITUDE = "longitude";
+		static final String ACCURACY = "accuracy";
+		static final String TIME = "time";
+		static final String SPEED = "speed";
+		static final String PROVIDER = "provider";
+		static final String TRAJECTORY = "trajectory";
 		static final String GEOFENCE_IDS = "geofenceIds";
 		static final String GEOFENCE_TRANSITION_TYPE = "transitiontype";
 		static final String LOCATION_PERMISSION_STATUS = "locationpermissionstatus";
+		static final String ACTIVITY_TYPE = "activitytype";
+
+		// places region event, private keys of the Places extension 1.4.0 read when processing a region event
+		static final String REQUEST_TYPE = "requesttype";
+		static final String REGION_ID = "regionid";
+		static final String REGION_EVENT_TYPE = "regioneventtype";
 		private EventDataKey() {
 		}
 	}
@@ -72,9 +180,15 @@ final class PlacesMonitorConstants {
 	static final class EventDataValue {
 		static final String OS_EVENT_TYPE_LOCATION_UPDATE = "locationupdate";
 		static final String OS_EVENT_TYPE_GEOFENCE_TRIGGER = "geofencetrigger";
+		static final String OS_EVENT_TYPE_GEOFENCE_UNAVAILABLE = "geofenceunavailable";
 		static final String OS_EVENT_TYPE_LOCATION_PERMISSION_CHANGE = "locationpermissionchange";
+		static final String OS_EVENT_TYPE_ACTIVITY_TRANSITION = "activitytransition";
 		static final String OS_LOCATION_PERMISSION_STATUS_GRANTED = "granted";
 		static final String OS_LOCATION_PERMISSION_STATUS_DENIED = "denied";
+		// places region event, private values of the Places extension 1.4.0
+		static final String REQUEST_TYPE_PROCESS_REGION_EVENT = "processregionevent";
+		static final String REGION_EVENT_TYPE_ENTRY = "entry";
+		static final String REGION_EVENT_TYPE_EXIT = "exit";
 		private EventDataValue() {
 		}
 	}
@@ -84,6 +198,7 @@ final class PlacesMonitorConstants {
 		static final String HUB = "com.adobe.eventtype.hub";
 		static final String OS = "com.adobe.eventtype.os";
 		static final String MONITOR = "com.adobe.eventtype.placesmonitor";
+		static final String PLACES = "com.adobe.eventtype.places";
 
 		private EventType() {
 		}
@@ -92,6 +207,12 @@ final class PlacesMonitorConstants {
 	static final class SharedState {
 		static final String STATEOWNER = "stateowner";
 		static final String CONFIGURATION = "com.adobe.module.configuration";
+		static final String CONFIG_NEARBY_POI_COUNT = "placesmonitor.nearbypoicount";
+		static final String CONFIG_POI_PACK_URL = "placesmonitor.poipackurl";
+		static final String CONFIG_METRICS_SHARED_STATE = "placesmonitor.metricssharedstate";
+		static final String CONFIG_GLOBAL_PRIVACY = "global.privacy";
+		static final String PRIVACY_OPTED_OUT = "optedout";
+		static final String METRICS = "metrics";
 		private SharedState() {
 		}
 	}
@@ -100,8 +221,16 @@ final class PlacesMonitorConstants {
 		static final String MASTER_KEY = "com.adobe.placesMonitor";
 		static final String HAS_LOCATION_DIALOG_PROMPTED = "adb_hasLocationDialogPrompted";
 		static final String USERWITHIN_GEOFENCES_KEY = "adb_userWithinGeofences";
+		static final String MONITORING_GEOFENCES_KEY = "adb_monitoringGeofences";
+		static final String MONITORING_GEOFENCES_BOOT_TIME_KEY = "adb_monitoringGeofencesBootTime";
+		static final String MONITORING_GEOFENCES_APP_UPDATE_TIME_KEY = "adb_monitoringGeofencesAppUpdateTime";
 		static final String HAS_MONITORING_STARTED_KEY = "adb_hasMonitoringStarted";
 		static final String LOCATION_PERMISSION_KEY = "adb_locationPermission";
+		static final String LOCATION_PROFILE_KEY = "adb_locationProfile";
+		static final String LOCATION_SETTINGS_KEY = "adb_locationSettings";
+		static final String ACTIVITY_RECOGNITION_KEY = "adb_activityRecognition";
+		static final String POI_PACK_URL_KEY = "adb_poiPackUrl";
+		static final String POI_PACK_CHECK_TIME_KEY = "adb_poiPackCheckTime";
 		private SharedPreference() {
 		}
 	}
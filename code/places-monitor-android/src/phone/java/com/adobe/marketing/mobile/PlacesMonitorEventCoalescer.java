@@ -0,0 +1,230 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorEventCoalescer.java
+//
+
+package com.adobe.marketing.mobile;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Coalesces the events queued by {@link PlacesMonitorInternal} before they are processed.
+ * <p>
+ * The following events are coalesced
+ * <ul>
+ *     <li>OS location updates are superseded by any newer OS location update in the queue, only the newest
+ *     location update is processed</li>
+ *     <li>A start or stop monitoring request is dropped when it directly follows an identical request</li>
+ *     <li>Consecutive OS geofence triggers with the same transition type are merged into a single trigger for the
+ *     union of their geofence IDs, so that the same ID and transition is processed only once</li>
+ * </ul>
+ * The merged geofence trigger is processed in place of the newest trigger it was merged into. Since the {@link Event}
+ * data cannot be replaced, the merged {@link EventData} is held by the coalescer and must be read with
+ * {@link #getEventData(Event)}.
+ * The superseded location updates are counted as dropped location fixes in the {@link PlacesMonitorMetrics}.
+ */
+class PlacesMonitorEventCoalescer {
+
+	private final Map<Event, EventData> mergedEventData = new IdentityHashMap<Event, EventData>();
+	private final PlacesMonitorMetrics metrics;
+
+	PlacesMonitorEventCoalescer() {
+		this(PlacesMonitorMetrics.getInstance());
+	}
+
+	PlacesMonitorEventCoalescer(final PlacesMonitorMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Coalesces the provided queued events.
+	 *
+	 * @param events a {@link List} of queued {@link Event}s, oldest first
+	 * @return a new {@link List} with the coalesced {@code Event}s, in the same order
+	 */
+	List<Event> coalesce(final List<Event> events) {
+		releaseDroppedEvents(events);
+		Event newestLocationUpdate = null;
+
+		for (Event event : events) {
+			if (isOSEvent(event, PlacesMonitorConstants.EventDataValue.OS_EVENT_TYPE_LOCATION_UPDATE)) {
+				newestLocationUpdate = event;
+			}
+		}
+
+		final List<Event> coalescedEvents = new ArrayList<Event>(events.size());
+
+		for (Event event : events) {
+			if (isOSEvent(event, PlacesMonitorConstants.EventDataValue.OS_EVENT_TYPE_LOCATION_UPDATE)
+					&& event != newestLocationUpdate) {
+				metrics.increment(PlacesMonitorMetrics.Counter.LOCATION_FIXES_DROPPED);
+				continue;
+			}
+
+			final Event previousEvent = coalescedEvents.isEmpty() ? null : coalescedEvents.get(coalescedEvents.size() - 1);
+
+			if (isRepeatedMonitoringRequest(previousEvent, event)) {
+				continue;
+			}
+
+			if (isMergeableGeofenceTrigger(previousEvent, event)) {
+				mergeGeofenceTriggers(previousEvent, event);
+				coalescedEvents.set(coalescedEvents.size() - 1, event);
+				continue;
+			}
+
+			coalescedEvents.add(event);
+		}
+
+		return coalescedEvents;
+	}
+
+	/**
+	 * Returns the data to be processed for the provided event.
+	 *
+	 * @param event a queued {@link Event}
+	 * @return the merged {@link EventData} if the geofence triggers were merged into this event,
+	 * the {@code Event}'s own data otherwise
+	 */
+	EventData getEventData(final Event event) {
+		final EventData eventData = mergedEventData.get(event);
+		return eventData != null ? eventData : event.getData();
+	}
+
+	/**
+	 * Releases the merged data held for the provided event, once it has been processed.
+	 *
+	 * @param event the processed {@link Event}
+	 */
+	void onEventProcessed(final Event event) {
+		mergedEventData.remove(event);
+	}
+
+	/**
+	 * Releases the merged data held for the events that are no longer queued, as they were dropped from the queue.
+	 *
+	 * @param events a {@link List} of queued {@link Event}s
+	 */
+	private void releaseDroppedEvents(final List<Event> events) {
+		if (mergedEventData.isEmpty()) {
+			return;
+		}
+
+		final Set<Event> queuedEvents = Collections.newSetFromMap(new IdentityHashMap<Event, Boolean>());
+		queuedEvents.addAll(events);
+		mergedEventData.keySet().retainAll(queuedEvents);
+	}
+
+	/**
+	 * Merges the geofence IDs of the {@code previousTrigger} into the {@code trigger}.
+	 *
+	 * @param previousTrigger the older geofence trigger {@link Event}
+	 * @param trigger the newer geofence trigger {@code Event} that replaces the {@code previousTrigger}
+	 */
+	private void mergeGeofenceTriggers(final Event previousTrigger, final Event trigger) {
+		final Set<String> geofenceIDs = new LinkedHashSet<String>();
+		geofenceIDs.addAll(getGeofenceIDs(previousTrigger));
+		geofenceIDs.addAll(getGeofenceIDs(trigger));
+
+		final EventData eventData = new EventData();
+		eventData.putString(PlacesMonitorConstants.EventDataKey.OS_EVENT_TYPE,
+							PlacesMonitorConstants.EventDataValue.OS_EVENT_TYPE_GEOFENCE_TRIGGER);
+		eventData.putStringList(PlacesMonitorConstants.EventDataKey.GEOFENCE_IDS, new ArrayList<String>(geofenceIDs));
+		eventData.putInteger(PlacesMonitorConstants.EventDataKey.GEOFENCE_TRANSITION_TYPE, getTransitionType(trigger));
+
+		mergedEventData.remove(previousTrigger);
+		mergedEventData.put(trigger, eventData);
+	}
+
+	/**
+	 * Verifies if the {@code event} is a start or stop monitoring request identical to the {@code previousEvent}.
+	 *
+	 * @param previousEvent the {@link Event} preceding the {@code event} after coalescing, may be null
+	 * @param event the {@code Event} to verify
+	 * @return true if the {@code event} repeats the {@code previousEvent}
+	 */
+	private boolean isRepeatedMonitoringRequest(final Event previousEvent, final Event event) {
+		if (previousEvent == null || !isMonitorRequest(event) || !isMonitorRequest(previousEvent)) {
+			return false;
+		}
+
+		final String eventName = event.getName();
+
+		if (PlacesMonitorConstants.EVENTNAME_START.equals(eventName)) {
+			return eventName.equals(previousEvent.getName());
+		}
+
+		if (PlacesMonitorConstants.EVENTNAME_STOP.equals(eventName)) {
+			return eventName.equals(previousEvent.getName()) && shouldClear(event) == shouldClear(previousEvent);
+		}
+
+		return false;
+	}
+
+	/**
+	 * Verifies if the {@code event} is a geofence trigger that can be merged into the {@code previousEvent}.
+	 *
+	 * @param previousEvent the {@link Event} preceding the {@code event} after coalescing, may be null
+	 * @param event the {@code Event} to verify
+	 * @return true if both events are valid geofence triggers with the same transition type
+	 */
+	private boolean isMergeableGeofenceTrigger(final Event previousEvent, final Event event) {
+		if (previousEvent == null
+				|| !isOSEvent(previousEvent, PlacesMonitorConstants.EventDataValue.OS_EVENT_TYPE_GEOFENCE_TRIGGER)
+				|| !isOSEvent(event, PlacesMonitorConstants.EventDataValue.OS_EVENT_TYPE_GEOFENCE_TRIGGER)) {
+			return false;
+		}
+
+		final int transitionType = getTransitionType(event);
+
+		return transitionType != -1 && transitionType == getTransitionType(previousEvent)
+			   && !getGeofenceIDs(event).isEmpty() && !getGeofenceIDs(previousEvent).isEmpty();
+	}
+
+	private boolean isMonitorRequest(final Event event) {
+		return PlacesMonitorConstants.EventType.MONITOR.equalsIgnoreCase(event.getType()) &&
+			   PlacesMonitorConstants.EventSource.REQUEST_CONTENT.equalsIgnoreCase(event.getSource());
+	}
+
+	private boolean isOSEvent(final Event event, final String osEventType) {
+		if (!PlacesMonitorConstants.EventType.OS.equalsIgnoreCase(event.getType()) ||
+				!PlacesMonitorConstants.EventSource.RESPONSE_CONTENT.equalsIgnoreCase(event.getSource())) {
+			return false;
+		}
+
+		final EventData eventData = getEventData(event);
+		return eventData != null
+			   && osEventType.equals(eventData.optString(PlacesMonitorConstants.EventDataKey.OS_EVENT_TYPE, null));
+	}
+
+	private boolean shouldClear(final Event event) {
+		final EventData eventData = event.getData();
+		return eventData != null && eventData.optBoolean(PlacesMonitorConstants.EventDataKey.CLEAR, false);
+	}
+
+	private int getTransitionType(final Event event) {
+		return getEventData(event).optInteger(PlacesMonitorConstants.EventDataKey.GEOFENCE_TRANSITION_TYPE, -1);
+	}
+
+	private List<String> getGeofenceIDs(final Event event) {
+		final List<String> geofenceIDs = getEventData(event).optStringList(PlacesMonitorConstants.EventDataKey.GEOFENCE_IDS,
+										 null);
+		return geofenceIDs != null ? geofenceIDs : new ArrayList<String>();
+	}
+}
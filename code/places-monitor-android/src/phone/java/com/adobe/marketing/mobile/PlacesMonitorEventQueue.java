@@ -0,0 +1,225 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorEventQueue.java
+//
+
+package com.adobe.marketing.mobile;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Bounded queue of the events waiting to be processed by {@link PlacesMonitorInternal}.
+ * <p>
+ * The events are queued by priority,
+ * <ul>
+ *     <li>The Places Monitor requests and the OS geofence and permission events are processed first, in the order they
+ *     were queued. Their order is kept as reordering a stop request before an earlier start request, or before an earlier
+ *     geofence trigger, would change the outcome</li>
+ *     <li>The OS location updates are processed once no other event is queued</li>
+ * </ul>
+ * A stop request or a permission change drops the location updates queued before it, as the monitoring they were
+ * obtained for has changed.
+ * <p>
+ * When the queue holds {@link PlacesMonitorConstants#MAX_QUEUED_EVENTS} events, room is made by dropping the oldest
+ * location update, a newer one supersedes it. Only location updates are ever dropped: dropping a Places Monitor request
+ * or an OS geofence, permission or activity event would lose a state change that no later event repeats, so these
+ * events are queued past the capacity when there is no location update to drop.
+ * The dropped location updates are counted in the {@link PlacesMonitorMetrics}.
+ * <p>
+ * This class is not thread safe, the events are queued and processed on the {@link PlacesMonitorInternal} executor.
+ * The drop counters may be read from any thread.
+ */
+class PlacesMonitorEventQueue extends AbstractQueue<Event> {
+
+	private final int capacity;
+	private final ArrayDeque<Event> priorityEvents = new ArrayDeque<Event>();
+	private final ArrayDeque<Event> locationUpdates = new ArrayDeque<Event>();
+	private final PlacesMonitorMetrics metrics;
+
+	PlacesMonitorEventQueue() {
+		this(PlacesMonitorConstants.MAX_QUEUED_EVENTS, PlacesMonitorMetrics.getInstance());
+	}
+
+	PlacesMonitorEventQueue(final int capacity, final PlacesMonitorMetrics metrics) {
+		this.capacity = capacity;
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Queues the given event, dropping a queued location update if the queue is full.
+	 *
+	 * @param event a non-null {@link Event} to be processed
+	 * @return false if the event was dropped, true otherwise
+	 */
+	@Override
+	public boolean offer(final Event event) {
+		if (event == null) {
+			throw new NullPointerException();
+		}
+
+		if (isLocationUpdate(event)) {
+			if (size() >= capacity && !dropOldestLocationUpdate()) {
+				countDropped(event);
+				return false;
+			}
+
+			locationUpdates.add(event);
+			return true;
+		}
+
+		if (isStopRequest(event) || isOSEvent(event, PlacesMonitorConstants.EventDataValue.OS_EVENT_TYPE_LOCATION_PERMISSION_CHANGE)) {
+			metrics.add(PlacesMonitorMetrics.Counter.LOCATION_FIXES_DROPPED, locationUpdates.size());
+			locationUpdates.clear();
+		}
+
+		if (size() >= capacity && !dropOldestLocationUpdate()) {
+			PlacesMonitorLog.debug("Event queue is full, queueing the %s event past its capacity", event.getName());
+		}
+
+		priorityEvents.add(event);
+		return true;
+	}
+
+	@Override
+	public Event poll() {
+		final Event event = priorityEvents.poll();
+		return event != null ? event : locationUpdates.poll();
+	}
+
+	@Override
+	public Event peek() {
+		final Event event = priorityEvents.peek();
+		return event != null ? event : locationUpdates.peek();
+	}
+
+	@Override
+	public int size() {
+		return priorityEvents.size() + locationUpdates.size();
+	}
+
+	@Override
+	public void clear() {
+		priorityEvents.clear();
+		locationUpdates.clear();
+	}
+
+	/**
+	 * Replaces the queued events with the provided events, such as their coalesced equivalent.
+	 * <p>
+	 * Unlike {@link #offer(Event)}, no event is dropped and no metric is counted: the provided events were already
+	 * admitted to the queue, so they are queued again even if they exceed its capacity.
+	 *
+	 * @param events a {@link List} of {@link Event}s, in the order they will be processed
+	 */
+	void replaceAll(final List<Event> events) {
+		clear();
+
+		for (Event event : events) {
+			if (isLocationUpdate(event)) {
+				locationUpdates.add(event);
+			} else {
+				priorityEvents.add(event);
+			}
+		}
+	}
+
+	/**
+	 * Returns an iterator over the queued events, in the order they will be processed.
+	 *
+	 * @return a read only {@link Iterator} over the queued {@link Event}s
+	 */
+	@Override
+	public Iterator<Event> iterator() {
+		return new Iterator<Event>() {
+			private final Iterator<Event> priorityIterator = priorityEvents.iterator();
+			private final Iterator<Event> locationIterator = locationUpdates.iterator();
+
+			@Override
+			public boolean hasNext() {
+				return priorityIterator.hasNext() || locationIterator.hasNext();
+			}
+
+			@Override
+			public Event next() {
+				if (priorityIterator.hasNext()) {
+					return priorityIterator.next();
+				}
+
+				if (locationIterator.hasNext()) {
+					return locationIterator.next();
+				}
+
+				throw new NoSuchElementException();
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	/**
+	 * @return the number of location updates dropped because the queue was full
+	 */
+	long getDroppedLocationUpdates() {
+		return metrics.get(PlacesMonitorMetrics.Counter.QUEUE_DROPPED_LOCATION_UPDATES);
+	}
+
+	/**
+	 * Drops the oldest queued location update.
+	 *
+	 * @return true if a location update was dropped
+	 */
+	private boolean dropOldestLocationUpdate() {
+		final Event droppedEvent = locationUpdates.poll();
+
+		if (droppedEvent == null) {
+			return false;
+		}
+
+		countDropped(droppedEvent);
+		return true;
+	}
+
+	private void countDropped(final Event event) {
+		PlacesMonitorLog.debug("Event queue is full, dropping the %s event", event.getName());
+		metrics.increment(PlacesMonitorMetrics.Counter.QUEUE_DROPPED_LOCATION_UPDATES);
+		metrics.increment(PlacesMonitorMetrics.Counter.LOCATION_FIXES_DROPPED);
+	}
+
+	private boolean isLocationUpdate(final Event event) {
+		return isOSEvent(event, PlacesMonitorConstants.EventDataValue.OS_EVENT_TYPE_LOCATION_UPDATE);
+	}
+
+	private boolean isStopRequest(final Event event) {
+		return PlacesMonitorConstants.EventType.MONITOR.equalsIgnoreCase(event.getType()) &&
+			   PlacesMonitorConstants.EventSource.REQUEST_CONTENT.equalsIgnoreCase(event.getSource()) &&
+			   PlacesMonitorConstants.EVENTNAME_STOP.equals(event.getName());
+	}
+
+	private boolean isOSEvent(final Event event, final String osEventType) {
+		if (!PlacesMonitorConstants.EventType.OS.equalsIgnoreCase(event.getType()) ||
+				!PlacesMonitorConstants.EventSource.RESPONSE_CONTENT.equalsIgnoreCase(event.getSource())) {
+			return false;
+		}
+
+		final EventData eventData = event.getData();
+		return eventData != null
+			   && osEventType.equals(eventData.optString(PlacesMonitorConstants.EventDataKey.OS_EVENT_TYPE, null));
+	}
+}
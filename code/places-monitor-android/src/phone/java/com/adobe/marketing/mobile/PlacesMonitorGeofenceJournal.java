@@ -0,0 +1,360 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorGeofenceJournal.java
+//
+
+package com.adobe.marketing.mobile;
+
+import android.content.Context;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Append-only journal of the geofences the user is within, stored in the app files directory.
+ * <p>
+ * Each change to the set of geofences is appended as an ENTER, EXIT or CLEAR record, so saving a change costs a write
+ * proportional to the change and not to the size of the set. Replaying the records rebuilds the set, and the records
+ * keep the time of each transition.
+ * <p>
+ * The journal starts with a header, followed by records in the format,
+ * <pre>
+ *     int    length of the record, excluding this field
+ *     byte   record type
+ *     long   time of the record, in milliseconds since epoch
+ *     UTF    geofence identifier, for ENTER and EXIT records only
+ * </pre>
+ * Once the journal holds {@link PlacesMonitorConstants.GeofenceJournal#COMPACTION_RATIO} times more records than the
+ * set has identifiers, it is compacted into a snapshot of ENTER records, written to a temporary file and renamed over
+ * the journal. The snapshot is synced to disk before the rename, so a crash leaves either the previous or the compacted
+ * journal. The appended records are synced as well, so that a recorded transition survives a crash of the device. The
+ * journal is saved once per geofence transition or nearby POIs refresh, which keeps the cost of the syncs low.
+ * A record left incomplete by a crash is dropped on replay, and the journal is compacted on the next save.
+ * <p>
+ * Identifiers longer than the modified UTF-8 encoding allows (65535 bytes) are not journaled, they are skipped with a
+ * warning.
+ * <p>
+ * This class is not thread safe, it is used from the Places Monitor extension thread.
+ */
+class PlacesMonitorGeofenceJournal {
+
+	static final int MAGIC = 0x504D474A; // "PMGJ"
+	static final byte FORMAT_VERSION = 1;
+	static final byte RECORD_ENTER = 1;
+	static final byte RECORD_EXIT = 2;
+	static final byte RECORD_CLEAR = 3;
+
+	private static final int MIN_RECORD_LENGTH = 9;
+	private static final int MAX_RECORD_LENGTH = 65546;
+
+	private final Set<String> journaledIdentifiers = new HashSet<String>();
+	private final ByteArrayOutputStream pendingRecords = new ByteArrayOutputStream();
+	private int recordCount;
+	private boolean needsCompaction = true;
+
+	/**
+	 * Replays the journal and returns the set of geofence identifiers it records.
+	 * <p>
+	 * The journal is compacted on the next {@link #save(Set)} if it ends with an incomplete record.
+	 *
+	 * @return the {@link Set} of identifiers the user is within, or null if there is no readable journal
+	 */
+	Set<String> replay() {
+		final File journalFile = getJournalFile();
+		journaledIdentifiers.clear();
+		recordCount = 0;
+		needsCompaction = true;
+
+		if (journalFile == null || !journalFile.isFile()) {
+			return null;
+		}
+
+		DataInputStream inputStream = null;
+
+		try {
+			inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(journalFile)));
+
+			if (inputStream.readInt() != MAGIC || inputStream.readByte() != FORMAT_VERSION) {
+				PlacesMonitorLog.warning("Ignoring the geofence journal, the journal format is not supported");
+				return null;
+			}
+
+			needsCompaction = !replayRecords(inputStream);
+			PlacesMonitorLog.trace("Replayed %d records from the geofence journal", recordCount);
+			return new HashSet<String>(journaledIdentifiers);
+		} catch (IOException exp) {
+			PlacesMonitorLog.warning("Unable to read the geofence journal. Exception message - %s", exp.getMessage());
+			journaledIdentifiers.clear();
+			recordCount = 0;
+			return null;
+		} finally {
+			closeQuietly(inputStream);
+		}
+	}
+
+	/**
+	 * Records the given set of geofence identifiers in the journal.
+	 * <p>
+	 * Only the difference with the previously saved set is appended. The journal is compacted instead, when it has grown
+	 * past its compaction threshold or when its content is not known to be valid.
+	 *
+	 * @param identifiers the {@link Set} of identifiers the user is within
+	 * @return true if the journal records the given set, false if it could not be written
+	 */
+	boolean save(final Set<String> identifiers) {
+		final long time = System.currentTimeMillis();
+		int pendingCount = 0;
+		pendingRecords.reset();
+
+		if (identifiers.isEmpty() && !journaledIdentifiers.isEmpty()) {
+			writeRecord(RECORD_CLEAR, time, null);
+			pendingCount++;
+		} else {
+			for (String identifier : journaledIdentifiers) {
+				if (!identifiers.contains(identifier) && writeRecord(RECORD_EXIT, time, identifier)) {
+					pendingCount++;
+				}
+			}
+
+			for (String identifier : identifiers) {
+				if (!journaledIdentifiers.contains(identifier) && writeRecord(RECORD_ENTER, time, identifier)) {
+					pendingCount++;
+				}
+			}
+		}
+
+		if (pendingCount == 0 && !needsCompaction) {
+			return true;
+		}
+
+		if (needsCompaction || recordCount + pendingCount > Math.max(PlacesMonitorConstants.GeofenceJournal.MIN_COMPACTION_RECORDS,
+				PlacesMonitorConstants.GeofenceJournal.COMPACTION_RATIO * identifiers.size())) {
+			return compact(identifiers);
+		}
+
+		final File journalFile = getJournalFile();
+
+		if (journalFile == null) {
+			return false;
+		}
+
+		FileOutputStream outputStream = null;
+
+		try {
+			outputStream = new FileOutputStream(journalFile, true);
+			pendingRecords.writeTo(outputStream);
+			outputStream.getFD().sync();
+			outputStream.close();
+			outputStream = null;
+		} catch (IOException exp) {
+			PlacesMonitorLog.warning("Unable to append to the geofence journal. Exception message - %s",
+									 exp.getMessage());
+			// the journal may end with a partial record, rewrite it on the next save
+			needsCompaction = true;
+			return false;
+		} finally {
+			closeQuietly(outputStream);
+		}
+
+		recordCount += pendingCount;
+		journaledIdentifiers.clear();
+		journaledIdentifiers.addAll(identifiers);
+		return true;
+	}
+
+	/**
+	 * Rewrites the journal as a snapshot of the given set of geofence identifiers.
+	 *
+	 * @param identifiers the {@link Set} of identifiers the user is within
+	 * @return true if the journal has been rewritten
+	 */
+	boolean compact(final Set<String> identifiers) {
+		final File journalFile = getJournalFile();
+
+		if (journalFile == null) {
+			return false;
+		}
+
+		final long time = System.currentTimeMillis();
+		int compactedCount = 0;
+		pendingRecords.reset();
+
+		for (String identifier : identifiers) {
+			if (writeRecord(RECORD_ENTER, time, identifier)) {
+				compactedCount++;
+			}
+		}
+
+		final File compactedFile = new File(journalFile.getPath() + ".compact");
+		DataOutputStream outputStream = null;
+
+		try {
+			final FileOutputStream fileStream = new FileOutputStream(compactedFile);
+			outputStream = new DataOutputStream(fileStream);
+			outputStream.writeInt(MAGIC);
+			outputStream.writeByte(FORMAT_VERSION);
+			pendingRecords.writeTo(outputStream);
+			outputStream.flush();
+			// the snapshot must be on disk before it replaces the journal, or a crash could leave an empty journal
+			fileStream.getFD().sync();
+			outputStream.close();
+			outputStream = null;
+
+			if (!compactedFile.renameTo(journalFile)) {
+				throw new IOException("unable to replace the journal file");
+			}
+		} catch (IOException exp) {
+			PlacesMonitorLog.warning("Unable to compact the geofence journal. Exception message - %s",
+									 exp.getMessage());
+			closeQuietly(outputStream);
+			compactedFile.delete();
+			needsCompaction = true;
+			return false;
+		}
+
+		PlacesMonitorLog.trace("Compacted the geofence journal from %d to %d records", recordCount, compactedCount);
+		recordCount = compactedCount;
+		journaledIdentifiers.clear();
+		journaledIdentifiers.addAll(identifiers);
+		needsCompaction = false;
+		return true;
+	}
+
+	/**
+	 * Getter for the file the journal is stored in.
+	 *
+	 * @return the journal {@link File}, or null if the app context or its files directory is not available
+	 */
+	File getJournalFile() {
+		final Context context = App.getAppContext();
+
+		if (context == null) {
+			return null;
+		}
+
+		final File filesDirectory = context.getFilesDir();
+
+		if (filesDirectory == null) {
+			return null;
+		}
+
+		return new File(filesDirectory, PlacesMonitorConstants.GeofenceJournal.FILE_NAME);
+	}
+
+	/**
+	 * Applies the records read from the given stream to the {@link #journaledIdentifiers}.
+	 *
+	 * @param inputStream the {@link DataInputStream} positioned after the journal header
+	 * @return true if all the records were read, false if the journal ends with an incomplete or invalid record
+	 * @throws IOException if the journal cannot be read
+	 */
+	private boolean replayRecords(final DataInputStream inputStream) throws IOException {
+		final byte[] record = new byte[MAX_RECORD_LENGTH];
+
+		while (true) {
+			final int length;
+
+			try {
+				length = inputStream.readInt();
+			} catch (EOFException exp) {
+				return true;
+			}
+
+			if (length < MIN_RECORD_LENGTH || length > MAX_RECORD_LENGTH) {
+				PlacesMonitorLog.warning("Dropping the invalid records at the end of the geofence journal");
+				return false;
+			}
+
+			try {
+				inputStream.readFully(record, 0, length);
+			} catch (EOFException exp) {
+				PlacesMonitorLog.warning("Dropping the incomplete record at the end of the geofence journal");
+				return false;
+			}
+
+			final DataInputStream recordStream = new DataInputStream(new ByteArrayInputStream(record, 0, length));
+			final byte type = recordStream.readByte();
+			recordStream.readLong();
+
+			if (type == RECORD_ENTER) {
+				journaledIdentifiers.add(recordStream.readUTF());
+			} else if (type == RECORD_EXIT) {
+				journaledIdentifiers.remove(recordStream.readUTF());
+			} else if (type == RECORD_CLEAR) {
+				journaledIdentifiers.clear();
+			} else {
+				PlacesMonitorLog.warning("Dropping the invalid records at the end of the geofence journal");
+				return false;
+			}
+
+			recordCount++;
+		}
+	}
+
+	/**
+	 * Writes a length prefixed record to the {@link #pendingRecords}.
+	 * <p>
+	 * No record is written if the identifier is too long to be encoded.
+	 *
+	 * @param type the record type
+	 * @param time the time of the record, in milliseconds since epoch
+	 * @param identifier the geofence identifier, or null for a CLEAR record
+	 * @return true if the record has been written, false if the identifier was skipped
+	 */
+	private boolean writeRecord(final byte type, final long time, final String identifier) {
+		try {
+			final ByteArrayOutputStream record = new ByteArrayOutputStream(MIN_RECORD_LENGTH + 32);
+			final DataOutputStream recordStream = new DataOutputStream(record);
+			recordStream.writeByte(type);
+			recordStream.writeLong(time);
+
+			if (identifier != null) {
+				recordStream.writeUTF(identifier);
+			}
+
+			new DataOutputStream(pendingRecords).writeInt(record.size());
+			record.writeTo(pendingRecords);
+			return true;
+		} catch (UTFDataFormatException exp) {
+			PlacesMonitorLog.warning("Unable to journal the geofence identifier, it exceeds the maximum encoded length of 65535 bytes");
+			return false;
+		} catch (IOException exp) {
+			// not thrown by in-memory streams
+			throw new IllegalStateException(exp);
+		}
+	}
+
+	private static void closeQuietly(final Closeable closeable) {
+		if (closeable == null) {
+			return;
+		}
+
+		try {
+			closeable.close();
+		} catch (IOException exp) {
+			PlacesMonitorLog.trace("Unable to close the geofence journal. Exception message - %s", exp.getMessage());
+		}
+	}
+}
@@ -0,0 +1,262 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorIdentifierSet.java
+//
+
+package com.adobe.marketing.mobile;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * A {@link java.util.Set} of POI identifiers backed by a {@link BitSet}.
+ * <p>
+ * Every identifier seen by the set is interned to an int handle, the members of the set are the handles whose bit is set.
+ * Once interned, the membership of an identifier is checked and changed without any allocation, and the handles let the
+ * callers compute set operations with {@code BitSet}s they reuse from call to call.
+ * <p>
+ * Handles are never reused while the identifiers are interned. The identifiers that are not members are dropped by
+ * {@link #compact()}, which invalidates all the handles previously returned.
+ * This class is not thread safe.
+ */
+class PlacesMonitorIdentifierSet extends AbstractSet<String> {
+
+	private static final int INITIAL_CAPACITY = 32;
+	static final int COMPACTION_THRESHOLD = 1024;
+
+	private final Map<String, Integer> handles;
+	private final BitSet members;
+	private String[] identifiers;
+	private int handleCount;
+
+	PlacesMonitorIdentifierSet() {
+		handles = new HashMap<String, Integer>();
+		members = new BitSet(INITIAL_CAPACITY);
+		identifiers = new String[INITIAL_CAPACITY];
+	}
+
+	PlacesMonitorIdentifierSet(final Collection<String> identifiers) {
+		this();
+		addAll(identifiers);
+	}
+
+	/**
+	 * Returns the handle of the given identifier, interning the identifier if it was not seen before.
+	 *
+	 * @param identifier a non-null POI identifier
+	 * @return the handle of the identifier
+	 */
+	int intern(final String identifier) {
+		final Integer handle = handles.get(identifier);
+
+		if (handle != null) {
+			return handle;
+		}
+
+		if (handleCount == identifiers.length) {
+			identifiers = Arrays.copyOf(identifiers, handleCount * 2);
+		}
+
+		identifiers[handleCount] = identifier;
+		handles.put(identifier, handleCount);
+		return handleCount++;
+	}
+
+	/**
+	 * Returns the handle of the given identifier, without interning it.
+	 *
+	 * @param identifier a POI identifier
+	 * @return the handle of the identifier, or -1 if the identifier is not interned
+	 */
+	int handleOf(final String identifier) {
+		final Integer handle = handles.get(identifier);
+		return handle != null ? handle : -1;
+	}
+
+	/**
+	 * @param handle a handle returned by {@link #intern(String)}
+	 * @return true if the identifier of the handle is a member of the set
+	 */
+	boolean containsHandle(final int handle) {
+		return members.get(handle);
+	}
+
+	/**
+	 * Adds the identifier of the given handle to the set.
+	 *
+	 * @param handle a handle returned by {@link #intern(String)}
+	 */
+	void addHandle(final int handle) {
+		members.set(handle);
+	}
+
+	/**
+	 * Removes the identifier of the given handle from the set.
+	 *
+	 * @param handle a handle returned by {@link #intern(String)}
+	 */
+	void removeHandle(final int handle) {
+		members.clear(handle);
+	}
+
+	/**
+	 * Removes the members whose handle is not set in the given {@link BitSet}.
+	 *
+	 * @param retainedHandles the handles of the identifiers to be kept
+	 * @return true if the set has changed
+	 */
+	boolean retainHandles(final BitSet retainedHandles) {
+		return retainHandles(retainedHandles, null);
+	}
+
+	/**
+	 * Removes the members whose handle is not set in the given {@link BitSet}, collecting the removed identifiers.
+	 *
+	 * @param retainedHandles the handles of the identifiers to be kept
+	 * @param removedIdentifiers the {@link List} the removed identifiers are added to, or null
+	 * @return true if the set has changed
+	 */
+	boolean retainHandles(final BitSet retainedHandles, final List<String> removedIdentifiers) {
+		boolean isChanged = false;
+
+		for (int handle = members.nextSetBit(0); handle >= 0; handle = members.nextSetBit(handle + 1)) {
+			if (!retainedHandles.get(handle)) {
+				members.clear(handle);
+				isChanged = true;
+
+				if (removedIdentifiers != null) {
+					removedIdentifiers.add(identifiers[handle]);
+				}
+			}
+		}
+
+		return isChanged;
+	}
+
+	/**
+	 * Drops the identifiers that are not members of the set once more than {@link #COMPACTION_THRESHOLD} are interned.
+	 * <p>
+	 * Compacting invalidates all the handles previously returned by {@link #intern(String)}.
+	 *
+	 * @return true if the set was compacted
+	 */
+	boolean compact() {
+		if (handleCount <= COMPACTION_THRESHOLD) {
+			return false;
+		}
+
+		final String[] memberIdentifiers = new String[members.cardinality()];
+		int index = 0;
+
+		for (int handle = members.nextSetBit(0); handle >= 0; handle = members.nextSetBit(handle + 1)) {
+			memberIdentifiers[index++] = identifiers[handle];
+		}
+
+		handles.clear();
+		members.clear();
+		Arrays.fill(identifiers, 0, handleCount, null);
+		handleCount = 0;
+
+		for (String identifier : memberIdentifiers) {
+			members.set(intern(identifier));
+		}
+
+		return true;
+	}
+
+	@Override
+	public boolean contains(final Object identifier) {
+		final Integer handle = handles.get(identifier);
+		return handle != null && members.get(handle);
+	}
+
+	@Override
+	public boolean add(final String identifier) {
+		final int handle = intern(identifier);
+
+		if (members.get(handle)) {
+			return false;
+		}
+
+		members.set(handle);
+		return true;
+	}
+
+	@Override
+	public boolean remove(final Object identifier) {
+		final Integer handle = handles.get(identifier);
+
+		if (handle == null || !members.get(handle)) {
+			return false;
+		}
+
+		members.clear(handle);
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		members.clear();
+	}
+
+	@Override
+	public int size() {
+		return members.cardinality();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return members.isEmpty();
+	}
+
+	@Override
+	public Iterator<String> iterator() {
+		return new Iterator<String>() {
+			private int nextHandle = members.nextSetBit(0);
+			private int lastHandle = -1;
+
+			@Override
+			public boolean hasNext() {
+				return nextHandle >= 0;
+			}
+
+			@Override
+			public String next() {
+				if (nextHandle < 0) {
+					throw new NoSuchElementException();
+				}
+
+				lastHandle = nextHandle;
+				nextHandle = members.nextSetBit(nextHandle + 1);
+				return identifiers[lastHandle];
+			}
+
+			@Override
+			public void remove() {
+				if (lastHandle < 0) {
+					throw new IllegalStateException();
+				}
+
+				members.clear(lastHandle);
+				lastHandle = -1;
+			}
+		};
+	}
+}
@@ -18,19 +18,44 @@ package com.adobe.marketing.mobile;
 import android.location.Location;
 
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 class PlacesMonitorInternal extends Extension {
 
-	private ConcurrentLinkedQueue<Event> eventQueue;
+	private PlacesMonitorEventQueue eventQueue;
+	private PlacesMonitorEventCoalescer eventCoalescer;
 	private PlacesLocationManager locationManager;
 	private PlacesGeofenceManager geofenceManager;
+	private PlacesMonitorPOICache poiCache;
+	private PlacesMonitorPOIPackManager poiPackManager;
 	private ExecutorService executorService;
 	private final Object executorMutex = new Object();
+	private final CountDownLatch initializationLatch = new CountDownLatch(1);
+	private volatile boolean hasInitializationFailed;
+	private final AtomicLong configurationStateVersion = new AtomicLong();
+	private long resolvedConfigurationStateVersion = -1;
+	private int nearbyPOICount = PlacesMonitorConstants.NEARBY_GEOFENCES_COUNT;
+	private final PlacesMonitorMetrics metrics = PlacesMonitorMetrics.getInstance();
+	private boolean isMetricsSharedStateEnabled;
+	private long metricsSharedStateTime;
+	private final ExtensionErrorCallback<ExtensionError> configurationErrorCallback =
+	new ExtensionErrorCallback<ExtensionError>() {
+		@Override
+		public void error(final ExtensionError extensionError) {
+			if (extensionError != null) {
+				PlacesMonitorLog.warning("Could not process event, an error occurred while retrieving configuration shared state: %s",
+										 extensionError.getErrorName());
+			}
+		}
+	};
 
 	/**
 	 * Constructor.
@@ -46,6 +71,8 @@ class PlacesMonitorInternal extends Extension {
 	 *      <li> {@link PlacesMonitorListenerOSResponseContent} listening to event with eventType {@link PlacesMonitorConstants.EventType#OS}
 	 * 	 *  and EventSource {@link PlacesMonitorConstants.EventSource#RESPONSE_CONTENT}</li>
 	 * </ul>
+	 * The location and geofence managers are initialized on the {@link #executorService}, so that reading the persisted
+	 * data and validating the location authorization status do not delay the registration of the extension.
 	 *
 	 * @param extensionApi 	{@link ExtensionApi} instance
 	 */
@@ -60,8 +87,8 @@ class PlacesMonitorInternal extends Extension {
 			@Override
 			public void error(ExtensionError extensionError) {
 				if (extensionError != null) {
-					Log.error(PlacesMonitorConstants.LOG_TAG,"There was an error registering PlacesMonitorListenerHubSharedState for Event Hub shared state events: %s",
-							  extensionError.getErrorName());
+					PlacesMonitorLog.error("There was an error registering PlacesMonitorListenerHubSharedState for Event Hub shared state events: %s",
+										   extensionError.getErrorName());
 				}
 			}
 		});
@@ -74,8 +101,8 @@ class PlacesMonitorInternal extends Extension {
 			@Override
 			public void error(ExtensionError extensionError) {
 				if (extensionError != null) {
-					Log.error(PlacesMonitorConstants.LOG_TAG,"There was an error registering PlacesMonitorListenerPlacesResponseContent for Places Monitor request events: %s",
-							  extensionError.getErrorName());
+					PlacesMonitorLog.error("There was an error registering PlacesMonitorListenerPlacesResponseContent for Places Monitor request events: %s",
+										   extensionError.getErrorName());
 				}
 			}
 		});
@@ -89,24 +116,71 @@ class PlacesMonitorInternal extends Extension {
 			@Override
 			public void error(ExtensionError extensionError) {
 				if (extensionError != null) {
-					Log.error(PlacesMonitorConstants.LOG_TAG,"There was an error registering PlacesMonitorListenerOSResponseContent for OS response events: %s",
-							  extensionError.getErrorName());
+					PlacesMonitorLog.error("There was an error registering PlacesMonitorListenerOSResponseContent for OS response events: %s",
+										   extensionError.getErrorName());
 				}
 			}
 		});
 
-		// initialize location, geofence Manager and the events queue
-		locationManager = new PlacesLocationManager(this);
-		geofenceManager = new PlacesGeofenceManager();
-		geofenceManager.loadPersistedData();
-		eventQueue = new ConcurrentLinkedQueue<>();
+		// initialize the events queue, the events are processed once the extension is initialized
+		eventQueue = new PlacesMonitorEventQueue();
+		eventCoalescer = new PlacesMonitorEventCoalescer();
 
-		// authorization status can change while the app is not running, so we must validate
-		// that our current shared state value is still accurate
-		PlacesActivity.updateLocationAuthorizationStatus();
+		// the executor runs its tasks in order, so the initialization runs before any of the queued events is processed
+		getExecutor().execute(new Runnable() {
+			@Override
+			public void run() {
+				initialize();
+			}
+		});
+
+		PlacesMonitorLog.debug("Registering Places Monitoring extension - version %s",
+							   PlacesMonitorConstants.EXTENSION_VERSION);
+	}
 
-		Log.debug(PlacesMonitorConstants.LOG_TAG, "Registering Places Monitoring extension - version %s",
-				  PlacesMonitorConstants.EXTENSION_VERSION);
+	/**
+	 * Initializes the location and geofence managers, and loads their persisted data.
+	 * <p>
+	 * This method is called on the {@link #executorService} once the extension is registered. The {@link #initializationLatch}
+	 * is released even if the initialization fails, so that the event processing never waits forever. A failure is
+	 * recorded in {@link #hasInitializationFailed}, the events are not processed without the managers.
+	 */
+	private void initialize() {
+		try {
+			locationManager = new PlacesLocationManager(this);
+			geofenceManager = new PlacesGeofenceManager();
+			geofenceManager.loadPersistedData();
+			poiCache = new PlacesMonitorPOICache();
+			poiPackManager = new PlacesMonitorPOIPackManager();
+
+			// authorization status can change while the app is not running, so we must validate
+			// that our current shared state value is still accurate
+			PlacesActivity.updateLocationAuthorizationStatus();
+		} catch (RuntimeException exp) {
+			PlacesMonitorLog.error("Unable to initialize the Places Monitor extension, the events will not be processed. Error message - %s",
+								   exp.getMessage());
+			hasInitializationFailed = true;
+		} finally {
+			initializationLatch.countDown();
+		}
+	}
+
+	/**
+	 * Waits for the extension to be initialized.
+	 * <p>
+	 * Returns immediately when called from the {@link #executorService}, as the initialization is the first task it runs.
+	 * Otherwise waits for at most {@link PlacesMonitorConstants#INITIALIZATION_TIMEOUT} milliseconds.
+	 *
+	 * @return true if the extension is initialized, false if the wait timed out, was interrupted or the initialization failed
+	 */
+	boolean awaitInitialization() {
+		try {
+			return initializationLatch.await(PlacesMonitorConstants.INITIALIZATION_TIMEOUT, TimeUnit.MILLISECONDS)
+				   && !hasInitializationFailed;
+		} catch (InterruptedException exp) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
 	}
 
 	/**
@@ -116,9 +190,8 @@ class PlacesMonitorInternal extends Extension {
 	 */
 	@Override
 	protected void onUnexpectedError(ExtensionUnexpectedError extensionUnexpectedError) {
-		Log.error(PlacesMonitorConstants.LOG_TAG,
-				  String.format("Unexpected error occurred while registering PlacesMonitor extension. Error message %s",
-								extensionUnexpectedError.getMessage()));
+		PlacesMonitorLog.error("Unexpected error occurred while registering PlacesMonitor extension. Error message %s",
+							   extensionUnexpectedError.getMessage());
 		this.onUnregistered();
 	}
 
@@ -159,41 +232,133 @@ class PlacesMonitorInternal extends Extension {
 	 *
 	 * <p>
 	 * This method is called by the {@link #locationManager} with the current device location to fetch the closest
-	 * {@link PlacesMonitorConstants#NEARBY_GEOFENCES_COUNT} nearby points of interest around the given location.
+	 * {@link #nearbyPOICount} nearby points of interest around the given location.
 	 * The obtained POIs are then passed to {@link #geofenceManager} to start monitoring for entry/exit events.
+	 * <p>
+	 * If an offline POI pack covering the location is available from the {@link #poiPackManager}, the POIs are read from
+	 * the pack. Otherwise, if the location falls within a cell of the {@link #poiCache} that holds a valid response,
+	 * the cached POIs are used. In both cases the fences are registered without waiting for the Places query service.
+	 * <p>
+	 * The Places extension only processes the region events of the POIs it returned in its last nearby POIs response.
+	 * The {@link #geofenceManager} defers the entry into a pack or cached POI the Places extension does not know, the
+	 * Places query service is then queried for the location so that the entry is recorded and dispatched once the Places
+	 * extension returns the POI. No query is made while the user has not entered such a POI.
+	 * A refresh geofence is registered along with the POIs if the {@link #locationManager} does not request continuous
+	 * location updates.
+	 * <p>
+	 * This method must be called on the {@link #executorService}, which owns the state of the {@link #geofenceManager}
+	 * and {@link #locationManager}. The Places query callbacks run on a Places thread, so their handling is posted back
+	 * to the {@link #executorService}.
 	 *
 	 * @param location 	A {@link Location} instance representing device's current location
 	 */
 	void getPOIsForLocation(final Location location) {
 		if (location == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"Null location is obtained from OS, Ignoring to get near by pois");
+			PlacesMonitorLog.warning("Null location is obtained from OS, Ignoring to get near by pois");
+			return;
+		}
+
+		final double latitude = location.getLatitude();
+		final double longitude = location.getLongitude();
+		geofenceManager.setRefreshFenceEnabled(locationManager.usesRefreshFence());
+		final PlacesMonitorPOIPack poiPack = poiPackManager.getPack();
+
+		if (PlacesMonitorLog.isEnabled(LoggingMode.DEBUG)) {
+			PlacesMonitorLog.debug("New location obtained: %s, %s", latitude, longitude);
+		}
+
+		if (poiPack != null && poiPack.covers(latitude, longitude)) {
+			metrics.increment(PlacesMonitorMetrics.Counter.NEARBY_POI_PACK_HITS);
+			PlacesMonitorLog.debug("Using the offline POI pack to get the near by pois");
+			monitorOfflinePOIs(location, poiPack.getNearbyPOIs(latitude, longitude, nearbyPOICount));
 			return;
 		}
 
-		Log.debug(PlacesMonitorConstants.LOG_TAG,
-				  "New location obtained: " + location.getLatitude() + location.getLongitude() +
-				  "Attempting to get the near by pois");
-		Places.getNearbyPointsOfInterest(location, PlacesMonitorConstants.NEARBY_GEOFENCES_COUNT,
+		final List<PlacesPOI> cachedPOIs = poiCache.get(latitude, longitude);
+
+		if (cachedPOIs != null) {
+			metrics.increment(PlacesMonitorMetrics.Counter.NEARBY_POI_CACHE_HITS);
+			PlacesMonitorLog.debug("Using the cached near by pois for this area");
+			monitorOfflinePOIs(location, cachedPOIs);
+			return;
+		}
+
+		PlacesMonitorLog.debug("Attempting to get the near by pois");
+		queryNearbyPOIs(location);
+	}
+
+	/**
+	 * Queries the Places extension for the nearbyPOIs around the given location and starts monitoring them.
+	 * <p>
+	 * The response is cached in the {@link #poiCache}, and its POIs are recorded by the {@link #geofenceManager} as the
+	 * ones known to the Places extension.
+	 *
+	 * @param location 	A {@link Location} instance representing device's current location
+	 */
+	private void queryNearbyPOIs(final Location location) {
+		final double latitude = location.getLatitude();
+		final double longitude = location.getLongitude();
+		metrics.increment(PlacesMonitorMetrics.Counter.NEARBY_POI_QUERIES);
+		final long queryStartTime = System.nanoTime();
+		Places.getNearbyPointsOfInterest(location, nearbyPOICount,
 		new AdobeCallback<List<PlacesPOI>>() {
 			@Override
-			public void call(List<PlacesPOI> placesPOIS) {
-				geofenceManager.startMonitoringFences(placesPOIS);
+			public void call(final List<PlacesPOI> placesPOIS) {
+				metrics.record(PlacesMonitorMetrics.Histogram.NEARBY_POI_QUERY_LATENCY,
+							   TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queryStartTime));
+				getExecutor().execute(new Runnable() {
+					@Override
+					public void run() {
+						poiCache.put(latitude, longitude, placesPOIS);
+						geofenceManager.startMonitoringFences(placesPOIS, latitude, longitude);
+						locationManager.onNearbyPOIsReceived(latitude, longitude, placesPOIS);
+					}
+				});
 			}
 		}, new AdobeCallback<PlacesRequestError>() {
 			@Override
-			public void call(PlacesRequestError placesRequestError) {
-				handlePlacesRequestError(placesRequestError);
+			public void call(final PlacesRequestError placesRequestError) {
+				metrics.record(PlacesMonitorMetrics.Histogram.NEARBY_POI_QUERY_LATENCY,
+							   TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queryStartTime));
+				metrics.recordRequestError(placesRequestError);
+				getExecutor().execute(new Runnable() {
+					@Override
+					public void run() {
+						handlePlacesRequestError(placesRequestError);
+					}
+				});
 			}
 		});
 	}
 
+	/**
+	 * Starts monitoring the POIs read from the offline pack or the {@link #poiCache}, without a Places query.
+	 * <p>
+	 * The Places extension is queried for the location only if the entry into one of the POIs has been deferred
+	 * by the {@link #geofenceManager}, because the Places extension does not know the POI.
+	 *
+	 * @param location 	the {@link Location} the POIs were obtained for
+	 * @param pois 		the {@link List} of {@link PlacesPOI} to be monitored
+	 */
+	private void monitorOfflinePOIs(final Location location, final List<PlacesPOI> pois) {
+		final double latitude = location.getLatitude();
+		final double longitude = location.getLongitude();
+		final boolean hasDeferredEntries = geofenceManager.startMonitoringOfflineFences(pois, latitude, longitude);
+		locationManager.onNearbyPOIsReceived(latitude, longitude, pois);
+
+		if (hasDeferredEntries) {
+			PlacesMonitorLog.debug("Places extension does not know the entered near by pois, querying it for the current location");
+			queryNearbyPOIs(location);
+		}
+	}
+
 	/**
 	 * This method queues the provided event in {@link #eventQueue}.
 	 *
 	 * <p>
 	 * The queued events are then processed in an orderly fashion.
 	 * No action is taken if the provided event's value is null.
+	 * The {@link #eventQueue} is bounded, when it is full the event or an older queued location update may be dropped.
 	 *
 	 * @param event 	The {@link Event} thats needs to be queued
 	 */
@@ -202,7 +367,7 @@ class PlacesMonitorInternal extends Extension {
 			return;
 		}
 
-		eventQueue.add(event);
+		eventQueue.offer(event);
 	}
 
 	/**
@@ -210,30 +375,42 @@ class PlacesMonitorInternal extends Extension {
 	 *
 	 * <p>
 	 * Suspends processing of the events in the queue if the configuration shared state is not ready.
+	 * The configuration shared state is looked up once per version, see {@link #isConfigurationSharedStateAvailable(Event)}.
+	 * Before processing, the queued events are coalesced with {@link #eventCoalescer} so that superseded location updates,
+	 * repeated start/stop requests and duplicate geofence triggers are not processed.
 	 * Processed events are polled out of the {@link #eventQueue}.
+	 * The events stay queued until the extension is initialized, see {@link #awaitInitialization()}. They are dropped if
+	 * the initialization failed.
+	 * The depth of the queue and the time taken to drain it are recorded in the {@link PlacesMonitorMetrics}.
 	 */
 	void processEvents() {
+		if (!awaitInitialization()) {
+			if (hasInitializationFailed) {
+				PlacesMonitorLog.warning("Could not process event, the Places Monitor extension failed to initialize");
+				eventQueue.clear();
+				return;
+			}
+
+			PlacesMonitorLog.warning("Could not process event, the Places Monitor extension is not initialized yet");
+			return;
+		}
+
+		if (eventQueue.isEmpty()) {
+			return;
+		}
+
+		final long drainStartTime = System.nanoTime();
+		metrics.record(PlacesMonitorMetrics.Histogram.QUEUE_DEPTH, eventQueue.size());
+		coalesceQueuedEvents();
+		Event lastProcessedEvent = null;
+
 		while (!eventQueue.isEmpty()) {
 			Event eventToProcess = eventQueue.peek();
 
-			ExtensionErrorCallback<ExtensionError> extensionErrorCallback = new ExtensionErrorCallback<ExtensionError>() {
-				@Override
-				public void error(final ExtensionError extensionError) {
-					if (extensionError != null) {
-						Log.warning(PlacesMonitorConstants.LOG_TAG,
-									String.format("Could not process event, an error occurred while retrieving configuration shared state: %s",
-												  extensionError.getErrorName()));
-					}
-				}
-			};
-			Map<String, Object> configSharedState = getApi().getSharedEventState(PlacesMonitorConstants.SharedState.CONFIGURATION,
-													eventToProcess, extensionErrorCallback);
-
 			// NOTE: configuration is mandatory processing the event, so if shared state is null (pending) stop processing events
-			if (configSharedState == null) {
-				Log.warning(PlacesMonitorConstants.LOG_TAG,
-							"Could not process event, configuration shared state is pending");
-				return;
+			if (!isConfigurationSharedStateAvailable(eventToProcess)) {
+				PlacesMonitorLog.warning("Could not process event, configuration shared state is pending");
+				break;
 			}
 
 			if (PlacesMonitorConstants.EventType.MONITOR.equalsIgnoreCase(eventToProcess.getType()) &&
@@ -250,7 +427,157 @@ class PlacesMonitorInternal extends Extension {
 
 			// event processed, remove it from the queue
 			eventQueue.poll();
+			eventCoalescer.onEventProcessed(eventToProcess);
+			lastProcessedEvent = eventToProcess;
+		}
+
+		metrics.recordElapsedMicros(PlacesMonitorMetrics.Histogram.EVENT_DRAIN_TIME, drainStartTime);
+
+		if (lastProcessedEvent != null) {
+			publishMetrics(lastProcessedEvent);
+		}
+	}
+
+	/**
+	 * Publishes a snapshot of the {@link PlacesMonitorMetrics} as the Places Monitor shared state.
+	 * <p>
+	 * The metrics are published only when enabled by the {@link PlacesMonitorConstants.SharedState#CONFIG_METRICS_SHARED_STATE}
+	 * configuration, at most once every {@link PlacesMonitorConstants#METRICS_SHARED_STATE_INTERVAL} milliseconds.
+	 *
+	 * @param event the last processed {@link Event}, the shared state is published for
+	 */
+	private void publishMetrics(final Event event) {
+		final long now = System.currentTimeMillis();
+
+		if (!isMetricsSharedStateEnabled
+				|| now - metricsSharedStateTime < PlacesMonitorConstants.METRICS_SHARED_STATE_INTERVAL) {
+			return;
 		}
+
+		metricsSharedStateTime = now;
+		final Map<String, Object> sharedState = new HashMap<String, Object>();
+		sharedState.put(PlacesMonitorConstants.SharedState.METRICS, metrics.snapshot());
+		getApi().setSharedEventState(sharedState, event, new ExtensionErrorCallback<ExtensionError>() {
+			@Override
+			public void error(final ExtensionError extensionError) {
+				if (extensionError != null) {
+					PlacesMonitorLog.warning("Unable to publish the metrics shared state: %s",
+											 extensionError.getErrorName());
+				}
+			}
+		});
+	}
+
+	/**
+	 * Called when the configuration shared state has changed.
+	 * <p>
+	 * Bumps the local configuration shared state version, so that the next processed event looks up the
+	 * configuration shared state again. This method may be called from any thread.
+	 */
+	void onConfigurationSharedStateChanged() {
+		configurationStateVersion.incrementAndGet();
+	}
+
+	/**
+	 * Verifies that a valid configuration shared state is available for the provided event.
+	 * <p>
+	 * The configuration shared state is looked up only when it has changed since the last successful lookup.
+	 * Shared state versions follow the order of the events, so once the configuration is available for a queued
+	 * event, it stays available for all the later events until the configuration shared state changes again.
+	 *
+	 * @param event the {@link Event} to be processed
+	 * @return true if the configuration shared state is available, false if it is pending
+	 */
+	private boolean isConfigurationSharedStateAvailable(final Event event) {
+		final long version = configurationStateVersion.get();
+
+		if (version == resolvedConfigurationStateVersion) {
+			return true;
+		}
+
+		Map<String, Object> configSharedState = getApi().getSharedEventState(PlacesMonitorConstants.SharedState.CONFIGURATION,
+												event, configurationErrorCallback);
+
+		if (configSharedState == null) {
+			return false;
+		}
+
+		resolvedConfigurationStateVersion = version;
+		updateNearbyPOICount(configSharedState);
+		final Object poiPackUrl = configSharedState.get(PlacesMonitorConstants.SharedState.CONFIG_POI_PACK_URL);
+		// the pack is not downloaded or used while the privacy is opted out, as the Places extension would not be queried either
+		final boolean isOptedOut = PlacesMonitorConstants.SharedState.PRIVACY_OPTED_OUT.equals(configSharedState.get(
+									   PlacesMonitorConstants.SharedState.CONFIG_GLOBAL_PRIVACY));
+		poiPackManager.setPackUrl(poiPackUrl instanceof String && !isOptedOut ? (String) poiPackUrl : null);
+		final Object metricsSharedState = configSharedState.get(PlacesMonitorConstants.SharedState.CONFIG_METRICS_SHARED_STATE);
+		isMetricsSharedStateEnabled = Boolean.TRUE.equals(metricsSharedState);
+		return true;
+	}
+
+	/**
+	 * Reads the number of nearby POIs to be monitored from the configuration shared state.
+	 * <p>
+	 * Falls back to {@link PlacesMonitorConstants#NEARBY_GEOFENCES_COUNT} if the configuration does not contain a valid count.
+	 * The count is capped at {@link PlacesMonitorConstants#MAX_GEOFENCES_COUNT}, the number of geofences Android allows per app.
+	 * When the count changes, the nearby POIs cached in the {@link #poiCache} are dropped, since they were obtained for the previous count.
+	 *
+	 * @param configSharedState the configuration shared state
+	 */
+	private void updateNearbyPOICount(final Map<String, Object> configSharedState) {
+		final Object configuredCount = configSharedState.get(PlacesMonitorConstants.SharedState.CONFIG_NEARBY_POI_COUNT);
+		int count = PlacesMonitorConstants.NEARBY_GEOFENCES_COUNT;
+
+		if (configuredCount instanceof Number) {
+			count = ((Number) configuredCount).intValue();
+		} else if (configuredCount instanceof String) {
+			try {
+				count = Integer.parseInt(((String) configuredCount).trim());
+			} catch (NumberFormatException exp) {
+				count = 0;
+			}
+		}
+
+		if (count <= 0) {
+			PlacesMonitorLog.warning("Invalid nearby POI count %s in configuration, monitoring the default %d nearby POIs",
+									 configuredCount, PlacesMonitorConstants.NEARBY_GEOFENCES_COUNT);
+			count = PlacesMonitorConstants.NEARBY_GEOFENCES_COUNT;
+		}
+
+		count = Math.min(count, PlacesMonitorConstants.MAX_GEOFENCES_COUNT);
+
+		if (count == nearbyPOICount) {
+			return;
+		}
+
+		PlacesMonitorLog.debug("Monitoring %d nearby POIs", count);
+		nearbyPOICount = count;
+		geofenceManager.setGeofenceBudget(count);
+		poiCache.clear();
+	}
+
+	/**
+	 * Replaces the events in the {@link #eventQueue} with their coalesced equivalent.
+	 * <p>
+	 * Events are queued and processed on the {@link #executorService} thread, so the queue cannot change while it is
+	 * being rebuilt. The coalesced events replace the queued ones in place, as offering them again could drop
+	 * location updates and count them as dropped a second time.
+	 */
+	private void coalesceQueuedEvents() {
+		final List<Event> queuedEvents = new ArrayList<Event>(eventQueue);
+
+		if (queuedEvents.size() < 2) {
+			return;
+		}
+
+		final List<Event> coalescedEvents = eventCoalescer.coalesce(queuedEvents);
+
+		if (coalescedEvents.size() == queuedEvents.size()) {
+			return;
+		}
+
+		PlacesMonitorLog.debug("Coalesced %d queued events into %d events", queuedEvents.size(),
+							   coalescedEvents.size());
+		eventQueue.replaceAll(coalescedEvents);
 	}
 
 
@@ -281,9 +608,12 @@ class PlacesMonitorInternal extends Extension {
 			updateLocation();
 		} else if (PlacesMonitorConstants.EVENTNAME_SET_LOCATION_PERMISSION.equals(eventName)) {
 			setLocationPermission(event.getEventData());
+		} else if (PlacesMonitorConstants.EVENTNAME_SET_LOCATION_PROFILE.equals(eventName)) {
+			setLocationProfile(event.getData());
+		} else if (PlacesMonitorConstants.EVENTNAME_SET_ACTIVITY_RECOGNITION.equals(eventName)) {
+			setActivityRecognitionEnabled(event.getData());
 		} else {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"Could not process places monitor request event, Invalid/Unknown event name");
+			PlacesMonitorLog.warning("Could not process places monitor request event, Invalid/Unknown event name");
 		}
 	}
 
@@ -296,17 +626,20 @@ class PlacesMonitorInternal extends Extension {
 	 * <ul>
 	 *     <li> Location change event
 	 *     <li> Geofence transition event
+	 *     <li> Geofence unavailable event
 	 *     <li> Permission change event
+	 *     <li> Activity transition event
 	 * </ul>
 	 * This method will not process the event if the eventData doesn't contain the required eventData keys.
+	 * The eventData is read through the {@link #eventCoalescer}, as geofence triggers may have been merged into the event.
 	 *
 	 * @param event 	An OS {@link Event} to be processed
 	 */
 	private void processOSResponseEvent(final Event event) {
-		EventData eventData = event.getData();
+		EventData eventData = eventCoalescer.getEventData(event);
 
 		if (eventData == null || eventData.isEmpty()) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG, "Received empty eventData , Ignoring OS event.");
+			PlacesMonitorLog.warning("Received empty eventData , Ignoring OS event.");
 			return;
 		}
 
@@ -315,14 +648,12 @@ class PlacesMonitorInternal extends Extension {
 		try {
 			eventType = eventData.getString2(PlacesMonitorConstants.EventDataKey.OS_EVENT_TYPE);
 		} catch (VariantException exception) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"Invalid eventType for OS responseContent event, Ignoring OS event.");
+			PlacesMonitorLog.warning("Invalid eventType for OS responseContent event, Ignoring OS event.");
 			return;
 		}
 
 		if (StringUtils.isNullOrEmpty(eventType)) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"Null/Empty eventType for OS responseContent event, Ignoring OS event.");
+			PlacesMonitorLog.warning("Null/Empty eventType for OS responseContent event, Ignoring OS event.");
 			return;
 		}
 
@@ -334,7 +665,16 @@ class PlacesMonitorInternal extends Extension {
 			}
 
 			case PlacesMonitorConstants.EventDataValue.OS_EVENT_TYPE_GEOFENCE_TRIGGER: {
-				geofenceManager.onGeofenceTriggerReceived(eventData);
+				if (geofenceManager.onGeofenceTriggerReceived(eventData)) {
+					// the device has left the area of the monitored POIs, refresh them around the exit location
+					locationManager.onRefreshFenceExited(eventData);
+				}
+
+				break;
+			}
+
+			case PlacesMonitorConstants.EventDataValue.OS_EVENT_TYPE_GEOFENCE_UNAVAILABLE: {
+				geofenceManager.onGeofencesUnavailable();
 				break;
 			}
 
@@ -343,9 +683,13 @@ class PlacesMonitorInternal extends Extension {
 				break;
 			}
 
+			case PlacesMonitorConstants.EventDataValue.OS_EVENT_TYPE_ACTIVITY_TRANSITION: {
+				locationManager.onActivityTransition(eventData);
+				break;
+			}
+
 			default: {
-				Log.warning(PlacesMonitorConstants.LOG_TAG,
-							"Invalid eventType for OS responseContent event, Ignoring OS event.");
+				PlacesMonitorLog.warning("Invalid eventType for OS responseContent event, Ignoring OS event.");
 			}
 
 		}
@@ -362,14 +706,12 @@ class PlacesMonitorInternal extends Extension {
 		try {
 			permissionStatus = eventData.getString2(PlacesMonitorConstants.EventDataKey.LOCATION_PERMISSION_STATUS);
 		} catch (VariantException exp) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"Unable to read permission status from the OS responseContent event. Ignoring Permission status change event.");
+			PlacesMonitorLog.warning("Unable to read permission status from the OS responseContent event. Ignoring Permission status change event.");
 			return;
 		}
 
 		if (StringUtils.isNullOrEmpty(permissionStatus)) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"Null/empty permission status value from the OS responseContent event. Ignoring Permission status change event.");
+			PlacesMonitorLog.warning("Null/empty permission status value from the OS responseContent event. Ignoring Permission status change event.");
 			return;
 		}
 
@@ -386,8 +728,7 @@ class PlacesMonitorInternal extends Extension {
 			}
 
 			default: {
-				Log.warning(PlacesMonitorConstants.LOG_TAG,
-							"Invalid permission status value from the OS responseContent event. Ignoring Permission status change event.");
+				PlacesMonitorLog.warning("Invalid permission status value from the OS responseContent event. Ignoring Permission status change event.");
 			}
 		}
 
@@ -429,8 +770,8 @@ class PlacesMonitorInternal extends Extension {
 				break;
 		}
 
-		Log.warning(PlacesMonitorConstants.LOG_TAG,
-					"An error occurred while attempting to retrieve nearby points of interest: " + errorString);
+		PlacesMonitorLog.warning("An error occurred while attempting to retrieve nearby points of interest: %s",
+								 errorString);
 	}
 
 	// ========================================================================================
@@ -457,7 +798,7 @@ class PlacesMonitorInternal extends Extension {
 	 * It also requests the {@link #geofenceManager} to stop monitoring the fences that are currently being monitored.
 	 *
 	 * Calling this method with YES for clearData will purge the data even if the monitor is not actively tracking
-	 * the device's location.
+	 * the device's location. This includes the nearby POIs cached in the {@link #poiCache}.
 	 *
 	 * @param clearData pass YES to clear all client-side Places data from the device.
 	 */
@@ -466,6 +807,7 @@ class PlacesMonitorInternal extends Extension {
 		geofenceManager.stopMonitoringFences(clearData);
 
 		if (clearData) {
+			poiCache.clear();
 			Places.clear();
 		}
 	}
@@ -481,9 +823,8 @@ class PlacesMonitorInternal extends Extension {
 
 	private void setLocationPermission(final Map<String, Object> eventData) {
 		if (eventData == null || eventData.isEmpty()) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"Invalid location permission value set. Ignoring setLocationPermission API call. For more details refer to %s",
-					PlacesMonitorConstants.DocLinks.SET_LOCATION_PERMISSION);
+			PlacesMonitorLog.warning("Invalid location permission value set. Ignoring setLocationPermission API call. For more details refer to %s",
+									 PlacesMonitorConstants.DocLinks.SET_LOCATION_PERMISSION);
 			return;
 		}
 
@@ -493,6 +834,42 @@ class PlacesMonitorInternal extends Extension {
 		locationManager.setLocationPermission(placesMonitorLocationPermission);
 	}
 
+	/**
+	 * Handler for places monitor extension's setLocationProfile public api call.
+	 * <p>
+	 * This method passes the requested location profile to the {@link #locationManager}.
+	 * An invalid or missing profile value resets the location profile to {@link PlacesMonitorLocationProfile#PRECISE}.
+	 *
+	 * @param eventData {@link EventData} of the set location profile event
+	 */
+	private void setLocationProfile(final EventData eventData) {
+		String locationProfileString = null;
+
+		if (eventData != null) {
+			locationProfileString = eventData.optString(PlacesMonitorConstants.EventDataKey.LOCATION_PROFILE, null);
+		}
+
+		locationManager.setLocationProfile(PlacesMonitorLocationProfile.fromString(locationProfileString));
+	}
+
+	/**
+	 * Handler for places monitor extension's setActivityRecognitionEnabled public api call.
+	 * <p>
+	 * This method passes the requested activity recognition state to the {@link #locationManager}.
+	 * A missing value disables the activity recognition.
+	 *
+	 * @param eventData {@link EventData} of the set activity recognition event
+	 */
+	private void setActivityRecognitionEnabled(final EventData eventData) {
+		boolean enabled = false;
+
+		if (eventData != null) {
+			enabled = eventData.optBoolean(PlacesMonitorConstants.EventDataKey.ACTIVITY_RECOGNITION, false);
+		}
+
+		locationManager.setActivityRecognitionEnabled(enabled);
+	}
+
 
 
 	// ========================================================================================
@@ -516,9 +893,9 @@ class PlacesMonitorInternal extends Extension {
 	/**
 	 * Getter for the {@link #eventQueue}.
 	 *
-	 * @return A non-null {@link ConcurrentLinkedQueue} instance
+	 * @return A non-null {@link PlacesMonitorEventQueue} instance
 	 */
-	ConcurrentLinkedQueue<Event> getEventQueue() {
+	PlacesMonitorEventQueue getEventQueue() {
 		return eventQueue;
 	}
 }
@@ -36,7 +36,8 @@ class PlacesMonitorListenerHubSharedState extends ExtensionListener {
 	/**
 	 * Listens to {@code PlacesMonitorConstants.EventType#HUB}, {@code PlacesMonitorConstants.EventSource#SHARED_STATE} event.
 	 * <p>
-	 * Triggers the queued events which are waiting for valid configuration shared state.
+	 * Notifies the parent extension of the configuration shared state change and triggers the queued events
+	 * which are waiting for valid configuration shared state.
 	 *
 	 * @param event the shared state update {@link Event}
 	 * @see PlacesMonitorInternal#processEvents()
@@ -44,15 +45,14 @@ class PlacesMonitorListenerHubSharedState extends ExtensionListener {
 	@Override
 	public void hear(final Event event) {
 		if (event.getEventData() == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG, "EventData is null, ignoring the share state change event.");
+			PlacesMonitorLog.warning("EventData is null, ignoring the share state change event.");
 			return;
 		}
 
 		final PlacesMonitorInternal parentExtension = (PlacesMonitorInternal) super.getParentExtension();
 
 		if (parentExtension == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"The parent extension, associated with the PlacesMonitorListenerHubSharedState is null, ignoring the share state change event.");
+			PlacesMonitorLog.warning("The parent extension, associated with the PlacesMonitorListenerHubSharedState is null, ignoring the share state change event.");
 			return;
 		}
 
@@ -60,6 +60,7 @@ class PlacesMonitorListenerHubSharedState extends ExtensionListener {
 								  null);
 
 		if (PlacesMonitorConstants.SharedState.CONFIGURATION.equals(sharedStateOwner)) {
+			parentExtension.onConfigurationSharedStateChanged();
 			parentExtension.getExecutor().execute(new Runnable() {
 				@Override
 				public void run() {
@@ -53,15 +53,14 @@ class PlacesMonitorListenerMonitorRequestContent extends ExtensionListener {
 	@Override
 	public void hear(final Event event) {
 		if (event.getEventData() == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG, "EventData is null, ignoring the monitor request content event.");
+			PlacesMonitorLog.warning("EventData is null, ignoring the monitor request content event.");
 			return;
 		}
 
 		final PlacesMonitorInternal parentExtension = (PlacesMonitorInternal) super.getParentExtension();
 
 		if (parentExtension == null) {
-			Log.warning(PlacesMonitorConstants.LOG_TAG,
-						"The parent extension, associated with the PlacesMonitorListenerMonitorRequestContent is null, ignoring the monitor request content event.");
+			PlacesMonitorLog.warning("The parent extension, associated with the PlacesMonitorListenerMonitorRequestContent is null, ignoring the monitor request content event.");
 			return;
 		}
 
@@ -0,0 +1,199 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorLocationFilter.java
+//
+
+package com.adobe.marketing.mobile;
+
+import java.util.List;
+
+/**
+ * Filters the location fixes received from the OS before they are used to query the nearby POIs.
+ * <p>
+ * A location fix is discarded by {@link #accept(double, double, double, long, double)} when it is
+ * <ul>
+ *     <li>stale, older than {@link PlacesMonitorConstants.LocationFilter#MAX_FIX_AGE} or older than the last accepted
+ *     fix</li>
+ *     <li>inaccurate, with an accuracy radius larger than {@link PlacesMonitorConstants.LocationFilter#MAX_ACCURACY}</li>
+ *     <li>implausible, with a reported speed, or a speed implied by the distance from the last accepted fix, above
+ *     {@link PlacesMonitorConstants.LocationFilter#MAX_SPEED}</li>
+ * </ul>
+ * The implied speed only accounts for the distance that cannot be explained by the accuracy of both fixes, and is not
+ * checked for a fix that is not newer than the last accepted fix, as no speed can be implied from it. Since the
+ * last accepted fix may itself have been wrong, a fix is accepted anyway after
+ * {@link PlacesMonitorConstants.LocationFilter#MAX_IMPLAUSIBLE_FIXES} consecutive implausible fixes.
+ * <p>
+ * The filter also remembers the cluster of nearby POIs currently monitored, centered on the location they were obtained
+ * for and extending to the farthest of them. {@link #isWithinFenceCluster(double, double, double)} tells whether an
+ * accepted fix is still well inside that cluster, in which case querying the nearby POIs again would return the same
+ * POIs and the query can be skipped.
+ * <p>
+ * This class is not thread safe. The fixes and the fence cluster are both updated by the {@link PlacesLocationManager}
+ * on the {@link PlacesMonitorInternal} executor, so that a fix is never checked against a partly updated cluster.
+ */
+class PlacesMonitorLocationFilter {
+
+	private boolean hasLastFix;
+	private double lastLatitude;
+	private double lastLongitude;
+	private double lastAccuracy;
+	private long lastTime;
+	private int implausibleFixCount;
+
+	private boolean hasFenceCluster;
+	private double clusterLatitude;
+	private double clusterLongitude;
+	private double clusterRadius;
+	private long clusterTime;
+
+	/**
+	 * Checks whether the given location fix can be used, and records it as the last accepted fix if so.
+	 *
+	 * @param latitude 	latitude of the location fix
+	 * @param longitude longitude of the location fix
+	 * @param accuracy 	accuracy radius of the location fix in meters, or {@link Double#NaN} if unknown
+	 * @param time 		time of the location fix, in milliseconds
+	 * @param speed 	speed reported with the location fix in meters per second, or {@link Double#NaN} if unknown
+	 * @return true if the location fix is accepted
+	 */
+	boolean accept(final double latitude, final double longitude, final double accuracy, final long time,
+				   final double speed) {
+		if (getCurrentTime() - time > PlacesMonitorConstants.LocationFilter.MAX_FIX_AGE
+				|| (hasLastFix && time < lastTime)) {
+			PlacesMonitorLog.debug("PlacesMonitorLocationFilter : Ignoring a stale location fix from %s", time);
+			return false;
+		}
+
+		if (accuracy > PlacesMonitorConstants.LocationFilter.MAX_ACCURACY) {
+			PlacesMonitorLog.debug("PlacesMonitorLocationFilter : Ignoring an inaccurate location fix, accuracy: %s",
+								   accuracy);
+			return false;
+		}
+
+		if (isImplausible(latitude, longitude, accuracy, time, speed)
+				&& ++implausibleFixCount <= PlacesMonitorConstants.LocationFilter.MAX_IMPLAUSIBLE_FIXES) {
+			PlacesMonitorLog.debug("PlacesMonitorLocationFilter : Ignoring an implausible location fix: %s, %s", latitude,
+								   longitude);
+			return false;
+		}
+
+		implausibleFixCount = 0;
+		hasLastFix = true;
+		lastLatitude = latitude;
+		lastLongitude = longitude;
+		lastAccuracy = accuracy;
+		lastTime = time;
+		return true;
+	}
+
+	/**
+	 * Records the nearby POIs obtained for a location as the monitored fence cluster.
+	 * <p>
+	 * No fence cluster is recorded if there are no nearby POIs.
+	 *
+	 * @param latitude 	latitude of the location the POIs were obtained for
+	 * @param longitude longitude of the location the POIs were obtained for
+	 * @param pois 		a {@link List} of nearby {@link PlacesPOI}
+	 */
+	void onNearbyPOIsReceived(final double latitude, final double longitude, final List<PlacesPOI> pois) {
+		hasFenceCluster = false;
+
+		if (pois == null || pois.isEmpty()) {
+			return;
+		}
+
+		double radius = 0;
+
+		for (int i = 0; i < pois.size(); i++) {
+			final PlacesPOI poi = pois.get(i);
+
+			if (poi != null) {
+				radius = Math.max(radius, PlacesMonitorUtil.distanceInMeters(latitude, longitude, poi.getLatitude(),
+								  poi.getLongitude()));
+			}
+		}
+
+		hasFenceCluster = true;
+		clusterLatitude = latitude;
+		clusterLongitude = longitude;
+		clusterRadius = Math.max(radius, PlacesMonitorConstants.RefreshFence.MIN_RADIUS);
+		clusterTime = getCurrentTime();
+	}
+
+	/**
+	 * Checks whether the device is still well inside the monitored fence cluster at the given location.
+	 * <p>
+	 * The device is inside the cluster if the location, extended by its accuracy, has not moved from the center of
+	 * the cluster by more than {@link PlacesMonitorConstants.LocationFilter#FENCE_CLUSTER_FRACTION} of its radius.
+	 * A cluster older than the {@link PlacesMonitorConstants.POICache#TIME_TO_LIVE} is no longer used, so that the
+	 * nearby POIs are eventually refreshed.
+	 *
+	 * @param latitude 	latitude of the location fix
+	 * @param longitude longitude of the location fix
+	 * @param accuracy 	accuracy radius of the location fix in meters, or {@link Double#NaN} if unknown
+	 * @return true if the nearby POIs do not need to be queried again
+	 */
+	boolean isWithinFenceCluster(final double latitude, final double longitude, final double accuracy) {
+		if (!hasFenceCluster || getCurrentTime() - clusterTime > PlacesMonitorConstants.POICache.TIME_TO_LIVE) {
+			return false;
+		}
+
+		final double distance = PlacesMonitorUtil.distanceInMeters(clusterLatitude, clusterLongitude, latitude, longitude);
+		return distance + orZero(accuracy) <= clusterRadius * PlacesMonitorConstants.LocationFilter.FENCE_CLUSTER_FRACTION;
+	}
+
+	/**
+	 * Forgets the fence cluster, so that the nearby POIs are queried for the next accepted fix.
+	 */
+	void clearFenceCluster() {
+		hasFenceCluster = false;
+	}
+
+	/**
+	 * Forgets the last accepted fix and the fence cluster.
+	 */
+	void reset() {
+		hasLastFix = false;
+		implausibleFixCount = 0;
+		hasFenceCluster = false;
+	}
+
+	/**
+	 * Returns the current time in milliseconds used to evaluate the age of the location fixes and fence cluster.
+	 *
+	 * @return the current time in milliseconds
+	 */
+	long getCurrentTime() {
+		return System.currentTimeMillis();
+	}
+
+	private boolean isImplausible(final double latitude, final double longitude, final double accuracy,
+								  final long time, final double speed) {
+		if (speed > PlacesMonitorConstants.LocationFilter.MAX_SPEED) {
+			return true;
+		}
+
+		// the time elapsed since the last accepted fix must be positive to imply a speed from it
+		if (!hasLastFix || time <= lastTime) {
+			return false;
+		}
+
+		final double distance = PlacesMonitorUtil.distanceInMeters(lastLatitude, lastLongitude, latitude, longitude)
+								- orZero(accuracy) - orZero(lastAccuracy);
+		return distance / ((time - lastTime) / 1000.0) > PlacesMonitorConstants.LocationFilter.MAX_SPEED;
+	}
+
+	private static double orZero(final double value) {
+		return Double.isNaN(value) ? 0 : value;
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorLocationProfile.java
+//
+
+package com.adobe.marketing.mobile;
+
+/**
+ * Represents the possible location profiles used by Places Monitor to request location updates from the OS.
+ * <p>
+ * A location profile trades the accuracy and frequency of the location updates against battery consumption.
+ * More frequent and accurate location updates keep the monitored nearby points of interest closer to the device,
+ * at the cost of more battery usage.
+ */
+public enum PlacesMonitorLocationProfile {
+
+	/**
+	 * Low power location updates, obtained mostly from cell towers and received at most every 15 minutes.
+	 * Best suited for markets where the points of interest are sparse.
+	 */
+	POWER_SAVER("powersaver"),
+
+	/**
+	 * Block level accuracy location updates, received at most every 5 minutes.
+	 */
+	BALANCED("balanced"),
+
+	/**
+	 * High accuracy location updates, requested every hour and received at most every 30 minutes once the device moved
+	 * at least 1 kilometer. A location update is delivered at most 20 minutes after it was obtained.
+	 * This is the default location profile.
+	 */
+	PRECISE("precise"),
+
+	/**
+	 * Places Monitor switches between {@link #POWER_SAVER}, {@link #BALANCED} and {@link #PRECISE} profiles
+	 * based on the density of the points of interest around the device and the recent movement speed of the device.
+	 */
+	ADAPTIVE("adaptive"),
+
+	/**
+	 * No continuous location updates are requested. A single location update is requested when the monitoring starts,
+	 * after which a large refresh geofence is registered around the monitored points of interest. The nearby points of
+	 * interest are refreshed only when the device exits the refresh geofence.
+	 * Best suited for apps that must keep background location usage to a minimum.
+	 */
+	GEOFENCE_ONLY("geofenceonly");
+
+	private final String value;
+
+	PlacesMonitorLocationProfile(final String value) {
+		this.value = value;
+	}
+
+	/**
+	 * Returns the string value for this enum type.
+	 * @return the string name for this enum type.
+	 */
+	public String getValue() {
+		return value;
+	}
+
+	/**
+	 * Returns a {@link PlacesMonitorLocationProfile} object based on the provided {@code text}.
+	 * <p>
+	 * If the text provided is not valid, {@link #PRECISE} will be returned.
+	 *
+	 * @param text {@link String} to be converted to a {@code PlacesMonitorLocationProfile} object
+	 * @return {@code PlacesMonitorLocationProfile} object equivalent to the provided text
+	 */
+	static PlacesMonitorLocationProfile fromString(final String text) {
+		for (PlacesMonitorLocationProfile b : PlacesMonitorLocationProfile.values()) {
+			if (b.value.equalsIgnoreCase(text)) {
+				return b;
+			}
+		}
+
+		return PRECISE;
+	}
+}
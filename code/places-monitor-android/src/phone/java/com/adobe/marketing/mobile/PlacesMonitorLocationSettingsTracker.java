@@ -0,0 +1,212 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorLocationSettingsTracker.java
+//
+
+package com.adobe.marketing.mobile;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.SharedPreferences;
+import android.location.LocationManager;
+
+import com.google.android.gms.location.LocationRequest;
+import com.google.android.gms.location.LocationSettingsStates;
+
+/**
+ * Tracks whether the device location settings are known to satisfy the location requests of the Places Monitor, so
+ * that the {@link com.google.android.gms.location.SettingsClient} check can be skipped when nothing changed.
+ * <p>
+ * The result of a satisfied check is kept in memory by the {@link PlacesMonitorClients}. It is forgotten as soon as the
+ * location providers change, which is observed by registering this receiver for
+ * {@link LocationManager#PROVIDERS_CHANGED_ACTION} broadcasts while the location is monitored.
+ * <p>
+ * The result is also persisted, along with the priority of the location request and the state of the GPS and network
+ * location providers at the time of the check. After a process restart, such as an app upgrade or a device boot, the
+ * persisted result is only trusted if the providers are still in the same state.
+ */
+class PlacesMonitorLocationSettingsTracker extends BroadcastReceiver {
+
+	private final PlacesMonitorClients clients = PlacesMonitorClients.getInstance();
+	private boolean isRegistered;
+	private String persistedSettings;
+
+	/**
+	 * Constructor.
+	 * <p>
+	 * Loads the persisted location settings check result.
+	 */
+	PlacesMonitorLocationSettingsTracker() {
+		final SharedPreferences sharedPreferences = PlacesMonitorUtil.getSharedPreferences();
+
+		if (sharedPreferences == null) {
+			PlacesMonitorLog.warning("Unable to load the location settings from persistence, sharedPreference is null");
+			return;
+		}
+
+		persistedSettings = sharedPreferences.getString(PlacesMonitorConstants.SharedPreference.LOCATION_SETTINGS_KEY, null);
+	}
+
+	/**
+	 * Starts listening for the location providers changes.
+	 * <p>
+	 * No action is taken if the tracker is already started or if the app context is null.
+	 */
+	synchronized void start() {
+		if (isRegistered) {
+			return;
+		}
+
+		final Context context = App.getAppContext();
+
+		if (context == null) {
+			PlacesMonitorLog.debug("Unable to track the location settings, App context is null");
+			return;
+		}
+
+		context.registerReceiver(this, new IntentFilter(LocationManager.PROVIDERS_CHANGED_ACTION));
+		isRegistered = true;
+	}
+
+	/**
+	 * Stops listening for the location providers changes and forgets the location settings check result, as the
+	 * changes are no longer observed.
+	 */
+	synchronized void stop() {
+		invalidate();
+
+		if (!isRegistered) {
+			return;
+		}
+
+		isRegistered = false;
+		final Context context = App.getAppContext();
+
+		if (context == null) {
+			return;
+		}
+
+		try {
+			context.unregisterReceiver(this);
+		} catch (IllegalArgumentException e) {
+			PlacesMonitorLog.debug("The location settings tracker was not registered");
+		}
+	}
+
+	/**
+	 * Returns whether the location settings are known to satisfy the given location request.
+	 * <p>
+	 * The in-memory result of the last check is used if available. Otherwise the persisted result is used if the
+	 * location providers are in the same state as when it was persisted.
+	 *
+	 * @param locationRequest the {@link LocationRequest} to be checked
+	 * @return true if the location settings check can be skipped
+	 */
+	synchronized boolean isSatisfied(final LocationRequest locationRequest) {
+		if (clients.isLocationSettingsSatisfied(locationRequest)) {
+			return true;
+		}
+
+		if (persistedSettings == null || !persistedSettings.equals(getSettingsSignature(locationRequest))) {
+			return false;
+		}
+
+		clients.setLocationSettingsSatisfied(locationRequest, null);
+		return true;
+	}
+
+	/**
+	 * Records that the location settings satisfy the given location request.
+	 *
+	 * @param locationRequest the {@link LocationRequest} the location settings were checked for
+	 * @param states the {@link LocationSettingsStates} reported by the check, may be null
+	 */
+	synchronized void onSatisfied(final LocationRequest locationRequest, final LocationSettingsStates states) {
+		clients.setLocationSettingsSatisfied(locationRequest, states);
+		final String settingsSignature = getSettingsSignature(locationRequest);
+
+		if (settingsSignature == null || settingsSignature.equals(persistedSettings)) {
+			return;
+		}
+
+		persistedSettings = settingsSignature;
+
+		if (!PlacesMonitorPersistence.getInstance().putString(PlacesMonitorConstants.SharedPreference.LOCATION_SETTINGS_KEY,
+				settingsSignature)) {
+			PlacesMonitorLog.warning("Unable to save the location settings to persistence, sharedPreference is null");
+		}
+	}
+
+	/**
+	 * Forgets the location settings check result, so that the location settings are checked again before the next
+	 * location request.
+	 */
+	synchronized void invalidate() {
+		clients.invalidateLocationSettings();
+
+		if (persistedSettings == null) {
+			return;
+		}
+
+		persistedSettings = null;
+		PlacesMonitorPersistence.getInstance().remove(PlacesMonitorConstants.SharedPreference.LOCATION_SETTINGS_KEY);
+	}
+
+	/**
+	 * This method is called when the location providers are enabled or disabled.
+	 *
+	 * @param context 	the application's {@link Context}
+	 * @param intent 	the {@link LocationManager#PROVIDERS_CHANGED_ACTION} intent
+	 */
+	@Override
+	public void onReceive(final Context context, final Intent intent) {
+		if (intent == null || !LocationManager.PROVIDERS_CHANGED_ACTION.equals(intent.getAction())) {
+			return;
+		}
+
+		PlacesMonitorLog.debug("Location providers changed, the location settings will be checked again");
+		invalidate();
+	}
+
+	/**
+	 * Describes the location settings that matter for the given location request: its priority and whether the GPS
+	 * and network location providers are enabled.
+	 *
+	 * @param locationRequest a {@link LocationRequest}
+	 * @return the signature of the location settings, or null if the location providers state is not available
+	 */
+	private static String getSettingsSignature(final LocationRequest locationRequest) {
+		final Context context = App.getAppContext();
+
+		if (context == null) {
+			return null;
+		}
+
+		final Object locationManager = context.getSystemService(Context.LOCATION_SERVICE);
+
+		if (!(locationManager instanceof LocationManager)) {
+			return null;
+		}
+
+		try {
+			return locationRequest.getPriority() + ":" +
+				   ((LocationManager) locationManager).isProviderEnabled(LocationManager.GPS_PROVIDER) + ":" +
+				   ((LocationManager) locationManager).isProviderEnabled(LocationManager.NETWORK_PROVIDER);
+		} catch (Exception e) {
+			PlacesMonitorLog.debug("Unable to read the location providers state: %s", e.getMessage());
+			return null;
+		}
+	}
+}
@@ -0,0 +1,305 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorLog.java
+//
+
+package com.adobe.marketing.mobile;
+
+/**
+ * Level gated logging for the Places Monitor extension.
+ * <p>
+ * Messages are logged with the {@link PlacesMonitorConstants#LOG_TAG} through the Mobile Core {@link Log}. The format
+ * string is only formatted with its arguments when the {@link MobileCore#getLogLevel()} enables the message, and the
+ * overloads taking up to three arguments do not allocate an argument array when the message is disabled.
+ * <p>
+ * Callers must pass the values to be logged as arguments instead of building the message. Arguments that are expensive
+ * to compute, or primitives that would be boxed on a hot path, should be guarded with {@link #isEnabled(LoggingMode)}.
+ */
+final class PlacesMonitorLog {
+
+	private PlacesMonitorLog() {
+	}
+
+	/**
+	 * @param mode the {@link LoggingMode} of a message
+	 * @return true if messages of the given mode are logged at the current log level
+	 */
+	static boolean isEnabled(final LoggingMode mode) {
+		final LoggingMode logLevel = MobileCore.getLogLevel();
+		return logLevel != null && logLevel.id >= mode.id;
+	}
+
+	// ========================================================================================
+	// trace
+	// ========================================================================================
+
+	/**
+	 * Logs a verbose message.
+	 *
+	 * @param message the message to be logged
+	 */
+	static void trace(final String message) {
+		if (isEnabled(LoggingMode.VERBOSE)) {
+			Log.trace(PlacesMonitorConstants.LOG_TAG, message);
+		}
+	}
+
+	/**
+	 * Logs a verbose message, formatted with the given argument if the message is logged.
+	 *
+	 * @param format the format string of the message
+	 * @param arg the argument referenced by the format string
+	 */
+	static void trace(final String format, final Object arg) {
+		if (isEnabled(LoggingMode.VERBOSE)) {
+			Log.trace(PlacesMonitorConstants.LOG_TAG, format, arg);
+		}
+	}
+
+	/**
+	 * Logs a verbose message, formatted with the given arguments if the message is logged.
+	 *
+	 * @param format the format string of the message
+	 * @param arg1 the first argument referenced by the format string
+	 * @param arg2 the second argument referenced by the format string
+	 */
+	static void trace(final String format, final Object arg1, final Object arg2) {
+		if (isEnabled(LoggingMode.VERBOSE)) {
+			Log.trace(PlacesMonitorConstants.LOG_TAG, format, arg1, arg2);
+		}
+	}
+
+	/**
+	 * Logs a verbose message, formatted with the given arguments if the message is logged.
+	 *
+	 * @param format the format string of the message
+	 * @param arg1 the first argument referenced by the format string
+	 * @param arg2 the second argument referenced by the format string
+	 * @param arg3 the third argument referenced by the format string
+	 */
+	static void trace(final String format, final Object arg1, final Object arg2, final Object arg3) {
+		if (isEnabled(LoggingMode.VERBOSE)) {
+			Log.trace(PlacesMonitorConstants.LOG_TAG, format, arg1, arg2, arg3);
+		}
+	}
+
+	/**
+	 * Logs a verbose message, formatted with the given arguments if the message is logged.
+	 *
+	 * @param format the format string of the message
+	 * @param args the arguments referenced by the format string
+	 */
+	static void trace(final String format, final Object... args) {
+		if (isEnabled(LoggingMode.VERBOSE)) {
+			Log.trace(PlacesMonitorConstants.LOG_TAG, format, args);
+		}
+	}
+
+	// ========================================================================================
+	// debug
+	// ========================================================================================
+
+	/**
+	 * Logs a debug message.
+	 *
+	 * @param message the message to be logged
+	 */
+	static void debug(final String message) {
+		if (isEnabled(LoggingMode.DEBUG)) {
+			Log.debug(PlacesMonitorConstants.LOG_TAG, message);
+		}
+	}
+
+	/**
+	 * Logs a debug message, formatted with the given argument if the message is logged.
+	 *
+	 * @param format the format string of the message
+	 * @param arg the argument referenced by the format string
+	 */
+	static void debug(final String format, final Object arg) {
+		if (isEnabled(LoggingMode.DEBUG)) {
+			Log.debug(PlacesMonitorConstants.LOG_TAG, format, arg);
+		}
+	}
+
+	/**
+	 * Logs a debug message, formatted with the given arguments if the message is logged.
+	 *
+	 * @param format the format string of the message
+	 * @param arg1 the first argument referenced by the format string
+	 * @param arg2 the second argument referenced by the format string
+	 */
+	static void debug(final String format, final Object arg1, final Object arg2) {
+		if (isEnabled(LoggingMode.DEBUG)) {
+			Log.debug(PlacesMonitorConstants.LOG_TAG, format, arg1, arg2);
+		}
+	}
+
+	/**
+	 * Logs a debug message, formatted with the given arguments if the message is logged.
+	 *
+	 * @param format the format string of the message
+	 * @param arg1 the first argument referenced by the format string
+	 * @param arg2 the second argument referenced by the format string
+	 * @param arg3 the third argument referenced by the format string
+	 */
+	static void debug(final String format, final Object arg1, final Object arg2, final Object arg3) {
+		if (isEnabled(LoggingMode.DEBUG)) {
+			Log.debug(PlacesMonitorConstants.LOG_TAG, format, arg1, arg2, arg3);
+		}
+	}
+
+	/**
+	 * Logs a debug message, formatted with the given arguments if the message is logged.
+	 *
+	 * @param format the format string of the message
+	 * @param args the arguments referenced by the format string
+	 */
+	static void debug(final String format, final Object... args) {
+		if (isEnabled(LoggingMode.DEBUG)) {
+			Log.debug(PlacesMonitorConstants.LOG_TAG, format, args);
+		}
+	}
+
+	// ========================================================================================
+	// warning
+	// ========================================================================================
+
+	/**
+	 * Logs a warning message.
+	 *
+	 * @param message the message to be logged
+	 */
+	static void warning(final String message) {
+		if (isEnabled(LoggingMode.WARNING)) {
+			Log.warning(PlacesMonitorConstants.LOG_TAG, message);
+		}
+	}
+
+	/**
+	 * Logs a warning message, formatted with the given argument if the message is logged.
+	 *
+	 * @param format the format string of the message
+	 * @param arg the argument referenced by the format string
+	 */
+	static void warning(final String format, final Object arg) {
+		if (isEnabled(LoggingMode.WARNING)) {
+			Log.warning(PlacesMonitorConstants.LOG_TAG, format, arg);
+		}
+	}
+
+	/**
+	 * Logs a warning message, formatted with the given arguments if the message is logged.
+	 *
+	 * @param format the format string of the message
+	 * @param arg1 the first argument referenced by the format string
+	 * @param arg2 the second argument referenced by the format string
+	 */
+	static void warning(final String format, final Object arg1, final Object arg2) {
+		if (isEnabled(LoggingMode.WARNING)) {
+			Log.warning(PlacesMonitorConstants.LOG_TAG, format, arg1, arg2);
+		}
+	}
+
+	/**
+	 * Logs a warning message, formatted with the given arguments if the message is logged.
+	 *
+	 * @param format the format string of the message
+	 * @param arg1 the first argument referenced by the format string
+	 * @param arg2 the second argument referenced by the format string
+	 * @param arg3 the third argument referenced by the format string
+	 */
+	static void warning(final String format, final Object arg1, final Object arg2, final Object arg3) {
+		if (isEnabled(LoggingMode.WARNING)) {
+			Log.warning(PlacesMonitorConstants.LOG_TAG, format, arg1, arg2, arg3);
+		}
+	}
+
+	/**
+	 * Logs a warning message, formatted with the given arguments if the message is logged.
+	 *
+	 * @param format the format string of the message
+	 * @param args the arguments referenced by the format string
+	 */
+	static void warning(final String format, final Object... args) {
+		if (isEnabled(LoggingMode.WARNING)) {
+			Log.warning(PlacesMonitorConstants.LOG_TAG, format, args);
+		}
+	}
+
+	// ========================================================================================
+	// error
+	// ========================================================================================
+
+	/**
+	 * Logs a error message.
+	 *
+	 * @param message the message to be logged
+	 */
+	static void error(final String message) {
+		if (isEnabled(LoggingMode.ERROR)) {
+			Log.error(PlacesMonitorConstants.LOG_TAG, message);
+		}
+	}
+
+	/**
+	 * Logs a error message, formatted with the given argument if the message is logged.
+	 *
+	 * @param format the format string of the message
+	 * @param arg the argument referenced by the format string
+	 */
+	static void error(final String format, final Object arg) {
+		if (isEnabled(LoggingMode.ERROR)) {
+			Log.error(PlacesMonitorConstants.LOG_TAG, format, arg);
+		}
+	}
+
+	/**
+	 * Logs a error message, formatted with the given arguments if the message is logged.
+	 *
+	 * @param format the format string of the message
+	 * @param arg1 the first argument referenced by the format string
+	 * @param arg2 the second argument referenced by the format string
+	 */
+	static void error(final String format, final Object arg1, final Object arg2) {
+		if (isEnabled(LoggingMode.ERROR)) {
+			Log.error(PlacesMonitorConstants.LOG_TAG, format, arg1, arg2);
+		}
+	}
+
+	/**
+	 * Logs a error message, formatted with the given arguments if the message is logged.
+	 *
+	 * @param format the format string of the message
+	 * @param arg1 the first argument referenced by the format string
+	 * @param arg2 the second argument referenced by the format string
+	 * @param arg3 the third argument referenced by the format string
+	 */
+	static void error(final String format, final Object arg1, final Object arg2, final Object arg3) {
+		if (isEnabled(LoggingMode.ERROR)) {
+			Log.error(PlacesMonitorConstants.LOG_TAG, format, arg1, arg2, arg3);
+		}
+	}
+
+	/**
+	 * Logs a error message, formatted with the given arguments if the message is logged.
+	 *
+	 * @param format the format string of the message
+	 * @param args the arguments referenced by the format string
+	 */
+	static void error(final String format, final Object... args) {
+		if (isEnabled(LoggingMode.ERROR)) {
+			Log.error(PlacesMonitorConstants.LOG_TAG, format, args);
+		}
+	}
+}
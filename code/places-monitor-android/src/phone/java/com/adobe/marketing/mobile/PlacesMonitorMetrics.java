@@ -0,0 +1,288 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorMetrics.java
+//
+
+package com.adobe.marketing.mobile;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counters and histograms measuring the work done by the Places Monitor extension.
+ * <p>
+ * Recording a value is lock-free and allocates nothing, so that the metrics can be recorded on the hot paths from any
+ * thread. Each counter and histogram is a slot of an {@link AtomicLongArray} indexed by the ordinal of its enum constant.
+ * <p>
+ * Histograms count the recorded values in power of two buckets: bucket 0 holds the value 0 and bucket {@code i} holds
+ * the values from {@code 2^(i-1)} to {@code 2^i - 1}. The percentiles of a {@link #snapshot()} are the upper bound of
+ * the bucket they fall in, capped by the largest recorded value.
+ * <p>
+ * A snapshot is not atomic, values recorded while it is taken may be partially included.
+ */
+class PlacesMonitorMetrics {
+
+	enum Counter {
+		LOCATION_FIXES_RECEIVED("locationfixesreceived"),
+		LOCATION_FIXES_DROPPED("locationfixesdropped"),
+		QUEUE_DROPPED_LOCATION_UPDATES("queuedroppedlocationupdates"),
+		NEARBY_POI_QUERIES("nearbypoiqueries"),
+		NEARBY_POI_QUERIES_SUPPRESSED("nearbypoiqueriessuppressed"),
+		NEARBY_POI_QUERY_FAILURES("nearbypoiqueryfailures"),
+		NEARBY_POI_CACHE_HITS("nearbypoicachehits"),
+		NEARBY_POI_PACK_HITS("nearbypoipackhits"),
+		ADD_GEOFENCES_FAILURES("addgeofencesfailures");
+
+		private final String key;
+
+		Counter(final String key) {
+			this.key = key;
+		}
+	}
+
+	enum Histogram {
+		QUEUE_DEPTH("queuedepth"),								// events
+		EVENT_DRAIN_TIME("eventdraintimemicros"),				// microseconds
+		NEARBY_POI_QUERY_LATENCY("nearbypoiquerylatencymillis"),	// milliseconds
+		FENCES_ADDED("fencesadded"),							// fences per refresh
+		FENCES_REMOVED("fencesremoved"),						// fences per refresh
+		PERSISTENCE_WRITE_TIME("persistencewritetimemicros");	// microseconds
+
+		private final String key;
+
+		Histogram(final String key) {
+			this.key = key;
+		}
+	}
+
+	static final String NEARBY_POI_QUERY_ERRORS = "nearbypoiqueryerrors";
+	static final String COUNT = "count";
+	static final String SUM = "sum";
+	static final String MAX = "max";
+	static final String P50 = "p50";
+	static final String P90 = "p90";
+	static final String P99 = "p99";
+
+	static final int BUCKET_COUNT = 40;
+	private static final int COUNT_SLOT = BUCKET_COUNT;
+	private static final int SUM_SLOT = BUCKET_COUNT + 1;
+	private static final int MAX_SLOT = BUCKET_COUNT + 2;
+	private static final int HISTOGRAM_SLOTS = BUCKET_COUNT + 3;
+
+	private static final Counter[] COUNTERS = Counter.values();
+	private static final Histogram[] HISTOGRAMS = Histogram.values();
+	private static final PlacesRequestError[] REQUEST_ERRORS = PlacesRequestError.values();
+	private static final PlacesMonitorMetrics INSTANCE = new PlacesMonitorMetrics();
+
+	private final AtomicLongArray counters = new AtomicLongArray(COUNTERS.length);
+	private final AtomicLongArray requestErrors = new AtomicLongArray(REQUEST_ERRORS.length);
+	private final AtomicLongArray histograms = new AtomicLongArray(HISTOGRAMS.length * HISTOGRAM_SLOTS);
+
+	/**
+	 * Getter for the process wide metrics, recorded by all the Places Monitor components.
+	 * <p>
+	 * The instance is created eagerly so that getting it from the hot paths does not lock.
+	 *
+	 * @return the {@link PlacesMonitorMetrics} singleton
+	 */
+	static PlacesMonitorMetrics getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Increments the given counter by one.
+	 *
+	 * @param counter the {@link Counter} to increment
+	 */
+	void increment(final Counter counter) {
+		counters.incrementAndGet(counter.ordinal());
+	}
+
+	/**
+	 * Adds the given delta to the given counter.
+	 *
+	 * @param counter the {@link Counter} to increment
+	 * @param delta the value to be added to the counter
+	 */
+	void add(final Counter counter, final long delta) {
+		counters.addAndGet(counter.ordinal(), delta);
+	}
+
+	/**
+	 * @param counter a {@link Counter}
+	 * @return the current value of the counter
+	 */
+	long get(final Counter counter) {
+		return counters.get(counter.ordinal());
+	}
+
+	/**
+	 * Counts a failed nearby POI query, by its {@link PlacesRequestError}.
+	 *
+	 * @param error the error the query failed with, may be null
+	 */
+	void recordRequestError(final PlacesRequestError error) {
+		counters.incrementAndGet(Counter.NEARBY_POI_QUERY_FAILURES.ordinal());
+
+		if (error != null) {
+			requestErrors.incrementAndGet(error.ordinal());
+		}
+	}
+
+	/**
+	 * @param error a {@link PlacesRequestError}
+	 * @return the number of nearby POI queries that failed with the given error
+	 */
+	long getRequestErrors(final PlacesRequestError error) {
+		return requestErrors.get(error.ordinal());
+	}
+
+	/**
+	 * Records a value in the given histogram. Negative values are recorded as 0.
+	 *
+	 * @param histogram the {@link Histogram} to record the value in
+	 * @param value the value to be recorded
+	 */
+	void record(final Histogram histogram, final long value) {
+		final long recordedValue = Math.max(value, 0);
+		final int offset = histogram.ordinal() * HISTOGRAM_SLOTS;
+		histograms.incrementAndGet(offset + bucketOf(recordedValue));
+		histograms.incrementAndGet(offset + COUNT_SLOT);
+		histograms.addAndGet(offset + SUM_SLOT, recordedValue);
+
+		long max = histograms.get(offset + MAX_SLOT);
+
+		while (recordedValue > max && !histograms.compareAndSet(offset + MAX_SLOT, max, recordedValue)) {
+			max = histograms.get(offset + MAX_SLOT);
+		}
+	}
+
+	/**
+	 * Records the time elapsed since the given start time in the given histogram, in microseconds.
+	 *
+	 * @param histogram the {@link Histogram} to record the elapsed time in
+	 * @param startNanos the start time, as returned by {@link System#nanoTime()}
+	 */
+	void recordElapsedMicros(final Histogram histogram, final long startNanos) {
+		record(histogram, (System.nanoTime() - startNanos) / 1000);
+	}
+
+	/**
+	 * @param histogram a {@link Histogram}
+	 * @return the number of values recorded in the histogram
+	 */
+	long getCount(final Histogram histogram) {
+		return histograms.get(histogram.ordinal() * HISTOGRAM_SLOTS + COUNT_SLOT);
+	}
+
+	/**
+	 * Returns a copy of all the metrics.
+	 * <p>
+	 * Each counter is mapped to its {@code Long} value, the nearby POI query failures are broken down by
+	 * {@link PlacesRequestError} under {@link #NEARBY_POI_QUERY_ERRORS}, and each histogram is mapped to a {@code Map}
+	 * holding its {@link #COUNT}, {@link #SUM}, {@link #MAX}, {@link #P50}, {@link #P90} and {@link #P99}.
+	 *
+	 * @return a {@link Map} of the metrics
+	 */
+	Map<String, Object> snapshot() {
+		final Map<String, Object> snapshot = new HashMap<String, Object>();
+
+		for (Counter counter : COUNTERS) {
+			snapshot.put(counter.key, counters.get(counter.ordinal()));
+		}
+
+		final Map<String, Object> errors = new HashMap<String, Object>();
+
+		for (PlacesRequestError error : REQUEST_ERRORS) {
+			final long count = requestErrors.get(error.ordinal());
+
+			if (count > 0) {
+				errors.put(error.name(), count);
+			}
+		}
+
+		snapshot.put(NEARBY_POI_QUERY_ERRORS, errors);
+
+		for (Histogram histogram : HISTOGRAMS) {
+			snapshot.put(histogram.key, snapshotHistogram(histogram));
+		}
+
+		return snapshot;
+	}
+
+	/**
+	 * Resets all the metrics to 0.
+	 */
+	void reset() {
+		for (int i = 0; i < counters.length(); i++) {
+			counters.set(i, 0);
+		}
+
+		for (int i = 0; i < requestErrors.length(); i++) {
+			requestErrors.set(i, 0);
+		}
+
+		for (int i = 0; i < histograms.length(); i++) {
+			histograms.set(i, 0);
+		}
+	}
+
+	private Map<String, Object> snapshotHistogram(final Histogram histogram) {
+		final int offset = histogram.ordinal() * HISTOGRAM_SLOTS;
+		final long[] buckets = new long[BUCKET_COUNT];
+		long count = 0;
+
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			buckets[i] = histograms.get(offset + i);
+			count += buckets[i];
+		}
+
+		final long max = histograms.get(offset + MAX_SLOT);
+		final Map<String, Object> snapshot = new HashMap<String, Object>();
+		snapshot.put(COUNT, count);
+		snapshot.put(SUM, histograms.get(offset + SUM_SLOT));
+		snapshot.put(MAX, max);
+		snapshot.put(P50, percentile(buckets, count, max, 0.5));
+		snapshot.put(P90, percentile(buckets, count, max, 0.9));
+		snapshot.put(P99, percentile(buckets, count, max, 0.99));
+		return snapshot;
+	}
+
+	private static long percentile(final long[] buckets, final long count, final long max, final double quantile) {
+		if (count == 0) {
+			return 0;
+		}
+
+		final long rank = (long) Math.ceil(quantile * count);
+		long cumulativeCount = 0;
+
+		for (int i = 0; i < buckets.length; i++) {
+			cumulativeCount += buckets[i];
+
+			if (cumulativeCount >= rank) {
+				return Math.min(upperBoundOf(i), max);
+			}
+		}
+
+		return max;
+	}
+
+	private static int bucketOf(final long value) {
+		return Math.min(64 - Long.numberOfLeadingZeros(value), BUCKET_COUNT - 1);
+	}
+
+	private static long upperBoundOf(final int bucket) {
+		return bucket == BUCKET_COUNT - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+	}
+}
@@ -0,0 +1,208 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorPOICache.java
+//
+
+package com.adobe.marketing.mobile;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory cache of nearby POI responses keyed by the geohash cell of the location they were requested for.
+ * <p>
+ * A cached response is served for any location that falls within the same cell while the response is younger than
+ * the configured time to live. The least recently used cells are evicted once the cache holds more than the
+ * configured number of cells.
+ */
+class PlacesMonitorPOICache {
+
+	private static final String GEOHASH_BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+	private final int geohashPrecision;
+	private final long timeToLive;
+	private final int maxCells;
+	private final LinkedHashMap<String, CachedCell> cells;
+
+	PlacesMonitorPOICache() {
+		this(PlacesMonitorConstants.POICache.GEOHASH_PRECISION, PlacesMonitorConstants.POICache.TIME_TO_LIVE,
+			 PlacesMonitorConstants.POICache.MAX_CELLS);
+	}
+
+	PlacesMonitorPOICache(final int geohashPrecision, final long timeToLive, final int maxCells) {
+		this.geohashPrecision = geohashPrecision;
+		this.timeToLive = timeToLive;
+		this.maxCells = maxCells;
+		// access ordered map, so that the eldest entry is always the least recently used cell
+		this.cells = new LinkedHashMap<String, CachedCell>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<String, CachedCell> eldest) {
+				return size() > PlacesMonitorPOICache.this.maxCells;
+			}
+		};
+	}
+
+	/**
+	 * Returns the cached nearby POIs for the cell containing the given coordinate.
+	 * <p>
+	 * The returned POIs are fresh copies sorted by their distance to the given coordinate, with the user within
+	 * flag recomputed for the given coordinate.
+	 * Returns null if the cell is not cached or the cached response has expired.
+	 *
+	 * @param latitude 	latitude of the device location
+	 * @param longitude longitude of the device location
+	 * @return A {@link List} of {@link PlacesPOI} or null on a cache miss
+	 */
+	synchronized List<PlacesPOI> get(final double latitude, final double longitude) {
+		final String cellKey = geohash(latitude, longitude, geohashPrecision);
+		final CachedCell cell = cells.get(cellKey);
+
+		if (cell == null) {
+			return null;
+		}
+
+		if (getCurrentTime() - cell.timestamp > timeToLive) {
+			cells.remove(cellKey);
+			return null;
+		}
+
+		final List<PlacesPOI> pois = new ArrayList<PlacesPOI>(cell.pois.size());
+		final Map<PlacesPOI, Double> distances = new IdentityHashMap<PlacesPOI, Double>();
+
+		for (PlacesPOI cachedPOI : cell.pois) {
+			final double distance = PlacesMonitorUtil.distanceInMeters(latitude, longitude, cachedPOI.getLatitude(),
+									cachedPOI.getLongitude());
+			final PlacesPOI poi = new PlacesPOI(cachedPOI.getIdentifier(), cachedPOI.getName(), cachedPOI.getLatitude(),
+												cachedPOI.getLongitude(), cachedPOI.getRadius(), cachedPOI.getLibrary(), cachedPOI.getWeight(),
+												cachedPOI.getMetadata());
+			poi.setUserIsWithin(distance <= cachedPOI.getRadius());
+			distances.put(poi, distance);
+			pois.add(poi);
+		}
+
+		Collections.sort(pois, new Comparator<PlacesPOI>() {
+			@Override
+			public int compare(final PlacesPOI first, final PlacesPOI second) {
+				return Double.compare(distances.get(first), distances.get(second));
+			}
+		});
+		return pois;
+	}
+
+	/**
+	 * Caches the nearby POIs obtained for the given coordinate in the cell containing it.
+	 * <p>
+	 * Replaces any previously cached response for the same cell. Null POI lists are not cached.
+	 *
+	 * @param latitude 	latitude of the location the POIs were requested for
+	 * @param longitude longitude of the location the POIs were requested for
+	 * @param pois 		A {@link List} of nearby {@link PlacesPOI}
+	 */
+	synchronized void put(final double latitude, final double longitude, final List<PlacesPOI> pois) {
+		if (pois == null) {
+			return;
+		}
+
+		cells.put(geohash(latitude, longitude, geohashPrecision), new CachedCell(new ArrayList<PlacesPOI>(pois),
+				  getCurrentTime()));
+	}
+
+	/**
+	 * Removes all the cached cells.
+	 */
+	synchronized void clear() {
+		cells.clear();
+	}
+
+	/**
+	 * @return the number of cells currently cached
+	 */
+	synchronized int size() {
+		return cells.size();
+	}
+
+	/**
+	 * Returns the current time in milliseconds used to stamp and expire cached cells.
+	 *
+	 * @return the current time in milliseconds
+	 */
+	long getCurrentTime() {
+		return System.currentTimeMillis();
+	}
+
+	/**
+	 * Encodes the given coordinate to a geohash string of the given precision.
+	 *
+	 * @param latitude 	latitude in degrees
+	 * @param longitude longitude in degrees
+	 * @param precision number of base32 characters in the resulting geohash
+	 * @return the geohash of the cell containing the coordinate
+	 */
+	static String geohash(final double latitude, final double longitude, final int precision) {
+		final StringBuilder geohash = new StringBuilder(precision);
+		double minLatitude = -90.0, maxLatitude = 90.0;
+		double minLongitude = -180.0, maxLongitude = 180.0;
+		boolean isLongitudeBit = true;
+		int bit = 0;
+		int character = 0;
+
+		while (geohash.length() < precision) {
+			if (isLongitudeBit) {
+				final double mid = (minLongitude + maxLongitude) / 2;
+
+				if (longitude >= mid) {
+					character = (character << 1) | 1;
+					minLongitude = mid;
+				} else {
+					character = character << 1;
+					maxLongitude = mid;
+				}
+			} else {
+				final double mid = (minLatitude + maxLatitude) / 2;
+
+				if (latitude >= mid) {
+					character = (character << 1) | 1;
+					minLatitude = mid;
+				} else {
+					character = character << 1;
+					maxLatitude = mid;
+				}
+			}
+
+			isLongitudeBit = !isLongitudeBit;
+
+			if (++bit == 5) {
+				geohash.append(GEOHASH_BASE32.charAt(character));
+				bit = 0;
+				character = 0;
+			}
+		}
+
+		return geohash.toString();
+	}
+
+	private static final class CachedCell {
+		private final List<PlacesPOI> pois;
+		private final long timestamp;
+
+		private CachedCell(final List<PlacesPOI> pois, final long timestamp) {
+			this.pois = pois;
+			this.timestamp = timestamp;
+		}
+	}
+}
@@ -0,0 +1,324 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorPOIPack.java
+//
+
+package com.adobe.marketing.mobile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Read-only, memory-mapped regional POI dataset answering nearby POI queries without a network request.
+ * <p>
+ * The pack is a big-endian binary file made of four sections:
+ * <ul>
+ *     <li>the header: magic number, format version, dataset version, POI count and the grid definition
+ *     (rows, columns, south-west corner and cell size in degrees)</li>
+ *     <li>the grid index: the index of the first POI record of each cell in row-major order, followed by the POI count</li>
+ *     <li>the POI records, ordered by cell: latitude, longitude, radius and the offset of the POI strings</li>
+ *     <li>the POI strings: identifier, name, library, weight and metadata of each POI</li>
+ * </ul>
+ * Strings are stored as an unsigned short byte length followed by their UTF-8 bytes.
+ * <p>
+ * Only the POIs returned by a query are read from the file, the rest of the pack stays on disk and is paged in by the
+ * OS on demand. Queries do not change the state of the pack and may be run from any thread.
+ */
+class PlacesMonitorPOIPack {
+
+	static final int MAGIC = 0x41504F49;				// "APOI"
+	static final int FORMAT_VERSION = 1;
+	static final int HEADER_SIZE = 52;
+	static final int RECORD_SIZE = 24;
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	private static final double METERS_PER_DEGREE = Math.PI * PlacesMonitorConstants.EARTH_RADIUS_METERS / 180;
+	private static final Comparator<Candidate> FARTHEST_FIRST = new Comparator<Candidate>() {
+		@Override
+		public int compare(final Candidate first, final Candidate second) {
+			return Double.compare(second.distance, first.distance);
+		}
+	};
+
+	private final ByteBuffer buffer;
+	private final long datasetVersion;
+	private final int poiCount;
+	private final int rows;
+	private final int columns;
+	private final double minLatitude;
+	private final double minLongitude;
+	private final double cellSize;
+	private final int recordsOffset;
+	private final int stringsOffset;
+
+	private PlacesMonitorPOIPack(final ByteBuffer buffer) {
+		this.buffer = buffer;
+		this.datasetVersion = buffer.getLong(8);
+		this.poiCount = buffer.getInt(16);
+		this.rows = buffer.getInt(20);
+		this.columns = buffer.getInt(24);
+		this.minLatitude = buffer.getDouble(28);
+		this.minLongitude = buffer.getDouble(36);
+		this.cellSize = buffer.getDouble(44);
+		this.recordsOffset = HEADER_SIZE + (rows * columns + 1) * 4;
+		this.stringsOffset = recordsOffset + poiCount * RECORD_SIZE;
+	}
+
+	/**
+	 * Memory-maps the POI pack stored in the given file.
+	 * <p>
+	 * The file can be replaced or deleted once opened, the mapping keeps the opened content alive.
+	 * Returns null if the file cannot be read or is not a valid POI pack.
+	 *
+	 * @param file the {@link File} containing the POI pack
+	 * @return the opened {@link PlacesMonitorPOIPack} or null
+	 */
+	static PlacesMonitorPOIPack open(final File file) {
+		if (file == null || !file.isFile()) {
+			return null;
+		}
+
+		RandomAccessFile randomAccessFile = null;
+
+		try {
+			randomAccessFile = new RandomAccessFile(file, "r");
+			final FileChannel channel = randomAccessFile.getChannel();
+			return wrap(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		} catch (IOException exp) {
+			PlacesMonitorLog.warning("Unable to open the POI pack %s. Exception message - %s", file, exp.getMessage());
+			return null;
+		} finally {
+			if (randomAccessFile != null) {
+				try {
+					randomAccessFile.close();
+				} catch (IOException ignored) {
+					// the mapping stays valid after the channel is closed
+				}
+			}
+		}
+	}
+
+	/**
+	 * Validates the header of the given POI pack content and wraps it.
+	 *
+	 * @param buffer a big-endian {@link ByteBuffer} holding the complete POI pack
+	 * @return the {@link PlacesMonitorPOIPack} or null if the content is not a valid POI pack
+	 */
+	static PlacesMonitorPOIPack wrap(final ByteBuffer buffer) {
+		if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+			PlacesMonitorLog.warning("Ignoring the POI pack, the file is not a POI pack");
+			return null;
+		}
+
+		if (buffer.getInt(4) != FORMAT_VERSION) {
+			PlacesMonitorLog.warning("Ignoring the POI pack, unsupported format version %d", buffer.getInt(4));
+			return null;
+		}
+
+		final long poiCount = buffer.getInt(16);
+		final long cells = (long) buffer.getInt(20) * buffer.getInt(24);
+		final double cellSize = buffer.getDouble(44);
+		final long stringsOffset = HEADER_SIZE + (cells + 1) * 4 + poiCount * RECORD_SIZE;
+
+		if (poiCount < 0 || buffer.getInt(20) <= 0 || buffer.getInt(24) <= 0 || !(cellSize > 0)
+				|| stringsOffset > buffer.capacity() || buffer.getInt((int)(HEADER_SIZE + cells * 4)) != poiCount) {
+			PlacesMonitorLog.warning("Ignoring the POI pack, the file is corrupted");
+			return null;
+		}
+
+		return new PlacesMonitorPOIPack(buffer);
+	}
+
+	/**
+	 * @return the version of the dataset the pack was built from
+	 */
+	long getDatasetVersion() {
+		return datasetVersion;
+	}
+
+	/**
+	 * @return the number of POIs in the pack
+	 */
+	int getPOICount() {
+		return poiCount;
+	}
+
+	/**
+	 * Checks whether the given location lies within the region covered by the pack grid.
+	 *
+	 * @param latitude 	latitude of the device location
+	 * @param longitude longitude of the device location
+	 * @return true if the pack can answer nearby queries for the location
+	 */
+	boolean covers(final double latitude, final double longitude) {
+		return latitude >= minLatitude && latitude < minLatitude + rows * cellSize
+			   && longitude >= minLongitude && longitude < minLongitude + columns * cellSize;
+	}
+
+	/**
+	 * Returns the {@code count} POIs of the pack nearest to the given location.
+	 * <p>
+	 * The grid cells are visited in rings of growing size around the cell of the location. The search stops once
+	 * {@code count} POIs are found and the next ring is farther than the farthest of them.
+	 * The returned POIs are sorted by their distance to the location, with the user within flag set for the location.
+	 * The POI records are only validated when read, an empty list is returned if the pack content is corrupted.
+	 *
+	 * @param latitude 	latitude of the device location
+	 * @param longitude longitude of the device location
+	 * @param count 	maximum number of POIs to be returned
+	 * @return A {@link List} of the nearest {@link PlacesPOI}, empty if the location is not covered by the pack
+	 */
+	List<PlacesPOI> getNearbyPOIs(final double latitude, final double longitude, final int count) {
+		if (count <= 0 || poiCount == 0 || !covers(latitude, longitude)) {
+			return new ArrayList<PlacesPOI>();
+		}
+
+		try {
+			return findNearbyPOIs(latitude, longitude, count);
+		} catch (RuntimeException exp) {
+			PlacesMonitorLog.warning("Unable to read the nearby POIs from the POI pack. Exception message - %s",
+									 exp.getMessage());
+			return new ArrayList<PlacesPOI>();
+		}
+	}
+
+	private List<PlacesPOI> findNearbyPOIs(final double latitude, final double longitude, final int count) {
+		final int row = Math.min(rows - 1, (int)((latitude - minLatitude) / cellSize));
+		final int column = Math.min(columns - 1, (int)((longitude - minLongitude) / cellSize));
+		final int maxRing = Math.max(Math.max(row, rows - 1 - row), Math.max(column, columns - 1 - column));
+		final PriorityQueue<Candidate> nearest = new PriorityQueue<Candidate>(count, FARTHEST_FIRST);
+
+		for (int ring = 0; ring <= maxRing; ring++) {
+			for (int cellRow = row - ring; cellRow <= row + ring; cellRow++) {
+				if (cellRow < 0 || cellRow >= rows) {
+					continue;
+				}
+
+				// the inner rows of the ring only contribute their first and last cell
+				final boolean isEdgeRow = cellRow == row - ring || cellRow == row + ring;
+				final int step = isEdgeRow || ring == 0 ? 1 : 2 * ring;
+
+				for (int cellColumn = column - ring; cellColumn <= column + ring; cellColumn += step) {
+					if (cellColumn >= 0 && cellColumn < columns) {
+						collectCell(cellRow * columns + cellColumn, latitude, longitude, count, nearest);
+					}
+				}
+			}
+
+			if (nearest.size() == count && nearest.peek().distance <= minDistanceBeyondRing(ring, latitude)) {
+				break;
+			}
+		}
+
+		final List<Candidate> candidates = new ArrayList<Candidate>(nearest);
+		Collections.sort(candidates, Collections.reverseOrder(FARTHEST_FIRST));
+		final List<PlacesPOI> pois = new ArrayList<PlacesPOI>(candidates.size());
+
+		for (Candidate candidate : candidates) {
+			pois.add(readPOI(candidate.record, candidate.distance));
+		}
+
+		return pois;
+	}
+
+	/**
+	 * Offers the POIs of the given cell to the bounded set of nearest POIs.
+	 */
+	private void collectCell(final int cell, final double latitude, final double longitude, final int count,
+							 final PriorityQueue<Candidate> nearest) {
+		final int firstRecord = buffer.getInt(HEADER_SIZE + cell * 4);
+		final int endRecord = buffer.getInt(HEADER_SIZE + (cell + 1) * 4);
+
+		for (int record = firstRecord; record < endRecord; record++) {
+			final int recordOffset = recordsOffset + record * RECORD_SIZE;
+			final double distance = PlacesMonitorUtil.distanceInMeters(latitude, longitude, buffer.getDouble(recordOffset),
+									buffer.getDouble(recordOffset + 8));
+
+			if (nearest.size() < count) {
+				nearest.add(new Candidate(record, distance));
+			} else if (distance < nearest.peek().distance) {
+				nearest.poll();
+				nearest.add(new Candidate(record, distance));
+			}
+		}
+	}
+
+	/**
+	 * Returns a lower bound of the distance between the given location and any cell outside of the given ring.
+	 * <p>
+	 * Cells outside of the ring are at least {@code ring} cells away in latitude or longitude. A degree of longitude
+	 * is shortest at the most poleward latitude of the next ring, which bounds the east-west distance.
+	 */
+	private double minDistanceBeyondRing(final int ring, final double latitude) {
+		final double polewardLatitude = Math.min(90, Math.abs(latitude) + (ring + 1) * cellSize);
+		return ring * cellSize * METERS_PER_DEGREE * Math.cos(Math.toRadians(polewardLatitude));
+	}
+
+	/**
+	 * Reads the POI of the given record from the pack.
+	 */
+	private PlacesPOI readPOI(final int record, final double distance) {
+		final int recordOffset = recordsOffset + record * RECORD_SIZE;
+		final int radius = buffer.getInt(recordOffset + 16);
+		// the strings are read through a duplicate, so that concurrent queries do not share a position
+		final ByteBuffer strings = buffer.duplicate();
+		strings.position(stringsOffset + buffer.getInt(recordOffset + 20));
+
+		final String identifier = readString(strings);
+		final String name = readString(strings);
+		final String library = readString(strings);
+		final int weight = strings.getInt();
+		final int metadataCount = strings.getShort() & 0xFFFF;
+		Map<String, String> metadata = null;
+
+		if (metadataCount > 0) {
+			metadata = new HashMap<String, String>(metadataCount * 2);
+
+			for (int i = 0; i < metadataCount; i++) {
+				metadata.put(readString(strings), readString(strings));
+			}
+		}
+
+		final PlacesPOI poi = new PlacesPOI(identifier, name, buffer.getDouble(recordOffset),
+											buffer.getDouble(recordOffset + 8), radius, library, weight, metadata);
+		poi.setUserIsWithin(distance <= radius);
+		return poi;
+	}
+
+	private static String readString(final ByteBuffer strings) {
+		final byte[] bytes = new byte[strings.getShort() & 0xFFFF];
+		strings.get(bytes);
+		return new String(bytes, UTF_8);
+	}
+
+	private static final class Candidate {
+		private final int record;
+		private final double distance;
+
+		private Candidate(final int record, final double distance) {
+			this.record = record;
+			this.distance = distance;
+		}
+	}
+}
@@ -0,0 +1,322 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorPOIPackManager.java
+//
+
+package com.adobe.marketing.mobile;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Downloads, stores and refreshes the offline {@link PlacesMonitorPOIPack} configured for the app.
+ * <p>
+ * The offline mode is enabled by setting the {@link PlacesMonitorConstants.SharedState#CONFIG_POI_PACK_URL} configuration
+ * to an https URL, and is disabled while the privacy status is opted out.
+ * The pack is downloaded on a background thread to the app files directory, and opened again on the next launch.
+ * Once a day, the pack is checked for updates with a conditional request, so an unchanged pack is not downloaded again.
+ * A failed download is retried after {@link PlacesMonitorConstants.POIPack#RETRY_INTERVAL}.
+ * <p>
+ * The configuration is set from the extension thread, while the downloaded pack is published from the download thread.
+ * Both update the pack URL and the pack while holding the lock of this instance, so a pack is never published for a
+ * URL that has been replaced meanwhile.
+ */
+class PlacesMonitorPOIPackManager {
+
+	private volatile String packUrl;
+	private volatile PlacesMonitorPOIPack poiPack;
+	private volatile long nextCheckTime;
+	private final AtomicBoolean isDownloading = new AtomicBoolean();
+	private ExecutorService executorService;
+
+	/**
+	 * Sets the URL the offline POI pack is downloaded from.
+	 * <p>
+	 * A null or empty URL disables the offline mode and stops the download thread. A URL that does not use https is
+	 * ignored and disables the offline mode as well. When the URL changes, the pack stored on the device is only used
+	 * if it was downloaded from the new URL, otherwise a new pack is downloaded.
+	 * No action is taken if the URL has not changed.
+	 *
+	 * @param url the URL of the POI pack, or null
+	 */
+	synchronized void setPackUrl(final String url) {
+		if (!StringUtils.isNullOrEmpty(url) && !isHttpsUrl(url)) {
+			PlacesMonitorLog.warning("Ignoring the POI pack URL %s, the POI pack can only be downloaded over https", url);
+		}
+
+		if (StringUtils.isNullOrEmpty(url) || !isHttpsUrl(url)) {
+			if (packUrl != null) {
+				PlacesMonitorLog.debug("Offline POI pack is disabled");
+			}
+
+			packUrl = null;
+			poiPack = null;
+			shutdownExecutor();
+			return;
+		}
+
+		if (url.equals(packUrl)) {
+			return;
+		}
+
+		packUrl = url;
+		poiPack = null;
+		nextCheckTime = 0;
+		final SharedPreferences sharedPreferences = PlacesMonitorUtil.getSharedPreferences();
+
+		if (sharedPreferences != null && url.equals(sharedPreferences.getString(
+					PlacesMonitorConstants.SharedPreference.POI_PACK_URL_KEY, null))) {
+			poiPack = PlacesMonitorPOIPack.open(getPackFile());
+
+			if (poiPack != null) {
+				nextCheckTime = sharedPreferences.getLong(PlacesMonitorConstants.SharedPreference.POI_PACK_CHECK_TIME_KEY, 0) +
+								PlacesMonitorConstants.POIPack.REFRESH_INTERVAL;
+			}
+		}
+
+		refreshIfNeeded();
+	}
+
+	/**
+	 * Returns the offline POI pack, if one has been downloaded.
+	 * <p>
+	 * Schedules a background check for a newer pack when the pack is due for a refresh.
+	 *
+	 * @return the current {@link PlacesMonitorPOIPack}, or null if the offline mode is disabled or no pack is available yet
+	 */
+	PlacesMonitorPOIPack getPack() {
+		refreshIfNeeded();
+		return poiPack;
+	}
+
+	/**
+	 * Downloads the POI pack from the given URL and publishes it.
+	 * <p>
+	 * The pack is written to a temporary file and validated before it replaces the stored pack, so a failed or
+	 * corrupted download never replaces a valid pack. The download is dropped if the pack URL changed meanwhile, the
+	 * check and the publication of the pack being made under the same lock as {@link #setPackUrl(String)}.
+	 *
+	 * @param url the URL to download the POI pack from
+	 * @return true if the stored pack is up to date with the server, false if the download failed
+	 */
+	boolean downloadPack(final String url) {
+		final File packFile = getPackFile();
+
+		if (packFile == null) {
+			PlacesMonitorLog.warning("Unable to download the POI pack, the app context is not available");
+			return false;
+		}
+
+		if (!isHttpsUrl(url)) {
+			PlacesMonitorLog.warning("Unable to download the POI pack, %s is not an https URL", url);
+			return false;
+		}
+
+		HttpURLConnection connection = null;
+		final File downloadFile = new File(packFile.getPath() + ".download");
+
+		try {
+			connection = openConnection(new URL(url));
+			connection.setConnectTimeout(PlacesMonitorConstants.POIPack.CONNECT_TIMEOUT);
+			connection.setReadTimeout(PlacesMonitorConstants.POIPack.READ_TIMEOUT);
+
+			if (poiPack != null) {
+				connection.setIfModifiedSince(packFile.lastModified());
+			}
+
+			final int responseCode = connection.getResponseCode();
+
+			if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED) {
+				PlacesMonitorLog.debug("The POI pack is up to date");
+
+				synchronized (this) {
+					if (url.equals(packUrl)) {
+						onPackChecked(url);
+					}
+				}
+
+				return true;
+			}
+
+			if (responseCode != HttpURLConnection.HTTP_OK) {
+				PlacesMonitorLog.warning("Unable to download the POI pack, the server responded with %d", responseCode);
+				return false;
+			}
+
+			copy(connection.getInputStream(), downloadFile);
+			final PlacesMonitorPOIPack downloadedPack = PlacesMonitorPOIPack.open(downloadFile);
+
+			synchronized (this) {
+				if (downloadedPack == null || !url.equals(packUrl) || !downloadFile.renameTo(packFile)) {
+					downloadFile.delete();
+					return false;
+				}
+
+				if (connection.getLastModified() > 0) {
+					packFile.setLastModified(connection.getLastModified());
+				}
+
+				poiPack = downloadedPack;
+				onPackChecked(url);
+			}
+
+			PlacesMonitorLog.debug("Loaded the POI pack version %d with %d POIs", downloadedPack.getDatasetVersion(),
+								   downloadedPack.getPOICount());
+			return true;
+		} catch (IOException exp) {
+			PlacesMonitorLog.warning("Unable to download the POI pack. Exception message - %s", exp.getMessage());
+			downloadFile.delete();
+			return false;
+		} finally {
+			if (connection != null) {
+				connection.disconnect();
+			}
+		}
+	}
+
+	/**
+	 * Opens the connection to the POI pack server.
+	 *
+	 * @param url the URL of the POI pack
+	 * @return an {@link HttpURLConnection} to the URL
+	 * @throws IOException if the connection cannot be opened
+	 */
+	HttpURLConnection openConnection(final URL url) throws IOException {
+		return (HttpURLConnection) url.openConnection();
+	}
+
+	/**
+	 * Returns the current time in milliseconds used to schedule the pack refreshes.
+	 *
+	 * @return the current time in milliseconds
+	 */
+	long getCurrentTime() {
+		return System.currentTimeMillis();
+	}
+
+	/**
+	 * Getter for the file the POI pack is stored in.
+	 *
+	 * @return the POI pack {@link File}, or null if the app context is not available
+	 */
+	File getPackFile() {
+		final Context context = App.getAppContext();
+
+		if (context == null) {
+			return null;
+		}
+
+		return new File(context.getFilesDir(), PlacesMonitorConstants.POIPack.FILE_NAME);
+	}
+
+	/**
+	 * Schedules a background download of the POI pack if it is due for a refresh and no download is in progress.
+	 */
+	private synchronized void refreshIfNeeded() {
+		final String url = packUrl;
+
+		if (url == null || getCurrentTime() < nextCheckTime || !isDownloading.compareAndSet(false, true)) {
+			return;
+		}
+
+		getExecutor().execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					// a download for a previous URL does not delay the download for the current one
+					if (!downloadPack(url) && url.equals(packUrl)) {
+						nextCheckTime = getCurrentTime() + PlacesMonitorConstants.POIPack.RETRY_INTERVAL;
+					}
+				} finally {
+					isDownloading.set(false);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Records a successful check of the POI pack downloaded from the given URL.
+	 *
+	 * @param url the URL the POI pack was checked against
+	 */
+	private void onPackChecked(final String url) {
+		final long checkTime = getCurrentTime();
+		nextCheckTime = checkTime + PlacesMonitorConstants.POIPack.REFRESH_INTERVAL;
+		PlacesMonitorPersistence.getInstance().putString(PlacesMonitorConstants.SharedPreference.POI_PACK_URL_KEY, url);
+		PlacesMonitorPersistence.getInstance().putLong(PlacesMonitorConstants.SharedPreference.POI_PACK_CHECK_TIME_KEY,
+				checkTime);
+	}
+
+	/**
+	 * Verifies that the POI pack is served over https.
+	 *
+	 * @param url the URL of the POI pack
+	 * @return true if the URL uses the https scheme
+	 */
+	private static boolean isHttpsUrl(final String url) {
+		return url.regionMatches(true, 0, "https://", 0, "https://".length());
+	}
+
+	private static void copy(final InputStream inputStream, final File file) throws IOException {
+		final OutputStream outputStream = new FileOutputStream(file);
+
+		try {
+			final byte[] chunk = new byte[8192];
+			int read;
+
+			while ((read = inputStream.read(chunk)) != -1) {
+				outputStream.write(chunk, 0, read);
+			}
+		} finally {
+			outputStream.close();
+			inputStream.close();
+		}
+	}
+
+	/**
+	 * Getter for the {@link #executorService} that runs the downloads.
+	 *
+	 * @return A non-null {@link ExecutorService} instance
+	 */
+	private synchronized ExecutorService getExecutor() {
+		if (executorService == null) {
+			executorService = Executors.newSingleThreadExecutor();
+		}
+
+		return executorService;
+	}
+
+	/**
+	 * Shuts down the {@link #executorService} once the offline mode is disabled.
+	 * <p>
+	 * A download in progress completes on its thread, and is dropped as the pack URL has changed. A new executor is
+	 * created if the offline mode is enabled again.
+	 */
+	private synchronized void shutdownExecutor() {
+		if (executorService != null) {
+			executorService.shutdown();
+			executorService = null;
+		}
+	}
+}
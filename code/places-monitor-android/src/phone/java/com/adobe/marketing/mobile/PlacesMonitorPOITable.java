@@ -0,0 +1,196 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorPOITable.java
+//
+
+package com.adobe.marketing.mobile;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact table of the nearby POIs, indexed by their identifier.
+ * <p>
+ * The table is built when the nearby POIs are registered for monitoring and keeps, for each POI, the details needed to
+ * curate its geofence transitions, that is its loitering delay. The details are held in arrays parallel to the
+ * identifiers, and the identifiers are indexed by an open addressing hash table of ints, so looking up a POI does not
+ * allocate, and rebuilding the table does not allocate unless it holds more POIs than before.
+ * <p>
+ * A POI is looked up once with {@link #indexOf(String)}, its details are then read by index.
+ * This class is not thread safe, it is used by the {@link PlacesGeofenceManager} on the {@link PlacesMonitorInternal}
+ * executor.
+ */
+class PlacesMonitorPOITable {
+
+	static final int NOT_FOUND = -1;
+	private static final int MIN_SLOT_COUNT = 16;
+
+	private String[] identifiers = new String[0];
+	private int[] loiteringDelays = new int[0];
+
+	// index + 1 of the POI hashed to each slot, 0 for an empty slot
+	private int[] slots = new int[MIN_SLOT_COUNT];
+	private int size;
+
+	/**
+	 * Replaces the content of the table with the given POIs.
+	 * <p>
+	 * Null POIs and POIs without an identifier are skipped. If several POIs share an identifier, the last one is kept.
+	 *
+	 * @param pois a {@link List} of {@link PlacesPOI}, may be null
+	 */
+	void set(final List<PlacesPOI> pois) {
+		clear();
+
+		if (pois == null || pois.isEmpty()) {
+			return;
+		}
+
+		ensureCapacity(pois.size());
+
+		for (int i = 0; i < pois.size(); i++) {
+			final PlacesPOI poi = pois.get(i);
+
+			if (poi == null || poi.getIdentifier() == null) {
+				continue;
+			}
+
+			int index = indexOf(poi.getIdentifier());
+
+			if (index == NOT_FOUND) {
+				index = size++;
+				identifiers[index] = poi.getIdentifier();
+				slots[findSlot(poi.getIdentifier())] = index + 1;
+			}
+
+			loiteringDelays[index] = readLoiteringDelay(poi);
+		}
+	}
+
+	/**
+	 * Returns the index of the POI with the given identifier.
+	 *
+	 * @param identifier a POI identifier
+	 * @return the index of the POI, or {@link #NOT_FOUND} if the POI is not in the table
+	 */
+	int indexOf(final String identifier) {
+		if (identifier == null || size == 0) {
+			return NOT_FOUND;
+		}
+
+		final int entry = slots[findSlot(identifier)];
+		return entry == 0 ? NOT_FOUND : entry - 1;
+	}
+
+	/**
+	 * @param index the index of a POI, as returned by {@link #indexOf(String)}
+	 * @return the loitering delay of the POI in seconds, 0 if its entry is not delayed
+	 * @see #readLoiteringDelay(PlacesPOI)
+	 */
+	int getLoiteringDelay(final int index) {
+		return loiteringDelays[index];
+	}
+
+	/**
+	 * @return the number of POIs in the table
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Removes all the POIs from the table, keeping its capacity.
+	 */
+	void clear() {
+		if (size == 0) {
+			return;
+		}
+
+		Arrays.fill(slots, 0);
+		Arrays.fill(identifiers, 0, size, null);
+		size = 0;
+	}
+
+	/**
+	 * Returns the loitering delay of the given {@link PlacesPOI} configured in its metadata.
+	 * <p>
+	 * Returns 0 if the POI does not have a valid loitering delay, in which case the entry is not delayed.
+	 * Delays longer than {@link PlacesMonitorConstants.POIMetadata#MAX_LOITERING_DELAY} are capped.
+	 *
+	 * @param poi the {@link PlacesPOI} to read the loitering delay from
+	 * @return the loitering delay in seconds
+	 */
+	static int readLoiteringDelay(final PlacesPOI poi) {
+		final Map<String, String> metadata = poi.getMetadata();
+
+		if (metadata == null) {
+			return 0;
+		}
+
+		final String loiteringDelay = metadata.get(PlacesMonitorConstants.POIMetadata.LOITERING_DELAY);
+
+		if (loiteringDelay == null) {
+			return 0;
+		}
+
+		try {
+			return Math.max(0, Math.min(Integer.parseInt(loiteringDelay.trim()),
+										PlacesMonitorConstants.POIMetadata.MAX_LOITERING_DELAY));
+		} catch (NumberFormatException exp) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Returns the slot holding the given identifier, or the empty slot where it would be inserted.
+	 * <p>
+	 * The slots are probed linearly, the table is kept at most half full so that an empty slot is always found.
+	 *
+	 * @param identifier a non-null POI identifier
+	 * @return the index of the slot
+	 */
+	private int findSlot(final String identifier) {
+		final int mask = slots.length - 1;
+		final int hash = identifier.hashCode();
+		int slot = (hash ^ (hash >>> 16)) & mask;
+
+		while (slots[slot] != 0 && !identifiers[slots[slot] - 1].equals(identifier)) {
+			slot = (slot + 1) & mask;
+		}
+
+		return slot;
+	}
+
+	/**
+	 * Grows the arrays of the table so that it can hold the given number of POIs.
+	 *
+	 * @param capacity the number of POIs to hold
+	 */
+	private void ensureCapacity(final int capacity) {
+		if (identifiers.length < capacity) {
+			identifiers = Arrays.copyOf(identifiers, capacity);
+			loiteringDelays = Arrays.copyOf(loiteringDelays, capacity);
+		}
+
+		int slotCount = slots.length;
+
+		while (slotCount < capacity * 2) {
+			slotCount <<= 1;
+		}
+
+		if (slotCount != slots.length) {
+			slots = new int[slotCount];
+		}
+	}
+}
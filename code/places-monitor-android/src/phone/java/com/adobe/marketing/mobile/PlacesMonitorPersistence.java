@@ -0,0 +1,157 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorPersistence.java
+//
+
+package com.adobe.marketing.mobile;
+
+import android.content.SharedPreferences;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Persistence for the Places Monitor {@link SharedPreferences}.
+ * <p>
+ * Each write is applied with its own {@link SharedPreferences.Editor#apply()}, which updates the in-memory
+ * {@code SharedPreferences} immediately and hands the disk write to the Android framework. The framework writes the
+ * applied changes in order and waits for them before the application process is stopped, so the calling thread is never
+ * blocked on disk and no write is lost.
+ * String sets are copied when written, so later changes to the in-memory set do not leak into the persisted value.
+ */
+class PlacesMonitorPersistence {
+
+	private static PlacesMonitorPersistence instance;
+
+	/**
+	 * Returns the process wide {@code PlacesMonitorPersistence} instance.
+	 *
+	 * @return a non-null {@link PlacesMonitorPersistence} instance
+	 */
+	static synchronized PlacesMonitorPersistence getInstance() {
+		if (instance == null) {
+			instance = new PlacesMonitorPersistence();
+		}
+
+		return instance;
+	}
+
+	/**
+	 * Writes a boolean value to persistence.
+	 *
+	 * @param key 	the key of the value
+	 * @param value the value to be persisted
+	 * @return false if the {@link SharedPreferences} or its editor is not available, true otherwise
+	 */
+	boolean putBoolean(final String key, final boolean value) {
+		final SharedPreferences.Editor editor = getEditor();
+
+		if (editor == null) {
+			return false;
+		}
+
+		editor.putBoolean(key, value);
+		editor.apply();
+		return true;
+	}
+
+	/**
+	 * Writes a long value to persistence.
+	 *
+	 * @param key 	the key of the value
+	 * @param value the value to be persisted
+	 * @return false if the {@link SharedPreferences} or its editor is not available, true otherwise
+	 */
+	boolean putLong(final String key, final long value) {
+		final SharedPreferences.Editor editor = getEditor();
+
+		if (editor == null) {
+			return false;
+		}
+
+		editor.putLong(key, value);
+		editor.apply();
+		return true;
+	}
+
+	/**
+	 * Writes a string value to persistence.
+	 *
+	 * @param key 	the key of the value
+	 * @param value the value to be persisted
+	 * @return false if the {@link SharedPreferences} or its editor is not available, true otherwise
+	 */
+	boolean putString(final String key, final String value) {
+		final SharedPreferences.Editor editor = getEditor();
+
+		if (editor == null) {
+			return false;
+		}
+
+		editor.putString(key, value);
+		editor.apply();
+		return true;
+	}
+
+	/**
+	 * Writes a copy of the given string set to persistence.
+	 *
+	 * @param key 	the key of the value
+	 * @param value the {@link Set} to be persisted
+	 * @return false if the {@link SharedPreferences} or its editor is not available, true otherwise
+	 */
+	boolean putStringSet(final String key, final Set<String> value) {
+		final SharedPreferences.Editor editor = getEditor();
+
+		if (editor == null) {
+			return false;
+		}
+
+		editor.putStringSet(key, new HashSet<String>(value));
+		editor.apply();
+		return true;
+	}
+
+	/**
+	 * Removes the given key from persistence.
+	 *
+	 * @param key the key to be removed
+	 * @return false if the {@link SharedPreferences} or its editor is not available, true otherwise
+	 */
+	boolean remove(final String key) {
+		final SharedPreferences.Editor editor = getEditor();
+
+		if (editor == null) {
+			return false;
+		}
+
+		editor.remove(key);
+		editor.apply();
+		return true;
+	}
+
+	/**
+	 * Returns a new {@link SharedPreferences.Editor} for the Places Monitor {@link SharedPreferences}.
+	 *
+	 * @return the {@code SharedPreferences.Editor}, or null if the {@code SharedPreferences} is not available
+	 */
+	private SharedPreferences.Editor getEditor() {
+		final SharedPreferences sharedPreferences = PlacesMonitorUtil.getSharedPreferences();
+
+		if (sharedPreferences == null) {
+			return null;
+		}
+
+		return sharedPreferences.edit();
+	}
+}
@@ -0,0 +1,146 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorProfileSelector.java
+//
+
+package com.adobe.marketing.mobile;
+
+import com.google.android.gms.location.DetectedActivity;
+
+import java.util.List;
+
+/**
+ * Selects the location profile used in {@link PlacesMonitorLocationProfile#ADAPTIVE} mode.
+ * <p>
+ * The selection is based on the number of points of interest near the last location fix, on the activity detected
+ * by the OS when the activity recognition is enabled, and otherwise on the movement speed of the device between the
+ * last two location fixes.
+ * <ul>
+ *     <li>{@link PlacesMonitorLocationProfile#PRECISE} when the device is in an area dense with points of interest</li>
+ *     <li>{@link PlacesMonitorLocationProfile#BALANCED} when the device is in a vehicle or moving fast, or while the
+ *     density or speed is not yet known</li>
+ *     <li>{@link PlacesMonitorLocationProfile#POWER_SAVER} when the device is on foot, on a bicycle or moving slowly
+ *     in a sparse area</li>
+ * </ul>
+ * This class is not thread safe, all its inputs are passed by the {@link PlacesLocationManager} on the
+ * {@link PlacesMonitorInternal} executor.
+ */
+class PlacesMonitorProfileSelector {
+
+	private static final int UNKNOWN = -1;
+
+	private boolean hasLastLocation;
+	private double lastLatitude;
+	private double lastLongitude;
+	private long lastTime;
+	private double speed = UNKNOWN;
+	private int nearbyPOICount = UNKNOWN;
+	private int activityType = UNKNOWN;
+
+	/**
+	 * Records a new location fix and updates the movement speed of the device.
+	 * <p>
+	 * Fixes that are not newer than the previous fix do not update the speed.
+	 *
+	 * @param latitude 	latitude of the location fix
+	 * @param longitude longitude of the location fix
+	 * @param time 		time of the location fix, in milliseconds
+	 */
+	void onLocationReceived(final double latitude, final double longitude, final long time) {
+		if (hasLastLocation && time > lastTime) {
+			final double distance = PlacesMonitorUtil.distanceInMeters(lastLatitude, lastLongitude, latitude, longitude);
+			speed = distance / ((time - lastTime) / 1000.0);
+		}
+
+		hasLastLocation = true;
+		lastLatitude = latitude;
+		lastLongitude = longitude;
+		lastTime = time;
+	}
+
+	/**
+	 * Records the nearby points of interest obtained for a location and updates the point of interest density.
+	 *
+	 * @param latitude 	latitude of the location the POIs were obtained for
+	 * @param longitude longitude of the location the POIs were obtained for
+	 * @param pois 		a {@link List} of nearby {@link PlacesPOI}
+	 */
+	void onNearbyPOIsReceived(final double latitude, final double longitude, final List<PlacesPOI> pois) {
+		int count = 0;
+
+		if (pois != null) {
+			for (PlacesPOI poi : pois) {
+				if (poi != null && PlacesMonitorUtil.distanceInMeters(latitude, longitude, poi.getLatitude(),
+						poi.getLongitude()) <= PlacesMonitorConstants.AdaptiveProfile.DENSE_AREA_RADIUS) {
+					count++;
+				}
+			}
+		}
+
+		nearbyPOICount = count;
+	}
+
+	/**
+	 * Records the activity the device has entered, as detected by the OS.
+	 * <p>
+	 * The detected activity takes precedence over the movement speed, which is only measured between location fixes.
+	 *
+	 * @param activityType the {@link DetectedActivity} type, or {@link DetectedActivity#UNKNOWN} to rely on the speed
+	 */
+	void onActivityChanged(final int activityType) {
+		this.activityType = activityType;
+	}
+
+	/**
+	 * Returns the location profile best suited for the recorded density, activity and speed.
+	 *
+	 * @return one of {@link PlacesMonitorLocationProfile#POWER_SAVER}, {@link PlacesMonitorLocationProfile#BALANCED}
+	 * or {@link PlacesMonitorLocationProfile#PRECISE}
+	 */
+	PlacesMonitorLocationProfile getProfile() {
+		if (nearbyPOICount >= PlacesMonitorConstants.AdaptiveProfile.DENSE_AREA_POI_COUNT) {
+			return PlacesMonitorLocationProfile.PRECISE;
+		}
+
+		switch (activityType) {
+			case DetectedActivity.IN_VEHICLE:
+				return PlacesMonitorLocationProfile.BALANCED;
+
+			case DetectedActivity.ON_FOOT:
+			case DetectedActivity.WALKING:
+			case DetectedActivity.RUNNING:
+			case DetectedActivity.ON_BICYCLE:
+				return PlacesMonitorLocationProfile.POWER_SAVER;
+
+			default:
+				break;
+		}
+
+		if (nearbyPOICount == UNKNOWN || speed == UNKNOWN
+				|| speed >= PlacesMonitorConstants.AdaptiveProfile.HIGH_SPEED) {
+			return PlacesMonitorLocationProfile.BALANCED;
+		}
+
+		return PlacesMonitorLocationProfile.POWER_SAVER;
+	}
+
+	/**
+	 * Forgets the recorded locations, speed, density and activity.
+	 */
+	void reset() {
+		hasLastLocation = false;
+		speed = UNKNOWN;
+		nearbyPOICount = UNKNOWN;
+		activityType = UNKNOWN;
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorRegionEventDispatcher.java
+//
+
+package com.adobe.marketing.mobile;
+
+import com.google.android.gms.location.Geofence;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dispatches the region events of the geofence transitions to the Places extension.
+ * <p>
+ * The region events are dispatched as Places request content events, the same request that
+ * {@link Places#processGeofence(Geofence, int)} dispatches, without building a {@link Geofence} for each region.
+ * The Places extension processes one region per request, so one event is dispatched for each region of a transition.
+ * <p>
+ * The event type, source and the {@code requesttype}, {@code regionid} and {@code regioneventtype} data keys are
+ * private to the Places extension, they match the request dispatched by {@code Places.processGeofence} in Places 1.4.0,
+ * the version this extension is built against. They are pinned by {@code PlacesMonitorRegionEventDispatcherTests}
+ * and must be verified again whenever the Places dependency is updated.
+ * Only the data read by the Places extension is sent, the Places extension looks up the details of the region from
+ * its own nearby POIs.
+ * <p>
+ * This class is not thread safe, it is used by the {@link PlacesGeofenceManager} on the {@link PlacesMonitorInternal}
+ * executor.
+ */
+class PlacesMonitorRegionEventDispatcher {
+
+	/**
+	 * Dispatches a region event to the Places extension for each of the given geofences.
+	 * <p>
+	 * A {@link Geofence#GEOFENCE_TRANSITION_DWELL} is dispatched as an entry, the Places extension is only aware of
+	 * entries and exits.
+	 *
+	 * @param geofenceIDs a {@link List} of the geofenceIDs of a transition
+	 * @param transitionType the {@link Geofence} transition type of the geofences
+	 */
+	void dispatchRegionEvents(final List<String> geofenceIDs, final int transitionType) {
+		if (geofenceIDs == null || geofenceIDs.isEmpty()) {
+			return;
+		}
+
+		final String regionEventType = toRegionEventType(transitionType);
+
+		if (regionEventType == null) {
+			PlacesMonitorLog.warning("Unknown geofence transition type %s, ignoring the region events", transitionType);
+			return;
+		}
+
+		for (int i = 0; i < geofenceIDs.size(); i++) {
+			final String geofenceID = geofenceIDs.get(i);
+			dispatchRegionEvent(geofenceID, regionEventType);
+		}
+	}
+
+	/**
+	 * Dispatches the region event of a single geofence to the Places extension.
+	 *
+	 * @param geofenceID the geofenceID of the region
+	 * @param regionEventType the Places region event type, as returned by {@link #toRegionEventType(int)}
+	 */
+	void dispatchRegionEvent(final String geofenceID, final String regionEventType) {
+		final Event event = new Event.Builder(PlacesMonitorConstants.EVENTNAME_PROCESS_REGION_EVENT,
+											  PlacesMonitorConstants.EventType.PLACES, PlacesMonitorConstants.EventSource.REQUEST_CONTENT).
+		setEventData(createRegionEventData(geofenceID, regionEventType)).build();
+
+		if (!MobileCore.dispatchEvent(event, null)) {
+			PlacesMonitorLog.warning("Unable to dispatch the %s region event of geofenceId %s", regionEventType,
+									 geofenceID);
+		}
+	}
+
+	/**
+	 * Returns the Places region event type of the given {@link Geofence} transition type.
+	 * <p>
+	 * A {@link Geofence#GEOFENCE_TRANSITION_DWELL} is an entry, the Places extension is only aware of entries and exits.
+	 *
+	 * @param transitionType the {@link Geofence} transition type
+	 * @return the Places region event type, or null if the transition type is unknown
+	 */
+	static String toRegionEventType(final int transitionType) {
+		switch (transitionType) {
+			case Geofence.GEOFENCE_TRANSITION_ENTER:
+			case Geofence.GEOFENCE_TRANSITION_DWELL:
+				return PlacesMonitorConstants.EventDataValue.REGION_EVENT_TYPE_ENTRY;
+
+			case Geofence.GEOFENCE_TRANSITION_EXIT:
+				return PlacesMonitorConstants.EventDataValue.REGION_EVENT_TYPE_EXIT;
+
+			default:
+				return null;
+		}
+	}
+
+	/**
+	 * Creates the data of the region event of the given geofence.
+	 *
+	 * @param geofenceID the geofenceID of the region
+	 * @param regionEventType the Places region event type
+	 * @return the {@link Map} of the event data
+	 */
+	private static Map<String, Object> createRegionEventData(final String geofenceID, final String regionEventType) {
+		final Map<String, Object> eventData = new HashMap<String, Object>();
+		eventData.put(PlacesMonitorConstants.EventDataKey.REQUEST_TYPE,
+					  PlacesMonitorConstants.EventDataValue.REQUEST_TYPE_PROCESS_REGION_EVENT);
+		eventData.put(PlacesMonitorConstants.EventDataKey.REGION_ID, geofenceID);
+		eventData.put(PlacesMonitorConstants.EventDataKey.REGION_EVENT_TYPE, regionEventType);
+		return eventData;
+	}
+}
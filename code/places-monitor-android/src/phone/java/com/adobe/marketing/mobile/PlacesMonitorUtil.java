@@ -37,4 +37,26 @@ class PlacesMonitorUtil {
         return appContext.getSharedPreferences(PlacesMonitorConstants.SharedPreference.MASTER_KEY, 0);
     }
 
+    /**
+     * Calculates the great-circle distance between two coordinates using the haversine formula.
+     * <p>
+     * Unlike {@link android.location.Location#distanceBetween(double, double, double, double, float[])} this
+     * computation does not depend on the Android framework and can be used from any thread.
+     *
+     * @param latitude1 latitude of the first coordinate, in degrees
+     * @param longitude1 longitude of the first coordinate, in degrees
+     * @param latitude2 latitude of the second coordinate, in degrees
+     * @param longitude2 longitude of the second coordinate, in degrees
+     * @return the distance between the two coordinates, in meters
+     */
+    static double distanceInMeters(final double latitude1, final double longitude1,
+                                   final double latitude2, final double longitude2) {
+        final double deltaLatitude = Math.toRadians(latitude2 - latitude1);
+        final double deltaLongitude = Math.toRadians(longitude2 - longitude1);
+        final double a = Math.sin(deltaLatitude / 2) * Math.sin(deltaLatitude / 2)
+                         + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                         * Math.sin(deltaLongitude / 2) * Math.sin(deltaLongitude / 2);
+        return 2 * PlacesMonitorConstants.EARTH_RADIUS_METERS * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
 }
@@ -0,0 +1,181 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesActivityTransitionBroadcastReceiverTests.java
+//
+
+package com.adobe.marketing.mobile;
+
+import android.content.Context;
+import android.content.Intent;
+
+import com.google.android.gms.location.ActivityTransition;
+import com.google.android.gms.location.ActivityTransitionEvent;
+import com.google.android.gms.location.ActivityTransitionResult;
+import com.google.android.gms.location.DetectedActivity;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.powermock.api.mockito.PowerMockito.verifyStatic;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({ActivityTransitionResult.class, MobileCore.class})
+public class PlacesActivityTransitionBroadcastReceiverTests {
+
+	static final String ACTION_ACTIVITY_TRANSITION_UPDATE =
+		"com.adobe.marketing.mobile.PlacesActivityTransitionBroadcastReceiver.activityTransitions";
+	private PlacesActivityTransitionBroadcastReceiver receiver;
+
+	// argument captors
+	final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+	final ArgumentCaptor<ExtensionErrorCallback> callbackCaptor = ArgumentCaptor.forClass(ExtensionErrorCallback.class);
+
+	@Mock
+	Context mockContext;
+
+	@Mock
+	Intent mockIntent;
+
+	@Before
+	public void before() throws Exception {
+		// mock the static classes
+		PowerMockito.mockStatic(MobileCore.class);
+		PowerMockito.mockStatic(ActivityTransitionResult.class);
+
+		receiver = new PlacesActivityTransitionBroadcastReceiver();
+
+		when(mockIntent.getAction()).thenReturn(ACTION_ACTIVITY_TRANSITION_UPDATE);
+		when(ActivityTransitionResult.hasResult(any(Intent.class))).thenReturn(true);
+	}
+
+	// ========================================================================================
+	// onReceive
+	// ========================================================================================
+
+	@Test
+	public void test_OnReceive_sendOSEvent() throws Exception {
+		// setup
+		mockTransitionEvents(new ActivityTransitionEvent(DetectedActivity.STILL,
+							 ActivityTransition.ACTIVITY_TRANSITION_ENTER, 1000));
+
+		// test
+		receiver.onReceive(mockContext, mockIntent);
+
+		// verify the OS event dispatch
+		verifyStatic(MobileCore.class, Mockito.times(1));
+		MobileCore.dispatchEvent(eventCaptor.capture(), callbackCaptor.capture());
+
+		// verify dispatched event
+		Event event = eventCaptor.getValue();
+		assertNotNull("The dispatched event should not be null", event);
+		assertEquals("the event name should be correct", PlacesMonitorTestConstants.EVENTNAME_OS_ACTIVITY_TRANSITION,
+					 event.getName());
+		assertEquals("the event type should be correct", PlacesMonitorTestConstants.EventType.OS, event.getType());
+		assertEquals("the event source should be correct", PlacesMonitorTestConstants.EventSource.RESPONSE_CONTENT,
+					 event.getSource());
+		// evaluate the eventData
+		EventData eventData = event.getData();
+		assertEquals("the event data should contain two elements", 2, eventData.size());
+		assertEquals("the event data should contain the correct event type",
+					 PlacesMonitorTestConstants.EventDataValue.OS_EVENT_TYPE_ACTIVITY_TRANSITION,
+					 eventData.getString2(PlacesMonitorTestConstants.EventDataKey.OS_EVENT_TYPE));
+		assertEquals("the event data should contain the correct activity type", DetectedActivity.STILL,
+					 eventData.getInteger(PlacesMonitorTestConstants.EventDataKey.ACTIVITY_TYPE));
+	}
+
+	@Test
+	public void test_OnReceive_sendsLastEnteredActivity() throws Exception {
+		// setup
+		mockTransitionEvents(
+			new ActivityTransitionEvent(DetectedActivity.STILL, ActivityTransition.ACTIVITY_TRANSITION_ENTER, 1000),
+			new ActivityTransitionEvent(DetectedActivity.IN_VEHICLE, ActivityTransition.ACTIVITY_TRANSITION_ENTER, 2000),
+			new ActivityTransitionEvent(DetectedActivity.IN_VEHICLE, ActivityTransition.ACTIVITY_TRANSITION_EXIT, 3000));
+
+		// test
+		receiver.onReceive(mockContext, mockIntent);
+
+		// verify a single event is dispatched with the last entered activity
+		verifyStatic(MobileCore.class, Mockito.times(1));
+		MobileCore.dispatchEvent(eventCaptor.capture(), callbackCaptor.capture());
+		assertEquals(DetectedActivity.IN_VEHICLE,
+					 eventCaptor.getValue().getData().getInteger(PlacesMonitorTestConstants.EventDataKey.ACTIVITY_TYPE));
+	}
+
+	@Test
+	public void test_OnReceive_when_noEnteredActivity() throws Exception {
+		// setup
+		mockTransitionEvents(new ActivityTransitionEvent(DetectedActivity.WALKING,
+							 ActivityTransition.ACTIVITY_TRANSITION_EXIT, 1000));
+
+		// test
+		receiver.onReceive(mockContext, mockIntent);
+
+		// verify no event is dispatched
+		verifyStatic(MobileCore.class, Mockito.times(0));
+		MobileCore.dispatchEvent(eventCaptor.capture(), callbackCaptor.capture());
+	}
+
+	@Test
+	public void test_OnReceive_when_noResult() throws Exception {
+		// setup
+		when(ActivityTransitionResult.hasResult(any(Intent.class))).thenReturn(false);
+
+		// test
+		receiver.onReceive(mockContext, mockIntent);
+
+		// verify no event is dispatched
+		verifyStatic(MobileCore.class, Mockito.times(0));
+		MobileCore.dispatchEvent(eventCaptor.capture(), callbackCaptor.capture());
+	}
+
+	@Test
+	public void test_OnReceive_when_intentIsNull() throws Exception {
+		// test
+		receiver.onReceive(mockContext, null);
+
+		// verify no event is dispatched
+		verifyStatic(MobileCore.class, Mockito.times(0));
+		MobileCore.dispatchEvent(eventCaptor.capture(), callbackCaptor.capture());
+	}
+
+	@Test
+	public void test_OnReceive_when_intentHasDifferentAction() throws Exception {
+		// setup
+		when(mockIntent.getAction()).thenReturn("unknownAction");
+
+		// test
+		receiver.onReceive(mockContext, mockIntent);
+
+		// verify no event is dispatched
+		verifyStatic(MobileCore.class, Mockito.times(0));
+		MobileCore.dispatchEvent(eventCaptor.capture(), callbackCaptor.capture());
+	}
+
+	private void mockTransitionEvents(final ActivityTransitionEvent... transitionEvents) {
+		final ActivityTransitionResult result = new ActivityTransitionResult(Arrays.asList(transitionEvents));
+		when(ActivityTransitionResult.extractResult(any(Intent.class))).thenReturn(result);
+	}
+}
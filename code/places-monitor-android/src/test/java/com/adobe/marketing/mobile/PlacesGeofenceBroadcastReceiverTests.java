@@ -17,6 +17,7 @@ package com.adobe.marketing.mobile;
 
 import android.content.Context;
 import android.content.Intent;
+import android.location.Location;
 
 import com.google.android.gms.location.Geofence;
 import com.google.android.gms.location.GeofencingEvent;
@@ -61,6 +62,9 @@ public class PlacesGeofenceBroadcastReceiverTests {
 	@Mock
 	GeofencingEvent mockGeofencingEvent;
 
+	@Mock
+	Location mockLocation;
+
 
 	@Before
 	public void before() throws Exception {
@@ -116,6 +120,30 @@ public class PlacesGeofenceBroadcastReceiverTests {
 		assertEquals("the event data should contain the correct geofence ids", "id1",  obtainedGeofenceIds.get(1));
 	}
 
+	@Test
+	public void test_OnReceive_sendOSEvent_withTriggeringLocation() throws Exception {
+		// setup
+		mockGeofenceWithCount(1);
+		Mockito.when(mockLocation.getLatitude()).thenReturn(22.22);
+		Mockito.when(mockLocation.getLongitude()).thenReturn(-33.33);
+		Mockito.when(mockLocation.getTime()).thenReturn(1000L);
+		Mockito.when(mockLocation.hasAccuracy()).thenReturn(true);
+		Mockito.when(mockLocation.getAccuracy()).thenReturn(15f);
+		Mockito.when(mockGeofencingEvent.getTriggeringLocation()).thenReturn(mockLocation);
+
+		// test
+		receiver.onReceive(mockContext, mockIntent);
+
+		// verify the triggering location is carried by the OS event
+		verifyStatic(MobileCore.class, Mockito.times(1));
+		MobileCore.dispatchEvent(eventCaptor.capture(), callbackCaptor.capture());
+		EventData eventData = eventCaptor.getValue().getData();
+		assertEquals(22.22, eventData.getDouble(PlacesMonitorTestConstants.EventDataKey.LATITUDE), 0);
+		assertEquals(-33.33, eventData.getDouble(PlacesMonitorTestConstants.EventDataKey.LONGITUDE), 0);
+		assertEquals(1000L, eventData.getLong(PlacesMonitorConstants.EventDataKey.TIME));
+		assertEquals(15, eventData.getDouble(PlacesMonitorConstants.EventDataKey.ACCURACY), 0);
+	}
+
 
 	@Test
 	public void test_OnReceive_when_GeofenceEventHasError() throws Exception {
@@ -20,6 +20,7 @@ import android.app.PendingIntent;
 import android.content.Context;
 import android.content.Intent;
 import android.content.SharedPreferences;
+import android.content.pm.PackageInfo;
 import android.content.pm.PackageManager;
 import android.support.v4.app.ActivityCompat;
 
@@ -45,11 +46,16 @@ import org.powermock.reflect.Whitebox;
 
 
 
+import java.io.File;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -62,7 +68,7 @@ import static org.mockito.Mockito.when;
 import static org.powermock.api.mockito.PowerMockito.verifyStatic;
 
 @RunWith(PowerMockRunner.class)
-@PrepareForTest({Context.class, App.class, LocationServices.class, PendingIntent.class, ActivityCompat.class, Places.class})
+@PrepareForTest({Context.class, App.class, LocationServices.class, PendingIntent.class, ActivityCompat.class, MobileCore.class})
 public class PlacesGeofenceManagerTests {
 	static private String MONITOR_SHARED_PREFERENCE_KEY = "com.adobe.placesMonitor";
 	private final String FINE_LOCATION = Manifest.permission.ACCESS_FINE_LOCATION;
@@ -94,10 +100,17 @@ public class PlacesGeofenceManagerTests {
 	SharedPreferences.Editor mockSharedPreferenceEditor;
 
 
+	private File filesDir;
+
 	@Before
-	public void before()  {
+	public void before() throws Exception {
+		PlacesMonitorClients.getInstance().reset();
+
+		filesDir = Files.createTempDirectory("geofencemanager").toFile();
+		filesDir.deleteOnExit();
+
 		PowerMockito.mockStatic(App.class);
-		PowerMockito.mockStatic(Places.class);
+		PowerMockito.mockStatic(MobileCore.class);
 		PowerMockito.mockStatic(LocationServices.class);
 		PowerMockito.mockStatic(PendingIntent.class);
 		PowerMockito.mockStatic(ActivityCompat.class);
@@ -114,6 +127,7 @@ public class PlacesGeofenceManagerTests {
 
 		// mock instance methods
 		Mockito.when(context.getSharedPreferences(MONITOR_SHARED_PREFERENCE_KEY, 0)).thenReturn(mockSharedPreference);
+		Mockito.when(context.getFilesDir()).thenReturn(filesDir);
 		Mockito.when(mockSharedPreference.edit()).thenReturn(mockSharedPreferenceEditor);
 		Mockito.when(geofencingClient.removeGeofences(geofencePendingIntent)).thenReturn(removeTask);
 		Mockito.when(geofencingClient.addGeofences(any(GeofencingRequest.class),
@@ -133,21 +147,13 @@ public class PlacesGeofenceManagerTests {
 		final ArgumentCaptor<OnSuccessListener> onSuccessCallback = ArgumentCaptor.forClass(OnSuccessListener.class);
 		final ArgumentCaptor<OnFailureListener> onFailureCallback = ArgumentCaptor.forClass(OnFailureListener.class);
 		final ArgumentCaptor<GeofencingRequest> addedFences = ArgumentCaptor.forClass(GeofencingRequest.class);
-		final ArgumentCaptor<OnSuccessListener> onSuccessCallbackRemoveFences = ArgumentCaptor.forClass(
-					OnSuccessListener.class);
-		final ArgumentCaptor<OnFailureListener> onFailureCallbackRemoveFences = ArgumentCaptor.forClass(
-					OnFailureListener.class);
 
 		// test
 		geofenceManager.startMonitoringFences(poiListA());
 
-		// verify the removal of all old pois
-		verify(geofencingClient, times(1)).removeGeofences(any(PendingIntent.class));
-		verify(removeTask, times(1)).addOnSuccessListener(onSuccessCallbackRemoveFences.capture());
-		verify(removeTask, times(1)).addOnFailureListener(onFailureCallbackRemoveFences.capture());
-
-		// trigger the success callback for removal
-		onSuccessCallbackRemoveFences.getValue().onSuccess(mockVoid);
+		// verify no fences are removed, since none were monitored before
+		verify(geofencingClient, times(0)).removeGeofences(any(PendingIntent.class));
+		verify(geofencingClient, times(0)).removeGeofences(ArgumentMatchers.<String>anyList());
 
 		// verify the addition of new pois
 		verify(geofencingClient, times(1)).addGeofences(addedFences.capture(), eq(geofencePendingIntent));
@@ -160,43 +166,121 @@ public class PlacesGeofenceManagerTests {
 		// trigger success callback
 		onSuccessCallback.getValue().onSuccess(mockVoid);
 
-		// verify process geofence is called twice for the newly entered poi
-		verifyStatic(Places.class, Mockito.times(2));
-		Places.processGeofence(any(Geofence.class), eq(Geofence.GEOFENCE_TRANSITION_ENTER));
+		// verify the monitored fences are recorded
+		Map<String, String> monitoringFences = Whitebox.getInternalState(geofenceManager, "monitoringFences");
+		assertEquals(poiSetA(), monitoringFences.keySet());
+
+		// verify a region entry is dispatched for each newly entered poi
+		assertEquals(2, dispatchedRegionEvents(PlacesMonitorTestConstants.EventDataKey.GEOFENCE_TYPE_ENTRY).size());
 	}
 
 	@Test
-	public void test_startMonitoringFences_onFailureToRemoveOldFences_stillAddsNewPOIs() {
-		// setup other captors
-		final ArgumentCaptor<OnSuccessListener> onSuccessCallback = ArgumentCaptor.forClass(OnSuccessListener.class);
-		final ArgumentCaptor<OnFailureListener> onFailureCallback = ArgumentCaptor.forClass(OnFailureListener.class);
+	public void test_startMonitoringFences_when_nearByPOIsNotChanged() {
+		// setup
+		geofenceManager.startMonitoringFences(poiListA());
+		Mockito.reset(geofencingClient);
+
+		// test
+		geofenceManager.startMonitoringFences(poiListA());
+
+		// verify no call is made to the OS
+		verify(geofencingClient, times(0)).removeGeofences(any(PendingIntent.class));
+		verify(geofencingClient, times(0)).removeGeofences(ArgumentMatchers.<String>anyList());
+		verify(geofencingClient, times(0)).addGeofences(any(GeofencingRequest.class), any(PendingIntent.class));
+	}
+
+	@Test
+	public void test_startMonitoringFences_afterProcessRestart_registersOnlyChangedPOIs() {
+		// setup
+		geofenceManager.startMonitoringFences(poiListA());
+		Map<String, String> persistedFences = Whitebox.getInternalState(geofenceManager, "monitoringFences");
+		Mockito.reset(geofencingClient);
+		Mockito.when(geofencingClient.addGeofences(any(GeofencingRequest.class),
+					 eq(geofencePendingIntent))).thenReturn(addTask);
+
+		// a new process loads the fences persisted by the previous one
+		geofenceManager = new PlacesGeofenceManager();
+		Whitebox.setInternalState(geofenceManager, "monitoringFences",
+								  new ConcurrentHashMap<String, String>(persistedFences));
+
+		// test
+		geofenceManager.startMonitoringFences(poiListA());
+
+		// verify the fences persisted by the previous process are not registered again
+		verify(geofencingClient, times(0)).addGeofences(any(GeofencingRequest.class), any(PendingIntent.class));
+		verify(geofencingClient, times(0)).removeGeofences(ArgumentMatchers.<String>anyList());
+	}
+
+	@Test
+	public void test_startMonitoringFences_when_nearByPOIsChanged() {
+		// setup
+		final ArgumentCaptor<List<String>> removedFences = ArgumentCaptor.forClass(List.class);
+		final ArgumentCaptor<GeofencingRequest> addedFences = ArgumentCaptor.forClass(GeofencingRequest.class);
+		geofenceManager.startMonitoringFences(poiListA());
+
+		// test
+		geofenceManager.startMonitoringFences(poiListB());
+
+		// verify only the fences that are no longer nearby are removed
+		verify(geofencingClient, times(0)).removeGeofences(any(PendingIntent.class));
+		verify(geofencingClient, times(1)).removeGeofences(removedFences.capture());
+		assertEquals(3, removedFences.getValue().size());
+		assertTrue(removedFences.getValue().contains("id1"));
+		assertTrue(removedFences.getValue().contains("id2"));
+		assertTrue(removedFences.getValue().contains("id4"));
+
+		// verify only the new fences are added
+		verify(geofencingClient, times(2)).addGeofences(addedFences.capture(), eq(geofencePendingIntent));
+		assertEquals(2, addedFences.getValue().getGeofences().size());
+
+		// verify the monitored fences
+		Map<String, String> monitoringFences = Whitebox.getInternalState(geofenceManager, "monitoringFences");
+		assertEquals(poiSetB(), monitoringFences.keySet());
+	}
+
+	@Test
+	public void test_startMonitoringFences_when_poiRegionChanged() {
+		// setup
 		final ArgumentCaptor<GeofencingRequest> addedFences = ArgumentCaptor.forClass(GeofencingRequest.class);
-		final ArgumentCaptor<OnSuccessListener> onSuccessCallbackRemoveFences = ArgumentCaptor.forClass(
-					OnSuccessListener.class);
+		geofenceManager.startMonitoringFences(poiListB());
+		List<PlacesPOI> movedPOIs = poiListB();
+		movedPOIs.set(0, new PlacesPOI("id3", "name3", 22.22, 33.33, 250, "libraryID", 200, null));
+
+		// test
+		geofenceManager.startMonitoringFences(movedPOIs);
+
+		// verify the moved fence is registered again
+		verify(geofencingClient, times(0)).removeGeofences(ArgumentMatchers.<String>anyList());
+		verify(geofencingClient, times(2)).addGeofences(addedFences.capture(), eq(geofencePendingIntent));
+		assertEquals(1, addedFences.getValue().getGeofences().size());
+		assertEquals("id3", addedFences.getValue().getGeofences().get(0).getRequestId());
+	}
+
+	@Test
+	public void test_startMonitoringFences_onFailureToRemoveOldFences_stillAddsNewPOIs() {
+		// setup
 		final ArgumentCaptor<OnFailureListener> onFailureCallbackRemoveFences = ArgumentCaptor.forClass(
 					OnFailureListener.class);
+		final ArgumentCaptor<GeofencingRequest> addedFences = ArgumentCaptor.forClass(GeofencingRequest.class);
+		geofenceManager.startMonitoringFences(poiListC());
 
 		// test
 		geofenceManager.startMonitoringFences(poiListA());
 
-		// verify the removal of all old pois
-		verify(geofencingClient, times(1)).removeGeofences(any(PendingIntent.class));
-		verify(removeTask, times(1)).addOnSuccessListener(onSuccessCallbackRemoveFences.capture());
+		// verify the removal of old pois
+		verify(geofencingClient, times(1)).removeGeofences(ArgumentMatchers.<String>anyList());
 		verify(removeTask, times(1)).addOnFailureListener(onFailureCallbackRemoveFences.capture());
 
 		// trigger the failure callback for removal
 		onFailureCallbackRemoveFences.getValue().onFailure(new Exception());
 
 		// verify the addition of new pois
-		verify(geofencingClient, times(1)).addGeofences(addedFences.capture(), eq(geofencePendingIntent));
-		verify(addTask, times(1)).addOnSuccessListener(onSuccessCallback.capture());
-		verify(addTask, times(1)).addOnFailureListener(onFailureCallback.capture());
-
-		// verify the added pois are correct
+		verify(geofencingClient, times(2)).addGeofences(addedFences.capture(), eq(geofencePendingIntent));
 		assertEquals("pois added for monitoring should be correct", 4, addedFences.getValue().getGeofences().size());
 
-		// trigger success callback
-		onSuccessCallback.getValue().onSuccess(mockVoid);
+		// verify the old pois are not monitored anymore
+		Map<String, String> monitoringFences = Whitebox.getInternalState(geofenceManager, "monitoringFences");
+		assertEquals(poiSetA(), monitoringFences.keySet());
 	}
 
 	@Test
@@ -206,18 +290,10 @@ public class PlacesGeofenceManagerTests {
 		final ArgumentCaptor<OnSuccessListener> onSuccessCallback = ArgumentCaptor.forClass(OnSuccessListener.class);
 		final ArgumentCaptor<OnFailureListener> onFailureCallback = ArgumentCaptor.forClass(OnFailureListener.class);
 		final ArgumentCaptor<GeofencingRequest> addedFences = ArgumentCaptor.forClass(GeofencingRequest.class);
-		final ArgumentCaptor<OnSuccessListener> onSuccessCallbackRemoveFences = ArgumentCaptor.forClass(
-					OnSuccessListener.class);
 
 		// test
 		geofenceManager.startMonitoringFences(poiListA());
 
-		// capture the removal callback
-		verify(removeTask, times(1)).addOnSuccessListener(onSuccessCallbackRemoveFences.capture());
-
-		// trigger the success callback for removal
-		onSuccessCallbackRemoveFences.getValue().onSuccess(mockVoid);
-
 		// verify the addition of new pois
 		verify(geofencingClient, times(1)).addGeofences(addedFences.capture(), eq(geofencePendingIntent));
 		verify(addTask, times(1)).addOnSuccessListener(onSuccessCallback.capture());
@@ -229,9 +305,12 @@ public class PlacesGeofenceManagerTests {
 		// trigger failure callback
 		onFailureCallback.getValue().onFailure(new Exception());
 
-		// verify processGeofence is called twice for the newly entered poi
-		verifyStatic(Places.class, Mockito.times(2));
-		Places.processGeofence(any(Geofence.class), eq(Geofence.GEOFENCE_TRANSITION_ENTER));
+		// verify the failed fences are not recorded as monitored
+		Map<String, String> monitoringFences = Whitebox.getInternalState(geofenceManager, "monitoringFences");
+		assertEquals(0, monitoringFences.size());
+
+		// verify a region entry is dispatched for each newly entered poi
+		assertEquals(2, dispatchedRegionEvents(PlacesMonitorTestConstants.EventDataKey.GEOFENCE_TYPE_ENTRY).size());
 	}
 
 	@Test
@@ -239,16 +318,16 @@ public class PlacesGeofenceManagerTests {
 		Mockito.when(geofencingClient.addGeofences(any(GeofencingRequest.class),
 					 eq(geofencePendingIntent))).thenThrow(SecurityException.class);
 
-		// setup other captors
-		final ArgumentCaptor<GeofencingRequest> addedFences = ArgumentCaptor.forClass(GeofencingRequest.class);
-
 		// test
 		geofenceManager.startMonitoringFences(poiListA());
 
 		// verify method calls
-		verify(geofencingClient, times(1)).removeGeofences(any(PendingIntent.class));
-		verify(geofencingClient, times(0)).addGeofences(addedFences.capture(), eq(geofencePendingIntent));
+		verify(geofencingClient, times(0)).removeGeofences(any(PendingIntent.class));
 		verify(addTask, times(0)).addOnSuccessListener(any(OnSuccessListener.class));
+
+		// verify no fences are recorded as monitored
+		Map<String, String> monitoringFences = Whitebox.getInternalState(geofenceManager, "monitoringFences");
+		assertEquals(0, monitoringFences.size());
 	}
 
 	@Test
@@ -264,6 +343,35 @@ public class PlacesGeofenceManagerTests {
 		verify(geofencingClient, times(0)).removeGeofences(any(PendingIntent.class));
 	}
 
+	@Test
+	public void test_registerPOIs_when_geoFencingClient_isNull() throws Exception {
+		// setup
+		Mockito.when(LocationServices.getGeofencingClient(context)).thenReturn(null);
+
+		// test
+		Whitebox.invokeMethod(geofenceManager, "registerPOIs", poiListA());
+
+		// verify no fences are recorded as monitored
+		verify(geofencingClient, times(0)).addGeofences(any(GeofencingRequest.class), any(PendingIntent.class));
+		Map<String, String> monitoringFences = Whitebox.getInternalState(geofenceManager, "monitoringFences");
+		assertEquals(0, monitoringFences.size());
+	}
+
+	@Test
+	public void test_unregisterFences_when_geoFencingClient_isNull() throws Exception {
+		// setup
+		Map<String, String> monitoringFences = Whitebox.getInternalState(geofenceManager, "monitoringFences");
+		monitoringFences.put("id1", "22.22;33.33;100");
+		Mockito.when(LocationServices.getGeofencingClient(context)).thenReturn(null);
+
+		// test
+		Whitebox.invokeMethod(geofenceManager, "unregisterFences", new ArrayList<String>(Arrays.asList("id1")));
+
+		// verify the fence is kept to be unregistered on the next refresh
+		verify(geofencingClient, times(0)).removeGeofences(ArgumentMatchers.<String>anyList());
+		assertEquals(1, monitoringFences.size());
+	}
+
 	@Test
 	public void test_startMonitoringFences_when_permissionDenied() {
 		// initial setup with no pois being monitored
@@ -274,8 +382,11 @@ public class PlacesGeofenceManagerTests {
 
 		// verify method calls
 		verify(geofencingClient, times(0)).addGeofences(any(GeofencingRequest.class), eq(geofencePendingIntent));
-		verify(geofencingClient, times(1)).removeGeofences(any(PendingIntent.class));
+		verify(geofencingClient, times(0)).removeGeofences(any(PendingIntent.class));
 
+		// verify no fences are recorded as monitored
+		Map<String, String> monitoringFences = Whitebox.getInternalState(geofenceManager, "monitoringFences");
+		assertEquals(0, monitoringFences.size());
 	}
 
 	@Test
@@ -315,13 +426,11 @@ public class PlacesGeofenceManagerTests {
 		// setup
 		HashSet<String> initialUserWithinGeofenceSet = new HashSet<String>();
 		initialUserWithinGeofenceSet.add("id1");
-		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", initialUserWithinGeofenceSet);
+		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", new PlacesMonitorIdentifierSet(initialUserWithinGeofenceSet));
 
 		final ArgumentCaptor<OnSuccessListener> onSuccessCallback = ArgumentCaptor.forClass(OnSuccessListener.class);
 		final ArgumentCaptor<OnFailureListener> onFailureCallback = ArgumentCaptor.forClass(OnFailureListener.class);
 		final ArgumentCaptor<Set<String>> persistedPOICaptor = ArgumentCaptor.forClass(Set.class);
-		Whitebox.setInternalState(geofenceManager, "geofencingClient", geofencingClient);
-		Whitebox.setInternalState(geofenceManager, "geofencePendingIntent", geofencePendingIntent);
 
 		// test
 		geofenceManager.stopMonitoringFences(true);
@@ -335,14 +444,17 @@ public class PlacesGeofenceManagerTests {
 		onSuccessCallback.getValue().onSuccess(mockVoid);
 
 		// verify internal state of userWithGeofence
-		HashSet<String> resultUserWithInGeofences = Whitebox.getInternalState(geofenceManager, "userWithinGeofences");
+		Set<String> resultUserWithInGeofences = Whitebox.getInternalState(geofenceManager, "userWithinGeofences");
 		assertEquals(0, resultUserWithInGeofences.size());
 
-		// verify interaction with SharedPreference
-		verify(mockSharedPreference, times(1)).edit();
+		// verify interaction with SharedPreference, the monitoring fences and their boot time are removed
+		verify(mockSharedPreference, times(2)).edit();
 		verify(mockSharedPreferenceEditor, times(1)).remove(eq(
-					PlacesMonitorTestConstants.SharedPreference.USERWITHIN_GEOFENCES_KEY));
-		verify(mockSharedPreferenceEditor, times(1)).commit();
+					PlacesMonitorTestConstants.SharedPreference.MONITORING_GEOFENCES_KEY));
+		verify(mockSharedPreferenceEditor, times(2)).apply();
+
+		// verify the cleared userWithinGeofences are journaled
+		assertEquals(new HashSet<String>(), new PlacesMonitorGeofenceJournal().replay());
 	}
 
 	@Test
@@ -350,13 +462,11 @@ public class PlacesGeofenceManagerTests {
 		// setup
 		HashSet<String> initialUserWithinGeofenceSet = new HashSet<String>();
 		initialUserWithinGeofenceSet.add("id1");
-		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", initialUserWithinGeofenceSet);
+		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", new PlacesMonitorIdentifierSet(initialUserWithinGeofenceSet));
 
 		final ArgumentCaptor<OnSuccessListener> onSuccessCallback = ArgumentCaptor.forClass(OnSuccessListener.class);
 		final ArgumentCaptor<OnFailureListener> onFailureCallback = ArgumentCaptor.forClass(OnFailureListener.class);
 		final ArgumentCaptor<Set<String>> persistedPOICaptor = ArgumentCaptor.forClass(Set.class);
-		Whitebox.setInternalState(geofenceManager, "geofencingClient", geofencingClient);
-		Whitebox.setInternalState(geofenceManager, "geofencePendingIntent", geofencePendingIntent);
 
 		// test
 		geofenceManager.stopMonitoringFences(false);
@@ -370,11 +480,15 @@ public class PlacesGeofenceManagerTests {
 		onSuccessCallback.getValue().onSuccess(mockVoid);
 
 		// verify internal state of userWithGeofence
-		HashSet<String> resultUserWithInGeofences = Whitebox.getInternalState(geofenceManager, "userWithinGeofences");
+		Set<String> resultUserWithInGeofences = Whitebox.getInternalState(geofenceManager, "userWithinGeofences");
 		assertEquals(1, resultUserWithInGeofences.size());
 
-		// verify interaction with SharedPreference
-		verify(mockSharedPreference, times(0)).edit();
+		// verify interaction with SharedPreference, only the monitoring fences are cleared
+		verify(mockSharedPreference, times(2)).edit();
+		verify(mockSharedPreferenceEditor, times(0)).remove(eq(
+					PlacesMonitorTestConstants.SharedPreference.USERWITHIN_GEOFENCES_KEY));
+		verify(mockSharedPreferenceEditor, times(1)).remove(eq(
+					PlacesMonitorTestConstants.SharedPreference.MONITORING_GEOFENCES_KEY));
 	}
 
 	@Test
@@ -440,7 +554,6 @@ public class PlacesGeofenceManagerTests {
 	@Test
 	public void test_onGeofenceTransitionReceived() {
 		// setup
-		final ArgumentCaptor<Geofence> geofenceCaptor = ArgumentCaptor.forClass(Geofence.class);
 		List<String> geofenceTransitionIDs  = new ArrayList<>();
 		geofenceTransitionIDs.add("id1");
 
@@ -449,9 +562,29 @@ public class PlacesGeofenceManagerTests {
 				Geofence.GEOFENCE_TRANSITION_ENTER));
 
 		// verify
-		verifyStatic(Places.class, Mockito.times(1));
-		Places.processGeofence(geofenceCaptor.capture(), eq(Geofence.GEOFENCE_TRANSITION_ENTER));
-		assertEquals("id1", geofenceCaptor.getValue().getRequestId());
+		final List<Event> regionEvents = dispatchedRegionEvents(PlacesMonitorTestConstants.EventDataKey.GEOFENCE_TYPE_ENTRY);
+		assertEquals(1, regionEvents.size());
+		assertEquals("id1", regionID(regionEvents.get(0)));
+	}
+
+	@Test
+	public void test_onGeofenceTransitionReceived_dispatchesRegionEvents() {
+		// setup
+		geofenceManager.startMonitoringFences(poiListA());
+
+		// test
+		geofenceManager.onGeofenceTriggerReceived(geofenceTransitionEventData(Arrays.asList("id3", "id4"),
+				Geofence.GEOFENCE_TRANSITION_ENTER));
+
+		// verify a region event is dispatched for each fence of the trigger, after the entries of id1 and id2
+		final List<Event> regionEvents = dispatchedRegionEvents(PlacesMonitorTestConstants.EventDataKey.GEOFENCE_TYPE_ENTRY);
+		assertEquals(4, regionEvents.size());
+		assertEquals("id3", regionID(regionEvents.get(2)));
+		assertEquals("id4", regionID(regionEvents.get(3)));
+
+		Map<String, Object> eventData = regionEvents.get(2).getEventData();
+		assertEquals(PlacesMonitorTestConstants.EventDataValue.REQUEST_TYPE_PROCESS_REGION_EVENT,
+					 eventData.get(PlacesMonitorTestConstants.EventDataKey.REQUEST_TYPE));
 	}
 
 	@Test
@@ -459,7 +592,7 @@ public class PlacesGeofenceManagerTests {
 		// setup
 		HashSet<String> initialUserWithinGeofenceSet = new HashSet<String>();
 		initialUserWithinGeofenceSet.add("id1");
-		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", initialUserWithinGeofenceSet);
+		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", new PlacesMonitorIdentifierSet(initialUserWithinGeofenceSet));
 
 		// prepare the geofence id for the OS Event
 		List<String> geofenceTransitionIDs  = new ArrayList<>();
@@ -470,17 +603,15 @@ public class PlacesGeofenceManagerTests {
 				Geofence.GEOFENCE_TRANSITION_ENTER));
 
 		// verify
-		verifyStatic(Places.class, Mockito.times(0));
-		Places.processGeofence(any(Geofence.class), anyInt());
+		assertEquals(0, dispatchedRegionEvents(null).size());
 	}
 
 	@Test
 	public void test_onGeofenceTransitionReceived_ForExit_whenPOIAlreadyEntered() {
 		// setup
-		final ArgumentCaptor<Geofence> geofenceCaptor = ArgumentCaptor.forClass(Geofence.class);
 		HashSet<String> initialUserWithinGeofenceSet = new HashSet<String>();
 		initialUserWithinGeofenceSet.add("id1");
-		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", initialUserWithinGeofenceSet);
+		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", new PlacesMonitorIdentifierSet(initialUserWithinGeofenceSet));
 
 		// prepare the geofenceIDs for the OS Event
 		List<String> geofenceTransitionIDs  = new ArrayList<>();
@@ -491,20 +622,19 @@ public class PlacesGeofenceManagerTests {
 				Geofence.GEOFENCE_TRANSITION_EXIT));
 
 		// verify
-		verifyStatic(Places.class, Mockito.times(1));
-		Places.processGeofence(geofenceCaptor.capture(), eq(Geofence.GEOFENCE_TRANSITION_EXIT));
+		final List<Event> regionEvents = dispatchedRegionEvents(PlacesMonitorTestConstants.EventDataKey.GEOFENCE_TYPE_EXIT);
+		assertEquals(1, regionEvents.size());
 
 		// verify result
-		HashSet<String> resultUserWithInGeofences = Whitebox.getInternalState(geofenceManager, "userWithinGeofences");
+		Set<String> resultUserWithInGeofences = Whitebox.getInternalState(geofenceManager, "userWithinGeofences");
 		assertEquals(0, resultUserWithInGeofences.size());
-		assertEquals("id1", geofenceCaptor.getValue().getRequestId());
+		assertEquals("id1", regionID(regionEvents.get(0)));
 	}
 
 	@Test
 	public void test_onGeofenceTransitionReceived_ForExit_whenPOINotAlreadyEntered() {
 		// setup
-		final ArgumentCaptor<Geofence> geofenceCaptor = ArgumentCaptor.forClass(Geofence.class);
-		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", new HashSet<String>());
+		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", new PlacesMonitorIdentifierSet());
 
 		// prepare the geofenceIDs for the OS Event
 		List<String> geofenceTransitionIDs  = new ArrayList<>();
@@ -515,47 +645,564 @@ public class PlacesGeofenceManagerTests {
 				Geofence.GEOFENCE_TRANSITION_EXIT));
 
 		// verify that exit event goes out, if the poi is not already entered.
-		verifyStatic(Places.class, Mockito.times(1));
-		Places.processGeofence(geofenceCaptor.capture(), eq(Geofence.GEOFENCE_TRANSITION_EXIT));
+		final List<Event> regionEvents = dispatchedRegionEvents(PlacesMonitorTestConstants.EventDataKey.GEOFENCE_TYPE_EXIT);
+		assertEquals(1, regionEvents.size());
 
 		// verify result
-		HashSet<String> resultUserWithInGeofences = Whitebox.getInternalState(geofenceManager, "userWithinGeofences");
+		Set<String> resultUserWithInGeofences = Whitebox.getInternalState(geofenceManager, "userWithinGeofences");
 		assertEquals(0, resultUserWithInGeofences.size());
-		assertEquals("id1", geofenceCaptor.getValue().getRequestId());
+		assertEquals("id1", regionID(regionEvents.get(0)));
 	}
 
 	@Test
 	public void test_onGeofenceTransitionReceived_with_noGeofences() {
 		// setup
-		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", new HashSet<String>());
+		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", new PlacesMonitorIdentifierSet());
 
 		// test
 		geofenceManager.onGeofenceTriggerReceived(geofenceTransitionEventData(new ArrayList<String>(),
 				Geofence.GEOFENCE_TRANSITION_EXIT));
 
 		// verify
-		verifyStatic(Places.class, Mockito.times(0));
-		Places.processGeofence(any(Geofence.class), anyInt());
-		HashSet<String> resultUserWithInGeofences = Whitebox.getInternalState(geofenceManager, "userWithinGeofences");
+		assertEquals(0, dispatchedRegionEvents(null).size());
+		Set<String> resultUserWithInGeofences = Whitebox.getInternalState(geofenceManager, "userWithinGeofences");
 		assertEquals(0, resultUserWithInGeofences.size());
 	}
 
 	@Test
 	public void test_onGeofenceTransitionReceived_with_invalidEventData() {
 		// setup
-		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", new HashSet<String>());
+		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", new PlacesMonitorIdentifierSet());
 
 		// test
 		geofenceManager.onGeofenceTriggerReceived(new EventData());
 
 		// verify
-		verifyStatic(Places.class, Mockito.times(0));
-		Places.processGeofence(any(Geofence.class), anyInt());
-		HashSet<String> resultUserWithInGeofences = Whitebox.getInternalState(geofenceManager, "userWithinGeofences");
+		assertEquals(0, dispatchedRegionEvents(null).size());
+		Set<String> resultUserWithInGeofences = Whitebox.getInternalState(geofenceManager, "userWithinGeofences");
 		assertEquals(0, resultUserWithInGeofences.size());
 	}
 
 
+	// ========================================================================================
+	// geofence budget
+	// ========================================================================================
+
+	@Test
+	public void test_selectPOIsWithinBudget_when_underBudget() {
+		// setup
+		List<PlacesPOI> pois = poiListA();
+
+		// test
+		List<PlacesPOI> selectedPOIs = geofenceManager.selectPOIsWithinBudget(pois, 22.22, 33.33);
+
+		// verify
+		assertEquals(pois, selectedPOIs);
+	}
+
+	@Test
+	public void test_selectPOIsWithinBudget_ranksByEdgeDistance() {
+		// setup
+		geofenceManager.setGeofenceBudget(2);
+		List<PlacesPOI> pois = new ArrayList<>();
+		pois.add(new PlacesPOI("far", "name", 22.23, 33.33, 100, "libraryID", 200, null));
+		pois.add(new PlacesPOI("near", "name", 22.221, 33.33, 100, "libraryID", 200, null));
+		pois.add(new PlacesPOI("farButLarge", "name", 22.23, 33.33, 1000, "libraryID", 200, null));
+
+		// test
+		List<PlacesPOI> selectedPOIs = geofenceManager.selectPOIsWithinBudget(pois, 22.22, 33.33);
+
+		// verify
+		assertEquals(2, selectedPOIs.size());
+		assertEquals("near", selectedPOIs.get(0).getIdentifier());
+		assertEquals("farButLarge", selectedPOIs.get(1).getIdentifier());
+	}
+
+	@Test
+	public void test_selectPOIsWithinBudget_ranksEnteredAndPriorityFirst() {
+		// setup
+		geofenceManager.setGeofenceBudget(2);
+		Map<String, String> metadata = new HashMap<>();
+		metadata.put(PlacesMonitorTestConstants.POIMetadata.PRIORITY, "10");
+		List<PlacesPOI> pois = new ArrayList<>();
+		pois.add(new PlacesPOI("near", "name", 22.221, 33.33, 100, "libraryID", 200, null));
+		pois.add(new PlacesPOI("priority", "name", 22.25, 33.33, 100, "libraryID", 200, metadata));
+		pois.add(new PlacesPOI("entered", "name", 22.3, 33.33, 100, "libraryID", 200, null));
+		Whitebox.setInternalState(geofenceManager, "userWithinGeofences",
+								  new PlacesMonitorIdentifierSet(Arrays.asList("entered")));
+
+		// test
+		List<PlacesPOI> selectedPOIs = geofenceManager.selectPOIsWithinBudget(pois, 22.22, 33.33);
+
+		// verify
+		assertEquals(2, selectedPOIs.size());
+		assertEquals("entered", selectedPOIs.get(0).getIdentifier());
+		assertEquals("priority", selectedPOIs.get(1).getIdentifier());
+	}
+
+	@Test
+	public void test_selectPOIsWithinBudget_ignoresUserWithinFlagOfPOIs() {
+		// setup
+		geofenceManager.setGeofenceBudget(1);
+		List<PlacesPOI> pois = new ArrayList<>();
+		pois.add(new PlacesPOI("near", "name", 22.221, 33.33, 100, "libraryID", 200, null));
+		PlacesPOI flaggedPOI = new PlacesPOI("flagged", "name", 22.3, 33.33, 100, "libraryID", 200, null);
+		flaggedPOI.setUserIsWithin(true);
+		pois.add(flaggedPOI);
+
+		// test
+		List<PlacesPOI> selectedPOIs = geofenceManager.selectPOIsWithinBudget(pois, 22.22, 33.33);
+
+		// verify the POI is not ranked first, its entry has not been recorded
+		assertEquals(1, selectedPOIs.size());
+		assertEquals("near", selectedPOIs.get(0).getIdentifier());
+	}
+
+	@Test
+	public void test_selectPOIsWithinBudget_withoutLocation_keepsResponseOrder() {
+		// setup
+		geofenceManager.setGeofenceBudget(2);
+		List<PlacesPOI> pois = poiListB();
+
+		// test
+		List<PlacesPOI> selectedPOIs = geofenceManager.selectPOIsWithinBudget(pois, Double.NaN, Double.NaN);
+
+		// verify
+		assertEquals(2, selectedPOIs.size());
+		assertEquals("id3", selectedPOIs.get(0).getIdentifier());
+		assertEquals("id5", selectedPOIs.get(1).getIdentifier());
+	}
+
+	@Test
+	public void test_setGeofenceBudget_isCapped() {
+		// test
+		geofenceManager.setGeofenceBudget(500);
+
+		// verify
+		assertEquals(PlacesMonitorTestConstants.MAX_GEOFENCES_COUNT, (int) Whitebox.getInternalState(geofenceManager,
+					 "geofenceBudget"));
+	}
+
+	@Test
+	public void test_startMonitoringFences_registersPOIsWithinBudget() {
+		// setup
+		final ArgumentCaptor<GeofencingRequest> addedFences = ArgumentCaptor.forClass(GeofencingRequest.class);
+		geofenceManager.setGeofenceBudget(2);
+
+		// test
+		geofenceManager.startMonitoringFences(poiListA(), 22.22, 33.33);
+
+		// verify only the entered pois are registered
+		verify(geofencingClient, times(1)).addGeofences(addedFences.capture(), eq(geofencePendingIntent));
+		assertEquals(2, addedFences.getValue().getGeofences().size());
+		Map<String, String> monitoringFences = Whitebox.getInternalState(geofenceManager, "monitoringFences");
+		assertTrue(monitoringFences.containsKey("id1"));
+		assertTrue(monitoringFences.containsKey("id2"));
+	}
+
+	// ========================================================================================
+	// startMonitoringOfflineFences
+	// ========================================================================================
+
+	@Test
+	public void test_startMonitoringOfflineFences_defersEntryUntilPlacesReturnsThePOI() {
+		// test
+		assertTrue(geofenceManager.startMonitoringOfflineFences(poiListA(), 22.22, 33.33));
+
+		// verify the fences are registered, but the entries are neither recorded nor dispatched
+		verify(geofencingClient, times(1)).addGeofences(any(GeofencingRequest.class), eq(geofencePendingIntent));
+		PlacesMonitorIdentifierSet userWithinGeofences = Whitebox.getInternalState(geofenceManager, "userWithinGeofences");
+		assertTrue(userWithinGeofences.isEmpty());
+		assertEquals(0, dispatchedRegionEvents(PlacesMonitorTestConstants.EventDataKey.GEOFENCE_TYPE_ENTRY).size());
+
+		// test the Places extension returns the pois
+		geofenceManager.startMonitoringFences(poiListA(), 22.22, 33.33);
+
+		// verify the deferred entries reach Places, without registering the fences again
+		assertEquals(4, dispatchedRegionEvents(PlacesMonitorTestConstants.EventDataKey.GEOFENCE_TYPE_ENTRY).size());
+		verify(geofencingClient, times(1)).addGeofences(any(GeofencingRequest.class), eq(geofencePendingIntent));
+	}
+
+	@Test
+	public void test_startMonitoringOfflineFences_whenPlacesKnowsThePOIs_recordsEntries() {
+		// setup
+		geofenceManager.startMonitoringFences(poiListB(), 0, 0);
+
+		// test
+		assertFalse(geofenceManager.startMonitoringOfflineFences(poiListB(), 22.22, 33.33));
+
+		// verify
+		assertEquals(3, dispatchedRegionEvents(PlacesMonitorTestConstants.EventDataKey.GEOFENCE_TYPE_ENTRY).size());
+	}
+
+	@Test
+	public void test_startMonitoringOfflineFences_whenPlacesNoLongerKnowsCachedPOIs_defersEntries() {
+		// setup the pois are cached, then Places is queried for another area
+		geofenceManager.startMonitoringFences(poiListA(), 22.22, 33.33);
+		geofenceManager.startMonitoringFences(poiListC(), 0, 0);
+
+		// test the cached pois are monitored again
+		assertTrue(geofenceManager.startMonitoringOfflineFences(poiListA(), 22.22, 33.33));
+
+		// verify only the first entries reached Places
+		assertEquals(4, dispatchedRegionEvents(PlacesMonitorTestConstants.EventDataKey.GEOFENCE_TYPE_ENTRY).size());
+	}
+
+	@Test
+	public void test_startMonitoringOfflineFences_whenUserIsNotWithin_doesNotDeferEntries() {
+		// test and verify
+		assertFalse(geofenceManager.startMonitoringOfflineFences(poiListA(), 0, 0));
+	}
+
+	// ========================================================================================
+	// refresh fence
+	// ========================================================================================
+
+	@Test
+	public void test_startMonitoringFences_withRefreshFenceEnabled() {
+		// setup
+		final ArgumentCaptor<GeofencingRequest> addedFences = ArgumentCaptor.forClass(GeofencingRequest.class);
+		geofenceManager.setRefreshFenceEnabled(true);
+
+		// test
+		geofenceManager.startMonitoringFences(poiListA(), 22.22, 33.33);
+
+		// verify the refresh fence is registered along with the pois
+		verify(geofencingClient, times(1)).addGeofences(addedFences.capture(), eq(geofencePendingIntent));
+		assertEquals(5, addedFences.getValue().getGeofences().size());
+		Map<String, String> monitoringFences = Whitebox.getInternalState(geofenceManager, "monitoringFences");
+		assertTrue(monitoringFences.containsKey(PlacesMonitorTestConstants.RefreshFence.IDENTIFIER));
+	}
+
+	@Test
+	public void test_startMonitoringFences_withRefreshFenceEnabled_withoutLocation() {
+		// setup
+		final ArgumentCaptor<GeofencingRequest> addedFences = ArgumentCaptor.forClass(GeofencingRequest.class);
+		geofenceManager.setRefreshFenceEnabled(true);
+
+		// test
+		geofenceManager.startMonitoringFences(poiListA());
+
+		// verify the refresh fence is not registered
+		verify(geofencingClient, times(1)).addGeofences(addedFences.capture(), eq(geofencePendingIntent));
+		assertEquals(4, addedFences.getValue().getGeofences().size());
+		Map<String, String> monitoringFences = Whitebox.getInternalState(geofenceManager, "monitoringFences");
+		assertFalse(monitoringFences.containsKey(PlacesMonitorTestConstants.RefreshFence.IDENTIFIER));
+	}
+
+	@Test
+	public void test_selectPOIsWithinBudget_withRefreshFenceEnabled_keepsOneGeofence() {
+		// setup
+		geofenceManager.setGeofenceBudget(PlacesMonitorTestConstants.MAX_GEOFENCES_COUNT);
+		geofenceManager.setRefreshFenceEnabled(true);
+		List<PlacesPOI> pois = new ArrayList<>();
+
+		for (int i = 0; i < PlacesMonitorTestConstants.MAX_GEOFENCES_COUNT; i++) {
+			pois.add(new PlacesPOI("id" + i, "name", 22.22, 33.33, 100, "libraryID", 200, null));
+		}
+
+		// test
+		List<PlacesPOI> selectedPOIs = geofenceManager.selectPOIsWithinBudget(pois, 22.22, 33.33);
+
+		// verify
+		assertEquals(PlacesMonitorTestConstants.MAX_GEOFENCES_COUNT - 1, selectedPOIs.size());
+	}
+
+	@Test
+	public void test_onGeofenceTriggerReceived_refreshFenceExit() {
+		// setup
+		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", new PlacesMonitorIdentifierSet(new HashSet<String>(Arrays.asList("id1"))));
+
+		// test
+		boolean needsRefresh = geofenceManager.onGeofenceTriggerReceived(geofenceTransitionEventData(Arrays.asList(
+								   PlacesMonitorTestConstants.RefreshFence.IDENTIFIER, "id1"), Geofence.GEOFENCE_TRANSITION_EXIT));
+
+		// verify only the poi exit is dispatched to Places
+		assertTrue(needsRefresh);
+		assertEquals(1, dispatchedRegionEvents(null).size());
+	}
+
+	@Test
+	public void test_onGeofenceTriggerReceived_refreshFenceEntry() {
+		// test
+		boolean needsRefresh = geofenceManager.onGeofenceTriggerReceived(geofenceTransitionEventData(Arrays.asList(
+								   PlacesMonitorTestConstants.RefreshFence.IDENTIFIER), Geofence.GEOFENCE_TRANSITION_ENTER));
+
+		// verify
+		assertFalse(needsRefresh);
+		assertEquals(0, dispatchedRegionEvents(null).size());
+	}
+
+	// ========================================================================================
+	// dwell
+	// ========================================================================================
+
+	@Test
+	public void test_startMonitoringFences_withLoiteringDelay_registersForDwell() {
+		// setup
+		final ArgumentCaptor<GeofencingRequest> addedFences = ArgumentCaptor.forClass(GeofencingRequest.class);
+		List<PlacesPOI> pois = new ArrayList<>();
+		PlacesPOI dwellPOI = dwellPOI("id1", "30");
+		dwellPOI.setUserIsWithin(true);
+		pois.add(dwellPOI);
+
+		// test
+		geofenceManager.startMonitoringFences(pois);
+
+		// verify the fence reports a dwell if the user is already inside
+		verify(geofencingClient, times(1)).addGeofences(addedFences.capture(), eq(geofencePendingIntent));
+		assertEquals(GeofencingRequest.INITIAL_TRIGGER_DWELL, addedFences.getValue().getInitialTrigger());
+
+		// verify the entry is not dispatched until the dwell is confirmed
+		assertEquals(0, dispatchedRegionEvents(null).size());
+		Set<String> resultUserWithInGeofences = Whitebox.getInternalState(geofenceManager, "userWithinGeofences");
+		assertEquals(0, resultUserWithInGeofences.size());
+	}
+
+	@Test
+	public void test_startMonitoringFences_withoutLoiteringDelay_noInitialTrigger() {
+		// setup
+		final ArgumentCaptor<GeofencingRequest> addedFences = ArgumentCaptor.forClass(GeofencingRequest.class);
+
+		// test
+		geofenceManager.startMonitoringFences(poiListA());
+
+		// verify
+		verify(geofencingClient, times(1)).addGeofences(addedFences.capture(), eq(geofencePendingIntent));
+		assertEquals(0, addedFences.getValue().getInitialTrigger());
+	}
+
+	@Test
+	public void test_startMonitoringFences_when_loiteringDelayChanged() {
+		// setup
+		final ArgumentCaptor<GeofencingRequest> addedFences = ArgumentCaptor.forClass(GeofencingRequest.class);
+		List<PlacesPOI> pois = new ArrayList<>();
+		pois.add(dwellPOI("id1", "30"));
+		geofenceManager.startMonitoringFences(pois);
+		pois.set(0, dwellPOI("id1", "60"));
+
+		// test
+		geofenceManager.startMonitoringFences(pois);
+
+		// verify the fence is registered again
+		verify(geofencingClient, times(2)).addGeofences(addedFences.capture(), eq(geofencePendingIntent));
+		assertEquals("id1", addedFences.getValue().getGeofences().get(0).getRequestId());
+	}
+
+	@Test
+	public void test_startMonitoringFences_withInvalidLoiteringDelay_registersForEntry() {
+		// setup
+		List<PlacesPOI> pois = new ArrayList<>();
+		PlacesPOI poi = dwellPOI("id1", "invalid");
+		poi.setUserIsWithin(true);
+		pois.add(poi);
+
+		// test
+		geofenceManager.startMonitoringFences(pois);
+
+		// verify the entry is dispatched right away
+		assertEquals(1, dispatchedRegionEvents(PlacesMonitorTestConstants.EventDataKey.GEOFENCE_TYPE_ENTRY).size());
+		Map<String, String> monitoringFences = Whitebox.getInternalState(geofenceManager, "monitoringFences");
+		assertEquals("22.22;33.33;100", monitoringFences.get("id1"));
+	}
+
+	@Test
+	public void test_findNewlyEnteredPOIs_keepsConfirmedDwell() {
+		// setup
+		HashSet<String> initialUserWithinGeofenceSet = new HashSet<String>();
+		initialUserWithinGeofenceSet.add("id1");
+		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", new PlacesMonitorIdentifierSet(initialUserWithinGeofenceSet));
+		List<PlacesPOI> nearByPOIs = new ArrayList<PlacesPOI>();
+		nearByPOIs.add(dwellPOI("id1", "30"));
+
+		// test
+		List<PlacesPOI> newlyEnteredPOI = geofenceManager.findNewlyEnteredPOIs(nearByPOIs);
+
+		// verify the dwell confirmed by the OS is kept
+		assertEquals(0, newlyEnteredPOI.size());
+		Set<String> resultUserWithInGeofences = Whitebox.getInternalState(geofenceManager, "userWithinGeofences");
+		assertTrue(resultUserWithInGeofences.contains("id1"));
+	}
+
+	@Test
+	public void test_getCuratedGeofencesList_forDwellFence() {
+		// setup
+		List<PlacesPOI> pois = new ArrayList<>();
+		pois.add(dwellPOI("id1", "30"));
+		geofenceManager.startMonitoringFences(pois);
+		List<String> geofenceIDs = new ArrayList<>();
+		geofenceIDs.add("id1");
+
+		// test and verify the entry is ignored
+		assertEquals(0, geofenceManager.getCuratedGeofencesList(geofenceIDs, Geofence.GEOFENCE_TRANSITION_ENTER).size());
+
+		// test and verify the dwell confirms the entry
+		assertEquals(geofenceIDs, geofenceManager.getCuratedGeofencesList(geofenceIDs, Geofence.GEOFENCE_TRANSITION_DWELL));
+		assertEquals(0, geofenceManager.getCuratedGeofencesList(geofenceIDs, Geofence.GEOFENCE_TRANSITION_DWELL).size());
+
+		// test and verify the exit is processed after the dwell
+		assertEquals(geofenceIDs, geofenceManager.getCuratedGeofencesList(geofenceIDs, Geofence.GEOFENCE_TRANSITION_EXIT));
+
+		// test and verify the exit without a confirmed dwell is ignored
+		assertEquals(0, geofenceManager.getCuratedGeofencesList(geofenceIDs, Geofence.GEOFENCE_TRANSITION_EXIT).size());
+	}
+
+	@Test
+	public void test_onGeofenceTransitionReceived_ForDwell() {
+		// setup
+		List<String> geofenceTransitionIDs  = new ArrayList<>();
+		geofenceTransitionIDs.add("id1");
+
+		// test
+		geofenceManager.onGeofenceTriggerReceived(geofenceTransitionEventData(geofenceTransitionIDs,
+				Geofence.GEOFENCE_TRANSITION_DWELL));
+
+		// verify the dwell is processed as an entry by Places
+		final List<Event> regionEvents = dispatchedRegionEvents(PlacesMonitorTestConstants.EventDataKey.GEOFENCE_TYPE_ENTRY);
+		assertEquals(1, regionEvents.size());
+		assertEquals("id1", regionID(regionEvents.get(0)));
+		Set<String> resultUserWithInGeofences = Whitebox.getInternalState(geofenceManager, "userWithinGeofences");
+		assertTrue(resultUserWithInGeofences.contains("id1"));
+	}
+
+	@Test
+	public void test_getCuratedGeofencesList_forDwellFenceRegisteredBeforeRestart() {
+		// setup the fence is only known from its persisted signature
+		Map<String, String> monitoringFences = Whitebox.getInternalState(geofenceManager, "monitoringFences");
+		monitoringFences.put("id1", "22.22;33.33;100;dwell=30");
+		List<String> geofenceIDs = new ArrayList<>();
+		geofenceIDs.add("id1");
+
+		// test and verify the entry is ignored
+		assertEquals(0, geofenceManager.getCuratedGeofencesList(geofenceIDs, Geofence.GEOFENCE_TRANSITION_ENTER).size());
+
+		// test and verify the exit without a confirmed dwell is ignored
+		assertEquals(0, geofenceManager.getCuratedGeofencesList(geofenceIDs, Geofence.GEOFENCE_TRANSITION_EXIT).size());
+	}
+
+	// ========================================================================================
+	// region event data
+	// ========================================================================================
+
+	@Test
+	public void test_onGeofenceTriggerReceived_dispatchesOnlyTheDataReadByPlaces() {
+		// setup
+		geofenceManager.startMonitoringFences(poiListA());
+
+		// test
+		geofenceManager.onGeofenceTriggerReceived(geofenceTransitionEventData(Arrays.asList(
+					PlacesMonitorTestConstants.RefreshFence.IDENTIFIER, "id3", "unknown"), Geofence.GEOFENCE_TRANSITION_ENTER));
+
+		// verify the nearbyPOI and the unknown region are both dispatched with the request type, identifier and event type
+		final List<Event> regionEvents = dispatchedRegionEvents(PlacesMonitorTestConstants.EventDataKey.GEOFENCE_TYPE_ENTRY);
+		assertEquals(4, regionEvents.size());
+		assertEquals("id3", regionID(regionEvents.get(2)));
+		assertEquals(3, regionEvents.get(2).getEventData().size());
+		assertEquals("unknown", regionID(regionEvents.get(3)));
+		assertEquals(3, regionEvents.get(3).getEventData().size());
+	}
+
+	// ========================================================================================
+	// local exits
+	// ========================================================================================
+
+	@Test
+	public void test_startMonitoringFences_whenEnteredPOIsAreNoLongerNearby_dispatchesExits() {
+		// setup
+		geofenceManager.startMonitoringFences(poiListA());
+
+		// test
+		geofenceManager.startMonitoringFences(poiListB());
+
+		// verify
+		final List<Event> regionEvents = dispatchedRegionEvents(PlacesMonitorTestConstants.EventDataKey.GEOFENCE_TYPE_EXIT);
+		assertEquals(2, regionEvents.size());
+		assertEquals("id1", regionID(regionEvents.get(0)));
+		assertEquals("id2", regionID(regionEvents.get(1)));
+		Set<String> resultUserWithInGeofences = Whitebox.getInternalState(geofenceManager, "userWithinGeofences");
+		assertTrue(resultUserWithInGeofences.isEmpty());
+	}
+
+	@Test
+	public void test_startMonitoringFences_whenUserIsNoLongerWithinPOI_dispatchesExit() {
+		// setup
+		geofenceManager.startMonitoringFences(poiListA());
+		List<PlacesPOI> pois = poiListA();
+		pois.get(0).setUserIsWithin(false);
+
+		// test
+		geofenceManager.startMonitoringFences(pois);
+
+		// verify
+		final List<Event> regionEvents = dispatchedRegionEvents(PlacesMonitorTestConstants.EventDataKey.GEOFENCE_TYPE_EXIT);
+		assertEquals(1, regionEvents.size());
+		assertEquals("id1", regionID(regionEvents.get(0)));
+		Set<String> resultUserWithInGeofences = Whitebox.getInternalState(geofenceManager, "userWithinGeofences");
+		assertEquals(new HashSet<String>(Arrays.asList("id2")), resultUserWithInGeofences);
+	}
+
+	@Test
+	public void test_startMonitoringFences_whenNothingExited_dispatchesNoExit() {
+		// setup
+		geofenceManager.startMonitoringFences(poiListA());
+
+		// test
+		geofenceManager.startMonitoringFences(poiListA());
+
+		// verify
+		assertEquals(0, dispatchedRegionEvents(PlacesMonitorTestConstants.EventDataKey.GEOFENCE_TYPE_EXIT).size());
+	}
+
+	@Test
+	public void test_onGeofenceTriggerReceived_exitAfterLocalExit_isIgnored() {
+		// setup
+		geofenceManager.startMonitoringFences(poiListA());
+		List<PlacesPOI> pois = poiListA();
+		pois.get(0).setUserIsWithin(false);
+		geofenceManager.startMonitoringFences(pois);
+
+		// test
+		geofenceManager.onGeofenceTriggerReceived(geofenceTransitionEventData(Arrays.asList("id1"),
+				Geofence.GEOFENCE_TRANSITION_EXIT));
+
+		// verify only the local exit is dispatched
+		assertEquals(1, dispatchedRegionEvents(PlacesMonitorTestConstants.EventDataKey.GEOFENCE_TYPE_EXIT).size());
+	}
+
+	@Test
+	public void test_onGeofenceTriggerReceived_exitAfterReentry_isProcessed() {
+		// setup
+		geofenceManager.startMonitoringFences(poiListA());
+		List<PlacesPOI> pois = poiListA();
+		pois.get(0).setUserIsWithin(false);
+		geofenceManager.startMonitoringFences(pois);
+		geofenceManager.onGeofenceTriggerReceived(geofenceTransitionEventData(Arrays.asList("id1"),
+				Geofence.GEOFENCE_TRANSITION_ENTER));
+
+		// test
+		geofenceManager.onGeofenceTriggerReceived(geofenceTransitionEventData(Arrays.asList("id1"),
+				Geofence.GEOFENCE_TRANSITION_EXIT));
+
+		// verify both the local and the OS exits are dispatched
+		assertEquals(2, dispatchedRegionEvents(PlacesMonitorTestConstants.EventDataKey.GEOFENCE_TYPE_EXIT).size());
+	}
+
+	@Test
+	public void test_findNewlyEnteredPOIs_collectsExitedGeofences() {
+		// setup
+		Whitebox.setInternalState(geofenceManager, "userWithinGeofences",
+								  new PlacesMonitorIdentifierSet(Arrays.asList("id1", "id2", "id7")));
+		List<PlacesPOI> pois = poiListA();
+		pois.get(0).setUserIsWithin(false);
+		List<String> exitedGeofenceIDs = new ArrayList<String>();
+
+		// test
+		geofenceManager.findNewlyEnteredPOIs(pois, Double.NaN, Double.NaN, exitedGeofenceIDs);
+
+		// verify
+		assertEquals(new HashSet<String>(Arrays.asList("id1", "id7")), new HashSet<String>(exitedGeofenceIDs));
+	}
+
 	// ========================================================================================
 	// findNewlyEnteredPOIs
 	// ========================================================================================
@@ -563,7 +1210,7 @@ public class PlacesGeofenceManagerTests {
 	@Test
 	public void test_findNewlyEnteredPOIs_when_noInitiallyEnteredPOIs() {
 		// setup
-		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", new HashSet<String>());
+		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", new PlacesMonitorIdentifierSet());
 
 		List<PlacesPOI> nearByPOIs = new ArrayList<PlacesPOI>();
 		PlacesPOI poi2 = new PlacesPOI("id2", "name2", 22.22, 33.33, 100, "libraryID", 200, null);
@@ -580,7 +1227,7 @@ public class PlacesGeofenceManagerTests {
 		List<PlacesPOI> newlyEnteredPOI = geofenceManager.findNewlyEnteredPOIs(nearByPOIs);
 
 		// verify the stored in memory userWithinGeofences variable
-		HashSet<String> resultUserWithInGeofences = Whitebox.getInternalState(geofenceManager, "userWithinGeofences");
+		Set<String> resultUserWithInGeofences = Whitebox.getInternalState(geofenceManager, "userWithinGeofences");
 		assertEquals(2, resultUserWithInGeofences.size());
 		assertTrue(resultUserWithInGeofences.contains("id2"));
 		assertTrue(resultUserWithInGeofences.contains("id4"));
@@ -597,7 +1244,7 @@ public class PlacesGeofenceManagerTests {
 		HashSet<String> initialUserWithinGeofenceSet = new HashSet<String>();
 		initialUserWithinGeofenceSet.add("id1");
 		initialUserWithinGeofenceSet.add("id2");
-		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", initialUserWithinGeofenceSet);
+		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", new PlacesMonitorIdentifierSet(initialUserWithinGeofenceSet));
 
 		List<PlacesPOI> nearByPOIs = new ArrayList<PlacesPOI>();
 		PlacesPOI poi2 = new PlacesPOI("id2", "name2", 22.22, 33.33, 100, "libraryID", 200, null);
@@ -614,7 +1261,7 @@ public class PlacesGeofenceManagerTests {
 		List<PlacesPOI> newlyEnteredPOI = geofenceManager.findNewlyEnteredPOIs(nearByPOIs);
 
 		// verify the stored in memory userWithinGeofences variable
-		HashSet<String> resultUserWithInGeofences = Whitebox.getInternalState(geofenceManager, "userWithinGeofences");
+		Set<String> resultUserWithInGeofences = Whitebox.getInternalState(geofenceManager, "userWithinGeofences");
 		assertEquals(2, resultUserWithInGeofences.size());
 		assertTrue(resultUserWithInGeofences.contains("id2"));
 		assertTrue(resultUserWithInGeofences.contains("id4"));
@@ -630,19 +1277,58 @@ public class PlacesGeofenceManagerTests {
 		HashSet<String> initialUserWithinGeofenceSet = new HashSet<String>();
 		initialUserWithinGeofenceSet.add("id1");
 		initialUserWithinGeofenceSet.add("id2");
-		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", initialUserWithinGeofenceSet);
+		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", new PlacesMonitorIdentifierSet(initialUserWithinGeofenceSet));
 
 		// test
 		List<PlacesPOI> newlyEnteredPOI = geofenceManager.findNewlyEnteredPOIs(new ArrayList<PlacesPOI>());
 
 		// verify the stored in memory userWithinGeofences variable
-		HashSet<String> resultUserWithInGeofences = Whitebox.getInternalState(geofenceManager, "userWithinGeofences");
+		Set<String> resultUserWithInGeofences = Whitebox.getInternalState(geofenceManager, "userWithinGeofences");
 		assertEquals(0, resultUserWithInGeofences.size());
 
 		// verify newlyEntered POI
 		assertEquals(0, newlyEnteredPOI.size());
 	}
 
+	@Test
+	public void test_findNewlyEnteredPOIs_withLocation_usesPOIRadius() {
+		// setup
+		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", new PlacesMonitorIdentifierSet());
+
+		List<PlacesPOI> nearByPOIs = new ArrayList<PlacesPOI>();
+		PlacesPOI insidePOI = new PlacesPOI("id1", "name1", 22.22, 33.33, 100, "libraryID", 200, null);
+		PlacesPOI outsidePOI = new PlacesPOI("id2", "name2", 22.23, 33.33, 100, "libraryID", 200, null);
+		insidePOI.setUserIsWithin(false);
+		outsidePOI.setUserIsWithin(true);
+		nearByPOIs.add(insidePOI);
+		nearByPOIs.add(outsidePOI);
+
+		// test
+		List<PlacesPOI> newlyEnteredPOI = geofenceManager.findNewlyEnteredPOIs(nearByPOIs, 22.2201, 33.33);
+
+		// verify the location is preferred over the user within flag
+		assertEquals(1, newlyEnteredPOI.size());
+		assertEquals("id1", newlyEnteredPOI.get(0).getIdentifier());
+		Set<String> resultUserWithInGeofences = Whitebox.getInternalState(geofenceManager, "userWithinGeofences");
+		assertEquals(new HashSet<String>(Arrays.asList("id1")), resultUserWithInGeofences);
+	}
+
+	@Test
+	public void test_findNewlyEnteredPOIs_whenUnchanged_doesNotPersist() {
+		// setup
+		Whitebox.setInternalState(geofenceManager, "userWithinGeofences",
+								  new PlacesMonitorIdentifierSet(Arrays.asList("id1")));
+		PlacesPOI poi1 = new PlacesPOI("id1", "name1", 22.22, 33.33, 100, "libraryID", 200, null);
+		poi1.setUserIsWithin(true);
+
+		// test
+		List<PlacesPOI> newlyEnteredPOI = geofenceManager.findNewlyEnteredPOIs(Arrays.asList(poi1));
+
+		// verify
+		assertEquals(0, newlyEnteredPOI.size());
+		verify(mockSharedPreferenceEditor, times(0)).putStringSet(anyString(), any(Set.class));
+	}
+
 	// ========================================================================================
 	// loadMonitoringFences
 	// ========================================================================================
@@ -652,7 +1338,7 @@ public class PlacesGeofenceManagerTests {
 		// setup
 		Set<String> savedMonitoringPois = poiSetA();
 		Set<String> savedUserWithinPois = poiSetB();
-		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", new HashSet<>());
+		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", new PlacesMonitorIdentifierSet());
 
 		when(mockSharedPreference.getStringSet(eq(PlacesMonitorTestConstants.SharedPreference.USERWITHIN_GEOFENCES_KEY),
 											   any(Set.class))).thenReturn(savedUserWithinPois);
@@ -664,11 +1350,158 @@ public class PlacesGeofenceManagerTests {
 		assertEquals(savedUserWithinPois, Whitebox.getInternalState(geofenceManager, "userWithinGeofences"));
 	}
 
+	@Test
+	public void test_loadPersistedData_replaysJournal() {
+		// setup
+		assertTrue(new PlacesMonitorGeofenceJournal().save(poiSetB()));
+		when(mockSharedPreference.getStringSet(eq(PlacesMonitorTestConstants.SharedPreference.USERWITHIN_GEOFENCES_KEY),
+											   any(Set.class))).thenReturn(poiSetA());
+
+		// test
+		geofenceManager.loadPersistedData();
+
+		// verify the journal is preferred over the shared preference
+		assertEquals(poiSetB(), Whitebox.getInternalState(geofenceManager, "userWithinGeofences"));
+	}
+
+	@Test
+	public void test_loadPersistedData_afterProcessDeath_replaysTriggerTransitions() {
+		// setup
+		geofenceManager.startMonitoringFences(poiListA());
+		geofenceManager.onGeofenceTriggerReceived(geofenceTransitionEventData(Arrays.asList("id3"),
+				Geofence.GEOFENCE_TRANSITION_ENTER));
+		geofenceManager.onGeofenceTriggerReceived(geofenceTransitionEventData(Arrays.asList("id1"),
+				Geofence.GEOFENCE_TRANSITION_EXIT));
+
+		// test the process is killed, and a new process replays the journal
+		PlacesGeofenceManager restartedManager = new PlacesGeofenceManager();
+		restartedManager.loadPersistedData();
+
+		// verify the transitions reported by the OS are restored
+		assertEquals(new HashSet<String>(Arrays.asList("id2", "id3")), Whitebox.getInternalState(restartedManager,
+					 "userWithinGeofences"));
+	}
+
+	@Test
+	public void test_loadPersistedData_afterProcessDeath_replaysLocalExits() {
+		// setup
+		geofenceManager.startMonitoringFences(poiListA());
+		List<PlacesPOI> pois = poiListA();
+		pois.get(0).setUserIsWithin(false);
+		geofenceManager.startMonitoringFences(pois);
+
+		// test the process is killed, and a new process replays the journal
+		PlacesGeofenceManager restartedManager = new PlacesGeofenceManager();
+		restartedManager.loadPersistedData();
+
+		// verify the local exit is restored
+		assertEquals(new HashSet<String>(Arrays.asList("id2")), Whitebox.getInternalState(restartedManager,
+					 "userWithinGeofences"));
+	}
+
+	@Test
+	public void test_loadPersistedData_migratesSharedPreferenceToJournal() {
+		// setup
+		when(mockSharedPreference.getStringSet(eq(PlacesMonitorTestConstants.SharedPreference.USERWITHIN_GEOFENCES_KEY),
+											   any(Set.class))).thenReturn(poiSetB());
+
+		// test
+		geofenceManager.loadPersistedData();
+
+		// verify the set is moved to the journal
+		assertEquals(poiSetB(), new PlacesMonitorGeofenceJournal().replay());
+		verify(mockSharedPreferenceEditor, times(1)).remove(eq(
+					PlacesMonitorTestConstants.SharedPreference.USERWITHIN_GEOFENCES_KEY));
+	}
+
+	@Test
+	public void test_loadPersistedData_loadsMonitoringFences() {
+		// setup
+		Set<String> savedMonitoringFences = new HashSet<>();
+		savedMonitoringFences.add("id1,22.22;33.33;100");
+		savedMonitoringFences.add("id,with,commas,22.22;33.33;100");
+		savedMonitoringFences.add("invalidFence");
+		when(mockSharedPreference.getStringSet(eq(PlacesMonitorTestConstants.SharedPreference.MONITORING_GEOFENCES_KEY),
+											   any(Set.class))).thenReturn(savedMonitoringFences);
+		when(mockSharedPreference.getLong(eq(PlacesMonitorTestConstants.SharedPreference.MONITORING_GEOFENCES_BOOT_TIME_KEY),
+										  anyLong())).thenReturn(System.currentTimeMillis());
+
+		// test
+		geofenceManager.loadPersistedData();
+
+		// verify
+		Map<String, String> monitoringFences = Whitebox.getInternalState(geofenceManager, "monitoringFences");
+		assertEquals(2, monitoringFences.size());
+		assertEquals("22.22;33.33;100", monitoringFences.get("id1"));
+		assertEquals("22.22;33.33;100", monitoringFences.get("id,with,commas"));
+	}
+
+	@Test
+	public void test_loadPersistedData_ignoresMonitoringFences_whenDeviceRebooted() {
+		// setup
+		Set<String> savedMonitoringFences = new HashSet<>();
+		savedMonitoringFences.add("id1,22.22;33.33;100");
+		when(mockSharedPreference.getStringSet(eq(PlacesMonitorTestConstants.SharedPreference.MONITORING_GEOFENCES_KEY),
+											   any(Set.class))).thenReturn(savedMonitoringFences);
+		when(mockSharedPreference.getLong(eq(PlacesMonitorTestConstants.SharedPreference.MONITORING_GEOFENCES_BOOT_TIME_KEY),
+										  anyLong())).thenReturn(System.currentTimeMillis() - 86400000L);
+
+		// test
+		geofenceManager.loadPersistedData();
+
+		// verify
+		Map<String, String> monitoringFences = Whitebox.getInternalState(geofenceManager, "monitoringFences");
+		assertEquals(0, monitoringFences.size());
+	}
+
+	@Test
+	public void test_loadPersistedData_ignoresMonitoringFences_whenAppUpdated() throws Exception {
+		// setup
+		PackageManager packageManager = Mockito.mock(PackageManager.class);
+		PackageInfo packageInfo = new PackageInfo();
+		packageInfo.lastUpdateTime = System.currentTimeMillis();
+		Mockito.when(context.getPackageManager()).thenReturn(packageManager);
+		Mockito.when(packageManager.getPackageInfo(any(String.class), eq(0))).thenReturn(packageInfo);
+		Set<String> savedMonitoringFences = new HashSet<>();
+		savedMonitoringFences.add("id1,22.22;33.33;100");
+		when(mockSharedPreference.getStringSet(eq(PlacesMonitorTestConstants.SharedPreference.MONITORING_GEOFENCES_KEY),
+											   any(Set.class))).thenReturn(savedMonitoringFences);
+		when(mockSharedPreference.getLong(eq(PlacesMonitorTestConstants.SharedPreference.MONITORING_GEOFENCES_BOOT_TIME_KEY),
+										  anyLong())).thenReturn(System.currentTimeMillis());
+		when(mockSharedPreference.getLong(eq(PlacesMonitorTestConstants.SharedPreference.MONITORING_GEOFENCES_APP_UPDATE_TIME_KEY),
+										  anyLong())).thenReturn(packageInfo.lastUpdateTime - 86400000L);
+
+		// test
+		geofenceManager.loadPersistedData();
+
+		// verify
+		Map<String, String> monitoringFences = Whitebox.getInternalState(geofenceManager, "monitoringFences");
+		assertEquals(0, monitoringFences.size());
+	}
+
+	@Test
+	public void test_onGeofencesUnavailable() {
+		// setup
+		geofenceManager.startMonitoringFences(poiListA());
+		Mockito.reset(geofencingClient);
+		Mockito.when(geofencingClient.addGeofences(any(GeofencingRequest.class),
+					 eq(geofencePendingIntent))).thenReturn(addTask);
+
+		// test
+		geofenceManager.onGeofencesUnavailable();
+		geofenceManager.startMonitoringFences(poiListA());
+
+		// verify all the fences are registered again
+		final ArgumentCaptor<GeofencingRequest> addedFences = ArgumentCaptor.forClass(GeofencingRequest.class);
+		verify(geofencingClient, times(1)).addGeofences(addedFences.capture(), eq(geofencePendingIntent));
+		assertEquals(4, addedFences.getValue().getGeofences().size());
+	}
+
 	@Test
 	public void test_loadPersistedData_whenSharedPreference_isNull() {
 		// setup
 		Set<String> savedMonitoringPois = poiSetA();
-		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", new HashSet<>());
+		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", new PlacesMonitorIdentifierSet());
 		Mockito.when(context.getSharedPreferences(MONITOR_SHARED_PREFERENCE_KEY, 0)).thenReturn(null);
 
 		when(mockSharedPreference.getStringSet(eq(PlacesMonitorTestConstants.SharedPreference.USERWITHIN_GEOFENCES_KEY),
@@ -681,7 +1514,7 @@ public class PlacesGeofenceManagerTests {
 		// verify
 		verify(mockSharedPreference, times(0)).getStringSet(eq(
 					PlacesMonitorTestConstants.SharedPreference.USERWITHIN_GEOFENCES_KEY), any(Set.class));
-		HashSet<String> loadedUserWithinFences = Whitebox.getInternalState(geofenceManager, "userWithinGeofences");
+		Set<String> loadedUserWithinFences = Whitebox.getInternalState(geofenceManager, "userWithinGeofences");
 		assertEquals(0, loadedUserWithinFences.size());
 	}
 
@@ -694,53 +1527,61 @@ public class PlacesGeofenceManagerTests {
 	public void test_saveUserWithinGeofences() {
 		// setup
 		Set<String> pois = poiSetA();
-		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", pois);
-		final ArgumentCaptor<Set<String>> persistedPOICaptor = ArgumentCaptor.forClass(Set.class);
+		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", new PlacesMonitorIdentifierSet(pois));
 
 		// test
 		geofenceManager.saveUserWithinGeofences();
 
+		// verify the set is journaled and not written to the shared preference
+		assertEquals(pois, new PlacesMonitorGeofenceJournal().replay());
+		verify(mockSharedPreferenceEditor, times(0)).putStringSet(eq(
+					PlacesMonitorTestConstants.SharedPreference.USERWITHIN_GEOFENCES_KEY),
+				ArgumentMatchers.<String>anySet());
+	}
+
+	@Test
+	public void test_saveUserWithinGeofences_journalsTransitions() {
+		// setup
+		geofenceManager.startMonitoringFences(poiListA());
+
+		// test
+		geofenceManager.onGeofenceTriggerReceived(geofenceTransitionEventData(Arrays.asList("id3"),
+				Geofence.GEOFENCE_TRANSITION_ENTER));
+		geofenceManager.onGeofenceTriggerReceived(geofenceTransitionEventData(Arrays.asList("id1"),
+				Geofence.GEOFENCE_TRANSITION_EXIT));
+		geofenceManager.saveUserWithinGeofences();
+
 		// verify
-		verify(mockSharedPreference, times(1)).edit();
-		verify(mockSharedPreferenceEditor, times(1)).putStringSet(eq(
-					PlacesMonitorTestConstants.SharedPreference.USERWITHIN_GEOFENCES_KEY), persistedPOICaptor.capture());
-		verify(mockSharedPreferenceEditor, times(1)).commit();
-		assertEquals(pois, persistedPOICaptor.getValue());
+		assertEquals(new HashSet<String>(Arrays.asList("id2", "id3")), new PlacesMonitorGeofenceJournal().replay());
 	}
 
 	@Test
-	public void test_saveUserWithinGeofences_when_sharedPreference_isNull() {
+	public void test_saveUserWithinGeofences_when_filesDir_isNull() {
 		// setup
 		Set<String> pois = poiSetA();
-		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", pois);
-		Mockito.when(context.getSharedPreferences(MONITOR_SHARED_PREFERENCE_KEY, 0)).thenReturn(null);
+		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", new PlacesMonitorIdentifierSet(pois));
+		Mockito.when(context.getFilesDir()).thenReturn(null);
 
 		// test
 		geofenceManager.saveUserWithinGeofences();
 
 		// verify
+		assertFalse(new File(filesDir, PlacesMonitorTestConstants.GeofenceJournal.FILE_NAME).exists());
 		verify(mockSharedPreference, times(0)).edit();
-		verify(mockSharedPreferenceEditor, times(0)).putStringSet(eq(
-					PlacesMonitorTestConstants.SharedPreference.USERWITHIN_GEOFENCES_KEY),
-				ArgumentMatchers.<String>anySet());
-		verify(mockSharedPreferenceEditor, times(0)).commit();
 	}
 
 	@Test
-	public void test_saveUserWithinGeofences_when_sharedPreferenceEditor_isNull() {
+	public void test_saveUserWithinGeofences_when_context_isNull() {
 		// setup
 		Set<String> pois = poiSetA();
-		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", pois);
-		Mockito.when(mockSharedPreference.edit()).thenReturn(null);
+		Whitebox.setInternalState(geofenceManager, "userWithinGeofences", new PlacesMonitorIdentifierSet(pois));
+		Mockito.when(App.getAppContext()).thenReturn(null);
 
 		// test
 		geofenceManager.saveUserWithinGeofences();
 
 		// verify
-		verify(mockSharedPreferenceEditor, times(0)).putStringSet(eq(
-					PlacesMonitorTestConstants.SharedPreference.USERWITHIN_GEOFENCES_KEY),
-				ArgumentMatchers.<String>anySet());
-		verify(mockSharedPreferenceEditor, times(0)).commit();
+		assertFalse(new File(filesDir, PlacesMonitorTestConstants.GeofenceJournal.FILE_NAME).exists());
 	}
 
 
@@ -837,6 +1678,35 @@ public class PlacesGeofenceManagerTests {
 		return pois;
 	}
 
+	private PlacesPOI dwellPOI(final String identifier, final String loiteringDelay) {
+		Map<String, String> metadata = new HashMap<>();
+		metadata.put(PlacesMonitorTestConstants.POIMetadata.LOITERING_DELAY, loiteringDelay);
+		return new PlacesPOI(identifier, "name", 22.22, 33.33, 100, "libraryID", 200, metadata);
+	}
+
+	private List<Event> dispatchedRegionEvents(final String regionEventType) {
+		final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+		verifyStatic(MobileCore.class, Mockito.atLeast(0));
+		MobileCore.dispatchEvent(eventCaptor.capture(), ArgumentMatchers.<ExtensionErrorCallback<ExtensionError>>any());
+
+		List<Event> regionEvents = new ArrayList<>();
+
+		for (Event event : eventCaptor.getAllValues()) {
+			assertEquals(PlacesMonitorTestConstants.EventType.PLACES, event.getType());
+
+			if (regionEventType == null
+					|| regionEventType.equals(event.getEventData().get(PlacesMonitorTestConstants.EventDataKey.REGION_EVENT_TYPE))) {
+				regionEvents.add(event);
+			}
+		}
+
+		return regionEvents;
+	}
+
+	private String regionID(final Event regionEvent) {
+		return (String) regionEvent.getEventData().get(PlacesMonitorTestConstants.EventDataKey.REGION_ID);
+	}
+
 	private EventData geofenceTransitionEventData(final List<String> geofenceIDs, final int transitionType) {
 		return new EventData(new HashMap<String, Variant>() {
 			{
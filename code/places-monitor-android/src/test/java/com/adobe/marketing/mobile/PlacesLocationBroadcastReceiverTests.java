@@ -34,7 +34,9 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.mockito.ArgumentMatchers.*;
 
 import org.mockito.Mockito;
@@ -47,6 +49,7 @@ import org.powermock.modules.junit4.PowerMockRunner;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 
 @RunWith(PowerMockRunner.class)
@@ -105,7 +108,7 @@ public class PlacesLocationBroadcastReceiverTests {
 					 event.getSource());
 		// evaluate the eventData
 		EventData eventData = event.getData();
-		assertEquals("the event data should contain two element", 3, eventData.size());
+		assertEquals("the event data should contain five elements", 5, eventData.size());
 		assertEquals("the event data should contain the correct  event type",
 					 PlacesMonitorConstants.EventDataValue.OS_EVENT_TYPE_LOCATION_UPDATE,
 					 eventData.getString2(PlacesMonitorConstants.EventDataKey.OS_EVENT_TYPE));
@@ -113,6 +116,128 @@ public class PlacesLocationBroadcastReceiverTests {
 					 eventData.getDouble(PlacesMonitorConstants.EventDataKey.LATITUDE), 0);
 		assertEquals("the event data should contain the correct longitude", 22.22,
 					 eventData.getDouble(PlacesMonitorConstants.EventDataKey.LONGITUDE), 0);
+		List<Map<String, Object>> trajectory = (List<Map<String, Object>>) event.getEventData().get(
+				PlacesMonitorConstants.EventDataKey.TRAJECTORY);
+		assertEquals("the trajectory should contain all the received locations", 2, trajectory.size());
+		assertEquals(33.33, (Double) trajectory.get(0).get(PlacesMonitorConstants.EventDataKey.LATITUDE), 0);
+		assertEquals(44.44, (Double) trajectory.get(1).get(PlacesMonitorConstants.EventDataKey.LATITUDE), 0);
+		assertEquals(55.55, (Double) trajectory.get(1).get(PlacesMonitorConstants.EventDataKey.LONGITUDE), 0);
+	}
+
+	@Test
+	public void test_OnReceive_singleLocation_doesNotSendTrajectory() throws Exception {
+		// setup
+		when(mockLocation1.getLatitude()).thenReturn(33.33);
+		when(mockLocation1.getLongitude()).thenReturn(22.22);
+		when(mockLocation1.getTime()).thenReturn(1234567L);
+		List<Location> locationList = new ArrayList<>();
+		locationList.add(mockLocation1);
+		locationResult = LocationResult.create(locationList);
+		PowerMockito.mockStatic(LocationResult.class);
+		PowerMockito.when(LocationResult.class, "extractResult", any(Intent.class)).thenReturn(locationResult);
+
+		// test
+		receiver.onReceive(mockContext, mockIntent);
+
+		// verify
+		verifyStatic(MobileCore.class, Mockito.times(1));
+		MobileCore.dispatchEvent(eventCaptor.capture(), callbackCaptor.capture());
+		EventData eventData = eventCaptor.getValue().getData();
+		assertEquals("the event data should contain four elements", 4, eventData.size());
+		assertFalse(eventData.containsKey(PlacesMonitorConstants.EventDataKey.TRAJECTORY));
+		assertEquals("the event data should contain the location time", 1234567L,
+					 eventData.getLong(PlacesMonitorConstants.EventDataKey.TIME));
+	}
+
+	@Test
+	public void test_OnReceive_sendsAccuracySpeedAndProvider() throws Exception {
+		// setup
+		when(mockLocation1.getLatitude()).thenReturn(33.33);
+		when(mockLocation1.getLongitude()).thenReturn(22.22);
+		when(mockLocation1.getTime()).thenReturn(1234567L);
+		when(mockLocation1.hasAccuracy()).thenReturn(true);
+		when(mockLocation1.getAccuracy()).thenReturn(25f);
+		when(mockLocation1.hasSpeed()).thenReturn(true);
+		when(mockLocation1.getSpeed()).thenReturn(3f);
+		when(mockLocation1.getProvider()).thenReturn("fused");
+		List<Location> locationList = new ArrayList<>();
+		locationList.add(mockLocation1);
+		locationResult = LocationResult.create(locationList);
+		PowerMockito.mockStatic(LocationResult.class);
+		PowerMockito.when(LocationResult.class, "extractResult", any(Intent.class)).thenReturn(locationResult);
+
+		// test
+		receiver.onReceive(mockContext, mockIntent);
+
+		// verify
+		verifyStatic(MobileCore.class, Mockito.times(1));
+		MobileCore.dispatchEvent(eventCaptor.capture(), callbackCaptor.capture());
+		EventData eventData = eventCaptor.getValue().getData();
+		assertEquals("the event data should contain seven elements", 7, eventData.size());
+		assertEquals(25.0, eventData.getDouble(PlacesMonitorConstants.EventDataKey.ACCURACY), 0);
+		assertEquals(3.0, eventData.getDouble(PlacesMonitorConstants.EventDataKey.SPEED), 0);
+		assertEquals("fused", eventData.getString2(PlacesMonitorConstants.EventDataKey.PROVIDER));
+	}
+
+	@Test
+	public void test_OnReceive_selectsMostAccurateLocation() throws Exception {
+		// setup
+		initiateLocationMocking();
+		when(mockLocation1.getAccuracy()).thenReturn(100f);
+		when(mockLocation2.getAccuracy()).thenReturn(20f);
+
+		// test
+		receiver.onReceive(mockContext, mockIntent);
+
+		// verify
+		verifyStatic(MobileCore.class, Mockito.times(1));
+		MobileCore.dispatchEvent(eventCaptor.capture(), callbackCaptor.capture());
+		EventData eventData = eventCaptor.getValue().getData();
+		assertEquals(44.44, eventData.getDouble(PlacesMonitorConstants.EventDataKey.LATITUDE), 0);
+		assertEquals(55.55, eventData.getDouble(PlacesMonitorConstants.EventDataKey.LONGITUDE), 0);
+	}
+
+	@Test
+	public void test_OnReceive_selectsSignificantlyNewerLocation() throws Exception {
+		// setup
+		initiateLocationMocking();
+		when(mockLocation1.getAccuracy()).thenReturn(10f);
+		when(mockLocation1.getTime()).thenReturn(1000000L);
+		when(mockLocation2.getAccuracy()).thenReturn(500f);
+		when(mockLocation2.getTime()).thenReturn(1000000L + 180000L);
+
+		// test
+		receiver.onReceive(mockContext, mockIntent);
+
+		// verify
+		verifyStatic(MobileCore.class, Mockito.times(1));
+		MobileCore.dispatchEvent(eventCaptor.capture(), callbackCaptor.capture());
+		assertEquals(44.44, eventCaptor.getValue().getData().getDouble(PlacesMonitorConstants.EventDataKey.LATITUDE), 0);
+	}
+
+	@Test
+	public void test_getBestLocation() {
+		// setup
+		when(mockLocation1.getAccuracy()).thenReturn(50f);
+		when(mockLocation1.getTime()).thenReturn(1000000L);
+		when(mockLocation2.getAccuracy()).thenReturn(60f);
+		when(mockLocation2.getTime()).thenReturn(1010000L);
+		List<Location> locationList = new ArrayList<>();
+		locationList.add(null);
+		locationList.add(mockLocation1);
+		locationList.add(mockLocation2);
+
+		// test and verify, newer and only slightly less accurate location wins
+		assertEquals(mockLocation2, PlacesLocationBroadcastReceiver.getBestLocation(locationList));
+
+		// test and verify, newer but significantly less accurate location loses
+		when(mockLocation2.getAccuracy()).thenReturn(300f);
+		assertEquals(mockLocation1, PlacesLocationBroadcastReceiver.getBestLocation(locationList));
+
+		// test and verify, list with only null locations
+		List<Location> nullLocations = new ArrayList<>();
+		nullLocations.add(null);
+		assertNull(PlacesLocationBroadcastReceiver.getBestLocation(nullLocations));
 	}
 
 	@Test
@@ -27,12 +27,14 @@ import android.os.Build;
 
 import com.google.android.gms.common.api.ApiException;
 import com.google.android.gms.common.api.Status;
+import com.google.android.gms.location.DetectedActivity;
 import com.google.android.gms.location.FusedLocationProviderClient;
 import com.google.android.gms.location.LocationRequest;
 import com.google.android.gms.location.LocationResult;
 import com.google.android.gms.location.LocationServices;
 import com.google.android.gms.location.LocationSettingsRequest;
 import com.google.android.gms.location.LocationSettingsResponse;
+import com.google.android.gms.location.LocationSettingsStates;
 import com.google.android.gms.location.LocationSettingsStatusCodes;
 import com.google.android.gms.location.SettingsClient;
 import com.google.android.gms.tasks.OnCompleteListener;
@@ -46,13 +48,20 @@ import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 import org.powermock.reflect.Whitebox;
 
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -60,7 +69,7 @@ import static org.powermock.api.mockito.PowerMockito.verifyStatic;
 import static org.junit.Assert.*;
 
 @RunWith(PowerMockRunner.class)
-@PrepareForTest({Context.class, App.class, LocationServices.class, PendingIntent.class, LocationResult.class, Build.class, PlacesActivity.class})
+@PrepareForTest({Context.class, App.class, LocationServices.class, PendingIntent.class, LocationResult.class, Build.class, PlacesActivity.class, LocationSettingsStates.class})
 public class PlacesLocationManagerTests {
 	private PlacesLocationManager locationManager;
 
@@ -103,8 +112,16 @@ public class PlacesLocationManagerTests {
 	@Mock
 	SharedPreferences.Editor mockSharedPreferenceEditor;
 
+	@Mock
+	PlacesMonitorActivityRecognition mockActivityRecognition;
+
+	@Mock
+	ExecutorService mockExecutor;
+
 	@Before
 	public void before() {
+		PlacesMonitorClients.getInstance().reset();
+
 		PowerMockito.mockStatic(App.class);
 		PowerMockito.mockStatic(Build.class);
 		PowerMockito.mockStatic(LocationServices.class);
@@ -131,7 +148,18 @@ public class PlacesLocationManagerTests {
 			mockTaskSettingsResponse);
 		Mockito.when(locationProviderClient.getLastLocation()).thenReturn(mockTaskLocation);
 
+		// run the tasks posted to the Places Monitor executor inline
+		Mockito.when(mockPlacesMonitorInternal.getExecutor()).thenReturn(mockExecutor);
+		Mockito.doAnswer(new Answer<Void>() {
+			@Override
+			public Void answer(final InvocationOnMock invocation) {
+				((Runnable) invocation.getArgument(0)).run();
+				return null;
+			}
+		}).when(mockExecutor).execute(any(Runnable.class));
+
 		locationManager = Mockito.spy(new PlacesLocationManager(mockPlacesMonitorInternal));
+		Whitebox.setInternalState(locationManager, "activityRecognition", mockActivityRecognition);
 	}
 
 
@@ -171,8 +199,89 @@ public class PlacesLocationManagerTests {
 		assertEquals("the location small displacement should be correct",
 					 PlacesMonitorTestConstants.Location.REQUEST_SMALLEST_DISPLACEMENT,
 					 locationRequestArgumentCaptor.getValue().getSmallestDisplacement(), 0.0);
+		assertEquals("the location request max wait time should be correct",
+					 PlacesMonitorTestConstants.Location.REQUEST_MAX_WAIT_TIME,
+					 locationRequestArgumentCaptor.getValue().getMaxWaitTime());
+	}
+
+
+	@Test
+	public void test_beginLocationTracking_reusesSettingsClientAndRequest() {
+		// setup
+		final ArgumentCaptor<LocationSettingsRequest> settingsRequestCaptor = ArgumentCaptor.forClass(
+					LocationSettingsRequest.class);
+
+		// test
+		locationManager.beginLocationTracking();
+		locationManager.beginLocationTracking();
+
+		// verify the settings client is created once and the same settings request is checked twice
+		verifyStatic(LocationServices.class, times(1));
+		LocationServices.getSettingsClient(context);
+		verify(mockSettingsClient, times(2)).checkLocationSettings(settingsRequestCaptor.capture());
+		assertSame(settingsRequestCaptor.getAllValues().get(0), settingsRequestCaptor.getAllValues().get(1));
+	}
+
+	@Test
+	public void test_beginLocationTracking_whenSettingsKnownSatisfied_skipsSettingsCheck() {
+		// setup
+		final ArgumentCaptor<OnSuccessListener> onSuccessCallback = ArgumentCaptor.forClass(OnSuccessListener.class);
+		locationManager.beginLocationTracking();
+		verify(mockTaskSettingsResponse, times(1)).addOnSuccessListener(onSuccessCallback.capture());
+		onSuccessCallback.getValue().onSuccess(mockLocationSettingsResponse);
+
+		// test
+		locationManager.beginLocationTracking();
+
+		// verify the location updates are requested again without checking the location settings
+		verify(mockSettingsClient, times(1)).checkLocationSettings(any(LocationSettingsRequest.class));
+		verify(locationProviderClient, times(2)).requestLocationUpdates(any(LocationRequest.class), eq(pendingIntent));
+	}
+
+	@Test
+	public void test_beginLocationTracking_afterStopMonitoring_checksSettings() {
+		// setup
+		final ArgumentCaptor<OnSuccessListener> onSuccessCallback = ArgumentCaptor.forClass(OnSuccessListener.class);
+		locationManager.beginLocationTracking();
+		verify(mockTaskSettingsResponse, times(1)).addOnSuccessListener(onSuccessCallback.capture());
+		onSuccessCallback.getValue().onSuccess(mockLocationSettingsResponse);
+		locationManager.stopMonitoring();
+
+		// test
+		locationManager.beginLocationTracking();
+
+		// verify
+		verify(mockSettingsClient, times(2)).checkLocationSettings(any(LocationSettingsRequest.class));
 	}
 
+	@Test
+	public void test_beginLocationTracking_recordsLocationSettingsResult() {
+		// setup
+		final ArgumentCaptor<OnSuccessListener> onSuccessCallback = ArgumentCaptor.forClass(OnSuccessListener.class);
+		final ArgumentCaptor<OnFailureListener> onFailureCallback = ArgumentCaptor.forClass(OnFailureListener.class);
+		final ArgumentCaptor<LocationRequest> locationRequestCaptor = ArgumentCaptor.forClass(LocationRequest.class);
+		final LocationSettingsStates states = PowerMockito.mock(LocationSettingsStates.class);
+		Mockito.when(mockLocationSettingsResponse.getLocationSettingsStates()).thenReturn(states);
+		locationManager.beginLocationTracking();
+		verify(mockTaskSettingsResponse, times(1)).addOnSuccessListener(onSuccessCallback.capture());
+		verify(mockTaskSettingsResponse, times(1)).addOnFailureListener(onFailureCallback.capture());
+
+		// test
+		onSuccessCallback.getValue().onSuccess(mockLocationSettingsResponse);
+
+		// verify
+		verify(locationProviderClient, times(1)).requestLocationUpdates(locationRequestCaptor.capture(), eq(pendingIntent));
+		assertTrue(PlacesMonitorClients.getInstance().isLocationSettingsSatisfied(locationRequestCaptor.getValue()));
+		assertSame(states, PlacesMonitorClients.getInstance().getLocationSettingsStates());
+
+		// test
+		onFailureCallback.getValue().onFailure(new ApiException(new Status(
+				LocationSettingsStatusCodes.SETTINGS_CHANGE_UNAVAILABLE)));
+
+		// verify
+		assertFalse(PlacesMonitorClients.getInstance().isLocationSettingsSatisfied(locationRequestCaptor.getValue()));
+		assertNull(PlacesMonitorClients.getInstance().getLocationSettingsStates());
+	}
 
 	@Test
 	public void test_beginLocationTracking_when_contextIsNull() {
@@ -506,7 +615,6 @@ public class PlacesLocationManagerTests {
 		final ArgumentCaptor<OnSuccessListener> onSuccessCallback = ArgumentCaptor.forClass(OnSuccessListener.class);
 		final ArgumentCaptor<OnFailureListener> onFailureCallback = ArgumentCaptor.forClass(OnFailureListener.class);
 		Whitebox.setInternalState(locationManager, "hasMonitoringStarted", true);
-		Whitebox.setInternalState(locationManager, "fusedLocationClient", locationProviderClient);
 
 		// test
 		locationManager.updateLocation();
@@ -518,7 +626,8 @@ public class PlacesLocationManagerTests {
 		// trigger the success callback
 		onSuccessCallback.getValue().onSuccess(mockLocation);
 
-		// verify
+		// verify the location is passed on from the executor
+		verify(mockExecutor, times(1)).execute(any(Runnable.class));
 		verify(mockPlacesMonitorInternal, times(1)).getPOIsForLocation(mockLocation);
 	}
 
@@ -628,6 +737,350 @@ public class PlacesLocationManagerTests {
 	}
 
 
+	// ========================================================================================
+	// setLocationProfile
+	// ========================================================================================
+	@Test
+	public void test_setLocationProfile_whenMonitoringNotStarted() {
+		// setup
+		Whitebox.setInternalState(locationManager, "hasMonitoringStarted", false);
+
+		// test
+		locationManager.setLocationProfile(PlacesMonitorLocationProfile.BALANCED);
+
+		// verify
+		verify(locationManager, times(1)).saveRequestedLocationProfile(PlacesMonitorLocationProfile.BALANCED);
+		verify(locationProviderClient, times(0)).requestLocationUpdates(any(LocationRequest.class), any(PendingIntent.class));
+	}
+
+	@Test
+	public void test_setLocationProfile_whenMonitoringStarted() {
+		// setup
+		final ArgumentCaptor<LocationRequest> locationRequestArgumentCaptor = ArgumentCaptor.forClass(LocationRequest.class);
+		Whitebox.setInternalState(locationManager, "hasMonitoringStarted", true);
+
+		// test
+		locationManager.setLocationProfile(PlacesMonitorLocationProfile.BALANCED);
+
+		// verify the location updates are requested again with the balanced profile
+		verify(locationProviderClient, times(1)).requestLocationUpdates(locationRequestArgumentCaptor.capture(),
+				eq(pendingIntent));
+		LocationRequest locationRequest = locationRequestArgumentCaptor.getValue();
+		assertEquals(LocationRequest.PRIORITY_BALANCED_POWER_ACCURACY, locationRequest.getPriority());
+		assertEquals(PlacesMonitorTestConstants.Location.BALANCED_REQUEST_INTERVAL, locationRequest.getInterval());
+		assertEquals(PlacesMonitorTestConstants.Location.BALANCED_REQUEST_FASTEST_INTERVAL,
+					 locationRequest.getFastestInterval());
+	}
+
+	@Test
+	public void test_setLocationProfile_geofenceOnly_requestsSingleUpdate() {
+		// setup
+		final ArgumentCaptor<LocationRequest> locationRequestArgumentCaptor = ArgumentCaptor.forClass(LocationRequest.class);
+		Whitebox.setInternalState(locationManager, "hasMonitoringStarted", true);
+
+		// test
+		locationManager.setLocationProfile(PlacesMonitorLocationProfile.GEOFENCE_ONLY);
+
+		// verify a single location update is requested
+		verify(locationProviderClient, times(1)).requestLocationUpdates(locationRequestArgumentCaptor.capture(),
+				eq(pendingIntent));
+		LocationRequest locationRequest = locationRequestArgumentCaptor.getValue();
+		assertEquals(LocationRequest.PRIORITY_BALANCED_POWER_ACCURACY, locationRequest.getPriority());
+		assertEquals(1, locationRequest.getNumUpdates());
+		assertTrue(locationManager.usesRefreshFence());
+	}
+
+	@Test
+	public void test_setLocationProfile_geofenceOnly_whenDeviceIsStill_requestsSingleUpdate() {
+		// setup
+		final ArgumentCaptor<LocationRequest> locationRequestArgumentCaptor = ArgumentCaptor.forClass(LocationRequest.class);
+		Whitebox.setInternalState(locationManager, "hasMonitoringStarted", true);
+		Whitebox.setInternalState(locationManager, "activityRecognitionEnabled", true);
+		Whitebox.setInternalState(locationManager, "isStill", true);
+
+		// test
+		locationManager.setLocationProfile(PlacesMonitorLocationProfile.GEOFENCE_ONLY);
+
+		// verify the single location update does not wait for the device to move
+		verify(locationProviderClient, times(1)).requestLocationUpdates(locationRequestArgumentCaptor.capture(),
+				eq(pendingIntent));
+		assertEquals(1, locationRequestArgumentCaptor.getValue().getNumUpdates());
+		Boolean isStill = Whitebox.getInternalState(locationManager, "isStill");
+		assertFalse(isStill);
+	}
+
+	@Test
+	public void test_beginLocationTracking_withPowerSaverProfile() {
+		// setup
+		final ArgumentCaptor<OnSuccessListener> onSuccessCallback = ArgumentCaptor.forClass(OnSuccessListener.class);
+		final ArgumentCaptor<LocationRequest> locationRequestArgumentCaptor = ArgumentCaptor.forClass(LocationRequest.class);
+		locationManager.setLocationProfile(PlacesMonitorLocationProfile.POWER_SAVER);
+
+		// test
+		locationManager.beginLocationTracking();
+		verify(mockTaskSettingsResponse, times(1)).addOnSuccessListener(onSuccessCallback.capture());
+		onSuccessCallback.getValue().onSuccess(mockLocationSettingsResponse);
+
+		// verify
+		verify(locationProviderClient, times(1)).requestLocationUpdates(locationRequestArgumentCaptor.capture(),
+				eq(pendingIntent));
+		LocationRequest locationRequest = locationRequestArgumentCaptor.getValue();
+		assertEquals(LocationRequest.PRIORITY_LOW_POWER, locationRequest.getPriority());
+		assertEquals(PlacesMonitorTestConstants.Location.POWER_SAVER_REQUEST_INTERVAL, locationRequest.getInterval());
+		assertEquals(PlacesMonitorTestConstants.Location.POWER_SAVER_REQUEST_FASTEST_INTERVAL,
+					 locationRequest.getFastestInterval());
+		assertEquals(PlacesMonitorTestConstants.Location.POWER_SAVER_REQUEST_SMALLEST_DISPLACEMENT,
+					 locationRequest.getSmallestDisplacement(), 0.0);
+
+		// verify the batched locations are delivered before the location filter considers them stale
+		assertEquals(PlacesMonitorTestConstants.Location.REQUEST_MAX_WAIT_TIME, locationRequest.getMaxWaitTime());
+		assertTrue(locationRequest.getMaxWaitTime() < PlacesMonitorConstants.LocationFilter.MAX_FIX_AGE);
+	}
+
+	@Test
+	public void test_adaptiveProfile_switchesProfileOnDenseArea() {
+		// setup
+		final ArgumentCaptor<LocationRequest> locationRequestArgumentCaptor = ArgumentCaptor.forClass(LocationRequest.class);
+		Whitebox.setInternalState(locationManager, "hasMonitoringStarted", true);
+		locationManager.setLocationProfile(PlacesMonitorLocationProfile.ADAPTIVE);
+
+		// test
+		List<PlacesPOI> densePOIs = new ArrayList<PlacesPOI>();
+
+		for (int i = 0; i < 5; i++) {
+			densePOIs.add(new PlacesPOI("id" + i, "name", 22.22, 33.33, 100, "libraryID", 200, null));
+		}
+
+		locationManager.onNearbyPOIsReceived(22.22, 33.33, densePOIs);
+		// same density, no new request
+		locationManager.onNearbyPOIsReceived(22.22, 33.33, densePOIs);
+
+		// verify, the initial request uses the balanced profile and the dense area switches to the precise profile
+		verify(locationProviderClient, times(2)).requestLocationUpdates(locationRequestArgumentCaptor.capture(),
+				eq(pendingIntent));
+		assertEquals(LocationRequest.PRIORITY_BALANCED_POWER_ACCURACY,
+					 locationRequestArgumentCaptor.getAllValues().get(0).getPriority());
+		assertEquals(LocationRequest.PRIORITY_HIGH_ACCURACY, locationRequestArgumentCaptor.getAllValues().get(1).getPriority());
+	}
+
+	@Test
+	public void test_adaptiveProfile_whenMonitoringNotStarted() {
+		// setup
+		Whitebox.setInternalState(locationManager, "hasMonitoringStarted", false);
+		locationManager.setLocationProfile(PlacesMonitorLocationProfile.ADAPTIVE);
+
+		// test
+		locationManager.onNearbyPOIsReceived(22.22, 33.33, new ArrayList<PlacesPOI>());
+		locationManager.onLocationReceived(locationUpdateEventData(22.22, 33.33));
+
+		// verify
+		verify(locationProviderClient, times(0)).requestLocationUpdates(any(LocationRequest.class), any(PendingIntent.class));
+	}
+
+	@Test
+	public void test_saveRequestedLocationProfile() {
+		// test
+		locationManager.saveRequestedLocationProfile(PlacesMonitorLocationProfile.ADAPTIVE);
+
+		// verify
+		verify(mockSharedPreferenceEditor, times(1)).putString(
+			PlacesMonitorTestConstants.SharedPreference.LOCATION_PROFILE_KEY,
+			PlacesMonitorLocationProfile.ADAPTIVE.getValue());
+		verify(mockSharedPreferenceEditor, times(1)).apply();
+		PlacesMonitorLocationProfile locationProfile = Whitebox.getInternalState(locationManager,
+				"requestedLocationProfile");
+		assertEquals(PlacesMonitorLocationProfile.ADAPTIVE, locationProfile);
+	}
+
+	@Test
+	public void test_loadPersistedData_loadsLocationProfile() {
+		// setup
+		Mockito.when(mockSharedPreference.getString(PlacesMonitorTestConstants.SharedPreference.LOCATION_PROFILE_KEY,
+					 "")).thenReturn("powersaver");
+
+		// test
+		locationManager.loadPersistedData();
+
+		// verify
+		PlacesMonitorLocationProfile locationProfile = Whitebox.getInternalState(locationManager,
+				"requestedLocationProfile");
+		assertEquals(PlacesMonitorLocationProfile.POWER_SAVER, locationProfile);
+	}
+
+
+	// ========================================================================================
+	// activity recognition
+	// ========================================================================================
+
+	@Test
+	public void test_setActivityRecognitionEnabled_whenMonitoringNotStarted() {
+		// setup
+		Whitebox.setInternalState(locationManager, "hasMonitoringStarted", false);
+
+		// test
+		locationManager.setActivityRecognitionEnabled(true);
+
+		// verify
+		verify(mockSharedPreferenceEditor, times(1)).putBoolean(
+			PlacesMonitorTestConstants.SharedPreference.ACTIVITY_RECOGNITION_KEY, true);
+		verify(mockActivityRecognition, times(0)).start();
+	}
+
+	@Test
+	public void test_setActivityRecognitionEnabled_whenMonitoringStarted() {
+		// setup
+		Whitebox.setInternalState(locationManager, "hasMonitoringStarted", true);
+
+		// test
+		locationManager.setActivityRecognitionEnabled(true);
+
+		// verify
+		verify(mockActivityRecognition, times(1)).start();
+	}
+
+	@Test
+	public void test_setActivityRecognitionEnabled_disable_resumesLocationUpdates() {
+		// setup
+		Whitebox.setInternalState(locationManager, "hasMonitoringStarted", true);
+		locationManager.setActivityRecognitionEnabled(true);
+		locationManager.onActivityTransition(activityTransitionEventData(DetectedActivity.STILL));
+
+		// test
+		locationManager.setActivityRecognitionEnabled(false);
+
+		// verify
+		verify(mockActivityRecognition, times(1)).stop();
+		verify(locationProviderClient, times(1)).requestLocationUpdates(any(LocationRequest.class), eq(pendingIntent));
+	}
+
+	@Test
+	public void test_beginLocationTracking_withActivityRecognition_startsActivityRecognition() {
+		// setup
+		final ArgumentCaptor<OnSuccessListener> onSuccessCallback = ArgumentCaptor.forClass(OnSuccessListener.class);
+		Whitebox.setInternalState(locationManager, "activityRecognitionEnabled", true);
+
+		// test
+		locationManager.beginLocationTracking();
+		verify(mockTaskSettingsResponse, times(1)).addOnSuccessListener(onSuccessCallback.capture());
+		onSuccessCallback.getValue().onSuccess(mockLocationSettingsResponse);
+
+		// verify
+		verify(mockActivityRecognition, times(1)).start();
+		verify(locationProviderClient, times(1)).requestLocationUpdates(any(LocationRequest.class), eq(pendingIntent));
+	}
+
+	@Test
+	public void test_onActivityTransition_still_pausesLocationUpdates() {
+		// setup
+		Whitebox.setInternalState(locationManager, "hasMonitoringStarted", true);
+		Whitebox.setInternalState(locationManager, "activityRecognitionEnabled", true);
+
+		// test
+		locationManager.onActivityTransition(activityTransitionEventData(DetectedActivity.STILL));
+		locationManager.onActivityTransition(activityTransitionEventData(DetectedActivity.STILL));
+		locationManager.setLocationProfile(PlacesMonitorLocationProfile.BALANCED);
+
+		// verify the location updates are removed once, without stopping the monitoring
+		verify(locationProviderClient, times(1)).removeLocationUpdates(pendingIntent);
+		verify(mockTask, times(0)).addOnCompleteListener(any(OnCompleteListener.class));
+		verify(locationProviderClient, times(0)).requestLocationUpdates(any(LocationRequest.class), any(PendingIntent.class));
+		Boolean hasMonitoringStarted = Whitebox.getInternalState(locationManager, "hasMonitoringStarted");
+		assertTrue(hasMonitoringStarted);
+	}
+
+	@Test
+	public void test_onActivityTransition_walking_resumesLocationUpdatesWithPowerSaverProfile() {
+		// setup
+		final ArgumentCaptor<LocationRequest> locationRequestArgumentCaptor = ArgumentCaptor.forClass(LocationRequest.class);
+		Whitebox.setInternalState(locationManager, "hasMonitoringStarted", true);
+		Whitebox.setInternalState(locationManager, "activityRecognitionEnabled", true);
+		Whitebox.setInternalState(locationManager, "requestedLocationProfile", PlacesMonitorLocationProfile.ADAPTIVE);
+		locationManager.onActivityTransition(activityTransitionEventData(DetectedActivity.STILL));
+
+		// test
+		locationManager.onActivityTransition(activityTransitionEventData(DetectedActivity.WALKING));
+
+		// verify
+		verify(locationProviderClient, times(1)).requestLocationUpdates(locationRequestArgumentCaptor.capture(),
+				eq(pendingIntent));
+		assertEquals(LocationRequest.PRIORITY_LOW_POWER, locationRequestArgumentCaptor.getValue().getPriority());
+	}
+
+	@Test
+	public void test_onActivityTransition_inVehicle_requestsBalancedProfile() {
+		// setup
+		final ArgumentCaptor<LocationRequest> locationRequestArgumentCaptor = ArgumentCaptor.forClass(LocationRequest.class);
+		Whitebox.setInternalState(locationManager, "hasMonitoringStarted", true);
+		Whitebox.setInternalState(locationManager, "activityRecognitionEnabled", true);
+		Whitebox.setInternalState(locationManager, "requestedLocationProfile", PlacesMonitorLocationProfile.ADAPTIVE);
+
+		// test
+		locationManager.onActivityTransition(activityTransitionEventData(DetectedActivity.IN_VEHICLE));
+
+		// verify
+		verify(locationProviderClient, times(1)).requestLocationUpdates(locationRequestArgumentCaptor.capture(),
+				eq(pendingIntent));
+		assertEquals(LocationRequest.PRIORITY_BALANCED_POWER_ACCURACY, locationRequestArgumentCaptor.getValue().getPriority());
+	}
+
+	@Test
+	public void test_onActivityTransition_whenActivityRecognitionDisabled() {
+		// setup
+		Whitebox.setInternalState(locationManager, "hasMonitoringStarted", true);
+
+		// test
+		locationManager.onActivityTransition(activityTransitionEventData(DetectedActivity.STILL));
+
+		// verify
+		verify(locationProviderClient, times(0)).removeLocationUpdates(any(PendingIntent.class));
+	}
+
+	@Test
+	public void test_onActivityTransition_whenGeofenceOnlyProfile() {
+		// setup
+		Whitebox.setInternalState(locationManager, "hasMonitoringStarted", true);
+		Whitebox.setInternalState(locationManager, "activityRecognitionEnabled", true);
+		Whitebox.setInternalState(locationManager, "requestedLocationProfile", PlacesMonitorLocationProfile.GEOFENCE_ONLY);
+
+		// test
+		locationManager.onActivityTransition(activityTransitionEventData(DetectedActivity.STILL));
+		locationManager.onActivityTransition(activityTransitionEventData(DetectedActivity.WALKING));
+
+		// verify
+		verify(locationProviderClient, times(0)).removeLocationUpdates(any(PendingIntent.class));
+		verify(locationProviderClient, times(0)).requestLocationUpdates(any(LocationRequest.class), any(PendingIntent.class));
+	}
+
+	@Test
+	public void test_stopMonitoring_stopsActivityRecognition() {
+		// setup
+		Whitebox.setInternalState(locationManager, "activityRecognitionEnabled", true);
+		Whitebox.setInternalState(locationManager, "isStill", true);
+
+		// test
+		locationManager.stopMonitoring();
+
+		// verify
+		verify(mockActivityRecognition, times(1)).stop();
+		Boolean isStill = Whitebox.getInternalState(locationManager, "isStill");
+		assertFalse(isStill);
+	}
+
+	@Test
+	public void test_loadPersistedData_loadsActivityRecognition() {
+		// setup
+		Mockito.when(mockSharedPreference.getBoolean(PlacesMonitorTestConstants.SharedPreference.ACTIVITY_RECOGNITION_KEY,
+					 false)).thenReturn(true);
+
+		// test
+		locationManager.loadPersistedData();
+
+		// verify
+		Boolean activityRecognitionEnabled = Whitebox.getInternalState(locationManager, "activityRecognitionEnabled");
+		assertTrue(activityRecognitionEnabled);
+	}
+
+
 	// ========================================================================================
 	// GetPendingIntent
 	// ========================================================================================
@@ -760,6 +1213,124 @@ public class PlacesLocationManagerTests {
 		assertNotNull(locationCaptor.getValue());
 	}
 
+	@Test
+	public void test_onLocationReceived_InaccurateLocation() {
+		// setup
+		final EventData eventData = locationUpdateEventData(22.22, 33.33);
+		eventData.putDouble(PlacesMonitorConstants.EventDataKey.ACCURACY, 5000);
+
+		// test
+		locationManager.onLocationReceived(eventData);
+
+		// verify
+		verify(mockPlacesMonitorInternal, times(0)).getPOIsForLocation(any(Location.class));
+	}
+
+	@Test
+	public void test_onLocationReceived_StaleLocation() {
+		// setup
+		final EventData eventData = locationUpdateEventData(22.22, 33.33);
+		eventData.putLong(PlacesMonitorConstants.EventDataKey.TIME, System.currentTimeMillis() - 3600000L);
+
+		// test
+		locationManager.onLocationReceived(eventData);
+
+		// verify
+		verify(mockPlacesMonitorInternal, times(0)).getPOIsForLocation(any(Location.class));
+	}
+
+	@Test
+	public void test_onLocationReceived_withinFenceCluster_skipsPOIsQuery() {
+		// setup
+		locationManager.onNearbyPOIsReceived(22.22, 33.33, Collections.singletonList(new PlacesPOI("id1", "name",
+											 22.25, 33.33, 100, "libraryID", 200, null)));
+
+		final long time = System.currentTimeMillis();
+		final EventData nearbyEventData = locationUpdateEventData(22.2201, 33.33);
+		nearbyEventData.putLong(PlacesMonitorConstants.EventDataKey.TIME, time - 60000L);
+		final EventData distantEventData = locationUpdateEventData(22.30, 33.33);
+		distantEventData.putLong(PlacesMonitorConstants.EventDataKey.TIME, time);
+
+		// test
+		locationManager.onLocationReceived(nearbyEventData);
+
+		// verify
+		verify(mockPlacesMonitorInternal, times(0)).getPOIsForLocation(any(Location.class));
+
+		// test, the device moves away from the cluster
+		locationManager.onLocationReceived(distantEventData);
+
+		// verify
+		verify(mockPlacesMonitorInternal, times(1)).getPOIsForLocation(any(Location.class));
+	}
+
+	// ========================================================================================
+	// onRefreshFenceExited
+	// ========================================================================================
+
+	@Test
+	public void test_onRefreshFenceExited_withTriggeringLocation_queriesPOIs() {
+		// setup
+		Whitebox.setInternalState(locationManager, "hasMonitoringStarted", true);
+		final ArgumentCaptor<Location> locationCaptor = ArgumentCaptor.forClass(Location.class);
+
+		// test
+		locationManager.onRefreshFenceExited(locationUpdateEventData(22.22, 33.33));
+
+		// verify the POIs are queried for the exit location, without reading the last known location
+		verify(mockPlacesMonitorInternal, times(1)).getPOIsForLocation(locationCaptor.capture());
+		assertNotNull(locationCaptor.getValue());
+		verify(locationProviderClient, times(0)).getLastLocation();
+		verify(locationProviderClient, times(0)).requestLocationUpdates(any(LocationRequest.class), any(PendingIntent.class));
+	}
+
+	@Test
+	public void test_onRefreshFenceExited_withinFenceCluster_queriesPOIs() {
+		// setup
+		Whitebox.setInternalState(locationManager, "hasMonitoringStarted", true);
+		locationManager.onNearbyPOIsReceived(22.22, 33.33, Collections.singletonList(new PlacesPOI("id1", "name",
+											 22.25, 33.33, 100, "libraryID", 200, null)));
+
+		// test
+		locationManager.onRefreshFenceExited(locationUpdateEventData(22.2201, 33.33));
+
+		// verify the exit is not mistaken for a location within the monitored cluster
+		verify(mockPlacesMonitorInternal, times(1)).getPOIsForLocation(any(Location.class));
+	}
+
+	@Test
+	public void test_onRefreshFenceExited_withoutTriggeringLocation_requestsLocationFix() {
+		// setup
+		Whitebox.setInternalState(locationManager, "hasMonitoringStarted", true);
+		locationManager.onNearbyPOIsReceived(22.22, 33.33, Collections.singletonList(new PlacesPOI("id1", "name",
+											 22.25, 33.33, 100, "libraryID", 200, null)));
+		final EventData eventData = new EventData();
+
+		// test
+		locationManager.onRefreshFenceExited(eventData);
+
+		// verify a fresh location fix is requested instead of the last known location
+		verify(locationProviderClient, times(1)).requestLocationUpdates(any(LocationRequest.class), eq(pendingIntent));
+		verify(locationProviderClient, times(0)).getLastLocation();
+		verify(mockPlacesMonitorInternal, times(0)).getPOIsForLocation(any(Location.class));
+
+		// test, the fix is received within the previous cluster
+		locationManager.onLocationReceived(locationUpdateEventData(22.2201, 33.33));
+
+		// verify the POIs are queried for the fix
+		verify(mockPlacesMonitorInternal, times(1)).getPOIsForLocation(any(Location.class));
+	}
+
+	@Test
+	public void test_onRefreshFenceExited_whenMonitoringNotStarted() {
+		// test
+		locationManager.onRefreshFenceExited(locationUpdateEventData(22.22, 33.33));
+
+		// verify
+		verify(mockPlacesMonitorInternal, times(0)).getPOIsForLocation(any(Location.class));
+		verify(locationProviderClient, times(0)).requestLocationUpdates(any(LocationRequest.class), any(PendingIntent.class));
+	}
+
 	@Test
 	public void test_onLocationReceived_InvalidLatitude() {
 		// test
@@ -802,6 +1373,16 @@ public class PlacesLocationManagerTests {
 	// private helper methods
 	// ========================================================================================
 
+	private EventData activityTransitionEventData(final int activityType) {
+		return new EventData(new HashMap<String, Variant>() {
+			{
+				put(PlacesMonitorTestConstants.EventDataKey.OS_EVENT_TYPE,
+					Variant.fromString(PlacesMonitorTestConstants.EventDataValue.OS_EVENT_TYPE_ACTIVITY_TRANSITION));
+				put(PlacesMonitorTestConstants.EventDataKey.ACTIVITY_TYPE, Variant.fromInteger(activityType));
+			}
+		});
+	}
+
 	private EventData locationUpdateEventData(final double latitude, final double longitude) {
 		return new EventData(new HashMap<String, Variant>() {
 			{
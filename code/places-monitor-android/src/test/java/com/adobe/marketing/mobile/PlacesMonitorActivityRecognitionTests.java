@@ -0,0 +1,162 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorActivityRecognitionTests.java
+//
+
+package com.adobe.marketing.mobile;
+
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+
+import com.google.android.gms.location.ActivityRecognition;
+import com.google.android.gms.location.ActivityRecognitionClient;
+import com.google.android.gms.location.ActivityTransitionRequest;
+import com.google.android.gms.tasks.OnFailureListener;
+import com.google.android.gms.tasks.Task;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({App.class, ActivityRecognition.class, PendingIntent.class})
+public class PlacesMonitorActivityRecognitionTests {
+	private PlacesMonitorActivityRecognition activityRecognition;
+
+	@Mock
+	Context context;
+
+	@Mock
+	ActivityRecognitionClient activityRecognitionClient;
+
+	@Mock
+	PendingIntent pendingIntent;
+
+	@Mock
+	Task<Void> mockTask;
+
+	@Before
+	public void before() {
+		PlacesMonitorClients.getInstance().reset();
+
+		PowerMockito.mockStatic(App.class);
+		PowerMockito.mockStatic(ActivityRecognition.class);
+		PowerMockito.mockStatic(PendingIntent.class);
+		Mockito.when(App.getAppContext()).thenReturn(context);
+		Mockito.when(ActivityRecognition.getClient(context)).thenReturn(activityRecognitionClient);
+		Mockito.when(PendingIntent.getBroadcast(eq(context), eq(0), any(Intent.class),
+												eq(PendingIntent.FLAG_UPDATE_CURRENT))).thenReturn(pendingIntent);
+		Mockito.when(activityRecognitionClient.requestActivityTransitionUpdates(any(ActivityTransitionRequest.class),
+					 eq(pendingIntent))).thenReturn(mockTask);
+
+		activityRecognition = new PlacesMonitorActivityRecognition();
+	}
+
+	// ========================================================================================
+	// start
+	// ========================================================================================
+
+	@Test
+	public void test_start() {
+		// test
+		activityRecognition.start();
+		activityRecognition.start();
+
+		// verify the activity transitions are requested once
+		verify(activityRecognitionClient, times(1)).requestActivityTransitionUpdates(any(ActivityTransitionRequest.class),
+				eq(pendingIntent));
+		assertTrue(activityRecognition.isSubscribed());
+	}
+
+	@Test
+	public void test_start_whenRequestFails() {
+		// setup
+		final ArgumentCaptor<OnFailureListener> onFailureCallback = ArgumentCaptor.forClass(OnFailureListener.class);
+		activityRecognition.start();
+		verify(mockTask, times(1)).addOnFailureListener(onFailureCallback.capture());
+
+		// test
+		onFailureCallback.getValue().onFailure(new Exception("failed"));
+
+		// verify the activity transitions are requested again on the next start
+		assertFalse(activityRecognition.isSubscribed());
+		activityRecognition.start();
+		verify(activityRecognitionClient, times(2)).requestActivityTransitionUpdates(any(ActivityTransitionRequest.class),
+				eq(pendingIntent));
+	}
+
+	@Test
+	public void test_start_whenPermissionNotDeclared() {
+		// setup
+		Mockito.when(activityRecognitionClient.requestActivityTransitionUpdates(any(ActivityTransitionRequest.class),
+					 eq(pendingIntent))).thenThrow(new SecurityException("permission"));
+
+		// test
+		activityRecognition.start();
+
+		// verify
+		assertFalse(activityRecognition.isSubscribed());
+	}
+
+	@Test
+	public void test_start_whenAppContextNull() {
+		// setup
+		Mockito.when(App.getAppContext()).thenReturn(null);
+
+		// test
+		activityRecognition.start();
+
+		// verify
+		verify(activityRecognitionClient, times(0)).requestActivityTransitionUpdates(any(ActivityTransitionRequest.class),
+				any(PendingIntent.class));
+		assertFalse(activityRecognition.isSubscribed());
+	}
+
+	// ========================================================================================
+	// stop
+	// ========================================================================================
+
+	@Test
+	public void test_stop() {
+		// setup
+		activityRecognition.start();
+
+		// test
+		activityRecognition.stop();
+
+		// verify
+		verify(activityRecognitionClient, times(1)).removeActivityTransitionUpdates(pendingIntent);
+		assertFalse(activityRecognition.isSubscribed());
+	}
+
+	@Test
+	public void test_stop_whenNotStarted_removesPreviousSubscription() {
+		// test
+		activityRecognition.stop();
+
+		// verify
+		verify(activityRecognitionClient, times(1)).removeActivityTransitionUpdates(pendingIntent);
+	}
+}
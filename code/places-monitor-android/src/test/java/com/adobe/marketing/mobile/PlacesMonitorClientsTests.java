@@ -0,0 +1,145 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorClientsTests.java
+//
+
+package com.adobe.marketing.mobile;
+
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+
+import com.google.android.gms.location.GeofencingClient;
+import com.google.android.gms.location.LocationRequest;
+import com.google.android.gms.location.LocationServices;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.powermock.api.mockito.PowerMockito.verifyStatic;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({App.class, LocationServices.class, PendingIntent.class})
+public class PlacesMonitorClientsTests {
+	private PlacesMonitorClients clients;
+
+	@Mock
+	Context context;
+
+	@Mock
+	GeofencingClient geofencingClient;
+
+	@Mock
+	PendingIntent pendingIntent;
+
+	@Before
+	public void before() {
+		PowerMockito.mockStatic(App.class);
+		PowerMockito.mockStatic(LocationServices.class);
+		PowerMockito.mockStatic(PendingIntent.class);
+		Mockito.when(App.getAppContext()).thenReturn(context);
+		Mockito.when(LocationServices.getGeofencingClient(context)).thenReturn(geofencingClient);
+		Mockito.when(PendingIntent.getBroadcast(eq(context), eq(0), any(Intent.class),
+												eq(PendingIntent.FLAG_UPDATE_CURRENT))).thenReturn(pendingIntent);
+
+		clients = PlacesMonitorClients.getInstance();
+		clients.reset();
+	}
+
+	// ========================================================================================
+	// handles
+	// ========================================================================================
+
+	@Test
+	public void test_getGeofencingClient_createdOnce() {
+		// test
+		assertSame(geofencingClient, clients.getGeofencingClient());
+		assertSame(geofencingClient, clients.getGeofencingClient());
+
+		// verify
+		verifyStatic(LocationServices.class, Mockito.times(1));
+		LocationServices.getGeofencingClient(context);
+	}
+
+	@Test
+	public void test_getGeofencingClient_whenAppContextNull_notCached() {
+		// setup
+		Mockito.when(App.getAppContext()).thenReturn(null);
+
+		// test
+		assertNull(clients.getGeofencingClient());
+
+		// the client is created once the app context is available
+		Mockito.when(App.getAppContext()).thenReturn(context);
+		assertSame(geofencingClient, clients.getGeofencingClient());
+	}
+
+	@Test
+	public void test_getGeofencePendingIntent_createdOnce() {
+		// test
+		assertSame(pendingIntent, clients.getGeofencePendingIntent());
+		assertSame(pendingIntent, clients.getGeofencePendingIntent());
+
+		// verify
+		verifyStatic(PendingIntent.class, Mockito.times(1));
+		PendingIntent.getBroadcast(eq(context), eq(0), any(Intent.class), eq(PendingIntent.FLAG_UPDATE_CURRENT));
+	}
+
+	@Test
+	public void test_reset_forgetsHandles() {
+		// setup
+		clients.getGeofencingClient();
+
+		// test
+		clients.reset();
+		clients.getGeofencingClient();
+
+		// verify
+		verifyStatic(LocationServices.class, Mockito.times(2));
+		LocationServices.getGeofencingClient(context);
+	}
+
+	// ========================================================================================
+	// location settings
+	// ========================================================================================
+
+	@Test
+	public void test_isLocationSettingsSatisfied() {
+		// setup
+		final LocationRequest locationRequest = LocationRequest.create().setPriority(
+					LocationRequest.PRIORITY_BALANCED_POWER_ACCURACY);
+		final LocationRequest otherLocationRequest = LocationRequest.create().setPriority(
+					LocationRequest.PRIORITY_HIGH_ACCURACY);
+
+		// verify
+		assertFalse(clients.isLocationSettingsSatisfied(locationRequest));
+
+		clients.setLocationSettingsSatisfied(locationRequest, null);
+		assertTrue(clients.isLocationSettingsSatisfied(locationRequest));
+		assertTrue(clients.isLocationSettingsSatisfied(LocationRequest.create().setPriority(
+					   LocationRequest.PRIORITY_BALANCED_POWER_ACCURACY)));
+		assertFalse(clients.isLocationSettingsSatisfied(otherLocationRequest));
+		assertNull(clients.getLocationSettingsStates());
+
+		clients.invalidateLocationSettings();
+		assertFalse(clients.isLocationSettingsSatisfied(locationRequest));
+	}
+}
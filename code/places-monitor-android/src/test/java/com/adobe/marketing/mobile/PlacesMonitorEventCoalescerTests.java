@@ -0,0 +1,256 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorEventCoalescerTests.java
+//
+
+package com.adobe.marketing.mobile;
+
+import com.google.android.gms.location.Geofence;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PlacesMonitorEventCoalescerTests {
+	private PlacesMonitorMetrics metrics;
+	private PlacesMonitorEventCoalescer coalescer;
+
+	@Before
+	public void before() {
+		metrics = new PlacesMonitorMetrics();
+		coalescer = new PlacesMonitorEventCoalescer(metrics);
+	}
+
+	// ========================================================================================
+	// location updates
+	// ========================================================================================
+	@Test
+	public void test_coalesce_keepsOnlyNewestLocationUpdate() {
+		// setup
+		Event location1 = locationEvent(22.22);
+		Event start = monitorEvent(PlacesMonitorTestConstants.EVENTNAME_START, null);
+		Event location2 = locationEvent(22.23);
+		Event location3 = locationEvent(22.24);
+
+		// test
+		List<Event> events = coalescer.coalesce(Arrays.asList(location1, start, location2, location3));
+
+		// verify
+		assertEquals(2, events.size());
+		assertSame(start, events.get(0));
+		assertSame(location3, events.get(1));
+		assertEquals(2, metrics.get(PlacesMonitorMetrics.Counter.LOCATION_FIXES_DROPPED));
+	}
+
+	@Test
+	public void test_coalesce_singleEvent() {
+		// setup
+		Event location = locationEvent(22.22);
+
+		// test
+		List<Event> events = coalescer.coalesce(Arrays.asList(location));
+
+		// verify
+		assertEquals(1, events.size());
+		assertSame(location, events.get(0));
+	}
+
+	// ========================================================================================
+	// start and stop requests
+	// ========================================================================================
+	@Test
+	public void test_coalesce_dedupesRepeatedStartRequests() {
+		// setup
+		Event start1 = monitorEvent(PlacesMonitorTestConstants.EVENTNAME_START, null);
+		Event start2 = monitorEvent(PlacesMonitorTestConstants.EVENTNAME_START, null);
+
+		// test
+		List<Event> events = coalescer.coalesce(Arrays.asList(start1, start2));
+
+		// verify
+		assertEquals(1, events.size());
+		assertSame(start1, events.get(0));
+	}
+
+	@Test
+	public void test_coalesce_dedupesStartRequestsSeparatedBySupersededLocation() {
+		// setup
+		Event start1 = monitorEvent(PlacesMonitorTestConstants.EVENTNAME_START, null);
+		Event location1 = locationEvent(22.22);
+		Event start2 = monitorEvent(PlacesMonitorTestConstants.EVENTNAME_START, null);
+		Event location2 = locationEvent(22.23);
+
+		// test
+		List<Event> events = coalescer.coalesce(Arrays.asList(start1, location1, start2, location2));
+
+		// verify
+		assertEquals(2, events.size());
+		assertSame(start1, events.get(0));
+		assertSame(location2, events.get(1));
+	}
+
+	@Test
+	public void test_coalesce_keepsAlternatingStartAndStopRequests() {
+		// setup
+		Event start1 = monitorEvent(PlacesMonitorTestConstants.EVENTNAME_START, null);
+		Event stop = monitorEvent(PlacesMonitorTestConstants.EVENTNAME_STOP, null);
+		Event start2 = monitorEvent(PlacesMonitorTestConstants.EVENTNAME_START, null);
+
+		// test
+		List<Event> events = coalescer.coalesce(Arrays.asList(start1, stop, start2));
+
+		// verify
+		assertEquals(3, events.size());
+	}
+
+	@Test
+	public void test_coalesce_keepsStopRequestsWithDifferentClearFlag() {
+		// setup
+		Event stop = monitorEvent(PlacesMonitorTestConstants.EVENTNAME_STOP, false);
+		Event stopAndClear = monitorEvent(PlacesMonitorTestConstants.EVENTNAME_STOP, true);
+		Event stopAndClearAgain = monitorEvent(PlacesMonitorTestConstants.EVENTNAME_STOP, true);
+
+		// test
+		List<Event> events = coalescer.coalesce(Arrays.asList(stop, stopAndClear, stopAndClearAgain));
+
+		// verify
+		assertEquals(2, events.size());
+		assertSame(stop, events.get(0));
+		assertSame(stopAndClear, events.get(1));
+	}
+
+	@Test
+	public void test_coalesce_keepsRepeatedUpdateRequests() {
+		// setup
+		Event update1 = monitorEvent(PlacesMonitorTestConstants.EVENTNAME_UPDATE, null);
+		Event update2 = monitorEvent(PlacesMonitorTestConstants.EVENTNAME_UPDATE, null);
+
+		// test
+		List<Event> events = coalescer.coalesce(Arrays.asList(update1, update2));
+
+		// verify
+		assertEquals(2, events.size());
+	}
+
+	// ========================================================================================
+	// geofence triggers
+	// ========================================================================================
+	@Test
+	public void test_coalesce_mergesGeofenceTriggersWithSameTransition() throws Exception {
+		// setup
+		Event trigger1 = geofenceEvent(Geofence.GEOFENCE_TRANSITION_ENTER, "id1", "id2");
+		Event trigger2 = geofenceEvent(Geofence.GEOFENCE_TRANSITION_ENTER, "id2", "id3");
+
+		// test
+		List<Event> events = coalescer.coalesce(Arrays.asList(trigger1, trigger2));
+
+		// verify
+		assertEquals(1, events.size());
+		assertSame(trigger2, events.get(0));
+		EventData eventData = coalescer.getEventData(trigger2);
+		assertEquals(Arrays.asList("id1", "id2", "id3"),
+					 eventData.getStringList(PlacesMonitorTestConstants.EventDataKey.GEOFENCE_IDS));
+		assertEquals(Geofence.GEOFENCE_TRANSITION_ENTER,
+					 eventData.getInteger(PlacesMonitorTestConstants.EventDataKey.GEOFENCE_TRANSITION_TYPE));
+		assertEquals(PlacesMonitorTestConstants.EventDataValue.OS_EVENT_TYPE_GEOFENCE_TRIGGER,
+					 eventData.getString2(PlacesMonitorTestConstants.EventDataKey.OS_EVENT_TYPE));
+	}
+
+	@Test
+	public void test_coalesce_keepsGeofenceTriggersWithDifferentTransition() {
+		// setup
+		Event enter = geofenceEvent(Geofence.GEOFENCE_TRANSITION_ENTER, "id1");
+		Event exit = geofenceEvent(Geofence.GEOFENCE_TRANSITION_EXIT, "id1");
+		Event enterAgain = geofenceEvent(Geofence.GEOFENCE_TRANSITION_ENTER, "id1");
+
+		// test
+		List<Event> events = coalescer.coalesce(Arrays.asList(enter, exit, enterAgain));
+
+		// verify
+		assertEquals(3, events.size());
+		assertSame(enter.getData(), coalescer.getEventData(enter));
+	}
+
+	@Test
+	public void test_coalesce_mergesAlreadyMergedTriggers() throws Exception {
+		// setup
+		Event trigger1 = geofenceEvent(Geofence.GEOFENCE_TRANSITION_EXIT, "id1");
+		Event trigger2 = geofenceEvent(Geofence.GEOFENCE_TRANSITION_EXIT, "id2");
+		Event trigger3 = geofenceEvent(Geofence.GEOFENCE_TRANSITION_EXIT, "id3");
+		coalescer.coalesce(Arrays.asList(trigger1, trigger2));
+
+		// test
+		List<Event> events = coalescer.coalesce(Arrays.asList(trigger2, trigger3));
+
+		// verify
+		assertEquals(1, events.size());
+		assertEquals(Arrays.asList("id1", "id2", "id3"), coalescer.getEventData(trigger3).getStringList(
+						 PlacesMonitorTestConstants.EventDataKey.GEOFENCE_IDS));
+	}
+
+	@Test
+	public void test_onEventProcessed_releasesMergedData() {
+		// setup
+		Event trigger1 = geofenceEvent(Geofence.GEOFENCE_TRANSITION_ENTER, "id1");
+		Event trigger2 = geofenceEvent(Geofence.GEOFENCE_TRANSITION_ENTER, "id2");
+		coalescer.coalesce(Arrays.asList(trigger1, trigger2));
+
+		// test
+		coalescer.onEventProcessed(trigger2);
+
+		// verify
+		assertSame(trigger2.getData(), coalescer.getEventData(trigger2));
+	}
+
+	private Event locationEvent(final double latitude) {
+		EventData eventData = new EventData(new HashMap<String, Variant>());
+		eventData.putString(PlacesMonitorTestConstants.EventDataKey.OS_EVENT_TYPE,
+							PlacesMonitorTestConstants.EventDataValue.OS_EVENT_TYPE_LOCATION_UPDATE);
+		eventData.putDouble(PlacesMonitorTestConstants.EventDataKey.LATITUDE, latitude);
+		eventData.putDouble(PlacesMonitorTestConstants.EventDataKey.LONGITUDE, 33.33);
+		return new Event.Builder(PlacesMonitorTestConstants.EVENTNAME_OS_LOCATION_UPDATE,
+								 PlacesMonitorTestConstants.EventType.OS,
+								 PlacesMonitorTestConstants.EventSource.RESPONSE_CONTENT).setData(eventData).build();
+	}
+
+	private Event geofenceEvent(final int transitionType, final String... geofenceIDs) {
+		EventData eventData = new EventData(new HashMap<String, Variant>());
+		eventData.putString(PlacesMonitorTestConstants.EventDataKey.OS_EVENT_TYPE,
+							PlacesMonitorTestConstants.EventDataValue.OS_EVENT_TYPE_GEOFENCE_TRIGGER);
+		eventData.putStringList(PlacesMonitorTestConstants.EventDataKey.GEOFENCE_IDS,
+								new ArrayList<String>(Arrays.asList(geofenceIDs)));
+		eventData.putInteger(PlacesMonitorTestConstants.EventDataKey.GEOFENCE_TRANSITION_TYPE, transitionType);
+		return new Event.Builder(PlacesMonitorTestConstants.EVENTNAME_OS_GEOFENCE_TRIGGER,
+								 PlacesMonitorTestConstants.EventType.OS,
+								 PlacesMonitorTestConstants.EventSource.RESPONSE_CONTENT).setData(eventData).build();
+	}
+
+	private Event monitorEvent(final String eventName, final Boolean clear) {
+		Event.Builder builder = new Event.Builder(eventName, PlacesMonitorTestConstants.EventType.MONITOR,
+				PlacesMonitorTestConstants.EventSource.REQUEST_CONTENT);
+
+		if (clear != null) {
+			EventData eventData = new EventData(new HashMap<String, Variant>());
+			eventData.putBoolean(PlacesMonitorTestConstants.EventDataKey.CLEAR, clear);
+			builder.setData(eventData);
+		}
+
+		return builder.build();
+	}
+}
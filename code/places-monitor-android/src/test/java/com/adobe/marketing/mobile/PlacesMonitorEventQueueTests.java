@@ -0,0 +1,315 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorEventQueueTests.java
+//
+
+package com.adobe.marketing.mobile;
+
+import com.google.android.gms.location.Geofence;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PlacesMonitorEventQueueTests {
+	private static final int CAPACITY = 3;
+	private PlacesMonitorMetrics metrics;
+	private PlacesMonitorEventQueue eventQueue;
+
+	@Before
+	public void before() {
+		metrics = new PlacesMonitorMetrics();
+		eventQueue = new PlacesMonitorEventQueue(CAPACITY, metrics);
+	}
+
+	// ========================================================================================
+	// ordering
+	// ========================================================================================
+	@Test
+	public void test_poll_returnsLocationUpdatesLast() {
+		// setup
+		Event location = locationEvent(22.22);
+		Event start = monitorEvent(PlacesMonitorTestConstants.EVENTNAME_START);
+		Event enter = geofenceEvent(Geofence.GEOFENCE_TRANSITION_ENTER, "id1");
+
+		// test
+		assertTrue(eventQueue.offer(location));
+		assertTrue(eventQueue.offer(start));
+		assertTrue(eventQueue.offer(enter));
+
+		// verify
+		assertEquals(3, eventQueue.size());
+		assertSame(start, eventQueue.peek());
+		assertSame(start, eventQueue.poll());
+		assertSame(enter, eventQueue.poll());
+		assertSame(location, eventQueue.poll());
+		assertNull(eventQueue.poll());
+	}
+
+	@Test
+	public void test_iterator_returnsEventsInProcessingOrder() {
+		// setup
+		Event location1 = locationEvent(22.22);
+		Event start = monitorEvent(PlacesMonitorTestConstants.EVENTNAME_START);
+		Event location2 = locationEvent(22.23);
+		eventQueue.offer(location1);
+		eventQueue.offer(start);
+		eventQueue.offer(location2);
+
+		// test
+		List<Event> events = new ArrayList<Event>(eventQueue);
+
+		// verify
+		assertEquals(Arrays.asList(start, location1, location2), events);
+	}
+
+	@Test
+	public void test_offer_whenStopRequest_dropsQueuedLocationUpdates() {
+		// setup
+		eventQueue.offer(locationEvent(22.22));
+		eventQueue.offer(locationEvent(22.23));
+		Event stop = monitorEvent(PlacesMonitorTestConstants.EVENTNAME_STOP);
+
+		// test
+		assertTrue(eventQueue.offer(stop));
+
+		// verify
+		assertEquals(1, eventQueue.size());
+		assertSame(stop, eventQueue.poll());
+		assertEquals(0, eventQueue.getDroppedLocationUpdates());
+		assertEquals(2, metrics.get(PlacesMonitorMetrics.Counter.LOCATION_FIXES_DROPPED));
+	}
+
+	@Test
+	public void test_offer_whenPermissionChange_dropsQueuedLocationUpdates() {
+		// setup
+		eventQueue.offer(locationEvent(22.22));
+		Event permissionChange = permissionChangeEvent();
+
+		// test
+		assertTrue(eventQueue.offer(permissionChange));
+
+		// verify
+		assertEquals(1, eventQueue.size());
+		assertSame(permissionChange, eventQueue.poll());
+	}
+
+	// ========================================================================================
+	// capacity
+	// ========================================================================================
+	@Test
+	public void test_offer_whenFull_dropsOldestLocationUpdate() {
+		// setup
+		Event location1 = locationEvent(22.22);
+		Event location2 = locationEvent(22.23);
+		Event start = monitorEvent(PlacesMonitorTestConstants.EVENTNAME_START);
+		Event enter = geofenceEvent(Geofence.GEOFENCE_TRANSITION_ENTER, "id1");
+		eventQueue.offer(location1);
+		eventQueue.offer(start);
+		eventQueue.offer(location2);
+
+		// test
+		assertTrue(eventQueue.offer(enter));
+
+		// verify
+		assertEquals(Arrays.asList(start, enter, location2), new ArrayList<Event>(eventQueue));
+		assertEquals(1, eventQueue.getDroppedLocationUpdates());
+		assertEquals(1, metrics.get(PlacesMonitorMetrics.Counter.LOCATION_FIXES_DROPPED));
+	}
+
+	@Test
+	public void test_offer_whenFullWithoutLocationUpdates_refusesLocationUpdate() {
+		// setup
+		Event exit = geofenceEvent(Geofence.GEOFENCE_TRANSITION_EXIT, "id1");
+		Event enter1 = geofenceEvent(Geofence.GEOFENCE_TRANSITION_ENTER, "id2");
+		Event enter2 = geofenceEvent(Geofence.GEOFENCE_TRANSITION_ENTER, "id3");
+		eventQueue.offer(exit);
+		eventQueue.offer(enter1);
+		eventQueue.offer(enter2);
+
+		// test
+		assertFalse(eventQueue.offer(locationEvent(22.22)));
+
+		// verify the geofence triggers are kept
+		assertEquals(Arrays.asList(exit, enter1, enter2), new ArrayList<Event>(eventQueue));
+		assertEquals(1, eventQueue.getDroppedLocationUpdates());
+		assertEquals(1, metrics.get(PlacesMonitorMetrics.Counter.LOCATION_FIXES_DROPPED));
+	}
+
+	@Test
+	public void test_offer_whenFullWithoutLocationUpdates_queuesRequestsPastCapacity() {
+		// setup
+		eventQueue.offer(geofenceEvent(Geofence.GEOFENCE_TRANSITION_EXIT, "id1"));
+		eventQueue.offer(monitorEvent(PlacesMonitorTestConstants.EVENTNAME_STOP));
+		eventQueue.offer(permissionChangeEvent());
+		Event start = monitorEvent(PlacesMonitorTestConstants.EVENTNAME_START);
+		Event setLocationProfile = monitorEvent(PlacesMonitorTestConstants.EVENTNAME_SET_LOCATION_PROFILE);
+		Event update = monitorEvent(PlacesMonitorTestConstants.EVENTNAME_UPDATE);
+
+		// test
+		assertTrue(eventQueue.offer(start));
+		assertTrue(eventQueue.offer(setLocationProfile));
+		assertTrue(eventQueue.offer(update));
+
+		// verify the requests are queued in order
+		assertEquals(CAPACITY + 3, eventQueue.size());
+		assertEquals(Arrays.asList(start, setLocationProfile, update),
+					 new ArrayList<Event>(eventQueue).subList(CAPACITY, CAPACITY + 3));
+		assertEquals(0, eventQueue.getDroppedLocationUpdates());
+	}
+
+	@Test
+	public void test_offer_whenFullWithoutLocationUpdates_queuesGeofenceTriggersPastCapacity() {
+		// setup
+		eventQueue.offer(geofenceEvent(Geofence.GEOFENCE_TRANSITION_EXIT, "id1"));
+		eventQueue.offer(geofenceEvent(Geofence.GEOFENCE_TRANSITION_EXIT, "id2"));
+		eventQueue.offer(geofenceEvent(Geofence.GEOFENCE_TRANSITION_EXIT, "id3"));
+		Event enter = geofenceEvent(Geofence.GEOFENCE_TRANSITION_ENTER, "id4");
+		Event exit = geofenceEvent(Geofence.GEOFENCE_TRANSITION_EXIT, "id4");
+
+		// test
+		assertTrue(eventQueue.offer(enter));
+		assertTrue(eventQueue.offer(exit));
+
+		// verify the entry is kept along with its exit
+		assertEquals(CAPACITY + 2, eventQueue.size());
+		assertEquals(Arrays.asList(enter, exit), new ArrayList<Event>(eventQueue).subList(CAPACITY, CAPACITY + 2));
+	}
+
+	@Test
+	public void test_offer_whenFullWithoutLocationUpdates_queuesActivityTransitionPastCapacity() {
+		// setup
+		eventQueue.offer(geofenceEvent(Geofence.GEOFENCE_TRANSITION_EXIT, "id1"));
+		eventQueue.offer(monitorEvent(PlacesMonitorTestConstants.EVENTNAME_STOP));
+		eventQueue.offer(permissionChangeEvent());
+		Event activityTransition = activityTransitionEvent();
+
+		// test
+		assertTrue(eventQueue.offer(activityTransition));
+
+		// verify
+		assertEquals(CAPACITY + 1, eventQueue.size());
+		assertSame(activityTransition, new ArrayList<Event>(eventQueue).get(CAPACITY));
+	}
+
+	@Test
+	public void test_replaceAll_whenPastCapacity_keepsLocationUpdate() {
+		// setup
+		Event exit = geofenceEvent(Geofence.GEOFENCE_TRANSITION_EXIT, "id1");
+		Event stop = monitorEvent(PlacesMonitorTestConstants.EVENTNAME_STOP);
+		Event enter = geofenceEvent(Geofence.GEOFENCE_TRANSITION_ENTER, "id2");
+		Event start = monitorEvent(PlacesMonitorTestConstants.EVENTNAME_START);
+		Event location = locationEvent(22.22);
+		eventQueue.offer(exit);
+		eventQueue.offer(stop);
+		eventQueue.offer(enter);
+		eventQueue.offer(start);
+
+		// test
+		eventQueue.replaceAll(Arrays.asList(exit, stop, enter, start, location));
+
+		// verify the location update is neither dropped nor counted
+		assertEquals(Arrays.asList(exit, stop, enter, start, location), new ArrayList<Event>(eventQueue));
+		assertEquals(0, eventQueue.getDroppedLocationUpdates());
+		assertEquals(0, metrics.get(PlacesMonitorMetrics.Counter.LOCATION_FIXES_DROPPED));
+	}
+
+	@Test
+	public void test_replaceAll_keepsLocationUpdatesLast() {
+		// setup
+		Event location = locationEvent(22.22);
+		Event start = monitorEvent(PlacesMonitorTestConstants.EVENTNAME_START);
+		eventQueue.offer(start);
+		eventQueue.offer(locationEvent(22.21));
+
+		// test
+		eventQueue.replaceAll(Arrays.asList(location, start));
+
+		// verify
+		assertSame(start, eventQueue.poll());
+		assertSame(location, eventQueue.poll());
+		assertNull(eventQueue.poll());
+	}
+
+	@Test
+	public void test_clear() {
+		// setup
+		eventQueue.offer(locationEvent(22.22));
+		eventQueue.offer(monitorEvent(PlacesMonitorTestConstants.EVENTNAME_START));
+
+		// test
+		eventQueue.clear();
+
+		// verify
+		assertTrue(eventQueue.isEmpty());
+		assertNull(eventQueue.peek());
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void test_offer_whenNull_throws() {
+		eventQueue.offer(null);
+	}
+
+	private Event locationEvent(final double latitude) {
+		EventData eventData = new EventData(new HashMap<String, Variant>());
+		eventData.putString(PlacesMonitorTestConstants.EventDataKey.OS_EVENT_TYPE,
+							PlacesMonitorTestConstants.EventDataValue.OS_EVENT_TYPE_LOCATION_UPDATE);
+		eventData.putDouble(PlacesMonitorTestConstants.EventDataKey.LATITUDE, latitude);
+		eventData.putDouble(PlacesMonitorTestConstants.EventDataKey.LONGITUDE, 33.33);
+		return new Event.Builder(PlacesMonitorTestConstants.EVENTNAME_OS_LOCATION_UPDATE,
+								 PlacesMonitorTestConstants.EventType.OS,
+								 PlacesMonitorTestConstants.EventSource.RESPONSE_CONTENT).setData(eventData).build();
+	}
+
+	private Event geofenceEvent(final int transitionType, final String... geofenceIDs) {
+		EventData eventData = new EventData(new HashMap<String, Variant>());
+		eventData.putString(PlacesMonitorTestConstants.EventDataKey.OS_EVENT_TYPE,
+							PlacesMonitorTestConstants.EventDataValue.OS_EVENT_TYPE_GEOFENCE_TRIGGER);
+		eventData.putStringList(PlacesMonitorTestConstants.EventDataKey.GEOFENCE_IDS,
+								new ArrayList<String>(Arrays.asList(geofenceIDs)));
+		eventData.putInteger(PlacesMonitorTestConstants.EventDataKey.GEOFENCE_TRANSITION_TYPE, transitionType);
+		return new Event.Builder(PlacesMonitorTestConstants.EVENTNAME_OS_GEOFENCE_TRIGGER,
+								 PlacesMonitorTestConstants.EventType.OS,
+								 PlacesMonitorTestConstants.EventSource.RESPONSE_CONTENT).setData(eventData).build();
+	}
+
+	private Event permissionChangeEvent() {
+		EventData eventData = new EventData(new HashMap<String, Variant>());
+		eventData.putString(PlacesMonitorTestConstants.EventDataKey.OS_EVENT_TYPE,
+							PlacesMonitorTestConstants.EventDataValue.OS_EVENT_TYPE_LOCATION_PERMISSION_CHANGE);
+		return new Event.Builder(PlacesMonitorTestConstants.EVENTNAME_OS_PERMISSION_CHANGE,
+								 PlacesMonitorTestConstants.EventType.OS,
+								 PlacesMonitorTestConstants.EventSource.RESPONSE_CONTENT).setData(eventData).build();
+	}
+
+	private Event activityTransitionEvent() {
+		EventData eventData = new EventData(new HashMap<String, Variant>());
+		eventData.putString(PlacesMonitorTestConstants.EventDataKey.OS_EVENT_TYPE,
+							PlacesMonitorTestConstants.EventDataValue.OS_EVENT_TYPE_ACTIVITY_TRANSITION);
+		eventData.putInteger(PlacesMonitorTestConstants.EventDataKey.ACTIVITY_TYPE, 3);
+		return new Event.Builder(PlacesMonitorTestConstants.EVENTNAME_OS_ACTIVITY_TRANSITION,
+								 PlacesMonitorTestConstants.EventType.OS,
+								 PlacesMonitorTestConstants.EventSource.RESPONSE_CONTENT).setData(eventData).build();
+	}
+
+	private Event monitorEvent(final String eventName) {
+		return new Event.Builder(eventName, PlacesMonitorTestConstants.EventType.MONITOR,
+								 PlacesMonitorTestConstants.EventSource.REQUEST_CONTENT).build();
+	}
+}
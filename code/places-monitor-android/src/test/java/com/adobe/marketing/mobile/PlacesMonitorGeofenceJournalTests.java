@@ -0,0 +1,239 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorGeofenceJournalTests.java
+//
+
+package com.adobe.marketing.mobile;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class PlacesMonitorGeofenceJournalTests {
+	private File journalFile;
+	private TestGeofenceJournal journal;
+
+	@Before
+	public void before() throws Exception {
+		File filesDir = Files.createTempDirectory("geofencejournal").toFile();
+		filesDir.deleteOnExit();
+		journalFile = new File(filesDir, PlacesMonitorTestConstants.GeofenceJournal.FILE_NAME);
+		journalFile.deleteOnExit();
+		journal = new TestGeofenceJournal(journalFile);
+	}
+
+	// ========================================================================================
+	// replay
+	// ========================================================================================
+
+	@Test
+	public void test_replay_whenNoJournal_returnsNull() {
+		assertNull(journal.replay());
+	}
+
+	@Test
+	public void test_replay_whenFormatNotSupported_returnsNull() throws Exception {
+		// setup
+		writeBytes(false, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+
+		// test and verify
+		assertNull(journal.replay());
+	}
+
+	@Test
+	public void test_replay_whenJournalIsUnavailable_returnsNull() {
+		// setup
+		journal = new TestGeofenceJournal(null);
+
+		// test and verify
+		assertNull(journal.replay());
+		assertFalse(journal.save(set("id1")));
+	}
+
+	@Test
+	public void test_replay_dropsIncompleteRecord() throws Exception {
+		// setup
+		assertTrue(journal.save(set("id1", "id2")));
+		long snapshotLength = journalFile.length();
+		writeBytes(true, new byte[] {0, 0, 0, 20, PlacesMonitorGeofenceJournal.RECORD_ENTER});
+
+		// test
+		Set<String> replayed = new TestGeofenceJournal(journalFile).replay();
+
+		// verify
+		assertEquals(set("id1", "id2"), replayed);
+
+		// verify the journal is compacted on the next save, even if unchanged
+		TestGeofenceJournal replayedJournal = new TestGeofenceJournal(journalFile);
+		replayedJournal.replay();
+		assertTrue(replayedJournal.save(set("id1", "id2")));
+		assertEquals(snapshotLength, journalFile.length());
+	}
+
+	// ========================================================================================
+	// save
+	// ========================================================================================
+
+	@Test
+	public void test_save_thenReplay() {
+		// test
+		assertTrue(journal.save(set("id1", "id2")));
+
+		// verify
+		assertEquals(set("id1", "id2"), new TestGeofenceJournal(journalFile).replay());
+	}
+
+	@Test
+	public void test_save_appendsOnlyTheChanges() {
+		// setup
+		assertTrue(journal.save(set("id1", "id2")));
+		long snapshotLength = journalFile.length();
+
+		// test
+		assertTrue(journal.save(set("id1", "id3")));
+
+		// verify one exit and one entry are appended
+		assertEquals(snapshotLength + 2 * recordLength("id2"), journalFile.length());
+		assertEquals(set("id1", "id3"), new TestGeofenceJournal(journalFile).replay());
+	}
+
+	@Test
+	public void test_save_whenEmpty_appendsClear() {
+		// setup
+		assertTrue(journal.save(set("id1", "id2")));
+		long snapshotLength = journalFile.length();
+
+		// test
+		assertTrue(journal.save(new HashSet<String>()));
+
+		// verify
+		assertEquals(snapshotLength + 13, journalFile.length());
+		assertEquals(new HashSet<String>(), new TestGeofenceJournal(journalFile).replay());
+	}
+
+	@Test
+	public void test_save_whenUnchanged_doesNotWrite() {
+		// setup
+		assertTrue(journal.save(set("id1")));
+		long snapshotLength = journalFile.length();
+
+		// test
+		assertTrue(journal.save(set("id1")));
+
+		// verify
+		assertEquals(snapshotLength, journalFile.length());
+	}
+
+	@Test
+	public void test_save_afterReplay_appendsToJournal() {
+		// setup
+		assertTrue(journal.save(set("id1")));
+		long snapshotLength = journalFile.length();
+		TestGeofenceJournal replayedJournal = new TestGeofenceJournal(journalFile);
+		replayedJournal.replay();
+
+		// test
+		assertTrue(replayedJournal.save(set("id1", "id2")));
+
+		// verify
+		assertEquals(snapshotLength + recordLength("id2"), journalFile.length());
+		assertEquals(set("id1", "id2"), new TestGeofenceJournal(journalFile).replay());
+	}
+
+	@Test
+	public void test_save_compactsJournal() {
+		// setup
+		assertTrue(journal.save(set("id1")));
+		long snapshotLength = journalFile.length();
+
+		// test
+		for (int i = 0; i < PlacesMonitorConstants.GeofenceJournal.MIN_COMPACTION_RECORDS; i++) {
+			assertTrue(journal.save(i % 2 == 0 ? set("id1", "id2") : set("id1")));
+		}
+
+		// verify the journal is bounded and replays the last saved set
+		assertTrue(journalFile.length() < snapshotLength + PlacesMonitorConstants.GeofenceJournal.MIN_COMPACTION_RECORDS *
+				   recordLength("id2"));
+		assertEquals(set("id1"), new TestGeofenceJournal(journalFile).replay());
+	}
+
+	@Test
+	public void test_save_skipsIdentifierTooLongToJournal() {
+		// setup
+		String longIdentifier = longIdentifier();
+		assertTrue(journal.save(set("id1")));
+		long snapshotLength = journalFile.length();
+
+		// test
+		assertTrue(journal.save(set("id1", "id2", longIdentifier)));
+
+		// verify only the entry of id2 is appended
+		assertEquals(snapshotLength + recordLength("id2"), journalFile.length());
+		assertEquals(set("id1", "id2"), new TestGeofenceJournal(journalFile).replay());
+	}
+
+	@Test
+	public void test_save_whenCompacting_skipsIdentifierTooLongToJournal() {
+		// setup
+		String longIdentifier = longIdentifier();
+
+		// test
+		assertTrue(journal.save(set("id1", longIdentifier)));
+
+		// verify
+		assertEquals(set("id1"), new TestGeofenceJournal(journalFile).replay());
+	}
+
+	private static String longIdentifier() {
+		char[] characters = new char[65536];
+		Arrays.fill(characters, 'a');
+		return new String(characters);
+	}
+
+	private static Set<String> set(final String... identifiers) {
+		return new HashSet<String>(Arrays.asList(identifiers));
+	}
+
+	private static int recordLength(final String identifier) {
+		// length, type, time, identifier
+		return 4 + 1 + 8 + 2 + identifier.length();
+	}
+
+	private void writeBytes(final boolean append, final byte[] bytes) throws IOException {
+		FileOutputStream outputStream = new FileOutputStream(journalFile, append);
+		outputStream.write(bytes);
+		outputStream.close();
+	}
+
+	private static class TestGeofenceJournal extends PlacesMonitorGeofenceJournal {
+		private final File journalFile;
+
+		TestGeofenceJournal(final File journalFile) {
+			this.journalFile = journalFile;
+		}
+
+		@Override
+		File getJournalFile() {
+			return journalFile;
+		}
+	}
+}
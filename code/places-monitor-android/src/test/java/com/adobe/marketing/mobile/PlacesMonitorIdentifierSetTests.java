@@ -0,0 +1,185 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorIdentifierSetTests.java
+//
+
+package com.adobe.marketing.mobile;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PlacesMonitorIdentifierSetTests {
+	private PlacesMonitorIdentifierSet identifierSet;
+
+	@Before
+	public void before() {
+		identifierSet = new PlacesMonitorIdentifierSet();
+	}
+
+	// ========================================================================================
+	// Set operations
+	// ========================================================================================
+
+	@Test
+	public void test_addContainsRemove() {
+		// test
+		assertTrue(identifierSet.add("id1"));
+		assertFalse(identifierSet.add("id1"));
+		assertTrue(identifierSet.add("id2"));
+
+		// verify
+		assertEquals(2, identifierSet.size());
+		assertTrue(identifierSet.contains("id1"));
+		assertFalse(identifierSet.contains("id3"));
+		assertTrue(identifierSet.remove("id1"));
+		assertFalse(identifierSet.remove("id1"));
+		assertFalse(identifierSet.remove("unknown"));
+		assertEquals(new HashSet<>(Arrays.asList("id2")), identifierSet);
+	}
+
+	@Test
+	public void test_constructor_copiesIdentifiers() {
+		// test
+		identifierSet = new PlacesMonitorIdentifierSet(Arrays.asList("id1", "id2", "id1"));
+
+		// verify
+		assertEquals(new HashSet<>(Arrays.asList("id1", "id2")), identifierSet);
+	}
+
+	@Test
+	public void test_clear_keepsHandles() {
+		// setup
+		int handle = identifierSet.intern("id1");
+		identifierSet.addHandle(handle);
+
+		// test
+		identifierSet.clear();
+
+		// verify
+		assertTrue(identifierSet.isEmpty());
+		assertEquals(handle, identifierSet.intern("id1"));
+	}
+
+	@Test
+	public void test_iterator_remove() {
+		// setup
+		identifierSet.addAll(Arrays.asList("id1", "id2", "id3"));
+
+		// test
+		for (Iterator<String> iterator = identifierSet.iterator(); iterator.hasNext();) {
+			if ("id2".equals(iterator.next())) {
+				iterator.remove();
+			}
+		}
+
+		// verify
+		assertEquals(new HashSet<>(Arrays.asList("id1", "id3")), identifierSet);
+	}
+
+	// ========================================================================================
+	// Handles
+	// ========================================================================================
+
+	@Test
+	public void test_intern_returnsStableHandles() {
+		// test
+		int handle1 = identifierSet.intern("id1");
+		int handle2 = identifierSet.intern("id2");
+
+		// verify
+		assertNotEquals(handle1, handle2);
+		assertEquals(handle1, identifierSet.intern("id1"));
+		assertTrue(identifierSet.isEmpty());
+	}
+
+	@Test
+	public void test_handleOperations() {
+		// setup
+		int handle = identifierSet.intern("id1");
+
+		// test and verify
+		identifierSet.addHandle(handle);
+		assertTrue(identifierSet.containsHandle(handle));
+		assertTrue(identifierSet.contains("id1"));
+		identifierSet.removeHandle(handle);
+		assertFalse(identifierSet.containsHandle(handle));
+	}
+
+	@Test
+	public void test_retainHandles() {
+		// setup
+		identifierSet.addAll(Arrays.asList("id1", "id2"));
+		BitSet retained = new BitSet();
+		retained.set(identifierSet.intern("id1"));
+		retained.set(identifierSet.intern("id3"));
+
+		// test and verify
+		assertTrue(identifierSet.retainHandles(retained));
+		assertEquals(new HashSet<>(Arrays.asList("id1")), identifierSet);
+		assertFalse(identifierSet.retainHandles(retained));
+	}
+
+	@Test
+	public void test_retainHandles_collectsRemovedIdentifiers() {
+		// setup
+		identifierSet.addAll(Arrays.asList("id1", "id2", "id3"));
+		BitSet retained = new BitSet();
+		retained.set(identifierSet.intern("id2"));
+		List<String> removedIdentifiers = new ArrayList<String>();
+
+		// test
+		identifierSet.retainHandles(retained, removedIdentifiers);
+
+		// verify
+		assertEquals(Arrays.asList("id1", "id3"), removedIdentifiers);
+	}
+
+	@Test
+	public void test_handleOf_doesNotIntern() {
+		// setup
+		int handle = identifierSet.intern("id1");
+
+		// test and verify
+		assertEquals(handle, identifierSet.handleOf("id1"));
+		assertEquals(-1, identifierSet.handleOf("id2"));
+		assertEquals(-1, identifierSet.handleOf("id2"));
+	}
+
+	@Test
+	public void test_compact_dropsNonMembers() {
+		// setup
+		identifierSet.add("member");
+
+		for (int i = 0; i < PlacesMonitorIdentifierSet.COMPACTION_THRESHOLD; i++) {
+			identifierSet.intern("id" + i);
+		}
+
+		// test
+		assertTrue(identifierSet.compact());
+
+		// verify the members are kept and the handles are reassigned
+		assertEquals(new HashSet<>(Arrays.asList("member")), identifierSet);
+		assertEquals(0, identifierSet.intern("member"));
+		assertEquals(1, identifierSet.intern("newID"));
+		assertFalse(identifierSet.compact());
+	}
+}
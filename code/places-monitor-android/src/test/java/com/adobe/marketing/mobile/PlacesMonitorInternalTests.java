@@ -32,6 +32,8 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
@@ -41,6 +43,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 
 import static org.mockito.ArgumentMatchers.*;
@@ -98,6 +102,16 @@ public class PlacesMonitorInternalTests {
 		}
 	})).build();
 
+	private Event setLocationProfileEvent = new Event.Builder(
+		PlacesMonitorTestConstants.EVENTNAME_SET_LOCATION_PROFILE,
+		PlacesMonitorTestConstants.EventType.MONITOR,
+	PlacesMonitorTestConstants.EventSource.REQUEST_CONTENT).setData(new EventData(new HashMap<String, Variant>() {
+		{
+			put(PlacesMonitorConstants.EventDataKey.LOCATION_PROFILE,
+				Variant.fromString(PlacesMonitorLocationProfile.ADAPTIVE.getValue()));
+		}
+	})).build();
+
 	private Event setLocationPermissionEventNoEventData = new Event.Builder(
 		PlacesMonitorTestConstants.EVENTNAME_SET_LOCATION_PERMISSION,
 		PlacesMonitorTestConstants.EventType.MONITOR,
@@ -125,6 +139,12 @@ public class PlacesMonitorInternalTests {
 	@Mock
 	PlacesGeofenceManager geofenceManager;
 
+	@Mock
+	PlacesMonitorPOIPackManager poiPackManager;
+
+	@Mock
+	PlacesMonitorPOIPack poiPack;
+
 	@Before
 	public void before() throws Exception {
 		PowerMockito.mockStatic(App.class);
@@ -200,6 +220,81 @@ public class PlacesMonitorInternalTests {
 		verify(geofenceManager, times(1)).loadPersistedData();
 	}
 
+	@Test
+	public void test_Constructor_initializesOnExecutor() {
+		// setup
+		final List<Thread> initializingThreads = new ArrayList<Thread>();
+		Mockito.doAnswer(new Answer<Void>() {
+			@Override
+			public Void answer(InvocationOnMock invocation) {
+				initializingThreads.add(Thread.currentThread());
+				return null;
+			}
+		}).when(geofenceManager).loadPersistedData();
+
+		// test
+		initWithContext(context);
+
+		// verify
+		assertEquals(1, initializingThreads.size());
+		assertNotSame(Thread.currentThread(), initializingThreads.get(0));
+	}
+
+	@Test
+	public void test_processEvents_waitsForInitialization() throws Exception {
+		// setup
+		final CountDownLatch loadLatch = new CountDownLatch(1);
+		PowerMockito.whenNew(PlacesLocationManager.class).withAnyArguments().thenReturn(locationManager);
+		Mockito.doAnswer(new Answer<Void>() {
+			@Override
+			public Void answer(InvocationOnMock invocation) throws InterruptedException {
+				loadLatch.await();
+				return null;
+			}
+		}).when(geofenceManager).loadPersistedData();
+		when(extensionApi.getSharedEventState(anyString(), any(Event.class),
+											  any(ExtensionErrorCallback.class))).thenReturn(new HashMap<String, Object>());
+		Mockito.when(App.getAppContext()).thenReturn(context);
+		monitorInternal = new PlacesMonitorInternal(extensionApi);
+		monitorInternal.queueEvent(startMonitoringEvent);
+
+		// test
+		Thread processingThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				monitorInternal.processEvents();
+			}
+		});
+		processingThread.start();
+		Thread.sleep(100);
+
+		// verify the event is not processed until the extension is initialized
+		verify(locationManager, times(0)).startMonitoring();
+		loadLatch.countDown();
+		processingThread.join(PlacesMonitorConstants.INITIALIZATION_TIMEOUT);
+		verify(locationManager, times(1)).startMonitoring();
+	}
+
+	@Test
+	public void test_processEvents_when_initializationFailed() {
+		// setup
+		PowerMockito.whenNew(PlacesLocationManager.class).withAnyArguments().thenReturn(locationManager);
+		Mockito.doThrow(new IllegalStateException("load failed")).when(geofenceManager).loadPersistedData();
+		Mockito.when(App.getAppContext()).thenReturn(context);
+		monitorInternal = new PlacesMonitorInternal(extensionApi);
+		assertFalse(monitorInternal.awaitInitialization());
+		monitorInternal.queueEvent(startMonitoringEvent);
+
+		// test
+		monitorInternal.processEvents();
+
+		// verify the events are dropped without being processed
+		verify(extensionApi, times(0)).getSharedEventState(anyString(), any(Event.class), any(ExtensionErrorCallback.class));
+		verify(locationManager, times(0)).startMonitoring();
+		PlacesMonitorEventQueue eventQueue = Whitebox.getInternalState(monitorInternal, "eventQueue");
+		assertTrue(eventQueue.isEmpty());
+	}
+
 	// ========================================================================================
 	// getName
 	// ========================================================================================
@@ -297,7 +392,7 @@ public class PlacesMonitorInternalTests {
 		verify(locationManager, times(0)).stopMonitoring();
 		verify(locationManager, times(0)).updateLocation();
 		verify(geofenceManager, times(0)).stopMonitoringFences(anyBoolean());
-		verify(geofenceManager, times(0)).startMonitoringFences(ArgumentMatchers.<PlacesPOI>anyList());
+		verify(geofenceManager, times(0)).startMonitoringFences(ArgumentMatchers.<PlacesPOI>anyList(), anyDouble(), anyDouble());
 	}
 
 	@Test
@@ -317,7 +412,7 @@ public class PlacesMonitorInternalTests {
 
 		// verify
 		verify(locationManager, times(1)).startMonitoring();
-		verify(geofenceManager, times(0)).startMonitoringFences(ArgumentMatchers.<PlacesPOI>anyList());
+		verify(geofenceManager, times(0)).startMonitoringFences(ArgumentMatchers.<PlacesPOI>anyList(), anyDouble(), anyDouble());
 	}
 
 	@Test
@@ -341,7 +436,7 @@ public class PlacesMonitorInternalTests {
 		verify(locationManager, times(1)).stopMonitoring();
 		verify(locationManager, times(0)).updateLocation();
 		verify(geofenceManager, times(1)).stopMonitoringFences(true);
-		verify(geofenceManager, times(0)).startMonitoringFences(ArgumentMatchers.<PlacesPOI>anyList());
+		verify(geofenceManager, times(0)).startMonitoringFences(ArgumentMatchers.<PlacesPOI>anyList(), anyDouble(), anyDouble());
 		verify(locationManager, times(0)).setLocationPermission(any(PlacesMonitorLocationPermission.class));
 
 		// verify places call
@@ -369,7 +464,7 @@ public class PlacesMonitorInternalTests {
 		verify(locationManager, times(1)).stopMonitoring();
 		verify(locationManager, times(0)).updateLocation();
 		verify(geofenceManager, times(1)).stopMonitoringFences(false);
-		verify(geofenceManager, times(0)).startMonitoringFences(ArgumentMatchers.<PlacesPOI>anyList());
+		verify(geofenceManager, times(0)).startMonitoringFences(ArgumentMatchers.<PlacesPOI>anyList(), anyDouble(), anyDouble());
 		verify(locationManager, times(0)).setLocationPermission(any(PlacesMonitorLocationPermission.class));
 
 		// verify places call
@@ -398,7 +493,7 @@ public class PlacesMonitorInternalTests {
 		verify(locationManager, times(1)).stopMonitoring();
 		verify(locationManager, times(0)).updateLocation();
 		verify(geofenceManager, times(1)).stopMonitoringFences(false);
-		verify(geofenceManager, times(0)).startMonitoringFences(ArgumentMatchers.<PlacesPOI>anyList());
+		verify(geofenceManager, times(0)).startMonitoringFences(ArgumentMatchers.<PlacesPOI>anyList(), anyDouble(), anyDouble());
 		verify(locationManager, times(0)).setLocationPermission(any(PlacesMonitorLocationPermission.class));
 
 		// verify places call
@@ -426,7 +521,7 @@ public class PlacesMonitorInternalTests {
 		verify(locationManager, times(0)).stopMonitoring();
 		verify(locationManager, times(1)).updateLocation();
 		verify(geofenceManager, times(0)).stopMonitoringFences(anyBoolean());
-		verify(geofenceManager, times(0)).startMonitoringFences(ArgumentMatchers.<PlacesPOI>anyList());
+		verify(geofenceManager, times(0)).startMonitoringFences(ArgumentMatchers.<PlacesPOI>anyList(), anyDouble(), anyDouble());
 		verify(locationManager, times(0)).setLocationPermission(any(PlacesMonitorLocationPermission.class));
 	}
 
@@ -450,7 +545,7 @@ public class PlacesMonitorInternalTests {
 		verify(locationManager, times(0)).stopMonitoring();
 		verify(locationManager, times(0)).updateLocation();
 		verify(geofenceManager, times(0)).stopMonitoringFences(anyBoolean());
-		verify(geofenceManager, times(0)).startMonitoringFences(ArgumentMatchers.<PlacesPOI>anyList());
+		verify(geofenceManager, times(0)).startMonitoringFences(ArgumentMatchers.<PlacesPOI>anyList(), anyDouble(), anyDouble());
 		verify(locationManager, times(0)).setLocationPermission(any(PlacesMonitorLocationPermission.class));
 	}
 
@@ -474,10 +569,82 @@ public class PlacesMonitorInternalTests {
 		verify(locationManager, times(0)).stopMonitoring();
 		verify(locationManager, times(0)).updateLocation();
 		verify(geofenceManager, times(0)).stopMonitoringFences(anyBoolean());
-		verify(geofenceManager, times(0)).startMonitoringFences(ArgumentMatchers.<PlacesPOI>anyList());
+		verify(geofenceManager, times(0)).startMonitoringFences(ArgumentMatchers.<PlacesPOI>anyList(), anyDouble(), anyDouble());
 		verify(locationManager, times(1)).setLocationPermission(PlacesMonitorLocationPermission.WHILE_USING_APP);
 	}
 
+	@Test
+	public void test_processEvents_when_SetLocationProfileEvent() {
+		// setup
+		initWithContext(context);
+
+		// setup configuration
+		Whitebox.setInternalState(monitorInternal, "locationManager", locationManager);
+		Map<String, Object> configData = new HashMap<>();
+		when(extensionApi.getSharedEventState(anyString(), any(Event.class),
+											  any(ExtensionErrorCallback.class))).thenReturn(configData);
+
+		// test
+		monitorInternal.queueEvent(setLocationProfileEvent);
+		monitorInternal.processEvents();
+
+		// verify
+		verify(locationManager, times(0)).startMonitoring();
+		verify(locationManager, times(0)).stopMonitoring();
+		verify(locationManager, times(0)).setLocationPermission(any(PlacesMonitorLocationPermission.class));
+		verify(locationManager, times(1)).setLocationProfile(PlacesMonitorLocationProfile.ADAPTIVE);
+	}
+
+	@Test
+	public void test_processEvents_when_SetLocationProfileEventWithNoEventData() {
+		// setup
+		initWithContext(context);
+		Event setLocationProfileEventNoEventData = new Event.Builder(
+			PlacesMonitorTestConstants.EVENTNAME_SET_LOCATION_PROFILE,
+			PlacesMonitorTestConstants.EventType.MONITOR,
+			PlacesMonitorTestConstants.EventSource.REQUEST_CONTENT).build();
+
+		// setup configuration
+		Whitebox.setInternalState(monitorInternal, "locationManager", locationManager);
+		Map<String, Object> configData = new HashMap<>();
+		when(extensionApi.getSharedEventState(anyString(), any(Event.class),
+											  any(ExtensionErrorCallback.class))).thenReturn(configData);
+
+		// test
+		monitorInternal.queueEvent(setLocationProfileEventNoEventData);
+		monitorInternal.processEvents();
+
+		// verify the default profile is applied
+		verify(locationManager, times(1)).setLocationProfile(PlacesMonitorLocationProfile.PRECISE);
+	}
+
+	@Test
+	public void test_processEvents_when_SetActivityRecognitionEvent() {
+		// setup
+		initWithContext(context);
+		Event setActivityRecognitionEvent = new Event.Builder(
+			PlacesMonitorTestConstants.EVENTNAME_SET_ACTIVITY_RECOGNITION,
+			PlacesMonitorTestConstants.EventType.MONITOR,
+		PlacesMonitorTestConstants.EventSource.REQUEST_CONTENT).setData(new EventData(new HashMap<String, Variant>() {
+			{
+				put(PlacesMonitorTestConstants.EventDataKey.ACTIVITY_RECOGNITION, Variant.fromBoolean(true));
+			}
+		})).build();
+
+		// setup configuration
+		Whitebox.setInternalState(monitorInternal, "locationManager", locationManager);
+		Map<String, Object> configData = new HashMap<>();
+		when(extensionApi.getSharedEventState(anyString(), any(Event.class),
+											  any(ExtensionErrorCallback.class))).thenReturn(configData);
+
+		// test
+		monitorInternal.queueEvent(setActivityRecognitionEvent);
+		monitorInternal.processEvents();
+
+		// verify
+		verify(locationManager, times(1)).setActivityRecognitionEnabled(true);
+	}
+
 	@Test
 	public void test_processEvents_when_SetLocationPermissionEventWithNoEventData() {
 		// setup
@@ -498,7 +665,7 @@ public class PlacesMonitorInternalTests {
 		verify(locationManager, times(0)).stopMonitoring();
 		verify(locationManager, times(0)).updateLocation();
 		verify(geofenceManager, times(0)).stopMonitoringFences(anyBoolean());
-		verify(geofenceManager, times(0)).startMonitoringFences(ArgumentMatchers.<PlacesPOI>anyList());
+		verify(geofenceManager, times(0)).startMonitoringFences(ArgumentMatchers.<PlacesPOI>anyList(), anyDouble(), anyDouble());
 		verify(locationManager, times(0)).setLocationPermission(any(PlacesMonitorLocationPermission.class));
 	}
 
@@ -523,7 +690,277 @@ public class PlacesMonitorInternalTests {
 		verify(locationManager, times(1)).stopMonitoring();
 		verify(locationManager, times(1)).updateLocation();
 		verify(geofenceManager, times(1)).stopMonitoringFences(false);
-		verify(geofenceManager, times(0)).startMonitoringFences(ArgumentMatchers.<PlacesPOI>anyList());
+		verify(geofenceManager, times(0)).startMonitoringFences(ArgumentMatchers.<PlacesPOI>anyList(), anyDouble(), anyDouble());
+	}
+
+	@Test
+	public void test_processEvents_coalescesQueuedEvents() {
+		// setup
+		initWithContext(context);
+
+		// setup configuration
+		Whitebox.setInternalState(monitorInternal, "locationManager", locationManager);
+		Map<String, Object> configData = new HashMap<>();
+		when(extensionApi.getSharedEventState(anyString(), any(Event.class),
+											  any(ExtensionErrorCallback.class))).thenReturn(configData);
+		Event newerOSLocationEvent = new Event.Builder(PlacesMonitorTestConstants.EVENTNAME_OS_LOCATION_UPDATE,
+				PlacesMonitorTestConstants.EventType.OS,
+				PlacesMonitorTestConstants.EventSource.RESPONSE_CONTENT).setData(locationUpdateEventData()).build();
+
+		// test
+		monitorInternal.queueEvent(startMonitoringEvent);
+		monitorInternal.queueEvent(OSLocationEvent);
+		monitorInternal.queueEvent(startMonitoringEvent);
+		monitorInternal.queueEvent(newerOSLocationEvent);
+		monitorInternal.processEvents();
+
+		// verify
+		verify(locationManager, times(1)).startMonitoring();
+		verify(locationManager, times(1)).onLocationReceived(any(EventData.class));
+	}
+
+	@Test
+	public void test_processEvents_looksUpConfigurationOncePerVersion() {
+		// setup
+		initWithContext(context);
+
+		// setup configuration
+		Whitebox.setInternalState(monitorInternal, "locationManager", locationManager);
+		Map<String, Object> configData = new HashMap<>();
+		when(extensionApi.getSharedEventState(anyString(), any(Event.class),
+											  any(ExtensionErrorCallback.class))).thenReturn(configData);
+		final ArgumentCaptor<ExtensionErrorCallback> callbackCaptor = ArgumentCaptor.forClass(ExtensionErrorCallback.class);
+
+		// test
+		monitorInternal.queueEvent(updateLocationEvent);
+		monitorInternal.queueEvent(setLocationPermissionEvent);
+		monitorInternal.queueEvent(stopMonitoringEventWithOutClearData);
+		monitorInternal.processEvents();
+		monitorInternal.queueEvent(updateLocationEvent);
+		monitorInternal.processEvents();
+
+		// verify
+		verify(locationManager, times(2)).updateLocation();
+		verify(locationManager, times(1)).stopMonitoring();
+		verify(extensionApi, times(1)).getSharedEventState(anyString(), any(Event.class), any(ExtensionErrorCallback.class));
+
+		// test, configuration shared state changes
+		monitorInternal.onConfigurationSharedStateChanged();
+		monitorInternal.queueEvent(updateLocationEvent);
+		monitorInternal.queueEvent(updateLocationEvent);
+		monitorInternal.processEvents();
+
+		// verify, the configuration is looked up again with the same callback
+		verify(locationManager, times(4)).updateLocation();
+		verify(extensionApi, times(2)).getSharedEventState(anyString(), any(Event.class), callbackCaptor.capture());
+		assertSame(callbackCaptor.getAllValues().get(0), callbackCaptor.getAllValues().get(1));
+	}
+
+	@Test
+	public void test_processEvents_recordsQueueMetrics() {
+		// setup
+		initWithContext(context);
+		Whitebox.setInternalState(monitorInternal, "locationManager", locationManager);
+		when(extensionApi.getSharedEventState(anyString(), any(Event.class),
+											  any(ExtensionErrorCallback.class))).thenReturn(new HashMap<String, Object>());
+		PlacesMonitorMetrics metrics = PlacesMonitorMetrics.getInstance();
+		metrics.reset();
+
+		// test
+		monitorInternal.queueEvent(updateLocationEvent);
+		monitorInternal.queueEvent(startMonitoringEvent);
+		monitorInternal.processEvents();
+		monitorInternal.processEvents();
+
+		// verify the empty queue is not recorded
+		assertEquals(1, metrics.getCount(PlacesMonitorMetrics.Histogram.QUEUE_DEPTH));
+		assertEquals(1, metrics.getCount(PlacesMonitorMetrics.Histogram.EVENT_DRAIN_TIME));
+		Map<String, Object> queueDepth = (Map<String, Object>) metrics.snapshot().get("queuedepth");
+		assertEquals(2L, queueDepth.get(PlacesMonitorMetrics.MAX));
+	}
+
+	@Test
+	public void test_processEvents_publishesMetricsSharedState_whenConfigured() {
+		// setup
+		initWithContext(context);
+		Whitebox.setInternalState(monitorInternal, "locationManager", locationManager);
+		Map<String, Object> configData = new HashMap<>();
+		configData.put(PlacesMonitorTestConstants.SharedState.CONFIG_METRICS_SHARED_STATE, true);
+		when(extensionApi.getSharedEventState(anyString(), any(Event.class),
+											  any(ExtensionErrorCallback.class))).thenReturn(configData);
+		final ArgumentCaptor<Map> sharedStateCaptor = ArgumentCaptor.forClass(Map.class);
+
+		// test
+		monitorInternal.queueEvent(updateLocationEvent);
+		monitorInternal.processEvents();
+		monitorInternal.queueEvent(updateLocationEvent);
+		monitorInternal.processEvents();
+
+		// verify the metrics are published once per interval
+		verify(extensionApi, times(1)).setSharedEventState(sharedStateCaptor.capture(), eq(updateLocationEvent),
+				any(ExtensionErrorCallback.class));
+		assertTrue(sharedStateCaptor.getValue().get(PlacesMonitorTestConstants.SharedState.METRICS) instanceof Map);
+	}
+
+	@Test
+	public void test_processEvents_doesNotPublishMetricsSharedState_byDefault() {
+		// setup
+		initWithContext(context);
+		Whitebox.setInternalState(monitorInternal, "locationManager", locationManager);
+		when(extensionApi.getSharedEventState(anyString(), any(Event.class),
+											  any(ExtensionErrorCallback.class))).thenReturn(new HashMap<String, Object>());
+
+		// test
+		monitorInternal.queueEvent(updateLocationEvent);
+		monitorInternal.processEvents();
+
+		// verify
+		verify(extensionApi, times(0)).setSharedEventState(any(Map.class), any(Event.class),
+				any(ExtensionErrorCallback.class));
+	}
+
+	@Test
+	public void test_processEvents_readsNearbyPOICountFromConfiguration() {
+		// setup
+		initWithContext(context);
+		Whitebox.setInternalState(monitorInternal, "locationManager", locationManager);
+		Map<String, Object> configData = new HashMap<>();
+		configData.put(PlacesMonitorTestConstants.SharedState.CONFIG_NEARBY_POI_COUNT, 50);
+		when(extensionApi.getSharedEventState(anyString(), any(Event.class),
+											  any(ExtensionErrorCallback.class))).thenReturn(configData);
+
+		// test
+		monitorInternal.queueEvent(updateLocationEvent);
+		monitorInternal.processEvents();
+		monitorInternal.getPOIsForLocation(location);
+
+		// verify
+		verify(geofenceManager, times(1)).setGeofenceBudget(50);
+		verifyStatic(Places.class, Mockito.times(1));
+		Places.getNearbyPointsOfInterest(any(Location.class), eq(50), any(AdobeCallback.class), any(AdobeCallback.class));
+	}
+
+	@Test
+	public void test_processEvents_capsNearbyPOICountFromConfiguration() {
+		// setup
+		initWithContext(context);
+		Whitebox.setInternalState(monitorInternal, "locationManager", locationManager);
+		Map<String, Object> configData = new HashMap<>();
+		configData.put(PlacesMonitorTestConstants.SharedState.CONFIG_NEARBY_POI_COUNT, "500");
+		when(extensionApi.getSharedEventState(anyString(), any(Event.class),
+											  any(ExtensionErrorCallback.class))).thenReturn(configData);
+
+		// test
+		monitorInternal.queueEvent(updateLocationEvent);
+		monitorInternal.processEvents();
+		monitorInternal.getPOIsForLocation(location);
+
+		// verify
+		verify(geofenceManager, times(1)).setGeofenceBudget(PlacesMonitorTestConstants.MAX_GEOFENCES_COUNT);
+		verifyStatic(Places.class, Mockito.times(1));
+		Places.getNearbyPointsOfInterest(any(Location.class), eq(PlacesMonitorTestConstants.MAX_GEOFENCES_COUNT),
+										 any(AdobeCallback.class), any(AdobeCallback.class));
+	}
+
+	@Test
+	public void test_processEvents_invalidNearbyPOICountInConfiguration() {
+		// setup
+		initWithContext(context);
+		Whitebox.setInternalState(monitorInternal, "locationManager", locationManager);
+		Map<String, Object> configData = new HashMap<>();
+		configData.put(PlacesMonitorTestConstants.SharedState.CONFIG_NEARBY_POI_COUNT, "invalid");
+		when(extensionApi.getSharedEventState(anyString(), any(Event.class),
+											  any(ExtensionErrorCallback.class))).thenReturn(configData);
+
+		// test
+		monitorInternal.queueEvent(updateLocationEvent);
+		monitorInternal.processEvents();
+		monitorInternal.getPOIsForLocation(location);
+
+		// verify the default count is used
+		verify(geofenceManager, times(0)).setGeofenceBudget(anyInt());
+		verifyStatic(Places.class, Mockito.times(1));
+		Places.getNearbyPointsOfInterest(any(Location.class), eq(PlacesMonitorTestConstants.NEARBY_GEOFENCES_COUNT),
+										 any(AdobeCallback.class), any(AdobeCallback.class));
+	}
+
+	@Test
+	public void test_processEvents_readsPOIPackUrlFromConfiguration() {
+		// setup
+		initWithContext(context);
+		Whitebox.setInternalState(monitorInternal, "locationManager", locationManager);
+		Whitebox.setInternalState(monitorInternal, "poiPackManager", poiPackManager);
+		Map<String, Object> configData = new HashMap<>();
+		configData.put(PlacesMonitorTestConstants.SharedState.CONFIG_POI_PACK_URL, "https://example.com/poipack.bin");
+		when(extensionApi.getSharedEventState(anyString(), any(Event.class),
+											  any(ExtensionErrorCallback.class))).thenReturn(configData);
+
+		// test
+		monitorInternal.queueEvent(updateLocationEvent);
+		monitorInternal.processEvents();
+
+		// verify
+		verify(poiPackManager, times(1)).setPackUrl("https://example.com/poipack.bin");
+	}
+
+	@Test
+	public void test_processEvents_disablesPOIPackWhenPrivacyOptedOut() {
+		// setup
+		initWithContext(context);
+		Whitebox.setInternalState(monitorInternal, "locationManager", locationManager);
+		Whitebox.setInternalState(monitorInternal, "poiPackManager", poiPackManager);
+		Map<String, Object> configData = new HashMap<>();
+		configData.put(PlacesMonitorTestConstants.SharedState.CONFIG_POI_PACK_URL, "https://example.com/poipack.bin");
+		configData.put(PlacesMonitorTestConstants.SharedState.CONFIG_GLOBAL_PRIVACY,
+					   PlacesMonitorTestConstants.SharedState.PRIVACY_OPTED_OUT);
+		when(extensionApi.getSharedEventState(anyString(), any(Event.class),
+											  any(ExtensionErrorCallback.class))).thenReturn(configData);
+
+		// test
+		monitorInternal.queueEvent(updateLocationEvent);
+		monitorInternal.processEvents();
+
+		// verify
+		verify(poiPackManager, times(1)).setPackUrl(null);
+	}
+
+	@Test
+	public void test_processEvents_disablesPOIPackWithoutConfiguration() {
+		// setup
+		initWithContext(context);
+		Whitebox.setInternalState(monitorInternal, "locationManager", locationManager);
+		Whitebox.setInternalState(monitorInternal, "poiPackManager", poiPackManager);
+		when(extensionApi.getSharedEventState(anyString(), any(Event.class),
+											  any(ExtensionErrorCallback.class))).thenReturn(new HashMap<String, Object>());
+
+		// test
+		monitorInternal.queueEvent(updateLocationEvent);
+		monitorInternal.processEvents();
+
+		// verify
+		verify(poiPackManager, times(1)).setPackUrl(null);
+	}
+
+	@Test
+	public void test_processEvents_mergesGeofenceTriggers() throws Exception {
+		// setup
+		initWithContext(context);
+
+		// setup configuration
+		Map<String, Object> configData = new HashMap<>();
+		when(extensionApi.getSharedEventState(anyString(), any(Event.class),
+											  any(ExtensionErrorCallback.class))).thenReturn(configData);
+		final ArgumentCaptor<EventData> eventDataCaptor = ArgumentCaptor.forClass(EventData.class);
+
+		// test
+		monitorInternal.queueEvent(OSGeofenceEvent);
+		monitorInternal.queueEvent(OSGeofenceEvent);
+		monitorInternal.processEvents();
+
+		// verify
+		verify(geofenceManager, times(1)).onGeofenceTriggerReceived(eventDataCaptor.capture());
+		assertEquals(getGeofenceIds(), eventDataCaptor.getValue().getStringList(
+						 PlacesMonitorTestConstants.EventDataKey.GEOFENCE_IDS));
 	}
 
 	@Test
@@ -606,6 +1043,39 @@ public class PlacesMonitorInternalTests {
 		verify(geofenceManager, times(1)).onGeofenceTriggerReceived(geofenceTransitionEventData());
 	}
 
+	@Test
+	public void test_processEvents_when_OSGeofenceEvent_exitsRefreshFence() {
+		// setup
+		initWithContext(context);
+		Whitebox.setInternalState(monitorInternal, "geofenceManager", geofenceManager);
+		Whitebox.setInternalState(monitorInternal, "locationManager", locationManager);
+		Mockito.when(geofenceManager.onGeofenceTriggerReceived(any(EventData.class))).thenReturn(true);
+
+		// test
+		monitorInternal.queueEvent(OSGeofenceEvent);
+		monitorInternal.processEvents();
+
+		// verify the nearby POIs are refreshed for the exit location, not the last known location
+		verify(locationManager, times(1)).onRefreshFenceExited(any(EventData.class));
+		verify(locationManager, times(0)).updateLocation();
+	}
+
+	@Test
+	public void test_processEvents_when_OSActivityTransitionEvent() {
+		// setup
+		initWithContext(context);
+		Whitebox.setInternalState(monitorInternal, "locationManager", locationManager);
+		Whitebox.setInternalState(monitorInternal, "geofenceManager", geofenceManager);
+
+		// test
+		monitorInternal.queueEvent(makeOSEvent(PlacesMonitorTestConstants.EventDataValue.OS_EVENT_TYPE_ACTIVITY_TRANSITION));
+		monitorInternal.processEvents();
+
+		// verify
+		verify(locationManager, times(1)).onActivityTransition(any(EventData.class));
+		verify(locationManager, times(0)).onLocationReceived(any(EventData.class));
+	}
+
 	@Test
 	public void test_processEvents_when_OSEventUnknownType() {
 		// setup
@@ -793,9 +1263,261 @@ public class PlacesMonitorInternalTests {
 		// call the success callback
 		List<PlacesPOI> nearbyPois = samplePOIList();
 		successCallbackCaptor.getValue().call(nearbyPois);
+		awaitExecutor();
 
 		// verify
-		verify(geofenceManager, times(1)).startMonitoringFences(nearbyPois);
+		verify(geofenceManager, times(1)).startMonitoringFences(eq(nearbyPois), anyDouble(), anyDouble());
+	}
+
+	@Test
+	public void test_getPOIsForLocation_when_success_passesPOIsOnExecutor() throws Exception {
+		// setup
+		initWithContext(context);
+		Whitebox.setInternalState(monitorInternal, "locationManager", locationManager);
+		final ArgumentCaptor<AdobeCallback> successCallbackCaptor = ArgumentCaptor.forClass(AdobeCallback.class);
+		final Thread executorThread = monitorInternal.getExecutor().submit(new Callable<Thread>() {
+			@Override
+			public Thread call() {
+				return Thread.currentThread();
+			}
+		}).get();
+		final List<Thread> callingThreads = new ArrayList<Thread>();
+		Mockito.doAnswer(new Answer<Void>() {
+			@Override
+			public Void answer(final InvocationOnMock invocation) {
+				callingThreads.add(Thread.currentThread());
+				return null;
+			}
+		}).when(locationManager).onNearbyPOIsReceived(anyDouble(), anyDouble(), ArgumentMatchers.<PlacesPOI>anyList());
+		monitorInternal.getPOIsForLocation(location);
+		verifyStatic(Places.class, Mockito.times(1));
+		Places.getNearbyPointsOfInterest(any(Location.class), anyInt(), successCallbackCaptor.capture(),
+										 any(AdobeCallback.class));
+
+		// test the callback is called from a Places thread
+		successCallbackCaptor.getValue().call(samplePOIList());
+		awaitExecutor();
+
+		// verify the nearby POIs reach the location manager on the executor
+		assertEquals(1, callingThreads.size());
+		assertSame(executorThread, callingThreads.get(0));
+	}
+
+	@Test
+	public void test_getPOIsForLocation_when_poiPackCoversLocation() {
+		// setup
+		initWithContext(context);
+		Whitebox.setInternalState(monitorInternal, "poiPackManager", poiPackManager);
+		List<PlacesPOI> packPOIs = samplePOIList();
+		when(location.getLatitude()).thenReturn(22.22);
+		when(location.getLongitude()).thenReturn(33.33);
+		when(poiPackManager.getPack()).thenReturn(poiPack);
+		when(poiPack.covers(22.22, 33.33)).thenReturn(true);
+		when(poiPack.getNearbyPOIs(22.22, 33.33, PlacesMonitorTestConstants.NEARBY_GEOFENCES_COUNT)).thenReturn(packPOIs);
+
+		// test
+		monitorInternal.getPOIsForLocation(location);
+
+		// verify the pois are read from the pack, and Places is not queried since no entry is deferred
+		verify(geofenceManager, times(1)).startMonitoringOfflineFences(packPOIs, 22.22, 33.33);
+		verify(geofenceManager, times(0)).startMonitoringFences(ArgumentMatchers.<PlacesPOI>anyList(), anyDouble(),
+				anyDouble());
+		verifyStatic(Places.class, Mockito.times(0));
+		Places.getNearbyPointsOfInterest(any(Location.class), anyInt(), any(AdobeCallback.class), any(AdobeCallback.class));
+	}
+
+	@Test
+	public void test_getPOIsForLocation_when_poiPackCoversLocation_andEntryIsDeferred() {
+		// setup
+		initWithContext(context);
+		final ArgumentCaptor<AdobeCallback> successCallbackCaptor = ArgumentCaptor.forClass(AdobeCallback.class);
+		Whitebox.setInternalState(monitorInternal, "poiPackManager", poiPackManager);
+		List<PlacesPOI> packPOIs = samplePOIList();
+		when(location.getLatitude()).thenReturn(22.22);
+		when(location.getLongitude()).thenReturn(33.33);
+		when(poiPackManager.getPack()).thenReturn(poiPack);
+		when(poiPack.covers(22.22, 33.33)).thenReturn(true);
+		when(poiPack.getNearbyPOIs(22.22, 33.33, PlacesMonitorTestConstants.NEARBY_GEOFENCES_COUNT)).thenReturn(packPOIs);
+		when(geofenceManager.startMonitoringOfflineFences(packPOIs, 22.22, 33.33)).thenReturn(true);
+
+		// test
+		monitorInternal.getPOIsForLocation(location);
+
+		// verify Places is queried for the location
+		verifyStatic(Places.class, Mockito.times(1));
+		Places.getNearbyPointsOfInterest(any(Location.class), anyInt(), successCallbackCaptor.capture(),
+										 any(AdobeCallback.class));
+
+		// test the Places response
+		List<PlacesPOI> placesPOIs = samplePOIList();
+		successCallbackCaptor.getValue().call(placesPOIs);
+		awaitExecutor();
+
+		// verify the pois returned by Places are monitored, so that the deferred entry reaches Places
+		verify(geofenceManager, times(1)).startMonitoringFences(placesPOIs, 22.22, 33.33);
+	}
+
+	@Test
+	public void test_getPOIsForLocation_recordsQueryMetrics() {
+		// setup
+		initWithContext(context);
+		final ArgumentCaptor<AdobeCallback> successCallbackCaptor = ArgumentCaptor.forClass(AdobeCallback.class);
+		final ArgumentCaptor<AdobeCallback> errorCallbackCaptor = ArgumentCaptor.forClass(AdobeCallback.class);
+		PlacesMonitorMetrics metrics = PlacesMonitorMetrics.getInstance();
+		metrics.reset();
+		when(location.getLatitude()).thenReturn(22.22);
+		when(location.getLongitude()).thenReturn(33.33);
+
+		// test
+		monitorInternal.getPOIsForLocation(location);
+		verifyStatic(Places.class, Mockito.times(1));
+		Places.getNearbyPointsOfInterest(any(Location.class), anyInt(), successCallbackCaptor.capture(),
+										 errorCallbackCaptor.capture());
+		successCallbackCaptor.getValue().call(samplePOIList());
+		awaitExecutor();
+		errorCallbackCaptor.getValue().call(PlacesRequestError.CONNECTIVITY_ERROR);
+		awaitExecutor();
+		monitorInternal.getPOIsForLocation(location);
+
+		// verify
+		assertEquals(1, metrics.get(PlacesMonitorMetrics.Counter.NEARBY_POI_QUERIES));
+		assertEquals(1, metrics.get(PlacesMonitorMetrics.Counter.NEARBY_POI_CACHE_HITS));
+		assertEquals(1, metrics.get(PlacesMonitorMetrics.Counter.NEARBY_POI_QUERY_FAILURES));
+		assertEquals(1, metrics.getRequestErrors(PlacesRequestError.CONNECTIVITY_ERROR));
+		assertEquals(2, metrics.getCount(PlacesMonitorMetrics.Histogram.NEARBY_POI_QUERY_LATENCY));
+	}
+
+	@Test
+	public void test_getPOIsForLocation_when_poiPackDoesNotCoverLocation() {
+		// setup
+		initWithContext(context);
+		Whitebox.setInternalState(monitorInternal, "poiPackManager", poiPackManager);
+		when(poiPackManager.getPack()).thenReturn(poiPack);
+		when(poiPack.covers(anyDouble(), anyDouble())).thenReturn(false);
+
+		// test
+		monitorInternal.getPOIsForLocation(location);
+
+		// verify
+		verifyStatic(Places.class, Mockito.times(1));
+		Places.getNearbyPointsOfInterest(any(Location.class), anyInt(), any(AdobeCallback.class), any(AdobeCallback.class));
+		verify(poiPack, times(0)).getNearbyPOIs(anyDouble(), anyDouble(), anyInt());
+	}
+
+	@Test
+	public void test_getPOIsForLocation_when_locationWithinCachedCell() {
+		// setup
+		initWithContext(context);
+		final ArgumentCaptor<AdobeCallback> successCallbackCaptor = ArgumentCaptor.forClass(AdobeCallback.class);
+		final ArgumentCaptor<List> cachedPOIsCaptor = ArgumentCaptor.forClass(List.class);
+		when(location.getLatitude()).thenReturn(22.22);
+		when(location.getLongitude()).thenReturn(33.33);
+		monitorInternal.getPOIsForLocation(location);
+		verifyStatic(Places.class, Mockito.times(1));
+		Places.getNearbyPointsOfInterest(any(Location.class), anyInt(), successCallbackCaptor.capture(),
+										 any(AdobeCallback.class));
+		successCallbackCaptor.getValue().call(samplePOIList());
+		awaitExecutor();
+
+		// test
+		Location nearbyLocation = Mockito.mock(Location.class);
+		when(nearbyLocation.getLatitude()).thenReturn(22.2201);
+		when(nearbyLocation.getLongitude()).thenReturn(33.3301);
+		monitorInternal.getPOIsForLocation(nearbyLocation);
+
+		// verify that no new request is made and cached pois are monitored
+		verifyStatic(Places.class, Mockito.times(1));
+		Places.getNearbyPointsOfInterest(any(Location.class), anyInt(), any(AdobeCallback.class), any(AdobeCallback.class));
+		verify(geofenceManager, times(1)).startMonitoringFences(ArgumentMatchers.<PlacesPOI>anyList(), anyDouble(),
+				anyDouble());
+		verify(geofenceManager, times(1)).startMonitoringOfflineFences(cachedPOIsCaptor.capture(), anyDouble(), anyDouble());
+		List<PlacesPOI> cachedPOIs = cachedPOIsCaptor.getValue();
+		assertEquals(3, cachedPOIs.size());
+		assertEquals("poiID1", cachedPOIs.get(0).getIdentifier());
+		assertTrue(cachedPOIs.get(0).containsUser());
+	}
+
+	@Test
+	public void test_getPOIsForLocation_when_locationWithinCachedCell_andEntryIsDeferred() {
+		// setup
+		initWithContext(context);
+		final ArgumentCaptor<AdobeCallback> successCallbackCaptor = ArgumentCaptor.forClass(AdobeCallback.class);
+		when(location.getLatitude()).thenReturn(22.22);
+		when(location.getLongitude()).thenReturn(33.33);
+		when(geofenceManager.startMonitoringOfflineFences(ArgumentMatchers.<PlacesPOI>anyList(), anyDouble(),
+				anyDouble())).thenReturn(true);
+		monitorInternal.getPOIsForLocation(location);
+		verifyStatic(Places.class, Mockito.times(1));
+		Places.getNearbyPointsOfInterest(any(Location.class), anyInt(), successCallbackCaptor.capture(),
+										 any(AdobeCallback.class));
+		successCallbackCaptor.getValue().call(samplePOIList());
+		awaitExecutor();
+
+		// test the cached pois hold a poi the Places extension does not know anymore
+		monitorInternal.getPOIsForLocation(location);
+
+		// verify Places is queried for the location
+		verifyStatic(Places.class, Mockito.times(2));
+		Places.getNearbyPointsOfInterest(any(Location.class), anyInt(), successCallbackCaptor.capture(),
+										 any(AdobeCallback.class));
+
+		// test the Places response
+		List<PlacesPOI> placesPOIs = samplePOIList();
+		successCallbackCaptor.getValue().call(placesPOIs);
+		awaitExecutor();
+
+		// verify the pois returned by Places are monitored, so that the deferred entry reaches Places
+		verify(geofenceManager, times(1)).startMonitoringFences(placesPOIs, 22.22, 33.33);
+	}
+
+	@Test
+	public void test_getPOIsForLocation_when_locationOutsideCachedCell() {
+		// setup
+		initWithContext(context);
+		final ArgumentCaptor<AdobeCallback> successCallbackCaptor = ArgumentCaptor.forClass(AdobeCallback.class);
+		when(location.getLatitude()).thenReturn(22.22);
+		when(location.getLongitude()).thenReturn(33.33);
+		monitorInternal.getPOIsForLocation(location);
+		verifyStatic(Places.class, Mockito.times(1));
+		Places.getNearbyPointsOfInterest(any(Location.class), anyInt(), successCallbackCaptor.capture(),
+										 any(AdobeCallback.class));
+		successCallbackCaptor.getValue().call(samplePOIList());
+		awaitExecutor();
+
+		// test
+		Location farLocation = Mockito.mock(Location.class);
+		when(farLocation.getLatitude()).thenReturn(22.32);
+		when(farLocation.getLongitude()).thenReturn(33.33);
+		monitorInternal.getPOIsForLocation(farLocation);
+
+		// verify
+		verifyStatic(Places.class, Mockito.times(2));
+		Places.getNearbyPointsOfInterest(any(Location.class), anyInt(), any(AdobeCallback.class), any(AdobeCallback.class));
+	}
+
+	@Test
+	public void test_getPOIsForLocation_afterStopWithClearData() throws Exception {
+		// setup
+		initWithContext(context);
+		final ArgumentCaptor<AdobeCallback> successCallbackCaptor = ArgumentCaptor.forClass(AdobeCallback.class);
+		Whitebox.setInternalState(monitorInternal, "locationManager", locationManager);
+		when(extensionApi.getSharedEventState(anyString(), any(Event.class),
+											  any(ExtensionErrorCallback.class))).thenReturn(new HashMap<String, Object>());
+		monitorInternal.getPOIsForLocation(location);
+		verifyStatic(Places.class, Mockito.times(1));
+		Places.getNearbyPointsOfInterest(any(Location.class), anyInt(), successCallbackCaptor.capture(),
+										 any(AdobeCallback.class));
+		successCallbackCaptor.getValue().call(samplePOIList());
+		awaitExecutor();
+
+		// test
+		monitorInternal.queueEvent(stopMonitoringEventWithClearData);
+		monitorInternal.processEvents();
+		monitorInternal.getPOIsForLocation(location);
+
+		// verify
+		verifyStatic(Places.class, Mockito.times(2));
+		Places.getNearbyPointsOfInterest(any(Location.class), anyInt(), any(AdobeCallback.class), any(AdobeCallback.class));
 	}
 
 	@Test
@@ -816,6 +1538,7 @@ public class PlacesMonitorInternalTests {
 
 		// call the failure callback
 		failureCallbackCaptor.getValue().call(PlacesRequestError.CONFIGURATION_ERROR);
+		awaitExecutor();
 
 		// verify
 		verifyStatic(Places.class, Mockito.times(1));
@@ -842,6 +1565,7 @@ public class PlacesMonitorInternalTests {
 
 		// call the failure callback with CONNECTIVITY_ERROR
 		failureCallbackCaptor.getValue().call(PlacesRequestError.CONNECTIVITY_ERROR);
+		awaitExecutor();
 
 		// verify;
 		verifyStatic(Places.class, Mockito.times(0));
@@ -852,6 +1576,7 @@ public class PlacesMonitorInternalTests {
 
 		// call the failure callback with INVALID_LATLONG_ERROR
 		failureCallbackCaptor.getValue().call(PlacesRequestError.INVALID_LATLONG_ERROR);
+		awaitExecutor();
 
 		// verify;
 		verifyStatic(Places.class, Mockito.times(0));
@@ -862,6 +1587,7 @@ public class PlacesMonitorInternalTests {
 
 		// call the failure callback with QUERY_SERVICE_UNAVAILABLE
 		failureCallbackCaptor.getValue().call(PlacesRequestError.QUERY_SERVICE_UNAVAILABLE);
+		awaitExecutor();
 
 		// verify;
 		verifyStatic(Places.class, Mockito.times(0));
@@ -872,6 +1598,7 @@ public class PlacesMonitorInternalTests {
 
 		// call the failure callback with SERVER_RESPONSE_ERROR
 		failureCallbackCaptor.getValue().call(PlacesRequestError.SERVER_RESPONSE_ERROR);
+		awaitExecutor();
 
 		// verify;
 		verifyStatic(Places.class, Mockito.times(0));
@@ -882,6 +1609,7 @@ public class PlacesMonitorInternalTests {
 
 		// call the failure callback with UNKNOWN_ERROR
 		failureCallbackCaptor.getValue().call(PlacesRequestError.UNKNOWN_ERROR);
+		awaitExecutor();
 
 		// verify;
 		verifyStatic(Places.class, Mockito.times(0));
@@ -894,9 +1622,22 @@ public class PlacesMonitorInternalTests {
 	// Private helper methods
 	// ========================================================================================
 
+	private void awaitExecutor() {
+		try {
+			monitorInternal.getExecutor().submit(new Runnable() {
+				@Override
+				public void run() {
+				}
+			}).get();
+		} catch (Exception exp) {
+			fail(exp.getMessage());
+		}
+	}
+
 	private void initWithContext(Context context) {
 		Mockito.when(App.getAppContext()).thenReturn(context);
 		monitorInternal = new PlacesMonitorInternal(extensionApi);
+		assertTrue(monitorInternal.awaitInitialization());
 	}
 
 	private List<PlacesPOI> samplePOIList() {
@@ -67,6 +67,7 @@ public class PlacesMonitorListenerHubSharedStateTests {
 		waitForExecutor();
 
 		// verify
+		verify(mockPlacesMonitorInternal, times(1)).onConfigurationSharedStateChanged();
 		verify(mockPlacesMonitorInternal, times(1)).processEvents();
 	}
 
@@ -81,6 +82,7 @@ public class PlacesMonitorListenerHubSharedStateTests {
 		waitForExecutor();
 
 		// verify
+		verify(mockPlacesMonitorInternal, times(0)).onConfigurationSharedStateChanged();
 		verify(mockPlacesMonitorInternal, times(0)).processEvents();
 	}
 
@@ -98,6 +100,7 @@ public class PlacesMonitorListenerHubSharedStateTests {
 		waitForExecutor();
 
 		// verify
+		verify(mockPlacesMonitorInternal, times(0)).onConfigurationSharedStateChanged();
 		verify(mockPlacesMonitorInternal, times(0)).processEvents();
 	}
 
@@ -114,6 +117,7 @@ public class PlacesMonitorListenerHubSharedStateTests {
 		waitForExecutor();
 
 		// verify
+		verify(mockPlacesMonitorInternal, times(0)).onConfigurationSharedStateChanged();
 		verify(mockPlacesMonitorInternal, times(0)).processEvents();
 	}
 
@@ -0,0 +1,203 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorLocationFilterTests.java
+//
+
+package com.adobe.marketing.mobile;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class PlacesMonitorLocationFilterTests {
+	private PlacesMonitorLocationFilter filter;
+	private long currentTime;
+
+	@Before
+	public void before() {
+		currentTime = 10000000;
+		filter = new PlacesMonitorLocationFilter() {
+			@Override
+			long getCurrentTime() {
+				return currentTime;
+			}
+		};
+	}
+
+	// ========================================================================================
+	// accept
+	// ========================================================================================
+	@Test
+	public void test_accept_validFix() {
+		assertTrue(filter.accept(22.22, 33.33, 20, currentTime, 1));
+		assertTrue(filter.accept(22.22, 33.33, Double.NaN, currentTime, Double.NaN));
+	}
+
+	@Test
+	public void test_accept_staleFix() {
+		assertFalse(filter.accept(22.22, 33.33, 20, currentTime - PlacesMonitorConstants.LocationFilter.MAX_FIX_AGE - 1,
+								  Double.NaN));
+	}
+
+	@Test
+	public void test_accept_fixOlderThanLastAcceptedFix() {
+		// setup
+		assertTrue(filter.accept(22.22, 33.33, 20, currentTime, Double.NaN));
+
+		// verify
+		assertFalse(filter.accept(22.22, 33.33, 20, currentTime - 1000, Double.NaN));
+	}
+
+	@Test
+	public void test_accept_inaccurateFix() {
+		assertFalse(filter.accept(22.22, 33.33, PlacesMonitorConstants.LocationFilter.MAX_ACCURACY + 1, currentTime,
+								  Double.NaN));
+	}
+
+	@Test
+	public void test_accept_implausibleReportedSpeed() {
+		assertFalse(filter.accept(22.22, 33.33, 20, currentTime, PlacesMonitorConstants.LocationFilter.MAX_SPEED + 1));
+	}
+
+	@Test
+	public void test_accept_implausibleJump() {
+		// setup
+		assertTrue(filter.accept(22.22, 33.33, 20, currentTime - 60000, Double.NaN));
+
+		// test, a jump of roughly 111 kilometers in a minute
+		assertFalse(filter.accept(23.22, 33.33, 20, currentTime, Double.NaN));
+	}
+
+	@Test
+	public void test_accept_plausibleMove() {
+		// setup
+		assertTrue(filter.accept(22.22, 33.33, 20, currentTime - 60000, Double.NaN));
+
+		// test, a move of roughly 1 kilometer in a minute
+		assertTrue(filter.accept(22.23, 33.33, 20, currentTime, Double.NaN));
+	}
+
+	@Test
+	public void test_accept_fixWithSameTimeAsLastAcceptedFix_skipsImpliedSpeed() {
+		// setup
+		assertTrue(filter.accept(22.22, 33.33, 20, currentTime, Double.NaN));
+
+		// test, no speed can be implied without elapsed time
+		assertTrue(filter.accept(22.23, 33.33, 20, currentTime, Double.NaN));
+	}
+
+	@Test
+	public void test_accept_fixOlderThanLastAcceptedFix_isNotCountedAsImplausible() {
+		// setup
+		assertTrue(filter.accept(22.22, 33.33, 20, currentTime - 60000, Double.NaN));
+
+		// test, the older fixes are rejected as stale without implying a negative speed
+		for (int i = 0; i <= PlacesMonitorConstants.LocationFilter.MAX_IMPLAUSIBLE_FIXES; i++) {
+			assertFalse(filter.accept(23.22, 33.33, 20, currentTime - 120000, Double.NaN));
+		}
+
+		// verify, the implausible jump is still rejected as no implausible fix was counted
+		assertFalse(filter.accept(23.22, 33.33, 20, currentTime, Double.NaN));
+	}
+
+	@Test
+	public void test_accept_afterConsecutiveImplausibleFixes() {
+		// setup
+		assertTrue(filter.accept(22.22, 33.33, 20, currentTime - 60000, Double.NaN));
+
+		// verify, the last accepted fix is assumed wrong once the implausible fixes keep coming
+		for (int i = 0; i < PlacesMonitorConstants.LocationFilter.MAX_IMPLAUSIBLE_FIXES; i++) {
+			assertFalse(filter.accept(23.22, 33.33, 20, currentTime - 1000 + i, Double.NaN));
+		}
+
+		assertTrue(filter.accept(23.22, 33.33, 20, currentTime, Double.NaN));
+	}
+
+	@Test
+	public void test_reset() {
+		// setup
+		assertTrue(filter.accept(22.22, 33.33, 20, currentTime, Double.NaN));
+
+		// test
+		filter.reset();
+
+		// verify
+		assertTrue(filter.accept(22.22, 33.33, 20, currentTime - 1000, Double.NaN));
+	}
+
+	// ========================================================================================
+	// isWithinFenceCluster
+	// ========================================================================================
+	@Test
+	public void test_isWithinFenceCluster_whenNoCluster() {
+		assertFalse(filter.isWithinFenceCluster(22.22, 33.33, 20));
+
+		filter.onNearbyPOIsReceived(22.22, 33.33, new ArrayList<PlacesPOI>());
+		assertFalse(filter.isWithinFenceCluster(22.22, 33.33, 20));
+	}
+
+	@Test
+	public void test_isWithinFenceCluster() {
+		// setup, a cluster of roughly 3.3 kilometers
+		filter.onNearbyPOIsReceived(22.22, 33.33, Collections.singletonList(poi(22.25, 33.33)));
+
+		// verify
+		assertTrue(filter.isWithinFenceCluster(22.22, 33.33, 20));
+		assertTrue(filter.isWithinFenceCluster(22.23, 33.33, 20));
+		assertFalse(filter.isWithinFenceCluster(22.23, 33.33, 1000));
+		assertFalse(filter.isWithinFenceCluster(22.24, 33.33, 20));
+	}
+
+	@Test
+	public void test_clearFenceCluster() {
+		// setup
+		assertTrue(filter.accept(22.22, 33.33, 20, currentTime, Double.NaN));
+		filter.onNearbyPOIsReceived(22.22, 33.33, Collections.singletonList(poi(22.25, 33.33)));
+
+		// test
+		filter.clearFenceCluster();
+
+		// verify the cluster is forgotten, the last accepted fix is kept
+		assertFalse(filter.isWithinFenceCluster(22.22, 33.33, 20));
+		assertFalse(filter.accept(22.22, 33.33, 20, currentTime - 1000, Double.NaN));
+	}
+
+	@Test
+	public void test_isWithinFenceCluster_usesMinimumRadius() {
+		// setup, a single POI at the device location
+		filter.onNearbyPOIsReceived(22.22, 33.33, Collections.singletonList(poi(22.22, 33.33)));
+
+		// verify
+		assertTrue(filter.isWithinFenceCluster(22.221, 33.33, 20));
+	}
+
+	@Test
+	public void test_isWithinFenceCluster_whenClusterExpired() {
+		// setup
+		filter.onNearbyPOIsReceived(22.22, 33.33, Collections.singletonList(poi(22.25, 33.33)));
+
+		// test
+		currentTime += PlacesMonitorConstants.POICache.TIME_TO_LIVE + 1;
+
+		// verify
+		assertFalse(filter.isWithinFenceCluster(22.22, 33.33, 20));
+	}
+
+	private PlacesPOI poi(final double latitude, final double longitude) {
+		return new PlacesPOI("id", "name", latitude, longitude, 100, "libraryID", 200, null);
+	}
+}
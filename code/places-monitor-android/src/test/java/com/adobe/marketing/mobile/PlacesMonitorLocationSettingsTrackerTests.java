@@ -0,0 +1,192 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorLocationSettingsTrackerTests.java
+//
+
+package com.adobe.marketing.mobile;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.SharedPreferences;
+import android.location.LocationManager;
+
+import com.google.android.gms.location.LocationRequest;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({App.class})
+public class PlacesMonitorLocationSettingsTrackerTests {
+	private PlacesMonitorLocationSettingsTracker tracker;
+	private LocationRequest locationRequest;
+
+	@Mock
+	Context context;
+
+	@Mock
+	LocationManager locationManager;
+
+	@Mock
+	SharedPreferences mockSharedPreference;
+
+	@Mock
+	SharedPreferences.Editor mockSharedPreferenceEditor;
+
+	@Mock
+	Intent intent;
+
+	@Before
+	public void before() {
+		PlacesMonitorClients.getInstance().reset();
+
+		PowerMockito.mockStatic(App.class);
+		Mockito.when(App.getAppContext()).thenReturn(context);
+		Mockito.when(context.getSharedPreferences(PlacesMonitorTestConstants.SharedPreference.MASTER_KEY,
+					 0)).thenReturn(mockSharedPreference);
+		Mockito.when(mockSharedPreference.edit()).thenReturn(mockSharedPreferenceEditor);
+		Mockito.when(context.getSystemService(Context.LOCATION_SERVICE)).thenReturn(locationManager);
+		Mockito.when(locationManager.isProviderEnabled(LocationManager.GPS_PROVIDER)).thenReturn(true);
+		Mockito.when(locationManager.isProviderEnabled(LocationManager.NETWORK_PROVIDER)).thenReturn(true);
+		Mockito.when(intent.getAction()).thenReturn(LocationManager.PROVIDERS_CHANGED_ACTION);
+
+		locationRequest = LocationRequest.create().setPriority(LocationRequest.PRIORITY_HIGH_ACCURACY);
+		tracker = new PlacesMonitorLocationSettingsTracker();
+	}
+
+	// ========================================================================================
+	// isSatisfied
+	// ========================================================================================
+
+	@Test
+	public void test_isSatisfied_whenNeverChecked() {
+		// verify
+		assertFalse(tracker.isSatisfied(locationRequest));
+	}
+
+	@Test
+	public void test_isSatisfied_afterSatisfiedCheck() {
+		// test
+		tracker.onSatisfied(locationRequest, null);
+
+		// verify
+		assertTrue(tracker.isSatisfied(locationRequest));
+		assertFalse(tracker.isSatisfied(LocationRequest.create().setPriority(LocationRequest.PRIORITY_LOW_POWER)));
+	}
+
+	@Test
+	public void test_isSatisfied_withPersistedSettings_whenProvidersUnchanged() {
+		// setup
+		Mockito.when(mockSharedPreference.getString(eq(PlacesMonitorTestConstants.SharedPreference.LOCATION_SETTINGS_KEY),
+					 nullable(String.class))).thenReturn(LocationRequest.PRIORITY_HIGH_ACCURACY + ":true:true");
+
+		// test
+		tracker = new PlacesMonitorLocationSettingsTracker();
+
+		// verify
+		assertTrue(tracker.isSatisfied(locationRequest));
+	}
+
+	@Test
+	public void test_isSatisfied_withPersistedSettings_whenProvidersChanged() {
+		// setup
+		Mockito.when(mockSharedPreference.getString(eq(PlacesMonitorTestConstants.SharedPreference.LOCATION_SETTINGS_KEY),
+					 nullable(String.class))).thenReturn(LocationRequest.PRIORITY_HIGH_ACCURACY + ":true:true");
+		Mockito.when(locationManager.isProviderEnabled(LocationManager.GPS_PROVIDER)).thenReturn(false);
+
+		// test
+		tracker = new PlacesMonitorLocationSettingsTracker();
+
+		// verify
+		assertFalse(tracker.isSatisfied(locationRequest));
+	}
+
+	// ========================================================================================
+	// invalidation
+	// ========================================================================================
+
+	@Test
+	public void test_onReceive_providersChanged_invalidates() {
+		// setup
+		tracker.onSatisfied(locationRequest, null);
+
+		// test
+		tracker.onReceive(context, intent);
+
+		// verify
+		assertFalse(tracker.isSatisfied(locationRequest));
+	}
+
+	@Test
+	public void test_onReceive_otherAction_ignored() {
+		// setup
+		tracker.onSatisfied(locationRequest, null);
+		Mockito.when(intent.getAction()).thenReturn("otherAction");
+
+		// test
+		tracker.onReceive(context, intent);
+
+		// verify
+		assertTrue(tracker.isSatisfied(locationRequest));
+	}
+
+	// ========================================================================================
+	// start/stop
+	// ========================================================================================
+
+	@Test
+	public void test_start_registersOnce() {
+		// test
+		tracker.start();
+		tracker.start();
+
+		// verify
+		verify(context, times(1)).registerReceiver(eq(tracker), any(IntentFilter.class));
+	}
+
+	@Test
+	public void test_stop_unregistersAndInvalidates() {
+		// setup
+		tracker.start();
+		tracker.onSatisfied(locationRequest, null);
+
+		// test
+		tracker.stop();
+
+		// verify
+		verify(context, times(1)).unregisterReceiver(tracker);
+		assertFalse(tracker.isSatisfied(locationRequest));
+	}
+
+	@Test
+	public void test_stop_whenNotStarted() {
+		// test
+		tracker.stop();
+
+		// verify
+		verify(context, times(0)).unregisterReceiver(any(BroadcastReceiver.class));
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorLogTests.java
+//
+
+package com.adobe.marketing.mobile;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import static org.junit.Assert.*;
+
+import org.mockito.Mockito;
+import static org.mockito.ArgumentMatchers.*;
+
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import static org.powermock.api.mockito.PowerMockito.verifyStatic;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({MobileCore.class, Log.class})
+public class PlacesMonitorLogTests {
+
+	@Before
+	public void before() {
+		PowerMockito.mockStatic(MobileCore.class);
+		PowerMockito.mockStatic(Log.class);
+	}
+
+	// ========================================================================================
+	// isEnabled
+	// ========================================================================================
+
+	@Test
+	public void test_isEnabled() {
+		// setup
+		Mockito.when(MobileCore.getLogLevel()).thenReturn(LoggingMode.DEBUG);
+
+		// verify
+		assertTrue(PlacesMonitorLog.isEnabled(LoggingMode.ERROR));
+		assertTrue(PlacesMonitorLog.isEnabled(LoggingMode.WARNING));
+		assertTrue(PlacesMonitorLog.isEnabled(LoggingMode.DEBUG));
+		assertFalse(PlacesMonitorLog.isEnabled(LoggingMode.VERBOSE));
+	}
+
+	@Test
+	public void test_isEnabled_whenLogLevelNull() {
+		// setup
+		Mockito.when(MobileCore.getLogLevel()).thenReturn(null);
+
+		// verify
+		assertFalse(PlacesMonitorLog.isEnabled(LoggingMode.ERROR));
+	}
+
+	// ========================================================================================
+	// logging
+	// ========================================================================================
+
+	@Test
+	public void test_debug_whenEnabled() {
+		// setup
+		Mockito.when(MobileCore.getLogLevel()).thenReturn(LoggingMode.DEBUG);
+
+		// test
+		PlacesMonitorLog.debug("message %s %s", "arg1", 2);
+
+		// verify
+		verifyStatic(Log.class, Mockito.times(1));
+		Log.debug(eq(PlacesMonitorConstants.LOG_TAG), eq("message %s %s"), eq("arg1"), eq(2));
+	}
+
+	@Test
+	public void test_trace_whenDisabled() {
+		// setup
+		Mockito.when(MobileCore.getLogLevel()).thenReturn(LoggingMode.DEBUG);
+
+		// test
+		PlacesMonitorLog.trace("message %s", "arg1");
+
+		// verify
+		verifyStatic(Log.class, Mockito.times(0));
+		Log.trace(anyString(), anyString(), any());
+	}
+
+	@Test
+	public void test_error_whenLogLevelError() {
+		// setup
+		Mockito.when(MobileCore.getLogLevel()).thenReturn(LoggingMode.ERROR);
+
+		// test
+		PlacesMonitorLog.warning("warning");
+		PlacesMonitorLog.error("error");
+
+		// verify
+		verifyStatic(Log.class, Mockito.times(0));
+		Log.warning(anyString(), anyString());
+		verifyStatic(Log.class, Mockito.times(1));
+		Log.error(PlacesMonitorConstants.LOG_TAG, "error");
+	}
+}
@@ -0,0 +1,163 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorMetricsTests.java
+//
+
+package com.adobe.marketing.mobile;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class PlacesMonitorMetricsTests {
+	private PlacesMonitorMetrics metrics;
+
+	@Before
+	public void before() {
+		metrics = new PlacesMonitorMetrics();
+	}
+
+	// ========================================================================================
+	// counters
+	// ========================================================================================
+	@Test
+	public void test_incrementAndAdd() {
+		// test
+		metrics.increment(PlacesMonitorMetrics.Counter.LOCATION_FIXES_RECEIVED);
+		metrics.add(PlacesMonitorMetrics.Counter.LOCATION_FIXES_RECEIVED, 3);
+
+		// verify
+		assertEquals(4, metrics.get(PlacesMonitorMetrics.Counter.LOCATION_FIXES_RECEIVED));
+		assertEquals(0, metrics.get(PlacesMonitorMetrics.Counter.LOCATION_FIXES_DROPPED));
+	}
+
+	@Test
+	public void test_recordRequestError() {
+		// test
+		metrics.recordRequestError(PlacesRequestError.CONNECTIVITY_ERROR);
+		metrics.recordRequestError(PlacesRequestError.CONNECTIVITY_ERROR);
+		metrics.recordRequestError(null);
+
+		// verify
+		assertEquals(3, metrics.get(PlacesMonitorMetrics.Counter.NEARBY_POI_QUERY_FAILURES));
+		assertEquals(2, metrics.getRequestErrors(PlacesRequestError.CONNECTIVITY_ERROR));
+		Map<String, Object> errors = (Map<String, Object>) metrics.snapshot().get(PlacesMonitorMetrics.NEARBY_POI_QUERY_ERRORS);
+		assertEquals(1, errors.size());
+		assertEquals(2L, errors.get(PlacesRequestError.CONNECTIVITY_ERROR.name()));
+	}
+
+	// ========================================================================================
+	// histograms
+	// ========================================================================================
+	@Test
+	public void test_record_computesPercentiles() {
+		// test
+		for (int i = 1; i <= 100; i++) {
+			metrics.record(PlacesMonitorMetrics.Histogram.QUEUE_DEPTH, i);
+		}
+
+		// verify the percentiles are the upper bound of their bucket
+		Map<String, Object> histogram = histogram("queuedepth");
+		assertEquals(100L, histogram.get(PlacesMonitorMetrics.COUNT));
+		assertEquals(5050L, histogram.get(PlacesMonitorMetrics.SUM));
+		assertEquals(100L, histogram.get(PlacesMonitorMetrics.MAX));
+		assertEquals(63L, histogram.get(PlacesMonitorMetrics.P50));
+		assertEquals(100L, histogram.get(PlacesMonitorMetrics.P90));
+		assertEquals(100L, histogram.get(PlacesMonitorMetrics.P99));
+	}
+
+	@Test
+	public void test_record_whenNegativeOrLarge() {
+		// test
+		metrics.record(PlacesMonitorMetrics.Histogram.EVENT_DRAIN_TIME, -5);
+		metrics.record(PlacesMonitorMetrics.Histogram.EVENT_DRAIN_TIME, Long.MAX_VALUE / 2);
+
+		// verify
+		Map<String, Object> histogram = histogram("eventdraintimemicros");
+		assertEquals(2L, histogram.get(PlacesMonitorMetrics.COUNT));
+		assertEquals(0L, histogram.get(PlacesMonitorMetrics.P50));
+		assertEquals(Long.MAX_VALUE / 2, histogram.get(PlacesMonitorMetrics.MAX));
+		assertEquals(Long.MAX_VALUE / 2, histogram.get(PlacesMonitorMetrics.P99));
+	}
+
+	@Test
+	public void test_snapshot_whenEmpty() {
+		// test
+		Map<String, Object> snapshot = metrics.snapshot();
+
+		// verify
+		assertEquals(0L, snapshot.get("locationfixesreceived"));
+		assertEquals(0L, histogram("persistencewritetimemicros").get(PlacesMonitorMetrics.P99));
+		assertEquals(0L, histogram("fencesadded").get(PlacesMonitorMetrics.COUNT));
+	}
+
+	@Test
+	public void test_reset() {
+		// setup
+		metrics.increment(PlacesMonitorMetrics.Counter.ADD_GEOFENCES_FAILURES);
+		metrics.recordRequestError(PlacesRequestError.SERVER_RESPONSE_ERROR);
+		metrics.record(PlacesMonitorMetrics.Histogram.FENCES_ADDED, 3);
+
+		// test
+		metrics.reset();
+
+		// verify
+		assertEquals(0, metrics.get(PlacesMonitorMetrics.Counter.ADD_GEOFENCES_FAILURES));
+		assertEquals(0, metrics.getRequestErrors(PlacesRequestError.SERVER_RESPONSE_ERROR));
+		assertEquals(0, metrics.getCount(PlacesMonitorMetrics.Histogram.FENCES_ADDED));
+		assertEquals(0L, histogram("fencesadded").get(PlacesMonitorMetrics.MAX));
+	}
+
+	@Test
+	public void test_record_fromConcurrentThreads() throws Exception {
+		// setup
+		final int threadCount = 4;
+		final int recordCount = 10000;
+		Thread[] threads = new Thread[threadCount];
+
+		for (int i = 0; i < threadCount; i++) {
+			final int value = i;
+			threads[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					for (int j = 0; j < recordCount; j++) {
+						metrics.record(PlacesMonitorMetrics.Histogram.FENCES_REMOVED, value);
+						metrics.increment(PlacesMonitorMetrics.Counter.LOCATION_FIXES_RECEIVED);
+					}
+				}
+			});
+		}
+
+		// test
+		for (Thread thread : threads) {
+			thread.start();
+		}
+
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		// verify
+		Map<String, Object> histogram = histogram("fencesremoved");
+		assertEquals((long) threadCount * recordCount, histogram.get(PlacesMonitorMetrics.COUNT));
+		assertEquals((long) threadCount - 1, histogram.get(PlacesMonitorMetrics.MAX));
+		assertEquals((long) threadCount * recordCount, metrics.get(PlacesMonitorMetrics.Counter.LOCATION_FIXES_RECEIVED));
+	}
+
+	private Map<String, Object> histogram(final String key) {
+		return (Map<String, Object>) metrics.snapshot().get(key);
+	}
+}
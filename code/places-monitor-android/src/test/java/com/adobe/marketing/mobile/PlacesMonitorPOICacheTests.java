@@ -0,0 +1,174 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorPOICacheTests.java
+//
+
+package com.adobe.marketing.mobile;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PlacesMonitorPOICacheTests {
+	private static final long TIME_TO_LIVE = 1000;
+
+	private PlacesMonitorPOICache cache;
+	private long currentTime;
+
+	@Before
+	public void before() {
+		currentTime = 10000;
+		cache = new PlacesMonitorPOICache(6, TIME_TO_LIVE, 2) {
+			@Override
+			long getCurrentTime() {
+				return currentTime;
+			}
+		};
+	}
+
+	// ========================================================================================
+	// geohash
+	// ========================================================================================
+	@Test
+	public void test_geohash() {
+		assertEquals("u4pruydqqvj", PlacesMonitorPOICache.geohash(57.64911, 10.40744, 11));
+		assertEquals("ezs42", PlacesMonitorPOICache.geohash(42.605, -5.603, 5));
+		assertEquals("7zzzzz", PlacesMonitorPOICache.geohash(-0.000001, -0.000001, 6));
+		assertEquals("s00000", PlacesMonitorPOICache.geohash(0.0, 0.0, 6));
+	}
+
+	// ========================================================================================
+	// get and put
+	// ========================================================================================
+	@Test
+	public void test_get_whenCellNotCached() {
+		assertNull(cache.get(22.22, 33.33));
+	}
+
+	@Test
+	public void test_get_whenLocationWithinCachedCell() {
+		// setup
+		cache.put(22.22, 33.33, samplePOIList());
+
+		// test
+		List<PlacesPOI> pois = cache.get(22.2201, 33.3301);
+
+		// verify
+		assertNotNull(pois);
+		assertEquals(2, pois.size());
+	}
+
+	@Test
+	public void test_get_whenLocationOutsideCachedCell() {
+		// setup
+		cache.put(22.22, 33.33, samplePOIList());
+
+		// test and verify
+		assertNull(cache.get(22.32, 33.33));
+	}
+
+	@Test
+	public void test_get_sortsByDistanceAndRecomputesUserWithin() {
+		// setup
+		List<PlacesPOI> pois = samplePOIList();
+		pois.get(0).setUserIsWithin(true);
+		cache.put(22.22, 33.33, pois);
+
+		// test, location right at poi2
+		List<PlacesPOI> cachedPOIs = cache.get(22.2210, 33.3310);
+
+		// verify
+		assertEquals("id2", cachedPOIs.get(0).getIdentifier());
+		assertTrue(cachedPOIs.get(0).containsUser());
+		assertEquals("id1", cachedPOIs.get(1).getIdentifier());
+		assertFalse(cachedPOIs.get(1).containsUser());
+		// the cached pois are not modified
+		assertTrue(pois.get(0).containsUser());
+		assertFalse(pois.get(1).containsUser());
+	}
+
+	@Test
+	public void test_get_whenCachedCellExpired() {
+		// setup
+		cache.put(22.22, 33.33, samplePOIList());
+
+		// test
+		currentTime += TIME_TO_LIVE;
+		assertNotNull(cache.get(22.22, 33.33));
+		currentTime += 1;
+
+		// verify
+		assertNull(cache.get(22.22, 33.33));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void test_put_nullPOIs() {
+		// test
+		cache.put(22.22, 33.33, null);
+
+		// verify
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void test_put_emptyPOIs() {
+		// test
+		cache.put(22.22, 33.33, new ArrayList<PlacesPOI>());
+
+		// verify
+		assertNotNull(cache.get(22.22, 33.33));
+		assertEquals(0, cache.get(22.22, 33.33).size());
+	}
+
+	@Test
+	public void test_put_evictsLeastRecentlyUsedCell() {
+		// setup
+		cache.put(10.0, 10.0, samplePOIList());
+		cache.put(20.0, 20.0, samplePOIList());
+
+		// test
+		cache.get(10.0, 10.0);
+		cache.put(30.0, 30.0, samplePOIList());
+
+		// verify
+		assertEquals(2, cache.size());
+		assertNotNull(cache.get(10.0, 10.0));
+		assertNull(cache.get(20.0, 20.0));
+		assertNotNull(cache.get(30.0, 30.0));
+	}
+
+	@Test
+	public void test_clear() {
+		// setup
+		cache.put(10.0, 10.0, samplePOIList());
+
+		// test
+		cache.clear();
+
+		// verify
+		assertEquals(0, cache.size());
+		assertNull(cache.get(10.0, 10.0));
+	}
+
+	private List<PlacesPOI> samplePOIList() {
+		List<PlacesPOI> pois = new ArrayList<PlacesPOI>();
+		pois.add(new PlacesPOI("id1", "name1", 22.22, 33.33, 100, "libraryID", 200, null));
+		pois.add(new PlacesPOI("id2", "name2", 22.221, 33.331, 100, "libraryID", 200, null));
+		return pois;
+	}
+}
@@ -0,0 +1,306 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorPOIPackManagerTests.java
+//
+
+package com.adobe.marketing.mobile;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({Context.class, App.class})
+public class PlacesMonitorPOIPackManagerTests {
+	private static final String PACK_URL = "https://example.com/poipack.bin";
+
+	private TestPOIPackManager poiPackManager;
+	private File filesDir;
+
+	@Mock
+	Context context;
+
+	@Mock
+	SharedPreferences mockSharedPreference;
+
+	@Mock
+	SharedPreferences.Editor mockSharedPreferenceEditor;
+
+	@Mock
+	HttpURLConnection connection;
+
+	@Before
+	public void before() throws Exception {
+		filesDir = Files.createTempDirectory("poipack").toFile();
+		filesDir.deleteOnExit();
+
+		PowerMockito.mockStatic(App.class);
+		Mockito.when(App.getAppContext()).thenReturn(context);
+		Mockito.when(context.getFilesDir()).thenReturn(filesDir);
+		Mockito.when(context.getSharedPreferences(PlacesMonitorTestConstants.SharedPreference.MASTER_KEY,
+					 0)).thenReturn(mockSharedPreference);
+		Mockito.when(mockSharedPreference.edit()).thenReturn(mockSharedPreferenceEditor);
+
+		poiPackManager = new TestPOIPackManager(connection);
+	}
+
+	// ========================================================================================
+	// setPackUrl
+	// ========================================================================================
+
+	@Test
+	public void test_setPackUrl_null_disablesPack() {
+		// setup
+		Whitebox.setInternalState(poiPackManager, "packUrl", PACK_URL);
+		Whitebox.setInternalState(poiPackManager, "poiPack", samplePack(1));
+
+		// test
+		poiPackManager.setPackUrl(null);
+
+		// verify
+		assertNull(poiPackManager.getPack());
+		assertEquals(0, poiPackManager.openedConnections);
+	}
+
+	@Test
+	public void test_setPackUrl_null_shutsDownExecutor() {
+		// setup
+		ExecutorService executorService = Mockito.mock(ExecutorService.class);
+		Whitebox.setInternalState(poiPackManager, "packUrl", PACK_URL);
+		Whitebox.setInternalState(poiPackManager, "executorService", executorService);
+
+		// test
+		poiPackManager.setPackUrl(null);
+
+		// verify
+		verify(executorService, times(1)).shutdown();
+		assertNull(Whitebox.getInternalState(poiPackManager, "executorService"));
+	}
+
+	@Test
+	public void test_setPackUrl_notHttps_disablesPack() {
+		// setup
+		Whitebox.setInternalState(poiPackManager, "packUrl", PACK_URL);
+		Whitebox.setInternalState(poiPackManager, "poiPack", samplePack(1));
+
+		// test
+		poiPackManager.setPackUrl("http://example.com/poipack.bin");
+
+		// verify
+		assertNull(poiPackManager.getPack());
+		assertNull(Whitebox.getInternalState(poiPackManager, "packUrl"));
+		assertEquals(0, poiPackManager.openedConnections);
+	}
+
+	@Test
+	public void test_setPackUrl_opensStoredPack() throws Exception {
+		// setup
+		writePackFile(3);
+		Mockito.when(mockSharedPreference.getString(PlacesMonitorTestConstants.SharedPreference.POI_PACK_URL_KEY,
+					 null)).thenReturn(PACK_URL);
+		Mockito.when(mockSharedPreference.getLong(PlacesMonitorTestConstants.SharedPreference.POI_PACK_CHECK_TIME_KEY,
+					 0)).thenReturn(System.currentTimeMillis());
+
+		// test
+		poiPackManager.setPackUrl(PACK_URL);
+
+		// verify the stored pack is used and not checked again
+		PlacesMonitorPOIPack poiPack = poiPackManager.getPack();
+		assertNotNull(poiPack);
+		assertEquals(3, poiPack.getDatasetVersion());
+		assertEquals(0, poiPackManager.openedConnections);
+	}
+
+	@Test
+	public void test_setPackUrl_ignoresPackStoredForAnotherUrl() throws Exception {
+		// setup
+		writePackFile(3);
+		Mockito.when(mockSharedPreference.getString(PlacesMonitorTestConstants.SharedPreference.POI_PACK_URL_KEY,
+					 null)).thenReturn("https://example.com/otherpack.bin");
+		Mockito.when(connection.getResponseCode()).thenThrow(new IOException("offline"));
+
+		// test
+		poiPackManager.setPackUrl(PACK_URL);
+
+		// verify
+		assertNull(Whitebox.getInternalState(poiPackManager, "poiPack"));
+	}
+
+	// ========================================================================================
+	// downloadPack
+	// ========================================================================================
+
+	@Test
+	public void test_downloadPack_storesAndPublishesPack() throws Exception {
+		// setup
+		Whitebox.setInternalState(poiPackManager, "packUrl", PACK_URL);
+		Mockito.when(connection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_OK);
+		Mockito.when(connection.getInputStream()).thenReturn(new ByteArrayInputStream(
+					PlacesMonitorPOIPackTests.packBytes(5, PlacesMonitorPOIPackTests.samplePOIs())));
+
+		// test
+		assertTrue(poiPackManager.downloadPack(PACK_URL));
+
+		// verify
+		PlacesMonitorPOIPack poiPack = Whitebox.getInternalState(poiPackManager, "poiPack");
+		assertNotNull(poiPack);
+		assertEquals(5, poiPack.getDatasetVersion());
+		assertTrue(new File(filesDir, PlacesMonitorTestConstants.POIPack.FILE_NAME).isFile());
+		verify(connection, times(0)).setIfModifiedSince(anyLong());
+
+		verify(mockSharedPreferenceEditor, times(1)).putString(PlacesMonitorTestConstants.SharedPreference.POI_PACK_URL_KEY,
+				PACK_URL);
+		verify(mockSharedPreferenceEditor, times(1)).putLong(eq(
+					PlacesMonitorTestConstants.SharedPreference.POI_PACK_CHECK_TIME_KEY), anyLong());
+	}
+
+	@Test
+	public void test_downloadPack_notModified() throws Exception {
+		// setup
+		PlacesMonitorPOIPack storedPack = samplePack(1);
+		Whitebox.setInternalState(poiPackManager, "packUrl", PACK_URL);
+		Whitebox.setInternalState(poiPackManager, "poiPack", storedPack);
+		Mockito.when(connection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_NOT_MODIFIED);
+
+		// test
+		assertTrue(poiPackManager.downloadPack(PACK_URL));
+
+		// verify the request is conditional and the stored pack is kept
+		verify(connection, times(1)).setIfModifiedSince(anyLong());
+		assertSame(storedPack, Whitebox.getInternalState(poiPackManager, "poiPack"));
+	}
+
+	@Test
+	public void test_downloadPack_serverError() throws Exception {
+		// setup
+		Whitebox.setInternalState(poiPackManager, "packUrl", PACK_URL);
+		Mockito.when(connection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_UNAVAILABLE);
+
+		// test
+		assertFalse(poiPackManager.downloadPack(PACK_URL));
+
+		// verify
+		assertNull(Whitebox.getInternalState(poiPackManager, "poiPack"));
+		verify(connection, times(1)).disconnect();
+	}
+
+	@Test
+	public void test_downloadPack_corruptedPack_keepsStoredPack() throws Exception {
+		// setup
+		PlacesMonitorPOIPack storedPack = samplePack(1);
+		Whitebox.setInternalState(poiPackManager, "packUrl", PACK_URL);
+		Whitebox.setInternalState(poiPackManager, "poiPack", storedPack);
+		Mockito.when(connection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_OK);
+		Mockito.when(connection.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[] {1, 2, 3}));
+
+		// test
+		assertFalse(poiPackManager.downloadPack(PACK_URL));
+
+		// verify
+		assertSame(storedPack, Whitebox.getInternalState(poiPackManager, "poiPack"));
+		assertFalse(new File(filesDir, PlacesMonitorTestConstants.POIPack.FILE_NAME).exists());
+	}
+
+	@Test
+	public void test_downloadPack_whenUrlChanged_dropsPack() throws Exception {
+		// setup
+		Whitebox.setInternalState(poiPackManager, "packUrl", "https://example.com/otherpack.bin");
+		Mockito.when(connection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_OK);
+		Mockito.when(connection.getInputStream()).thenReturn(new ByteArrayInputStream(
+					PlacesMonitorPOIPackTests.packBytes(5, PlacesMonitorPOIPackTests.samplePOIs())));
+
+		// test
+		assertFalse(poiPackManager.downloadPack(PACK_URL));
+
+		// verify
+		assertNull(Whitebox.getInternalState(poiPackManager, "poiPack"));
+	}
+
+	@Test
+	public void test_downloadPack_notHttps() {
+		// setup
+		Whitebox.setInternalState(poiPackManager, "packUrl", "http://example.com/poipack.bin");
+
+		// test
+		assertFalse(poiPackManager.downloadPack("http://example.com/poipack.bin"));
+
+		// verify
+		assertEquals(0, poiPackManager.openedConnections);
+		assertNull(Whitebox.getInternalState(poiPackManager, "poiPack"));
+	}
+
+	@Test
+	public void test_downloadPack_whenContextIsNull() {
+		// setup
+		Mockito.when(App.getAppContext()).thenReturn(null);
+
+		// test
+		assertFalse(poiPackManager.downloadPack(PACK_URL));
+
+		// verify
+		assertEquals(0, poiPackManager.openedConnections);
+	}
+
+	private PlacesMonitorPOIPack samplePack(final long datasetVersion) {
+		return PlacesMonitorPOIPack.wrap(ByteBuffer.wrap(PlacesMonitorPOIPackTests.packBytes(datasetVersion,
+										 PlacesMonitorPOIPackTests.samplePOIs())));
+	}
+
+	private void writePackFile(final long datasetVersion) throws IOException {
+		File packFile = new File(filesDir, PlacesMonitorTestConstants.POIPack.FILE_NAME);
+		packFile.deleteOnExit();
+		FileOutputStream outputStream = new FileOutputStream(packFile);
+		outputStream.write(PlacesMonitorPOIPackTests.packBytes(datasetVersion, PlacesMonitorPOIPackTests.samplePOIs()));
+		outputStream.close();
+	}
+
+	private static class TestPOIPackManager extends PlacesMonitorPOIPackManager {
+		private final HttpURLConnection connection;
+		private int openedConnections;
+
+		TestPOIPackManager(final HttpURLConnection connection) {
+			this.connection = connection;
+		}
+
+		@Override
+		HttpURLConnection openConnection(final URL url) {
+			openedConnections++;
+			return connection;
+		}
+	}
+}
@@ -0,0 +1,354 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorPOIPackTests.java
+//
+
+package com.adobe.marketing.mobile;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PlacesMonitorPOIPackTests {
+
+	// ========================================================================================
+	// wrap
+	// ========================================================================================
+
+	@Test
+	public void test_wrap_validPack() {
+		// test
+		PlacesMonitorPOIPack poiPack = PlacesMonitorPOIPack.wrap(ByteBuffer.wrap(packBytes(42, samplePOIs())));
+
+		// verify
+		assertNotNull(poiPack);
+		assertEquals(42, poiPack.getDatasetVersion());
+		assertEquals(4, poiPack.getPOICount());
+	}
+
+	@Test
+	public void test_wrap_invalidMagic() {
+		// setup
+		byte[] bytes = packBytes(1, samplePOIs());
+		bytes[0] = 0;
+
+		// test
+		assertNull(PlacesMonitorPOIPack.wrap(ByteBuffer.wrap(bytes)));
+	}
+
+	@Test
+	public void test_wrap_unsupportedFormatVersion() {
+		// setup
+		ByteBuffer buffer = ByteBuffer.wrap(packBytes(1, samplePOIs()));
+		buffer.putInt(4, PlacesMonitorPOIPack.FORMAT_VERSION + 1);
+
+		// test
+		assertNull(PlacesMonitorPOIPack.wrap(buffer));
+	}
+
+	@Test
+	public void test_wrap_truncatedPack() {
+		// setup
+		byte[] bytes = packBytes(1, samplePOIs());
+
+		// test
+		assertNull(PlacesMonitorPOIPack.wrap(ByteBuffer.wrap(Arrays.copyOf(bytes, PlacesMonitorPOIPack.HEADER_SIZE + 8))));
+	}
+
+	@Test
+	public void test_open_mapsFile() throws Exception {
+		// setup
+		File file = File.createTempFile("poipack", ".bin");
+		file.deleteOnExit();
+		FileOutputStream outputStream = new FileOutputStream(file);
+		outputStream.write(packBytes(7, samplePOIs()));
+		outputStream.close();
+
+		// test
+		PlacesMonitorPOIPack poiPack = PlacesMonitorPOIPack.open(file);
+
+		// verify
+		assertNotNull(poiPack);
+		assertEquals(7, poiPack.getDatasetVersion());
+		assertEquals(2, poiPack.getNearbyPOIs(10.05, 20.05, 2).size());
+	}
+
+	@Test
+	public void test_open_missingFile() {
+		// test
+		assertNull(PlacesMonitorPOIPack.open(new File("missingpoipack.bin")));
+		assertNull(PlacesMonitorPOIPack.open(null));
+	}
+
+	// ========================================================================================
+	// getNearbyPOIs
+	// ========================================================================================
+
+	@Test
+	public void test_covers() {
+		// setup
+		PlacesMonitorPOIPack poiPack = PlacesMonitorPOIPack.wrap(ByteBuffer.wrap(packBytes(1, samplePOIs())));
+
+		// verify
+		assertTrue(poiPack.covers(10.0, 20.0));
+		assertTrue(poiPack.covers(10.39, 20.39));
+		assertFalse(poiPack.covers(9.99, 20.0));
+		assertFalse(poiPack.covers(10.0, 20.4));
+	}
+
+	@Test
+	public void test_getNearbyPOIs_returnsNearestSortedByDistance() {
+		// setup
+		PlacesMonitorPOIPack poiPack = PlacesMonitorPOIPack.wrap(ByteBuffer.wrap(packBytes(1, samplePOIs())));
+
+		// test
+		List<PlacesPOI> pois = poiPack.getNearbyPOIs(10.05, 20.05, 3);
+
+		// verify
+		assertEquals(3, pois.size());
+		assertEquals("center", pois.get(0).getIdentifier());
+		assertEquals("sameCellFar", pois.get(1).getIdentifier());
+		assertEquals("neighbour", pois.get(2).getIdentifier());
+	}
+
+	@Test
+	public void test_getNearbyPOIs_findsCloserPOIInNeighbourCell() {
+		// setup
+		PlacesMonitorPOIPack poiPack = PlacesMonitorPOIPack.wrap(ByteBuffer.wrap(packBytes(1, samplePOIs())));
+
+		// test, the location is in the cell of sameCellFar, but neighbour is closer
+		List<PlacesPOI> pois = poiPack.getNearbyPOIs(10.199, 20.05, 1);
+
+		// verify
+		assertEquals(1, pois.size());
+		assertEquals("neighbour", pois.get(0).getIdentifier());
+	}
+
+	@Test
+	public void test_getNearbyPOIs_matchesExhaustiveSearch() {
+		// setup
+		final Random random = new Random(7);
+		List<PlacesPOI> pois = new ArrayList<>();
+
+		for (int i = 0; i < 300; i++) {
+			pois.add(new PlacesPOI("id" + i, "name", GRID_MIN_LATITUDE + random.nextDouble() * GRID_ROWS * GRID_CELL_SIZE,
+								   GRID_MIN_LONGITUDE + random.nextDouble() * GRID_COLUMNS * GRID_CELL_SIZE, 100, "library", 1, null));
+		}
+
+		PlacesMonitorPOIPack poiPack = PlacesMonitorPOIPack.wrap(ByteBuffer.wrap(packBytes(1, pois)));
+
+		for (int query = 0; query < 20; query++) {
+			final double latitude = GRID_MIN_LATITUDE + random.nextDouble() * GRID_ROWS * GRID_CELL_SIZE;
+			final double longitude = GRID_MIN_LONGITUDE + random.nextDouble() * GRID_COLUMNS * GRID_CELL_SIZE;
+			List<PlacesPOI> expectedPOIs = new ArrayList<>(pois);
+			Collections.sort(expectedPOIs, new Comparator<PlacesPOI>() {
+				@Override
+				public int compare(final PlacesPOI first, final PlacesPOI second) {
+					return Double.compare(PlacesMonitorUtil.distanceInMeters(latitude, longitude, first.getLatitude(),
+										  first.getLongitude()), PlacesMonitorUtil.distanceInMeters(latitude, longitude, second.getLatitude(),
+												  second.getLongitude()));
+				}
+			});
+
+			// test
+			List<PlacesPOI> nearbyPOIs = poiPack.getNearbyPOIs(latitude, longitude, 20);
+
+			// verify
+			assertEquals(20, nearbyPOIs.size());
+
+			for (int i = 0; i < nearbyPOIs.size(); i++) {
+				assertEquals(expectedPOIs.get(i).getIdentifier(), nearbyPOIs.get(i).getIdentifier());
+			}
+		}
+	}
+
+	@Test
+	public void test_getNearbyPOIs_readsPOIDetails() {
+		// setup
+		PlacesMonitorPOIPack poiPack = PlacesMonitorPOIPack.wrap(ByteBuffer.wrap(packBytes(1, samplePOIs())));
+
+		// test
+		PlacesPOI poi = poiPack.getNearbyPOIs(10.05, 20.05, 1).get(0);
+
+		// verify
+		assertEquals("center", poi.getIdentifier());
+		assertEquals("Center Store", poi.getName());
+		assertEquals(10.05, poi.getLatitude(), 0.0);
+		assertEquals(20.05, poi.getLongitude(), 0.0);
+		assertEquals(200, poi.getRadius());
+		assertEquals("library", poi.getLibrary());
+		assertEquals(5, poi.getWeight());
+		assertEquals("10", poi.getMetadata().get(PlacesMonitorTestConstants.POIMetadata.PRIORITY));
+		assertTrue(poi.containsUser());
+	}
+
+	@Test
+	public void test_getNearbyPOIs_userNotWithin() {
+		// setup
+		PlacesMonitorPOIPack poiPack = PlacesMonitorPOIPack.wrap(ByteBuffer.wrap(packBytes(1, samplePOIs())));
+
+		// test
+		PlacesPOI poi = poiPack.getNearbyPOIs(10.06, 20.05, 1).get(0);
+
+		// verify
+		assertEquals("center", poi.getIdentifier());
+		assertFalse(poi.containsUser());
+		assertNull(poiPack.getNearbyPOIs(10.3, 20.3, 1).get(0).getMetadata());
+	}
+
+	@Test
+	public void test_getNearbyPOIs_whenCountExceedsPOIs() {
+		// setup
+		PlacesMonitorPOIPack poiPack = PlacesMonitorPOIPack.wrap(ByteBuffer.wrap(packBytes(1, samplePOIs())));
+
+		// test
+		List<PlacesPOI> pois = poiPack.getNearbyPOIs(10.05, 20.05, 20);
+
+		// verify
+		assertEquals(4, pois.size());
+		assertEquals("farCorner", pois.get(3).getIdentifier());
+	}
+
+	@Test
+	public void test_getNearbyPOIs_whenLocationNotCovered() {
+		// setup
+		PlacesMonitorPOIPack poiPack = PlacesMonitorPOIPack.wrap(ByteBuffer.wrap(packBytes(1, samplePOIs())));
+
+		// test
+		assertTrue(poiPack.getNearbyPOIs(50.0, 20.05, 20).isEmpty());
+		assertTrue(poiPack.getNearbyPOIs(10.05, 20.05, 0).isEmpty());
+	}
+
+	@Test
+	public void test_getNearbyPOIs_whenStringsCorrupted() {
+		// setup
+		List<PlacesPOI> pois = samplePOIs();
+		ByteBuffer buffer = ByteBuffer.wrap(packBytes(1, pois));
+		int recordsOffset = PlacesMonitorPOIPack.HEADER_SIZE + (GRID_ROWS * GRID_COLUMNS + 1) * 4;
+
+		for (int i = 0; i < pois.size(); i++) {
+			buffer.putInt(recordsOffset + i * PlacesMonitorPOIPack.RECORD_SIZE + 20, Integer.MAX_VALUE / 2);
+		}
+
+		PlacesMonitorPOIPack poiPack = PlacesMonitorPOIPack.wrap(buffer);
+
+		// test
+		assertTrue(poiPack.getNearbyPOIs(10.05, 20.05, 2).isEmpty());
+	}
+
+	// ========================================================================================
+	// Test pack
+	// ========================================================================================
+
+	static final double GRID_MIN_LATITUDE = 10.0;
+	static final double GRID_MIN_LONGITUDE = 20.0;
+	static final double GRID_CELL_SIZE = 0.1;
+	static final int GRID_ROWS = 4;
+	static final int GRID_COLUMNS = 4;
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	/**
+	 * POIs of a 4x4 grid of 0.1 degree cells starting at 10, 20.
+	 */
+	static List<PlacesPOI> samplePOIs() {
+		Map<String, String> metadata = new HashMap<>();
+		metadata.put(PlacesMonitorTestConstants.POIMetadata.PRIORITY, "10");
+		List<PlacesPOI> pois = new ArrayList<>();
+		pois.add(new PlacesPOI("farCorner", "Far Corner", 10.35, 20.35, 100, "library", 1, null));
+		pois.add(new PlacesPOI("sameCellFar", "Same Cell", 10.15, 20.05, 100, "library", 1, null));
+		pois.add(new PlacesPOI("center", "Center Store", 10.05, 20.05, 200, "library", 5, metadata));
+		pois.add(new PlacesPOI("neighbour", "Neighbour", 10.201, 20.05, 100, "library", 1, null));
+		return pois;
+	}
+
+	/**
+	 * Builds a POI pack of the test grid holding the given POIs.
+	 */
+	static byte[] packBytes(final long datasetVersion, final List<PlacesPOI> pois) {
+		final List<PlacesPOI> sortedPOIs = new ArrayList<>(pois);
+		Collections.sort(sortedPOIs, new Comparator<PlacesPOI>() {
+			@Override
+			public int compare(final PlacesPOI first, final PlacesPOI second) {
+				return cell(first) - cell(second);
+			}
+		});
+
+		final int cells = GRID_ROWS * GRID_COLUMNS;
+		final ByteBuffer strings = ByteBuffer.allocate(65536);
+		final ByteBuffer records = ByteBuffer.allocate(sortedPOIs.size() * PlacesMonitorPOIPack.RECORD_SIZE);
+		final int[] cellStarts = new int[cells + 1];
+
+		for (int i = 0, cell = 0; cell <= cells; cell++) {
+			while (i < sortedPOIs.size() && cell(sortedPOIs.get(i)) < cell) {
+				i++;
+			}
+
+			cellStarts[cell] = i;
+		}
+
+		for (PlacesPOI poi : sortedPOIs) {
+			records.putDouble(poi.getLatitude()).putDouble(poi.getLongitude()).putInt(poi.getRadius()).putInt(strings.position());
+			putString(strings, poi.getIdentifier());
+			putString(strings, poi.getName());
+			putString(strings, poi.getLibrary());
+			strings.putInt(poi.getWeight());
+			final Map<String, String> metadata = poi.getMetadata() == null ? new HashMap<String, String>() : poi.getMetadata();
+			strings.putShort((short) metadata.size());
+
+			for (Map.Entry<String, String> entry : metadata.entrySet()) {
+				putString(strings, entry.getKey());
+				putString(strings, entry.getValue());
+			}
+		}
+
+		final ByteBuffer pack = ByteBuffer.allocate(PlacesMonitorPOIPack.HEADER_SIZE + cellStarts.length * 4 +
+								records.capacity() + strings.position());
+		pack.putInt(PlacesMonitorPOIPack.MAGIC).putInt(PlacesMonitorPOIPack.FORMAT_VERSION).putLong(datasetVersion)
+		.putInt(sortedPOIs.size()).putInt(GRID_ROWS).putInt(GRID_COLUMNS).putDouble(GRID_MIN_LATITUDE)
+		.putDouble(GRID_MIN_LONGITUDE).putDouble(GRID_CELL_SIZE);
+
+		for (int cellStart : cellStarts) {
+			pack.putInt(cellStart);
+		}
+
+		pack.put(records.array());
+		pack.put(strings.array(), 0, strings.position());
+		return pack.array();
+	}
+
+	private static int cell(final PlacesPOI poi) {
+		final int row = (int)((poi.getLatitude() - GRID_MIN_LATITUDE) / GRID_CELL_SIZE);
+		final int column = (int)((poi.getLongitude() - GRID_MIN_LONGITUDE) / GRID_CELL_SIZE);
+		return row * GRID_COLUMNS + column;
+	}
+
+	private static void putString(final ByteBuffer buffer, final String value) {
+		final byte[] bytes = value.getBytes(UTF_8);
+		buffer.putShort((short) bytes.length);
+		buffer.put(bytes);
+	}
+}
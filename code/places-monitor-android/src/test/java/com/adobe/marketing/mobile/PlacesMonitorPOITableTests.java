@@ -0,0 +1,186 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorPOITableTests.java
+//
+
+package com.adobe.marketing.mobile;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class PlacesMonitorPOITableTests {
+	private PlacesMonitorPOITable table;
+
+	@Before
+	public void before() {
+		table = new PlacesMonitorPOITable();
+	}
+
+	// ========================================================================================
+	// set
+	// ========================================================================================
+
+	@Test
+	public void test_set() {
+		// test
+		table.set(Arrays.asList(createPOI("id1", "name1", 22.22, 33.33, 100, null),
+								createPOI("id2", "name2", 44.44, 55.55, 200, "30")));
+
+		// verify
+		assertEquals(2, table.size());
+		final int index = table.indexOf("id2");
+		assertNotEquals(PlacesMonitorPOITable.NOT_FOUND, index);
+		assertEquals(30, table.getLoiteringDelay(index));
+		assertEquals(0, table.getLoiteringDelay(table.indexOf("id1")));
+	}
+
+	@Test
+	public void test_set_manyPOIs() {
+		// setup
+		final List<PlacesPOI> pois = new ArrayList<PlacesPOI>();
+
+		for (int i = 0; i < 100; i++) {
+			pois.add(createPOI("id" + i, "name" + i, i, i, i, String.valueOf(i)));
+		}
+
+		// test
+		table.set(pois);
+
+		// verify
+		assertEquals(100, table.size());
+
+		for (int i = 0; i < 100; i++) {
+			assertEquals(i, table.getLoiteringDelay(table.indexOf("id" + i)));
+		}
+	}
+
+	@Test
+	public void test_set_duplicateIdentifier_keepsLastPOI() {
+		// test
+		table.set(Arrays.asList(createPOI("id1", "name1", 22.22, 33.33, 100, "10"),
+								createPOI("id1", "updated", 44.44, 55.55, 200, "20")));
+
+		// verify
+		assertEquals(1, table.size());
+		assertEquals(20, table.getLoiteringDelay(table.indexOf("id1")));
+	}
+
+	@Test
+	public void test_set_skipsInvalidPOIs() {
+		// test
+		table.set(Arrays.asList(null, createPOI(null, "name1", 22.22, 33.33, 100, null),
+								createPOI("id2", "name2", 44.44, 55.55, 200, null)));
+
+		// verify
+		assertEquals(1, table.size());
+		assertEquals(0, table.indexOf("id2"));
+	}
+
+	@Test
+	public void test_set_replacesPreviousPOIs() {
+		// setup
+		table.set(Arrays.asList(createPOI("id1", "name1", 22.22, 33.33, 100, null),
+								createPOI("id2", "name2", 44.44, 55.55, 200, null)));
+
+		// test
+		table.set(Arrays.asList(createPOI("id3", "name3", 66.66, 77.77, 300, null)));
+
+		// verify
+		assertEquals(1, table.size());
+		assertEquals(PlacesMonitorPOITable.NOT_FOUND, table.indexOf("id1"));
+		assertEquals(PlacesMonitorPOITable.NOT_FOUND, table.indexOf("id2"));
+		assertEquals(0, table.indexOf("id3"));
+	}
+
+	@Test
+	public void test_set_null() {
+		// setup
+		table.set(Arrays.asList(createPOI("id1", "name1", 22.22, 33.33, 100, null)));
+
+		// test
+		table.set(null);
+
+		// verify
+		assertEquals(0, table.size());
+		assertEquals(PlacesMonitorPOITable.NOT_FOUND, table.indexOf("id1"));
+	}
+
+	// ========================================================================================
+	// indexOf
+	// ========================================================================================
+
+	@Test
+	public void test_indexOf_unknownIdentifier() {
+		// setup
+		table.set(Arrays.asList(createPOI("id1", "name1", 22.22, 33.33, 100, null)));
+
+		// verify
+		assertEquals(PlacesMonitorPOITable.NOT_FOUND, table.indexOf("unknown"));
+		assertEquals(PlacesMonitorPOITable.NOT_FOUND, table.indexOf(null));
+	}
+
+	@Test
+	public void test_indexOf_emptyTable() {
+		assertEquals(PlacesMonitorPOITable.NOT_FOUND, table.indexOf("id1"));
+	}
+
+	// ========================================================================================
+	// clear
+	// ========================================================================================
+
+	@Test
+	public void test_clear() {
+		// setup
+		table.set(Arrays.asList(createPOI("id1", "name1", 22.22, 33.33, 100, null)));
+
+		// test
+		table.clear();
+
+		// verify
+		assertEquals(0, table.size());
+		assertEquals(PlacesMonitorPOITable.NOT_FOUND, table.indexOf("id1"));
+	}
+
+	// ========================================================================================
+	// readLoiteringDelay
+	// ========================================================================================
+
+	@Test
+	public void test_readLoiteringDelay() {
+		assertEquals(30, PlacesMonitorPOITable.readLoiteringDelay(createPOI("id1", "name1", 0, 0, 100, " 30 ")));
+		assertEquals(0, PlacesMonitorPOITable.readLoiteringDelay(createPOI("id1", "name1", 0, 0, 100, null)));
+		assertEquals(0, PlacesMonitorPOITable.readLoiteringDelay(createPOI("id1", "name1", 0, 0, 100, "invalid")));
+		assertEquals(0, PlacesMonitorPOITable.readLoiteringDelay(createPOI("id1", "name1", 0, 0, 100, "-5")));
+		assertEquals(PlacesMonitorConstants.POIMetadata.MAX_LOITERING_DELAY,
+					 PlacesMonitorPOITable.readLoiteringDelay(createPOI("id1", "name1", 0, 0, 100, "999999")));
+	}
+
+	private PlacesPOI createPOI(final String identifier, final String name, final double latitude,
+								final double longitude, final int radius, final String loiteringDelay) {
+		final Map<String, String> metadata = new HashMap<String, String>();
+
+		if (loiteringDelay != null) {
+			metadata.put(PlacesMonitorConstants.POIMetadata.LOITERING_DELAY, loiteringDelay);
+		}
+
+		return new PlacesPOI(identifier, name, latitude, longitude, radius, "libraryID", 0, metadata);
+	}
+}
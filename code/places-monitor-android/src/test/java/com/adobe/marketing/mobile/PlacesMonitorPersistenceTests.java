@@ -0,0 +1,178 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorPersistenceTests.java
+//
+
+package com.adobe.marketing.mobile;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({Context.class, App.class})
+public class PlacesMonitorPersistenceTests {
+	private PlacesMonitorPersistence persistence;
+
+	@Mock
+	Context context;
+
+	@Mock
+	SharedPreferences mockSharedPreference;
+
+	@Mock
+	SharedPreferences.Editor mockSharedPreferenceEditor;
+
+	@Before
+	public void before() {
+		persistence = PlacesMonitorPersistence.getInstance();
+
+		PowerMockito.mockStatic(App.class);
+		Mockito.when(App.getAppContext()).thenReturn(context);
+		Mockito.when(context.getSharedPreferences(PlacesMonitorTestConstants.SharedPreference.MASTER_KEY,
+					 0)).thenReturn(mockSharedPreference);
+		Mockito.when(mockSharedPreference.edit()).thenReturn(mockSharedPreferenceEditor);
+	}
+
+	// ========================================================================================
+	// write
+	// ========================================================================================
+
+	@Test
+	public void test_putBoolean() {
+		// test
+		assertTrue(persistence.putBoolean("key", true));
+
+		// verify
+		InOrder inOrder = Mockito.inOrder(mockSharedPreferenceEditor);
+		inOrder.verify(mockSharedPreferenceEditor).putBoolean("key", true);
+		inOrder.verify(mockSharedPreferenceEditor).apply();
+		verify(mockSharedPreferenceEditor, times(0)).commit();
+	}
+
+	@Test
+	public void test_putLong() {
+		// test
+		assertTrue(persistence.putLong("key", 5L));
+
+		// verify
+		InOrder inOrder = Mockito.inOrder(mockSharedPreferenceEditor);
+		inOrder.verify(mockSharedPreferenceEditor).putLong("key", 5L);
+		inOrder.verify(mockSharedPreferenceEditor).apply();
+	}
+
+	@Test
+	public void test_putString() {
+		// test
+		assertTrue(persistence.putString("key", "value"));
+
+		// verify
+		InOrder inOrder = Mockito.inOrder(mockSharedPreferenceEditor);
+		inOrder.verify(mockSharedPreferenceEditor).putString("key", "value");
+		inOrder.verify(mockSharedPreferenceEditor).apply();
+	}
+
+	@Test
+	public void test_remove() {
+		// test
+		assertTrue(persistence.remove("key"));
+
+		// verify
+		InOrder inOrder = Mockito.inOrder(mockSharedPreferenceEditor);
+		inOrder.verify(mockSharedPreferenceEditor).remove("key");
+		inOrder.verify(mockSharedPreferenceEditor).apply();
+	}
+
+	@Test
+	public void test_write_appliesEachWrite() {
+		// test
+		persistence.putString("key", "value1");
+		persistence.putString("key", "value2");
+
+		// verify
+		verify(mockSharedPreference, times(2)).edit();
+		verify(mockSharedPreferenceEditor, times(1)).putString("key", "value1");
+		verify(mockSharedPreferenceEditor, times(1)).putString("key", "value2");
+		verify(mockSharedPreferenceEditor, times(2)).apply();
+	}
+
+	@Test
+	public void test_putStringSet_persistsACopyOfTheStringSet() {
+		// setup
+		final ArgumentCaptor<Set<String>> persistedSetCaptor = ArgumentCaptor.forClass(Set.class);
+		Set<String> ids = new HashSet<String>();
+		ids.add("id1");
+
+		// test
+		assertTrue(persistence.putStringSet("key", ids));
+		ids.add("id2");
+
+		// verify
+		verify(mockSharedPreferenceEditor, times(1)).putStringSet(eq("key"), persistedSetCaptor.capture());
+		verify(mockSharedPreferenceEditor, times(1)).apply();
+		assertEquals(1, persistedSetCaptor.getValue().size());
+		assertTrue(persistedSetCaptor.getValue().contains("id1"));
+	}
+
+	@Test
+	public void test_write_whenEditorIsNull() {
+		// setup
+		Mockito.when(mockSharedPreference.edit()).thenReturn(null);
+
+		// test and verify
+		assertFalse(persistence.putBoolean("key", true));
+		assertFalse(persistence.remove("key"));
+	}
+
+	@Test
+	public void test_write_whenSharedPreferenceIsNull() {
+		// setup
+		Mockito.when(context.getSharedPreferences(PlacesMonitorTestConstants.SharedPreference.MASTER_KEY,
+					 0)).thenReturn(null);
+
+		// test
+		assertFalse(persistence.putBoolean("key", true));
+
+		// verify
+		verify(mockSharedPreference, times(0)).edit();
+	}
+
+	@Test
+	public void test_write_whenContextIsNull() {
+		// setup
+		Mockito.when(App.getAppContext()).thenReturn(null);
+
+		// test and verify
+		assertFalse(persistence.remove("key"));
+	}
+}
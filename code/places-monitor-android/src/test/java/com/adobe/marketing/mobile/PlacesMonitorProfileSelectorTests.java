@@ -0,0 +1,189 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorProfileSelectorTests.java
+//
+
+package com.adobe.marketing.mobile;
+
+import com.google.android.gms.location.DetectedActivity;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PlacesMonitorProfileSelectorTests {
+	private PlacesMonitorProfileSelector selector;
+
+	@Before
+	public void before() {
+		selector = new PlacesMonitorProfileSelector();
+	}
+
+	@Test
+	public void test_getProfile_whenNothingKnown() {
+		assertEquals(PlacesMonitorLocationProfile.BALANCED, selector.getProfile());
+	}
+
+	@Test
+	public void test_getProfile_whenSpeedUnknown() {
+		// setup
+		selector.onNearbyPOIsReceived(22.22, 33.33, new ArrayList<PlacesPOI>());
+		selector.onLocationReceived(22.22, 33.33, 1000);
+
+		// verify
+		assertEquals(PlacesMonitorLocationProfile.BALANCED, selector.getProfile());
+	}
+
+	@Test
+	public void test_getProfile_whenDenseArea() {
+		// test
+		selector.onNearbyPOIsReceived(22.22, 33.33, poisAround(22.22, 33.33, 5));
+
+		// verify
+		assertEquals(PlacesMonitorLocationProfile.PRECISE, selector.getProfile());
+	}
+
+	@Test
+	public void test_getProfile_whenDenseAreaAndMovingFast() {
+		// setup
+		selector.onLocationReceived(22.22, 33.33, 0);
+		selector.onLocationReceived(22.32, 33.33, 60000);
+
+		// test
+		selector.onNearbyPOIsReceived(22.32, 33.33, poisAround(22.32, 33.33, 5));
+
+		// verify
+		assertEquals(PlacesMonitorLocationProfile.PRECISE, selector.getProfile());
+	}
+
+	@Test
+	public void test_getProfile_whenSparseAreaAndMovingFast() {
+		// setup, 0.1 degree of latitude (~11km) in 10 minutes
+		selector.onLocationReceived(22.22, 33.33, 0);
+		selector.onLocationReceived(22.32, 33.33, 600000);
+
+		// test
+		selector.onNearbyPOIsReceived(22.32, 33.33, poisAround(22.32, 33.33, 4));
+
+		// verify
+		assertEquals(PlacesMonitorLocationProfile.BALANCED, selector.getProfile());
+	}
+
+	@Test
+	public void test_getProfile_whenSparseAreaAndMovingSlowly() {
+		// setup, 0.01 degree of latitude (~1.1km) in 10 minutes
+		selector.onLocationReceived(22.22, 33.33, 0);
+		selector.onLocationReceived(22.23, 33.33, 600000);
+
+		// test
+		selector.onNearbyPOIsReceived(22.23, 33.33, poisAround(22.23, 33.33, 4));
+
+		// verify
+		assertEquals(PlacesMonitorLocationProfile.POWER_SAVER, selector.getProfile());
+	}
+
+	@Test
+	public void test_onNearbyPOIsReceived_ignoresFarPOIs() {
+		// test
+		selector.onNearbyPOIsReceived(22.22, 33.33, poisAround(23.22, 33.33, 20));
+
+		// verify
+		assertNotEquals(PlacesMonitorLocationProfile.PRECISE, selector.getProfile());
+	}
+
+	@Test
+	public void test_onLocationReceived_ignoresOlderLocation() {
+		// setup
+		selector.onLocationReceived(22.22, 33.33, 600000);
+		selector.onLocationReceived(22.32, 33.33, 0);
+		selector.onNearbyPOIsReceived(22.32, 33.33, null);
+
+		// verify speed is still unknown
+		assertEquals(PlacesMonitorLocationProfile.BALANCED, selector.getProfile());
+	}
+
+	@Test
+	public void test_getProfile_whenWalkingAndMovingFast() {
+		// setup, 0.1 degree of latitude (~11km) in 10 minutes
+		selector.onLocationReceived(22.22, 33.33, 0);
+		selector.onLocationReceived(22.32, 33.33, 600000);
+		selector.onNearbyPOIsReceived(22.32, 33.33, poisAround(22.32, 33.33, 4));
+
+		// test
+		selector.onActivityChanged(DetectedActivity.WALKING);
+
+		// verify the detected activity takes precedence over the speed
+		assertEquals(PlacesMonitorLocationProfile.POWER_SAVER, selector.getProfile());
+	}
+
+	@Test
+	public void test_getProfile_whenInVehicle() {
+		// setup, 0.01 degree of latitude (~1.1km) in 10 minutes
+		selector.onLocationReceived(22.22, 33.33, 0);
+		selector.onLocationReceived(22.23, 33.33, 600000);
+		selector.onNearbyPOIsReceived(22.23, 33.33, poisAround(22.23, 33.33, 4));
+
+		// test
+		selector.onActivityChanged(DetectedActivity.IN_VEHICLE);
+
+		// verify
+		assertEquals(PlacesMonitorLocationProfile.BALANCED, selector.getProfile());
+	}
+
+	@Test
+	public void test_getProfile_whenInVehicleInDenseArea() {
+		// test
+		selector.onActivityChanged(DetectedActivity.IN_VEHICLE);
+		selector.onNearbyPOIsReceived(22.22, 33.33, poisAround(22.22, 33.33, 5));
+
+		// verify
+		assertEquals(PlacesMonitorLocationProfile.PRECISE, selector.getProfile());
+	}
+
+	@Test
+	public void test_getProfile_whenActivityUnknown() {
+		// test
+		selector.onActivityChanged(DetectedActivity.ON_BICYCLE);
+		selector.onActivityChanged(DetectedActivity.UNKNOWN);
+
+		// verify the speed is used
+		assertEquals(PlacesMonitorLocationProfile.BALANCED, selector.getProfile());
+	}
+
+	@Test
+	public void test_reset() {
+		// setup
+		selector.onNearbyPOIsReceived(22.22, 33.33, poisAround(22.22, 33.33, 5));
+		selector.onActivityChanged(DetectedActivity.WALKING);
+
+		// test
+		selector.reset();
+
+		// verify
+		assertEquals(PlacesMonitorLocationProfile.BALANCED, selector.getProfile());
+	}
+
+	private List<PlacesPOI> poisAround(final double latitude, final double longitude, final int count) {
+		List<PlacesPOI> pois = new ArrayList<PlacesPOI>();
+
+		for (int i = 0; i < count; i++) {
+			pois.add(new PlacesPOI("id" + i, "name" + i, latitude + i * 0.001, longitude, 100, "libraryID", 200, null));
+		}
+
+		return pois;
+	}
+}
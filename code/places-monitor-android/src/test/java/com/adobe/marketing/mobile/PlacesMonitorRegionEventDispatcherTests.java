@@ -0,0 +1,177 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorRegionEventDispatcherTests.java
+//
+
+package com.adobe.marketing.mobile;
+
+import com.google.android.gms.location.Geofence;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.powermock.api.mockito.PowerMockito.verifyStatic;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({MobileCore.class})
+public class PlacesMonitorRegionEventDispatcherTests {
+	private PlacesMonitorRegionEventDispatcher dispatcher;
+
+	@Before
+	public void before() {
+		PowerMockito.mockStatic(MobileCore.class);
+		dispatcher = new PlacesMonitorRegionEventDispatcher();
+	}
+
+	// ========================================================================================
+	// dispatchRegionEvents
+	// ========================================================================================
+
+	@Test
+	public void test_dispatchRegionEvents_dispatchesAnEventPerRegion() {
+		// test
+		dispatcher.dispatchRegionEvents(Arrays.asList("id1", "id2"), Geofence.GEOFENCE_TRANSITION_ENTER);
+
+		// verify
+		List<Event> events = dispatchedEvents(2);
+		assertEquals(PlacesMonitorTestConstants.EVENTNAME_PROCESS_REGION_EVENT, events.get(0).getName());
+		assertEquals(PlacesMonitorTestConstants.EventType.PLACES, events.get(0).getType());
+		assertEquals(PlacesMonitorTestConstants.EventSource.REQUEST_CONTENT, events.get(0).getSource());
+
+		Map<String, Object> eventData = events.get(0).getEventData();
+		assertEquals(PlacesMonitorTestConstants.EventDataValue.REQUEST_TYPE_PROCESS_REGION_EVENT,
+					 eventData.get(PlacesMonitorTestConstants.EventDataKey.REQUEST_TYPE));
+		assertEquals("id1", eventData.get(PlacesMonitorTestConstants.EventDataKey.REGION_ID));
+		assertEquals(PlacesMonitorTestConstants.EventDataKey.GEOFENCE_TYPE_ENTRY,
+					 eventData.get(PlacesMonitorTestConstants.EventDataKey.REGION_EVENT_TYPE));
+		assertEquals("id2", events.get(1).getEventData().get(PlacesMonitorTestConstants.EventDataKey.REGION_ID));
+	}
+
+	@Test
+	public void test_dispatchRegionEvents_whenDwell_dispatchesEntry() {
+		// test
+		dispatcher.dispatchRegionEvents(Collections.singletonList("id1"), Geofence.GEOFENCE_TRANSITION_DWELL);
+
+		// verify
+		List<Event> events = dispatchedEvents(1);
+		assertEquals(PlacesMonitorTestConstants.EventDataKey.GEOFENCE_TYPE_ENTRY,
+					 events.get(0).getEventData().get(PlacesMonitorTestConstants.EventDataKey.REGION_EVENT_TYPE));
+	}
+
+	@Test
+	public void test_dispatchRegionEvents_whenExit() {
+		// test
+		dispatcher.dispatchRegionEvents(Collections.singletonList("id1"), Geofence.GEOFENCE_TRANSITION_EXIT);
+
+		// verify
+		List<Event> events = dispatchedEvents(1);
+		assertEquals(PlacesMonitorTestConstants.EventDataKey.GEOFENCE_TYPE_EXIT,
+					 events.get(0).getEventData().get(PlacesMonitorTestConstants.EventDataKey.REGION_EVENT_TYPE));
+	}
+
+	@Test
+	public void test_dispatchRegionEvents_whenUnknownTransition() {
+		// test
+		dispatcher.dispatchRegionEvents(Collections.singletonList("id1"), 42);
+
+		// verify
+		dispatchedEvents(0);
+	}
+
+	@Test
+	public void test_dispatchRegionEvents_whenNoRegions() {
+		// test
+		dispatcher.dispatchRegionEvents(null, Geofence.GEOFENCE_TRANSITION_ENTER);
+		dispatcher.dispatchRegionEvents(new ArrayList<String>(), Geofence.GEOFENCE_TRANSITION_ENTER);
+
+		// verify
+		dispatchedEvents(0);
+	}
+
+	@Test
+	public void test_dispatchRegionEvents_matchesPlacesRegionRequest() {
+		// the keys and values are private to the Places extension, these are the ones read by Places 1.4.0.
+		// Update this test only after verifying the request against the new Places version.
+
+		// test
+		dispatcher.dispatchRegionEvents(Collections.singletonList("id1"), Geofence.GEOFENCE_TRANSITION_ENTER);
+		dispatcher.dispatchRegionEvents(Collections.singletonList("id1"), Geofence.GEOFENCE_TRANSITION_EXIT);
+
+		// verify
+		List<Event> events = dispatchedEvents(2);
+		assertEquals("com.adobe.eventtype.places", events.get(0).getType());
+		assertEquals("com.adobe.eventsource.requestcontent", events.get(0).getSource());
+
+		Map<String, Object> entryData = events.get(0).getEventData();
+		assertEquals("processregionevent", entryData.get("requesttype"));
+		assertEquals("id1", entryData.get("regionid"));
+		assertEquals("entry", entryData.get("regioneventtype"));
+		assertEquals("exit", events.get(1).getEventData().get("regioneventtype"));
+	}
+
+	// ========================================================================================
+	// dispatchRegionEvent
+	// ========================================================================================
+
+	@Test
+	public void test_dispatchRegionEvent_dispatchesOnlyTheDataReadByPlaces() {
+		// test
+		dispatcher.dispatchRegionEvent("id2", PlacesMonitorTestConstants.EventDataKey.GEOFENCE_TYPE_EXIT);
+
+		// verify
+		Map<String, Object> eventData = dispatchedEvents(1).get(0).getEventData();
+		assertEquals(3, eventData.size());
+		assertEquals(PlacesMonitorTestConstants.EventDataValue.REQUEST_TYPE_PROCESS_REGION_EVENT,
+					 eventData.get(PlacesMonitorTestConstants.EventDataKey.REQUEST_TYPE));
+		assertEquals("id2", eventData.get(PlacesMonitorTestConstants.EventDataKey.REGION_ID));
+		assertEquals(PlacesMonitorTestConstants.EventDataKey.GEOFENCE_TYPE_EXIT,
+					 eventData.get(PlacesMonitorTestConstants.EventDataKey.REGION_EVENT_TYPE));
+	}
+
+	// ========================================================================================
+	// toRegionEventType
+	// ========================================================================================
+
+	@Test
+	public void test_toRegionEventType() {
+		assertEquals(PlacesMonitorTestConstants.EventDataKey.GEOFENCE_TYPE_ENTRY,
+					 PlacesMonitorRegionEventDispatcher.toRegionEventType(Geofence.GEOFENCE_TRANSITION_ENTER));
+		assertEquals(PlacesMonitorTestConstants.EventDataKey.GEOFENCE_TYPE_ENTRY,
+					 PlacesMonitorRegionEventDispatcher.toRegionEventType(Geofence.GEOFENCE_TRANSITION_DWELL));
+		assertEquals(PlacesMonitorTestConstants.EventDataKey.GEOFENCE_TYPE_EXIT,
+					 PlacesMonitorRegionEventDispatcher.toRegionEventType(Geofence.GEOFENCE_TRANSITION_EXIT));
+		assertNull(PlacesMonitorRegionEventDispatcher.toRegionEventType(0));
+	}
+
+	private List<Event> dispatchedEvents(final int count) {
+		final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+		verifyStatic(MobileCore.class, Mockito.times(count));
+		MobileCore.dispatchEvent(eventCaptor.capture(), ArgumentMatchers.<ExtensionErrorCallback<ExtensionError>>any());
+		return eventCaptor.getAllValues();
+	}
+}
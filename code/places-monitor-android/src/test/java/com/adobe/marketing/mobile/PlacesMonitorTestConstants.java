@@ -28,21 +28,65 @@ final class PlacesMonitorTestConstants {
 	static final String EVENTNAME_STOP = "stop monitoring";
 	static final String EVENTNAME_UPDATE = "update location now";
 	static final String EVENTNAME_SET_LOCATION_PERMISSION = "set location permission";
+	static final String EVENTNAME_SET_LOCATION_PROFILE = "set location profile";
+	static final String EVENTNAME_SET_ACTIVITY_RECOGNITION = "set activity recognition";
 	static final String EVENTNAME_OS_PERMISSION_CHANGE = "OS Permission change";
 	static final String EVENTNAME_OS_GEOFENCE_TRIGGER = "OS Geofence Trigger";
+	static final String EVENTNAME_OS_GEOFENCE_UNAVAILABLE = "OS Geofence Unavailable";
 	static final String EVENTNAME_OS_LOCATION_UPDATE = "OS Location update";
+	static final String EVENTNAME_OS_ACTIVITY_TRANSITION = "OS Activity Transition";
+
+	// event name for the places request content
+	static final String EVENTNAME_PROCESS_REGION_EVENT = "Process Region Event";
 
 	static final int NEARBY_GEOFENCES_COUNT = 20;
+	static final int MAX_GEOFENCES_COUNT = 100;
 
 	static final String INTERNAL_INTENT_ACTION_LOCATION = "intentactionlocation";
 	static final String INTERNAL_INTENT_ACTION_GEOFENCE = "intentactiongeofence";
 	static final String INTENT_ACTION_PERMISSION_GRANTED = "permissionreceived";
 	static final String INTENT_ACTION_PERMISSION_DENIED = "permissiondenied";
 
+	static final class POIMetadata {
+		static final String LOITERING_DELAY = "loiteringdelay";
+		static final int MAX_LOITERING_DELAY = 86400;
+		static final String PRIORITY = "priority";
+
+		private POIMetadata() {
+		}
+	}
+
+	static final class RefreshFence {
+		static final String IDENTIFIER = "com.adobe.placesMonitor.refreshFence";
+
+		private RefreshFence() {
+		}
+	}
+
+	static final class POIPack {
+		static final String FILE_NAME = "adb_placesMonitorPOIPack.bin";
+
+		private POIPack() {
+		}
+	}
+
+	static final class GeofenceJournal {
+		static final String FILE_NAME = "adb_placesMonitorGeofenceJournal.bin";
+
+		private GeofenceJournal() {
+		}
+	}
+
 	static final class Location {
-		static final int REQUEST_INTERVAL = 3600;				// 1 hour
-		static final int REQUEST_FASTEST_INTERVAL = 1800;    	// 30 minutes
-		static final int REQUEST_SMALLEST_DISPLACEMENT = 1000;   // 1 kilometer
+		static final int REQUEST_INTERVAL = 3600000;				// 1 hour, in milliseconds
+		static final int REQUEST_FASTEST_INTERVAL = 1800000;    	// 30 minutes, in milliseconds
+		static final int REQUEST_SMALLEST_DISPLACEMENT = 1000;   	// 1 kilometer, in meters
+		static final int REQUEST_MAX_WAIT_TIME = 1200000;			// 20 minutes, in milliseconds
+		static final int BALANCED_REQUEST_INTERVAL = 900000;
+		static final int BALANCED_REQUEST_FASTEST_INTERVAL = 300000;
+		static final int POWER_SAVER_REQUEST_INTERVAL = 3600000;
+		static final int POWER_SAVER_REQUEST_FASTEST_INTERVAL = 900000;
+		static final int POWER_SAVER_REQUEST_SMALLEST_DISPLACEMENT = 2000;
 
 		private Location() {
 		}
@@ -61,6 +105,8 @@ final class PlacesMonitorTestConstants {
 	static final class EventDataKey {
 		static final String CLEAR = "clearclientdata";
 		static final String LOCATION_PERMISSION = "locationpermission";
+		static final String LOCATION_PROFILE = "locationprofile";
+		static final String ACTIVITY_RECOGNITION = "activityrecognition";
 
 		static final String OS_EVENT_TYPE = "oseventtype";
 		static final String LATITUDE = "latitude";
@@ -68,6 +114,12 @@ final class PlacesMonitorTestConstants {
 		static final String GEOFENCE_IDS = "geofenceIds";
 		static final String GEOFENCE_TRANSITION_TYPE = "transitiontype";
 		static final String LOCATION_PERMISSION_STATUS = "locationpermissionstatus";
+		static final String ACTIVITY_TYPE = "activitytype";
+
+		// places region event
+		static final String REQUEST_TYPE = "requesttype";
+		static final String REGION_ID = "regionid";
+		static final String REGION_EVENT_TYPE = "regioneventtype";
 
 		static final String GEOFENCE_TYPE_NONE  = "none";
 		static final String GEOFENCE_TYPE_ENTRY = "entry";
@@ -82,9 +134,12 @@ final class PlacesMonitorTestConstants {
 	static final class EventDataValue {
 		static final String OS_EVENT_TYPE_LOCATION_UPDATE = "locationupdate";
 		static final String OS_EVENT_TYPE_GEOFENCE_TRIGGER = "geofencetrigger";
+		static final String OS_EVENT_TYPE_GEOFENCE_UNAVAILABLE = "geofenceunavailable";
 		static final String OS_EVENT_TYPE_LOCATION_PERMISSION_CHANGE = "locationpermissionchange";
+		static final String OS_EVENT_TYPE_ACTIVITY_TRANSITION = "activitytransition";
 		static final String OS_LOCATION_PERMISSION_STATUS_GRANTED = "granted";
 		static final String OS_LOCATION_PERMISSION_STATUS_DENIED = "denied";
+		static final String REQUEST_TYPE_PROCESS_REGION_EVENT = "processregionevent";
 		private EventDataValue() {
 		}
 	}
@@ -103,6 +158,12 @@ final class PlacesMonitorTestConstants {
 	static final class SharedState {
 		static final String STATEOWNER = "stateowner";
 		static final String CONFIGURATION = "com.adobe.module.configuration";
+		static final String CONFIG_NEARBY_POI_COUNT = "placesmonitor.nearbypoicount";
+		static final String CONFIG_POI_PACK_URL = "placesmonitor.poipackurl";
+		static final String CONFIG_METRICS_SHARED_STATE = "placesmonitor.metricssharedstate";
+		static final String CONFIG_GLOBAL_PRIVACY = "global.privacy";
+		static final String PRIVACY_OPTED_OUT = "optedout";
+		static final String METRICS = "metrics";
 		static final String PLACES = "com.adobe.module.places";
 
 		private SharedState() {
@@ -112,8 +173,16 @@ final class PlacesMonitorTestConstants {
 	static final class  SharedPreference {
 		static final String MASTER_KEY = "com.adobe.placesMonitor";
 		static final String USERWITHIN_GEOFENCES_KEY = "adb_userWithinGeofences";
+		static final String MONITORING_GEOFENCES_KEY = "adb_monitoringGeofences";
+		static final String MONITORING_GEOFENCES_BOOT_TIME_KEY = "adb_monitoringGeofencesBootTime";
+		static final String MONITORING_GEOFENCES_APP_UPDATE_TIME_KEY = "adb_monitoringGeofencesAppUpdateTime";
 		static final String HAS_MONITORING_STARTED_KEY = "adb_hasMonitoringStarted";
 		static final String LOCATION_PERMISSION_KEY = "adb_locationPermission";
+		static final String LOCATION_PROFILE_KEY = "adb_locationProfile";
+		static final String LOCATION_SETTINGS_KEY = "adb_locationSettings";
+		static final String ACTIVITY_RECOGNITION_KEY = "adb_activityRecognition";
+		static final String POI_PACK_URL_KEY = "adb_poiPackUrl";
+		static final String POI_PACK_CHECK_TIME_KEY = "adb_poiPackCheckTime";
 		private SharedPreference() {
 		}
 	}
@@ -230,6 +230,72 @@ public class PlacesMonitorTests {
 					 event.getEventData().get(PlacesMonitorTestConstants.EventDataKey.LOCATION_PERMISSION));
 	}
 
+	// ========================================================================================
+	// setLocationProfile
+	// ========================================================================================
+
+	@Test
+	public void test_setLocationProfile() {
+		// setup
+		Mockito.when(MobileCore.dispatchEvent(any(Event.class), any(ExtensionErrorCallback.class))).thenReturn(true);
+
+		// setup argument captors
+		final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+		final ArgumentCaptor<ExtensionErrorCallback> callbackCaptor = ArgumentCaptor.forClass(ExtensionErrorCallback.class);
+
+		// test
+		PlacesMonitor.setLocationProfile(PlacesMonitorLocationProfile.POWER_SAVER);
+
+		// The set location profile event should be dispatched
+		verifyStatic(MobileCore.class, Mockito.times(1));
+		MobileCore.dispatchEvent(eventCaptor.capture(), callbackCaptor.capture());
+
+		// verify dispatched event
+		Event event = eventCaptor.getValue();
+		assertNotNull("The dispatched event should not be null", event);
+		assertEquals("the event name should be correct", PlacesMonitorTestConstants.EVENTNAME_SET_LOCATION_PROFILE,
+					 event.getName());
+		assertEquals("the event type should be correct", PlacesMonitorTestConstants.EventType.MONITOR, event.getType());
+		assertEquals("the event source should be correct", PlacesMonitorTestConstants.EventSource.REQUEST_CONTENT,
+					 event.getSource());
+		assertEquals("the event data size should be correct", 1, event.getEventData().size());
+		assertEquals("the event data should be correct", PlacesMonitorLocationProfile.POWER_SAVER.getValue(),
+					 event.getEventData().get(PlacesMonitorTestConstants.EventDataKey.LOCATION_PROFILE));
+	}
+
+	// ========================================================================================
+	// setActivityRecognitionEnabled
+	// ========================================================================================
+
+	@Test
+	public void test_setActivityRecognitionEnabled() {
+		// setup
+		Mockito.when(MobileCore.dispatchEvent(any(Event.class), any(ExtensionErrorCallback.class))).thenReturn(true);
+
+		// setup argument captors
+		final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+		final ArgumentCaptor<ExtensionErrorCallback> callbackCaptor = ArgumentCaptor.forClass(ExtensionErrorCallback.class);
+
+		// test
+		PlacesMonitor.setActivityRecognitionEnabled(true);
+
+		// The set activity recognition event should be dispatched
+		verifyStatic(MobileCore.class, Mockito.times(1));
+		MobileCore.dispatchEvent(eventCaptor.capture(), callbackCaptor.capture());
+
+		// verify dispatched event
+		Event event = eventCaptor.getValue();
+		assertNotNull("The dispatched event should not be null", event);
+		assertEquals("the event name should be correct", PlacesMonitorTestConstants.EVENTNAME_SET_ACTIVITY_RECOGNITION,
+					 event.getName());
+		assertEquals("the event type should be correct", PlacesMonitorTestConstants.EventType.MONITOR, event.getType());
+		assertEquals("the event source should be correct", PlacesMonitorTestConstants.EventSource.REQUEST_CONTENT,
+					 event.getSource());
+		assertEquals("the event data size should be correct", 1, event.getEventData().size());
+		assertEquals("the event data should be correct", true,
+					 event.getEventData().get(PlacesMonitorTestConstants.EventDataKey.ACTIVITY_RECOGNITION));
+	}
+
 	// ========================================================================================
 	// dispatchEventCallback
 	// ========================================================================================
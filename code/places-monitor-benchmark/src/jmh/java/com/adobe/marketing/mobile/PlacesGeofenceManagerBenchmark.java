@@ -0,0 +1,159 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesGeofenceManagerBenchmark.java
+//
+
+package com.adobe.marketing.mobile;
+
+import com.google.android.gms.location.Geofence;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the geofence bookkeeping of {@link PlacesGeofenceManager}.
+ * <p>
+ * Every benchmark leaves the manager in the state it started from, so that each invocation does the same amount of work.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PlacesGeofenceManagerBenchmark {
+
+	/**
+	 * Nearby POI lists of {@link #poiCount} POIs, alternating which half of the POIs contains the user.
+	 */
+	@State(Scope.Thread)
+	public static class NearbyPOIs {
+		@Param({"20", "100", "1000"})
+		int poiCount;
+
+		PlacesGeofenceManager geofenceManager;
+		List<PlacesPOI> firstHalfEntered;
+		List<PlacesPOI> secondHalfEntered;
+		boolean useFirstHalf;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			geofenceManager = new PlacesGeofenceManager();
+			firstHalfEntered = BenchmarkData.nearbyPOIs(poiCount, 0, poiCount / 2);
+			secondHalfEntered = BenchmarkData.nearbyPOIs(poiCount, poiCount / 2, poiCount);
+			geofenceManager.findNewlyEnteredPOIs(secondHalfEntered);
+		}
+	}
+
+	/**
+	 * A burst of {@link #burstSize} geofence triggers, for a manager already tracking {@link #poiCount} entered POIs.
+	 */
+	@State(Scope.Thread)
+	public static class TriggerBurst {
+		@Param({"20", "100", "1000"})
+		int poiCount;
+
+		@Param({"1", "10", "100"})
+		int burstSize;
+
+		PlacesGeofenceManager geofenceManager;
+		List<String> triggeredIDs;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			geofenceManager = new PlacesGeofenceManager();
+			geofenceManager.getCuratedGeofencesList(BenchmarkData.poiIDs("entered", poiCount),
+													Geofence.GEOFENCE_TRANSITION_ENTER);
+			triggeredIDs = BenchmarkData.poiIDs("triggered", burstSize);
+		}
+	}
+
+	/**
+	 * Refreshes the nearby POIs, half of which are newly entered and half of which are newly exited.
+	 */
+	@Benchmark
+	public List<PlacesPOI> findNewlyEnteredPOIs(final NearbyPOIs state) {
+		state.useFirstHalf = !state.useFirstHalf;
+		return state.geofenceManager.findNewlyEnteredPOIs(state.useFirstHalf ? state.firstHalfEntered :
+				state.secondHalfEntered);
+	}
+
+	/**
+	 * Curates an entry trigger and then an exit trigger for the same burst of geofences.
+	 */
+	@Benchmark
+	public void getCuratedGeofencesList(final TriggerBurst state, final Blackhole blackhole) {
+		blackhole.consume(state.geofenceManager.getCuratedGeofencesList(state.triggeredIDs,
+						  Geofence.GEOFENCE_TRANSITION_ENTER));
+		blackhole.consume(state.geofenceManager.getCuratedGeofencesList(state.triggeredIDs,
+						  Geofence.GEOFENCE_TRANSITION_EXIT));
+	}
+
+	/**
+	 * Builds the data sets used by the benchmarks.
+	 */
+	static final class BenchmarkData {
+		private static final double LATITUDE = 37.3309;
+		private static final double LONGITUDE = -121.8939;
+		private static final double POI_SPACING = 0.001;
+
+		private BenchmarkData() {
+		}
+
+		/**
+		 * Creates {@code count} POIs spread around a fixed location.
+		 *
+		 * @param count number of POIs to create
+		 * @param enteredFrom index of the first POI that contains the user
+		 * @param enteredTo index after the last POI that contains the user
+		 * @return a {@link List} of {@link PlacesPOI}
+		 */
+		static List<PlacesPOI> nearbyPOIs(final int count, final int enteredFrom, final int enteredTo) {
+			List<PlacesPOI> pois = new ArrayList<PlacesPOI>(count);
+
+			for (int i = 0; i < count; i++) {
+				PlacesPOI poi = new PlacesPOI("poi" + i, "name" + i, LATITUDE + (i % 50) * POI_SPACING,
+											  LONGITUDE + (i / 50) * POI_SPACING, 100, "library", 100, null);
+				poi.setUserIsWithin(i >= enteredFrom && i < enteredTo);
+				pois.add(poi);
+			}
+
+			return pois;
+		}
+
+		/**
+		 * Creates {@code count} distinct POI identifiers.
+		 *
+		 * @param prefix prefix of the identifiers
+		 * @param count number of identifiers to create
+		 * @return a {@link List} of POI identifiers
+		 */
+		static List<String> poiIDs(final String prefix, final int count) {
+			List<String> ids = new ArrayList<String>(count);
+
+			for (int i = 0; i < count; i++) {
+				ids.add(prefix + i);
+			}
+
+			return ids;
+		}
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesMonitorInternalBenchmark.java
+//
+
+package com.adobe.marketing.mobile;
+
+import com.google.android.gms.location.Geofence;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the event queue drain of {@link PlacesMonitorInternal#processEvents()}.
+ * <p>
+ * Each invocation queues a burst of OS events and drains the queue. A burst is made of {@link #burstSize} location
+ * updates interleaved with {@link #burstSize} geofence triggers. The first half of the triggers enters a set of
+ * geofences and the second half exits them, so the geofence bookkeeping is back to its initial state after each drain.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PlacesMonitorInternalBenchmark {
+
+	@Param({"1", "10", "100"})
+	int burstSize;
+
+	private PlacesMonitorInternal monitorInternal;
+	private List<Event> burst;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		monitorInternal = new PlacesMonitorInternal(new ConfiguredExtensionApi());
+		monitorInternal.awaitInitialization();
+		burst = new ArrayList<Event>(burstSize * 2);
+
+		for (int i = 0; i < burstSize; i++) {
+			burst.add(locationUpdateEvent(37.3309 + i * 0.0001, -121.8939));
+			burst.add(geofenceTriggerEvent("poi" + (i % Math.max(1, burstSize / 2)),
+										   i < burstSize / 2 ? Geofence.GEOFENCE_TRANSITION_ENTER : Geofence.GEOFENCE_TRANSITION_EXIT));
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		monitorInternal.getExecutor().shutdown();
+	}
+
+	@Benchmark
+	public void processEvents() {
+		for (Event event : burst) {
+			monitorInternal.queueEvent(event);
+		}
+
+		monitorInternal.processEvents();
+	}
+
+	private static Event locationUpdateEvent(final double latitude, final double longitude) {
+		EventData eventData = new EventData()
+		.putString(PlacesMonitorConstants.EventDataKey.OS_EVENT_TYPE,
+				   PlacesMonitorConstants.EventDataValue.OS_EVENT_TYPE_LOCATION_UPDATE)
+		.putDouble(PlacesMonitorConstants.EventDataKey.LATITUDE, latitude)
+		.putDouble(PlacesMonitorConstants.EventDataKey.LONGITUDE, longitude);
+		return new Event.Builder(PlacesMonitorConstants.EVENTNAME_OS_LOCATION_UPDATE, PlacesMonitorConstants.EventType.OS,
+								 PlacesMonitorConstants.EventSource.RESPONSE_CONTENT).setData(eventData).build();
+	}
+
+	private static Event geofenceTriggerEvent(final String geofenceID, final int transitionType) {
+		EventData eventData = new EventData()
+		.putString(PlacesMonitorConstants.EventDataKey.OS_EVENT_TYPE,
+				   PlacesMonitorConstants.EventDataValue.OS_EVENT_TYPE_GEOFENCE_TRIGGER)
+		.putStringList(PlacesMonitorConstants.EventDataKey.GEOFENCE_IDS, Collections.singletonList(geofenceID))
+		.putInteger(PlacesMonitorConstants.EventDataKey.GEOFENCE_TRANSITION_TYPE, transitionType);
+		return new Event.Builder(PlacesMonitorConstants.EVENTNAME_OS_GEOFENCE_TRIGGER, PlacesMonitorConstants.EventType.OS,
+								 PlacesMonitorConstants.EventSource.RESPONSE_CONTENT).setData(eventData).build();
+	}
+
+	/**
+	 * An {@link ExtensionApi} for which the configuration shared state is always available.
+	 */
+	private static final class ConfiguredExtensionApi extends ExtensionApi {
+		private final Map<String, Object> configuration = new HashMap<String, Object>();
+
+		@Override
+		public Map<String, Object> getSharedEventState(final String stateName, final Event event,
+				final ExtensionErrorCallback<ExtensionError> errorCallback) {
+			return configuration;
+		}
+	}
+}
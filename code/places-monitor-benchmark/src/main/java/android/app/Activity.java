@@ -0,0 +1,49 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// Activity.java
+//
+
+package android.app;
+
+import android.content.Context;
+import android.content.Intent;
+import android.os.Bundle;
+import android.view.Window;
+
+/**
+ * JVM stub of the android.app.Activity type, sufficient to compile and benchmark the Places Monitor sources.
+ */
+public class Activity extends Context {
+	public static final int RESULT_OK = -1;
+	public static final int RESULT_CANCELED = 0;
+
+	protected void onCreate(final Bundle savedInstanceState) {
+	}
+
+	protected void onActivityResult(final int requestCode, final int resultCode, final Intent data) {
+	}
+
+	public void onRequestPermissionsResult(final int requestCode, final String[] permissions, final int[] grantResults) {
+	}
+
+	public Window getWindow() {
+		return new Window();
+	}
+
+	public Intent getIntent() {
+		return new Intent();
+	}
+
+	public void finish() {
+	}
+}
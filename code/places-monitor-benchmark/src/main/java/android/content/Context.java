@@ -0,0 +1,61 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// Context.java
+//
+
+package android.content;
+
+import android.content.pm.PackageManager;
+
+import java.io.File;
+
+/**
+ * JVM stub of the android.content.Context type, sufficient to compile and benchmark the Places Monitor sources.
+ */
+public class Context {
+	public static final String LOCATION_SERVICE = "location";
+
+	public SharedPreferences getSharedPreferences(final String name, final int mode) {
+		return null;
+	}
+
+	public Context getApplicationContext() {
+		return this;
+	}
+
+	public String getPackageName() {
+		return "";
+	}
+
+	public PackageManager getPackageManager() {
+		return new PackageManager();
+	}
+
+	public File getFilesDir() {
+		return new File(System.getProperty("java.io.tmpdir"));
+	}
+
+	public void startActivity(final Intent intent) {
+	}
+
+	public Object getSystemService(final String name) {
+		return null;
+	}
+
+	public Intent registerReceiver(final BroadcastReceiver receiver, final IntentFilter filter) {
+		return null;
+	}
+
+	public void unregisterReceiver(final BroadcastReceiver receiver) {
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// Intent.java
+//
+
+package android.content;
+
+import android.os.Bundle;
+
+import java.io.Serializable;
+
+/**
+ * JVM stub of the android.content.Intent type, sufficient to compile and benchmark the Places Monitor sources.
+ */
+public class Intent {
+	public static final int FLAG_ACTIVITY_NEW_TASK = 268435456;
+
+	private String action;
+
+	public Intent() {
+	}
+
+	public Intent(final String action) {
+		this.action = action;
+	}
+
+	public Intent(final Context context, final Class<?> cls) {
+	}
+
+	public String getAction() {
+		return action;
+	}
+
+	public Intent setAction(final String action) {
+		this.action = action;
+		return this;
+	}
+
+	public Intent addFlags(final int flags) {
+		return this;
+	}
+
+	public Intent putExtra(final String name, final Serializable value) {
+		return this;
+	}
+
+	public Bundle getExtras() {
+		return null;
+	}
+}
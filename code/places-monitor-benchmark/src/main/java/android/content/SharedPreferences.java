@@ -0,0 +1,53 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// SharedPreferences.java
+//
+
+package android.content;
+
+import java.util.Set;
+
+/**
+ * JVM stub of the android.content.SharedPreferences type, sufficient to compile and benchmark the Places Monitor sources.
+ */
+public interface SharedPreferences {
+	Editor edit();
+
+	boolean getBoolean(final String key, final boolean defValue);
+
+	long getLong(final String key, final long defValue);
+
+	int getInt(final String key, final int defValue);
+
+	String getString(final String key, final String defValue);
+
+	Set<String> getStringSet(final String key, final Set<String> defValues);
+
+	interface Editor {
+		Editor putBoolean(final String key, final boolean value);
+
+		Editor putLong(final String key, final long value);
+
+		Editor putInt(final String key, final int value);
+
+		Editor putString(final String key, final String value);
+
+		Editor putStringSet(final String key, final Set<String> values);
+
+		Editor remove(final String key);
+
+		boolean commit();
+
+		void apply();
+	}
+}
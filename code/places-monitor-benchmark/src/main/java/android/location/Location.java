@@ -0,0 +1,88 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// Location.java
+//
+
+package android.location;
+
+/**
+ * JVM stub of the android.location.Location type, sufficient to compile and benchmark the Places Monitor sources.
+ */
+public class Location {
+	private final String provider;
+	private double latitude;
+	private double longitude;
+	private float accuracy;
+	private boolean hasAccuracy;
+	private float speed;
+	private boolean hasSpeed;
+	private long time;
+
+	public Location(final String provider) {
+		this.provider = provider;
+	}
+
+	public String getProvider() {
+		return provider;
+	}
+
+	public double getLatitude() {
+		return latitude;
+	}
+
+	public void setLatitude(final double latitude) {
+		this.latitude = latitude;
+	}
+
+	public double getLongitude() {
+		return longitude;
+	}
+
+	public void setLongitude(final double longitude) {
+		this.longitude = longitude;
+	}
+
+	public float getAccuracy() {
+		return accuracy;
+	}
+
+	public void setAccuracy(final float accuracy) {
+		this.accuracy = accuracy;
+		this.hasAccuracy = true;
+	}
+
+	public boolean hasAccuracy() {
+		return hasAccuracy;
+	}
+
+	public float getSpeed() {
+		return speed;
+	}
+
+	public void setSpeed(final float speed) {
+		this.speed = speed;
+		this.hasSpeed = true;
+	}
+
+	public boolean hasSpeed() {
+		return hasSpeed;
+	}
+
+	public long getTime() {
+		return time;
+	}
+
+	public void setTime(final long time) {
+		this.time = time;
+	}
+}
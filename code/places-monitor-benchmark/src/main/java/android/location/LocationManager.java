@@ -0,0 +1,29 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// LocationManager.java
+//
+
+package android.location;
+
+/**
+ * JVM stub of the android.location.LocationManager type, sufficient to compile and benchmark the Places Monitor sources.
+ */
+public class LocationManager {
+	public static final String GPS_PROVIDER = "gps";
+	public static final String NETWORK_PROVIDER = "network";
+	public static final String PROVIDERS_CHANGED_ACTION = "android.location.PROVIDERS_CHANGED";
+
+	public boolean isProviderEnabled(final String provider) {
+		return true;
+	}
+}
@@ -0,0 +1,36 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// ActivityCompat.java
+//
+
+package android.support.v4.app;
+
+import android.app.Activity;
+import android.content.Context;
+import android.content.pm.PackageManager;
+
+/**
+ * JVM stub of the android.support.v4.app.ActivityCompat type, sufficient to compile and benchmark the Places Monitor sources.
+ */
+public class ActivityCompat {
+	public static int checkSelfPermission(final Context context, final String permission) {
+		return PackageManager.PERMISSION_GRANTED;
+	}
+
+	public static void requestPermissions(final Activity activity, final String[] permissions, final int requestCode) {
+	}
+
+	public static boolean shouldShowRequestPermissionRationale(final Activity activity, final String permission) {
+		return false;
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// Event.java
+//
+
+package com.adobe.marketing.mobile;
+
+import java.util.Map;
+
+/**
+ * JVM stub of the com.adobe.marketing.mobile.Event type, sufficient to compile and benchmark the Places Monitor sources.
+ */
+public class Event {
+	private final String name;
+	private final String type;
+	private final String source;
+	private EventData data;
+
+	private Event(final String name, final String type, final String source) {
+		this.name = name;
+		this.type = type;
+		this.source = source;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	public String getSource() {
+		return source;
+	}
+
+	public EventData getData() {
+		return data;
+	}
+
+	public Map<String, Object> getEventData() {
+		return data == null ? null : data.toObjectMap();
+	}
+
+	public static class Builder {
+		private final Event event;
+
+		public Builder(final String name, final String type, final String source) {
+			event = new Event(name, type, source);
+		}
+
+		public Builder setData(final EventData data) {
+			event.data = data;
+			return this;
+		}
+
+		public Builder setEventData(final Map<String, Object> data) {
+			event.data = data == null ? null : EventData.fromObjectMap(data);
+			return this;
+		}
+
+		public Event build() {
+			return event;
+		}
+	}
+}
@@ -0,0 +1,179 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// EventData.java
+//
+
+package com.adobe.marketing.mobile;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JVM stub of the com.adobe.marketing.mobile.EventData type, sufficient to compile and benchmark the Places Monitor sources.
+ */
+public class EventData {
+	private final Map<String, Variant> values;
+
+	public EventData() {
+		values = new HashMap<String, Variant>();
+	}
+
+	public EventData(final Map<String, Variant> values) {
+		this.values = new HashMap<String, Variant>(values);
+	}
+
+	public boolean isEmpty() {
+		return values.isEmpty();
+	}
+
+	public int size() {
+		return values.size();
+	}
+
+	public boolean containsKey(final String key) {
+		return values.containsKey(key);
+	}
+
+	public String getString2(final String key) throws VariantException {
+		return get(key).getString();
+	}
+
+	public String optString(final String key, final String defaultValue) {
+		try {
+			return getString2(key);
+		} catch (VariantException e) {
+			return defaultValue;
+		}
+	}
+
+	public int getInteger(final String key) throws VariantException {
+		return get(key).getInteger();
+	}
+
+	public int optInteger(final String key, final int defaultValue) {
+		try {
+			return getInteger(key);
+		} catch (VariantException e) {
+			return defaultValue;
+		}
+	}
+
+	public long getLong(final String key) throws VariantException {
+		return get(key).getLong();
+	}
+
+	public long optLong(final String key, final long defaultValue) {
+		try {
+			return getLong(key);
+		} catch (VariantException e) {
+			return defaultValue;
+		}
+	}
+
+	public double getDouble(final String key) throws VariantException {
+		return get(key).getDouble();
+	}
+
+	public double optDouble(final String key, final double defaultValue) {
+		try {
+			return getDouble(key);
+		} catch (VariantException e) {
+			return defaultValue;
+		}
+	}
+
+	public boolean getBoolean(final String key) throws VariantException {
+		return get(key).getBoolean();
+	}
+
+	public boolean optBoolean(final String key, final boolean defaultValue) {
+		try {
+			return getBoolean(key);
+		} catch (VariantException e) {
+			return defaultValue;
+		}
+	}
+
+	public List<String> getStringList(final String key) throws VariantException {
+		return get(key).getStringList();
+	}
+
+	public List<String> optStringList(final String key, final List<String> defaultValue) {
+		try {
+			return getStringList(key);
+		} catch (VariantException e) {
+			return defaultValue;
+		}
+	}
+
+	public EventData putString(final String key, final String value) {
+		values.put(key, Variant.fromString(value));
+		return this;
+	}
+
+	public EventData putBoolean(final String key, final boolean value) {
+		values.put(key, Variant.fromBoolean(value));
+		return this;
+	}
+
+	public EventData putInteger(final String key, final int value) {
+		values.put(key, Variant.fromInteger(value));
+		return this;
+	}
+
+	public EventData putLong(final String key, final long value) {
+		values.put(key, Variant.fromLong(value));
+		return this;
+	}
+
+	public EventData putDouble(final String key, final double value) {
+		values.put(key, Variant.fromDouble(value));
+		return this;
+	}
+
+	public EventData putStringList(final String key, final List<String> value) {
+		values.put(key, Variant.fromStringList(value));
+		return this;
+	}
+
+	Map<String, Object> toObjectMap() {
+		final Map<String, Object> objectMap = new HashMap<String, Object>();
+
+		for (Map.Entry<String, Variant> entry : values.entrySet()) {
+			objectMap.put(entry.getKey(), entry.getValue().getObject());
+		}
+
+		return objectMap;
+	}
+
+	static EventData fromObjectMap(final Map<String, Object> objectMap) {
+		final EventData eventData = new EventData();
+
+		for (Map.Entry<String, Object> entry : objectMap.entrySet()) {
+			eventData.values.put(entry.getKey(), Variant.fromObject(entry.getValue()));
+		}
+
+		return eventData;
+	}
+
+	private Variant get(final String key) throws VariantException {
+		final Variant value = values.get(key);
+
+		if (value == null) {
+			throw new VariantException();
+		}
+
+		return value;
+	}
+}
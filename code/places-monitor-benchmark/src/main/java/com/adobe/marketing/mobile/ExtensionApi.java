@@ -0,0 +1,42 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// ExtensionApi.java
+//
+
+package com.adobe.marketing.mobile;
+
+import java.util.Map;
+
+/**
+ * JVM stub of the com.adobe.marketing.mobile.ExtensionApi type, sufficient to compile and benchmark the Places Monitor sources.
+ */
+public class ExtensionApi {
+	public <T extends ExtensionListener> boolean registerEventListener(final String eventType, final String eventSource,
+			final Class<T> extensionListenerClass, final ExtensionErrorCallback<ExtensionError> errorCallback) {
+		return true;
+	}
+
+	public Map<String, Object> getSharedEventState(final String stateName, final Event event,
+			final ExtensionErrorCallback<ExtensionError> errorCallback) {
+		return null;
+	}
+
+	public boolean setSharedEventState(final Map<String, Object> state, final Event event,
+									   final ExtensionErrorCallback<ExtensionError> errorCallback) {
+		return true;
+	}
+
+	public boolean clearSharedEventStates(final ExtensionErrorCallback<ExtensionError> errorCallback) {
+		return true;
+	}
+}
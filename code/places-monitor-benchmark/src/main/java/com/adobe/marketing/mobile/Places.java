@@ -0,0 +1,40 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// Places.java
+//
+
+package com.adobe.marketing.mobile;
+
+import android.location.Location;
+
+import com.google.android.gms.location.Geofence;
+
+import java.util.List;
+
+/**
+ * JVM stub of the com.adobe.marketing.mobile.Places type, sufficient to compile and benchmark the Places Monitor sources.
+ */
+public class Places {
+	public static void clear() {
+	}
+
+	public static void processGeofence(final Geofence geofence, final int transitionType) {
+	}
+
+	public static void setAuthorizationStatus(final PlacesAuthorizationStatus status) {
+	}
+
+	public static void getNearbyPointsOfInterest(final Location location, final int limit,
+			final AdobeCallback<List<PlacesPOI>> successCallback, final AdobeCallback<PlacesRequestError> errorCallback) {
+	}
+}
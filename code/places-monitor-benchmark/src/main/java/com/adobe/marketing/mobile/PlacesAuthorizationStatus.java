@@ -0,0 +1,27 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesAuthorizationStatus.java
+//
+
+package com.adobe.marketing.mobile;
+
+/**
+ * JVM stub of the com.adobe.marketing.mobile.PlacesAuthorizationStatus type, sufficient to compile and benchmark the Places Monitor sources.
+ */
+public enum PlacesAuthorizationStatus {
+	ALWAYS,
+	WHEN_IN_USE,
+	DENIED,
+	RESTRICTED,
+	UNKNOWN
+}
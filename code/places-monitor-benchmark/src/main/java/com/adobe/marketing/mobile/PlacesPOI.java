@@ -0,0 +1,85 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// PlacesPOI.java
+//
+
+package com.adobe.marketing.mobile;
+
+import java.util.Map;
+
+/**
+ * JVM stub of the com.adobe.marketing.mobile.PlacesPOI type, sufficient to compile and benchmark the Places Monitor sources.
+ */
+public class PlacesPOI {
+	private final String identifier;
+	private final String name;
+	private final double latitude;
+	private final double longitude;
+	private final int radius;
+	private final String library;
+	private final int weight;
+	private final Map<String, String> metadata;
+	private boolean userIsWithin;
+
+	public PlacesPOI(final String identifier, final String name, final double latitude, final double longitude,
+					 final int radius, final String library, final int weight, final Map<String, String> metadata) {
+		this.identifier = identifier;
+		this.name = name;
+		this.latitude = latitude;
+		this.longitude = longitude;
+		this.radius = radius;
+		this.library = library;
+		this.weight = weight;
+		this.metadata = metadata;
+	}
+
+	public String getIdentifier() {
+		return identifier;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public double getLatitude() {
+		return latitude;
+	}
+
+	public double getLongitude() {
+		return longitude;
+	}
+
+	public int getRadius() {
+		return radius;
+	}
+
+	public String getLibrary() {
+		return library;
+	}
+
+	public int getWeight() {
+		return weight;
+	}
+
+	public Map<String, String> getMetadata() {
+		return metadata;
+	}
+
+	public boolean containsUser() {
+		return userIsWithin;
+	}
+
+	public void setUserIsWithin(final boolean userIsWithin) {
+		this.userIsWithin = userIsWithin;
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// Variant.java
+//
+
+package com.adobe.marketing.mobile;
+
+import java.util.List;
+
+/**
+ * JVM stub of the com.adobe.marketing.mobile.Variant type, sufficient to compile and benchmark the Places Monitor sources.
+ */
+public class Variant {
+	private final Object value;
+
+	private Variant(final Object value) {
+		this.value = value;
+	}
+
+	public static Variant fromString(final String value) {
+		return new Variant(value);
+	}
+
+	public static Variant fromBoolean(final boolean value) {
+		return new Variant(value);
+	}
+
+	public static Variant fromInteger(final int value) {
+		return new Variant(value);
+	}
+
+	public static Variant fromLong(final long value) {
+		return new Variant(value);
+	}
+
+	public static Variant fromDouble(final double value) {
+		return new Variant(value);
+	}
+
+	public static Variant fromStringList(final List<String> value) {
+		return new Variant(value);
+	}
+
+	static Variant fromObject(final Object value) {
+		return new Variant(value);
+	}
+
+	public String getString() throws VariantException {
+		if (value instanceof String) {
+			return (String) value;
+		}
+
+		throw new VariantException();
+	}
+
+	public boolean getBoolean() throws VariantException {
+		if (value instanceof Boolean) {
+			return (Boolean) value;
+		}
+
+		throw new VariantException();
+	}
+
+	public int getInteger() throws VariantException {
+		if (value instanceof Integer) {
+			return (Integer) value;
+		}
+
+		throw new VariantException();
+	}
+
+	public long getLong() throws VariantException {
+		if (value instanceof Integer || value instanceof Long) {
+			return ((Number) value).longValue();
+		}
+
+		throw new VariantException();
+	}
+
+	public double getDouble() throws VariantException {
+		if (value instanceof Number) {
+			return ((Number) value).doubleValue();
+		}
+
+		throw new VariantException();
+	}
+
+	@SuppressWarnings("unchecked")
+	public List<String> getStringList() throws VariantException {
+		if (value instanceof List) {
+			return (List<String>) value;
+		}
+
+		throw new VariantException();
+	}
+
+	Object getObject() {
+		return value;
+	}
+}
@@ -0,0 +1,28 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// ResolvableApiException.java
+//
+
+package com.google.android.gms.common.api;
+
+import android.app.Activity;
+import android.content.IntentSender;
+
+/**
+ * JVM stub of the com.google.android.gms.common.api.ResolvableApiException type, sufficient to compile and benchmark the Places Monitor sources.
+ */
+public class ResolvableApiException extends ApiException {
+	public void startResolutionForResult(final Activity activity, final int requestCode)
+	throws IntentSender.SendIntentException {
+	}
+}
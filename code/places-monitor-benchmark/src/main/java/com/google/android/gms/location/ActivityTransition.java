@@ -0,0 +1,59 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// ActivityTransition.java
+//
+
+package com.google.android.gms.location;
+
+/**
+ * JVM stub of the com.google.android.gms.location.ActivityTransition type, sufficient to compile and benchmark the Places Monitor sources.
+ */
+public class ActivityTransition {
+	public static final int ACTIVITY_TRANSITION_ENTER = 0;
+	public static final int ACTIVITY_TRANSITION_EXIT = 1;
+
+	private final int activityType;
+	private final int transitionType;
+
+	private ActivityTransition(final int activityType, final int transitionType) {
+		this.activityType = activityType;
+		this.transitionType = transitionType;
+	}
+
+	public int getActivityType() {
+		return activityType;
+	}
+
+	public int getTransitionType() {
+		return transitionType;
+	}
+
+	public static class Builder {
+		private int activityType;
+		private int transitionType;
+
+		public Builder setActivityType(final int activityType) {
+			this.activityType = activityType;
+			return this;
+		}
+
+		public Builder setActivityTransition(final int transitionType) {
+			this.transitionType = transitionType;
+			return this;
+		}
+
+		public ActivityTransition build() {
+			return new ActivityTransition(activityType, transitionType);
+		}
+	}
+}
@@ -0,0 +1,29 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// ActivityTransitionRequest.java
+//
+
+package com.google.android.gms.location;
+
+import java.util.List;
+
+/**
+ * JVM stub of the com.google.android.gms.location.ActivityTransitionRequest type, sufficient to compile and benchmark the Places Monitor sources.
+ */
+public class ActivityTransitionRequest {
+	private final List<ActivityTransition> transitions;
+
+	public ActivityTransitionRequest(final List<ActivityTransition> transitions) {
+		this.transitions = transitions;
+	}
+}
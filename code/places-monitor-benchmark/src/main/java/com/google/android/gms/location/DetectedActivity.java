@@ -0,0 +1,30 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// DetectedActivity.java
+//
+
+package com.google.android.gms.location;
+
+/**
+ * JVM stub of the com.google.android.gms.location.DetectedActivity type, sufficient to compile and benchmark the Places Monitor sources.
+ */
+public class DetectedActivity {
+	public static final int IN_VEHICLE = 0;
+	public static final int ON_BICYCLE = 1;
+	public static final int ON_FOOT = 2;
+	public static final int STILL = 3;
+	public static final int UNKNOWN = 4;
+	public static final int TILTING = 5;
+	public static final int WALKING = 7;
+	public static final int RUNNING = 8;
+}
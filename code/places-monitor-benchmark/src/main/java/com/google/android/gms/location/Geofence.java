@@ -0,0 +1,63 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// Geofence.java
+//
+
+package com.google.android.gms.location;
+
+/**
+ * JVM stub of the com.google.android.gms.location.Geofence type, sufficient to compile and benchmark the Places Monitor sources.
+ */
+public interface Geofence {
+	int GEOFENCE_TRANSITION_ENTER = 1;
+	int GEOFENCE_TRANSITION_EXIT = 2;
+	int GEOFENCE_TRANSITION_DWELL = 4;
+	long NEVER_EXPIRE = -1L;
+
+	String getRequestId();
+
+	final class Builder {
+		private String requestId;
+
+		public Builder setRequestId(final String requestId) {
+			this.requestId = requestId;
+			return this;
+		}
+
+		public Builder setTransitionTypes(final int transitionTypes) {
+			return this;
+		}
+
+		public Builder setCircularRegion(final double latitude, final double longitude, final float radius) {
+			return this;
+		}
+
+		public Builder setExpirationDuration(final long durationMillis) {
+			return this;
+		}
+
+		public Builder setLoiteringDelay(final int loiteringDelayMs) {
+			return this;
+		}
+
+		public Geofence build() {
+			final String id = requestId;
+			return new Geofence() {
+				@Override
+				public String getRequestId() {
+					return id;
+				}
+			};
+		}
+	}
+}
@@ -0,0 +1,45 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// GeofencingRequest.java
+//
+
+package com.google.android.gms.location;
+
+import java.util.List;
+
+/**
+ * JVM stub of the com.google.android.gms.location.GeofencingRequest type, sufficient to compile and benchmark the Places Monitor sources.
+ */
+public class GeofencingRequest {
+	public static final int INITIAL_TRIGGER_ENTER = 1;
+	public static final int INITIAL_TRIGGER_EXIT = 2;
+	public static final int INITIAL_TRIGGER_DWELL = 4;
+
+	public static final class Builder {
+		public Builder setInitialTrigger(final int initialTrigger) {
+			return this;
+		}
+
+		public Builder addGeofences(final List<Geofence> geofences) {
+			return this;
+		}
+
+		public Builder addGeofence(final Geofence geofence) {
+			return this;
+		}
+
+		public GeofencingRequest build() {
+			return new GeofencingRequest();
+		}
+	}
+}
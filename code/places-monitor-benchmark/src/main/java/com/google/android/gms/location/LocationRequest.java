@@ -0,0 +1,61 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// LocationRequest.java
+//
+
+package com.google.android.gms.location;
+
+/**
+ * JVM stub of the com.google.android.gms.location.LocationRequest type, sufficient to compile and benchmark the Places Monitor sources.
+ */
+public final class LocationRequest {
+	public static final int PRIORITY_HIGH_ACCURACY = 100;
+	public static final int PRIORITY_BALANCED_POWER_ACCURACY = 102;
+	public static final int PRIORITY_LOW_POWER = 104;
+	public static final int PRIORITY_NO_POWER = 105;
+
+	private int priority = PRIORITY_BALANCED_POWER_ACCURACY;
+
+	public static LocationRequest create() {
+		return new LocationRequest();
+	}
+
+	public LocationRequest setInterval(final long millis) {
+		return this;
+	}
+
+	public LocationRequest setFastestInterval(final long millis) {
+		return this;
+	}
+
+	public LocationRequest setSmallestDisplacement(final float smallestDisplacementMeters) {
+		return this;
+	}
+
+	public LocationRequest setPriority(final int priority) {
+		this.priority = priority;
+		return this;
+	}
+
+	public int getPriority() {
+		return priority;
+	}
+
+	public LocationRequest setMaxWaitTime(final long millis) {
+		return this;
+	}
+
+	public LocationRequest setNumUpdates(final int numUpdates) {
+		return this;
+	}
+}
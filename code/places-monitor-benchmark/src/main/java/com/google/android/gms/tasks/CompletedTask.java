@@ -0,0 +1,47 @@
+/*
+ Copyright 2020 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+*/
+
+//
+// CompletedTask.java
+//
+
+package com.google.android.gms.tasks;
+
+/**
+ * A {@link Task} that has already completed successfully with the given result.
+ * <p>
+ * Not part of the Play Services API, this task is returned by the stubbed Play Services clients so that the success
+ * listeners of the benchmarked code run synchronously.
+ */
+public final class CompletedTask<TResult> extends Task<TResult> {
+	private final TResult result;
+
+	public CompletedTask(final TResult result) {
+		this.result = result;
+	}
+
+	@Override
+	public Task<TResult> addOnSuccessListener(final OnSuccessListener<? super TResult> listener) {
+		listener.onSuccess(result);
+		return this;
+	}
+
+	@Override
+	public Task<TResult> addOnFailureListener(final OnFailureListener listener) {
+		return this;
+	}
+
+	@Override
+	public Task<TResult> addOnCompleteListener(final OnCompleteListener<TResult> listener) {
+		listener.onComplete(this);
+		return this;
+	}
+}